@@ -0,0 +1,116 @@
+package com.ionic.sdk.ks.bench;
+
+import com.ionic.sdk.cipher.aes.AesCipher;
+import com.ionic.sdk.cipher.aes.AesCtrCipher;
+import com.ionic.sdk.cipher.aes.AesGcmCipher;
+import com.ionic.sdk.core.rng.CryptoRng;
+import com.ionic.sdk.error.IonicException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link AesGcmCipher} and {@link AesCtrCipher} primitives, at various input sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AesCipherBenchmark {
+
+    /**
+     * The size of the plaintext to be encrypted.
+     */
+    @Param({"64", "4096", "1048576"})
+    public int size;
+
+    /**
+     * The AES-GCM cipher under test.
+     */
+    private AesGcmCipher cipherGcm;
+
+    /**
+     * The AES-CTR cipher under test.
+     */
+    private AesCtrCipher cipherCtr;
+
+    /**
+     * The plaintext to be encrypted.
+     */
+    private byte[] plainText;
+
+    /**
+     * The AES-GCM ciphertext to be decrypted.
+     */
+    private byte[] cipherTextGcm;
+
+    /**
+     * The AES-CTR ciphertext to be decrypted.
+     */
+    private byte[] cipherTextCtr;
+
+    /**
+     * Initialize the ciphers and data.
+     *
+     * @throws IonicException on cipher initialization failures
+     */
+    @Setup
+    public void setUp() throws IonicException {
+        final CryptoRng cryptoRng = new CryptoRng();
+        final byte[] key = cryptoRng.rand(new byte[AesCipher.KEY_BYTES]);
+        cipherGcm = new AesGcmCipher(key);
+        cipherGcm.setAuthData(cryptoRng.rand(new byte[AesCipher.SIZE_IV]));
+        cipherCtr = new AesCtrCipher(key);
+        plainText = cryptoRng.rand(new byte[size]);
+        cipherTextGcm = cipherGcm.encrypt(plainText);
+        cipherTextCtr = cipherCtr.encrypt(plainText);
+    }
+
+    /**
+     * @return the AES-GCM ciphertext
+     * @throws IonicException on cryptography failures
+     */
+    @Benchmark
+    public byte[] encryptGcm() throws IonicException {
+        return cipherGcm.encrypt(plainText);
+    }
+
+    /**
+     * @return the AES-GCM plaintext
+     * @throws IonicException on cryptography failures
+     */
+    @Benchmark
+    public byte[] decryptGcm() throws IonicException {
+        return cipherGcm.decrypt(cipherTextGcm);
+    }
+
+    /**
+     * @return the AES-CTR ciphertext
+     * @throws IonicException on cryptography failures
+     */
+    @Benchmark
+    public byte[] encryptCtr() throws IonicException {
+        return cipherCtr.encrypt(plainText);
+    }
+
+    /**
+     * @return the AES-CTR plaintext
+     * @throws IonicException on cryptography failures
+     */
+    @Benchmark
+    public byte[] decryptCtr() throws IonicException {
+        return cipherCtr.decrypt(cipherTextCtr);
+    }
+}
@@ -0,0 +1,95 @@
+package com.ionic.sdk.ks.bench;
+
+import com.ionic.sdk.agent.key.KeyAttributesMap;
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysRequest;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysResponse;
+import com.ionic.sdk.device.profile.DeviceProfile;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.key.KeyServicesMinimal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link KeyServices} implementation which retains the fixed attributes of the keys created by a wrapped
+ * implementation (and the mutable attributes of the keys updated), and attaches them to the keys subsequently
+ * fetched.  The test suite key services implementations do not persist key attributes, which the batch ciphers use
+ * to store their IVs (and authentication tags).
+ */
+final class AttributeKeyServices extends KeyServicesMinimal {
+
+    /**
+     * The wrapped {@link KeyServices} implementation.
+     */
+    private final KeyServices keyServices;
+
+    /**
+     * The fixed attributes of the created keys, indexed by key id.
+     */
+    private final Map<String, KeyAttributesMap> attributes;
+
+    /**
+     * The mutable attributes of the updated keys, indexed by key id.
+     */
+    private final Map<String, KeyAttributesMap> mutableAttributes;
+
+    /**
+     * Constructor.
+     *
+     * @param keyServices the wrapped {@link KeyServices} implementation
+     */
+    AttributeKeyServices(final KeyServices keyServices) {
+        this.keyServices = keyServices;
+        this.attributes = new HashMap<String, KeyAttributesMap>();
+        this.mutableAttributes = new HashMap<String, KeyAttributesMap>();
+    }
+
+    @Override
+    public DeviceProfile getActiveProfile() {
+        return keyServices.getActiveProfile();
+    }
+
+    @Override
+    public CreateKeysResponse createKeys(final CreateKeysRequest request) throws IonicException {
+        final CreateKeysResponse response = keyServices.createKeys(request);
+        for (CreateKeysResponse.Key key : response.getKeys()) {
+            final CreateKeysRequest.Key requestKey = request.getKey(key.getRefId());
+            if (requestKey != null) {
+                key.setAttributesMap(requestKey.getAttributesMap());
+                attributes.put(key.getId(), requestKey.getAttributesMap());
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public GetKeysResponse getKeys(final GetKeysRequest request) throws IonicException {
+        final GetKeysResponse response = keyServices.getKeys(request);
+        for (GetKeysResponse.Key key : response.getKeys()) {
+            final KeyAttributesMap keyAttributes = attributes.get(key.getId());
+            if (keyAttributes != null) {
+                key.setAttributesMap(keyAttributes);
+            }
+            final KeyAttributesMap keyMutableAttributes = mutableAttributes.get(key.getId());
+            if (keyMutableAttributes != null) {
+                key.setMutableAttributesMap(keyMutableAttributes);
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public UpdateKeysResponse updateKeys(final UpdateKeysRequest request) throws IonicException {
+        final UpdateKeysResponse response = new UpdateKeysResponse();
+        for (UpdateKeysRequest.Key key : request.getKeys()) {
+            mutableAttributes.put(key.getId(), key.getMutableAttributesMap());
+            response.add(new UpdateKeysResponse.Key(key, getActiveProfile().getDeviceId(), ""));
+        }
+        return response;
+    }
+}
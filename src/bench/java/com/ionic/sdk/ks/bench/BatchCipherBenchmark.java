@@ -0,0 +1,115 @@
+package com.ionic.sdk.ks.bench;
+
+import com.ionic.sdk.agent.cipher.batch.BatchCipherAbstract;
+import com.ionic.sdk.agent.cipher.batch.BatchCipherV1;
+import com.ionic.sdk.agent.cipher.batch.BatchCipherV2;
+import com.ionic.sdk.agent.cipher.batch.data.CipherTextItem;
+import com.ionic.sdk.agent.cipher.batch.data.PlainTextItem;
+import com.ionic.sdk.agent.cipher.data.DecryptAttributes;
+import com.ionic.sdk.agent.cipher.data.EncryptAttributes;
+import com.ionic.sdk.core.rng.CryptoRng;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.ks.test.IonicTestEnvironment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the batch cipher implementations, including the key request made by each operation.  Key services
+ * are provided by the test suite environment, and are wrapped to retain the key attributes used by the batch ciphers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BatchCipherBenchmark {
+
+    /**
+     * The batch cipher implementation under test.
+     */
+    @Param({"v1", "v2"})
+    public String version;
+
+    /**
+     * The count of items in each batch.
+     */
+    @Param({"1", "100"})
+    public int count;
+
+    /**
+     * The batch cipher under test.
+     */
+    private BatchCipherAbstract batchCipher;
+
+    /**
+     * The plaintext items to be encrypted.
+     */
+    private List<PlainTextItem> plainTextItems;
+
+    /**
+     * The key used to encrypt the ciphertext items.
+     */
+    private String keyId;
+
+    /**
+     * The ciphertext items to be decrypted.
+     */
+    private List<CipherTextItem> cipherTextItems;
+
+    /**
+     * Initialize the cipher and data.
+     *
+     * @throws IonicException on cipher initialization failures
+     */
+    @Setup
+    public void setUp() throws IonicException {
+        final KeyServices keyServices = new AttributeKeyServices(IonicTestEnvironment.getInstance().getKeyServices());
+        batchCipher = "v1".equals(version) ? new BatchCipherV1(keyServices) : new BatchCipherV2(keyServices);
+        final CryptoRng cryptoRng = new CryptoRng();
+        plainTextItems = new ArrayList<PlainTextItem>();
+        for (int i = 0; (i < count); ++i) {
+            plainTextItems.add(new PlainTextItem(cryptoRng.rand(new byte[SIZE_ITEM])));
+        }
+        final EncryptAttributes encryptAttributes = new EncryptAttributes();
+        cipherTextItems = batchCipher.encrypt(encryptAttributes, plainTextItems);
+        keyId = encryptAttributes.getKeyId();
+    }
+
+    /**
+     * @return the batch ciphertext
+     * @throws IonicException on key request or cryptography failures
+     */
+    @Benchmark
+    public List<CipherTextItem> encrypt() throws IonicException {
+        return batchCipher.encrypt(new EncryptAttributes(), plainTextItems);
+    }
+
+    /**
+     * @return the batch plaintext
+     * @throws IonicException on key request or cryptography failures
+     */
+    @Benchmark
+    public List<PlainTextItem> decrypt() throws IonicException {
+        return batchCipher.decrypt(keyId, new DecryptAttributes(), cipherTextItems);
+    }
+
+    /**
+     * The size of each plaintext item.
+     */
+    private static final int SIZE_ITEM = 64;
+}
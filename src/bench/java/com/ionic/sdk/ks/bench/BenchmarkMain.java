@@ -0,0 +1,48 @@
+package com.ionic.sdk.ks.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the SDK benchmark suite.  Runs the JMH benchmarks in this package, and writes the results as JSON,
+ * so that results from different releases may be compared.
+ * <p>
+ * Run using the Maven profile "benchmark", which writes the results to "target/jmh-result.json" by default:
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec [-Djmh.result=path]
+ * </pre>
+ */
+public final class BenchmarkMain {
+
+    /**
+     * Constructor.
+     * http://checkstyle.sourceforge.net/config_design.html#FinalClass
+     */
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Run the benchmarks.
+     *
+     * @param args optional: the path of the JSON result file; a regular expression selecting the benchmarks to run
+     * @throws RunnerException on failure of a benchmark
+     */
+    public static void main(final String[] args) throws RunnerException {
+        final String result = (args.length > 0) ? args[0] : RESULT_DEFAULT;
+        final String include = (args.length > 1) ? args[1] : BenchmarkMain.class.getPackage().getName() + ".*";
+        final Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * The default location of the JSON result file.
+     */
+    private static final String RESULT_DEFAULT = "target/jmh-result.json";
+}
@@ -0,0 +1,132 @@
+package com.ionic.sdk.ks.bench;
+
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherAbstract;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherAuto;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV1;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV2;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV3;
+import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoDecryptAttributes;
+import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoEncryptAttributes;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.rng.CryptoRng;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.ks.service.TestKeyServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.CharBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the chunk cipher implementations, including the key request made by each operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ChunkCipherBenchmark {
+
+    /**
+     * The chunk cipher implementation under test.
+     */
+    @Param({"v1", "v2", "v3", "auto"})
+    public String version;
+
+    /**
+     * The size of the plaintext to be encrypted.
+     */
+    @Param({"64", "4096"})
+    public int size;
+
+    /**
+     * The chunk cipher under test.
+     */
+    private ChunkCipherAbstract chunkCipher;
+
+    /**
+     * The plaintext to be encrypted.
+     */
+    private String plainText;
+
+    /**
+     * The ciphertext to be decrypted.
+     */
+    private String cipherText;
+
+    /**
+     * The reusable destination of the chunk ciphertext, for the allocation-light APIs.
+     */
+    private CharBuffer charBuffer;
+
+    /**
+     * Initialize the cipher and data.
+     *
+     * @throws IonicException on cipher initialization failures
+     */
+    @Setup
+    public void setUp() throws IonicException {
+        final KeyServices keyServices = new TestKeyServices("Java");
+        if ("v1".equals(version)) {
+            chunkCipher = new ChunkCipherV1(keyServices);
+        } else if ("v2".equals(version)) {
+            chunkCipher = new ChunkCipherV2(keyServices);
+        } else if ("v3".equals(version)) {
+            chunkCipher = new ChunkCipherV3(keyServices);
+        } else {
+            chunkCipher = new ChunkCipherAuto(keyServices);
+        }
+        plainText = Transcoder.hex().encode(new CryptoRng().rand(new byte[size / 2]));
+        cipherText = chunkCipher.encrypt(plainText);
+        charBuffer = CharBuffer.allocate(cipherText.length() * 2);
+    }
+
+    /**
+     * @return the chunk ciphertext
+     * @throws IonicException on key request or cryptography failures
+     */
+    @Benchmark
+    public String encrypt() throws IonicException {
+        return chunkCipher.encrypt(plainText);
+    }
+
+    /**
+     * @return the chunk plaintext
+     * @throws IonicException on key request or cryptography failures
+     */
+    @Benchmark
+    public String decrypt() throws IonicException {
+        return chunkCipher.decrypt(cipherText);
+    }
+
+    /**
+     * @return the chunk ciphertext, written into a reused buffer
+     * @throws IonicException on key request or cryptography failures
+     */
+    @Benchmark
+    public CharBuffer encryptToCharBuffer() throws IonicException {
+        charBuffer.clear();
+        chunkCipher.encrypt(Transcoder.utf8().decode(plainText), new ChunkCryptoEncryptAttributes(), charBuffer);
+        return charBuffer;
+    }
+
+    /**
+     * @return the chunk plaintext, parsed in place from a character sequence
+     * @throws IonicException on key request or cryptography failures
+     */
+    @Benchmark
+    public byte[] decryptFromCharSequence() throws IonicException {
+        return chunkCipher.decryptToBytes(cipherText, 0, cipherText.length(), new ChunkCryptoDecryptAttributes());
+    }
+}
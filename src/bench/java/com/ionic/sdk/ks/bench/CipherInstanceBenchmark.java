@@ -0,0 +1,126 @@
+package com.ionic.sdk.ks.bench;
+
+import com.ionic.sdk.agent.AgentSdk;
+import com.ionic.sdk.cipher.aes.AesCipher;
+import com.ionic.sdk.cipher.aes.AesGcmCipher;
+import com.ionic.sdk.core.rng.CryptoRng;
+import com.ionic.sdk.crypto.CryptoUtils;
+import com.ionic.sdk.crypto.jce.CryptoAbstract;
+import com.ionic.sdk.error.IonicException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-operation overhead of obtaining JCE objects: a provider lookup for each operation, versus reuse of the instance
+ * cached for the calling thread by {@link CryptoAbstract}.  The "small" benchmarks measure the pattern used by the
+ * key services protocol, which constructs a new {@link AesGcmCipher} for each small cryptography operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CipherInstanceBenchmark {
+
+    /**
+     * The JCE object provider.
+     */
+    private CryptoAbstract crypto;
+
+    /**
+     * A cryptography key.
+     */
+    private byte[] key;
+
+    /**
+     * A small plaintext, typical of the key services protocol.
+     */
+    private byte[] plainText;
+
+    /**
+     * Initialize the data.
+     *
+     * @throws IonicException on failure to initialize the SDK
+     */
+    @Setup
+    public void setUp() throws IonicException {
+        crypto = AgentSdk.getCrypto();
+        final CryptoRng cryptoRng = new CryptoRng();
+        key = cryptoRng.rand(new byte[AesCipher.KEY_BYTES]);
+        plainText = cryptoRng.rand(new byte[SIZE_SMALL]);
+    }
+
+    /**
+     * @return a new AES-GCM cipher instance, from the provider framework
+     * @throws IonicException on failure to instantiate the cipher
+     */
+    @Benchmark
+    public Cipher lookupCipherAesGcm() throws IonicException {
+        return crypto.getCipherAesGcm();
+    }
+
+    /**
+     * @return the AES-GCM cipher instance cached for the calling thread
+     * @throws IonicException on failure to instantiate the cipher
+     */
+    @Benchmark
+    public Cipher threadCipherAesGcm() throws IonicException {
+        return crypto.getThreadCipherAesGcm();
+    }
+
+    /**
+     * @return a new HMAC instance, from the provider framework
+     * @throws IonicException on failure to instantiate the MAC
+     */
+    @Benchmark
+    public Mac lookupHmacSha256() throws IonicException {
+        return crypto.getHmacSha256();
+    }
+
+    /**
+     * @return the HMAC instance cached for the calling thread
+     * @throws IonicException on failure to instantiate the MAC
+     */
+    @Benchmark
+    public Mac threadHmacSha256() throws IonicException {
+        return crypto.getThreadHmacSha256();
+    }
+
+    /**
+     * @return the ciphertext of a small plaintext, using a newly constructed cipher
+     * @throws IonicException on cryptography failures
+     */
+    @Benchmark
+    public byte[] smallEncryptAesGcm() throws IonicException {
+        final AesGcmCipher cipher = new AesGcmCipher(key);
+        cipher.setAuthData(key);
+        return cipher.encrypt(plainText);
+    }
+
+    /**
+     * @return the MAC of a small plaintext
+     * @throws IonicException on cryptography failures
+     */
+    @Benchmark
+    public byte[] smallHmacSha256() throws IonicException {
+        return CryptoUtils.hmacSHA256(plainText, key);
+    }
+
+    /**
+     * The size of the small plaintext.
+     */
+    private static final int SIZE_SMALL = 64;
+}
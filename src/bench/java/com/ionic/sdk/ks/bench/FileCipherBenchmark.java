@@ -0,0 +1,130 @@
+package com.ionic.sdk.ks.bench;
+
+import com.ionic.sdk.agent.cipher.file.CsvFileCipher;
+import com.ionic.sdk.agent.cipher.file.FileCipherAbstract;
+import com.ionic.sdk.agent.cipher.file.GenericFileCipher;
+import com.ionic.sdk.agent.cipher.file.OpenXmlFileCipher;
+import com.ionic.sdk.agent.cipher.file.PdfFileCipher;
+import com.ionic.sdk.agent.cipher.file.data.FileCipher;
+import com.ionic.sdk.agent.cipher.file.data.FileCryptoEncryptAttributes;
+import com.ionic.sdk.core.io.Stream;
+import com.ionic.sdk.core.res.Resource;
+import com.ionic.sdk.core.rng.CryptoRng;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.ks.test.IonicTestEnvironment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the file cipher implementations, including the key request(s) made by each operation.  Key
+ * services are provided by the test suite environment.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FileCipherBenchmark {
+
+    /**
+     * The file cipher implementation (and version, for the generic file cipher) under test.
+     */
+    @Param({"generic-1.1", "generic-1.2", "generic-1.3", "csv", "pdf", "openxml"})
+    public String format;
+
+    /**
+     * The size of the plaintext to be encrypted (ignored for the OpenXML format, which uses a sample document).
+     */
+    @Param({"65536", "4194304"})
+    public int size;
+
+    /**
+     * The file cipher under test.
+     */
+    private FileCipherAbstract fileCipher;
+
+    /**
+     * The file cipher version to use on encryption (or empty, for the default).
+     */
+    private String version;
+
+    /**
+     * The plaintext to be encrypted.
+     */
+    private byte[] plainText;
+
+    /**
+     * The ciphertext to be decrypted.
+     */
+    private byte[] cipherText;
+
+    /**
+     * Initialize the cipher and data.
+     *
+     * @throws IonicException on cipher initialization failures
+     * @throws IOException    on failure reading the sample document
+     */
+    @Setup
+    public void setUp() throws IonicException, IOException {
+        final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+        plainText = new CryptoRng().rand(new byte[size]);
+        version = "";
+        if ("generic-1.1".equals(format)) {
+            fileCipher = new GenericFileCipher(keyServices);
+            version = FileCipher.Generic.V11.LABEL;
+        } else if ("generic-1.2".equals(format)) {
+            fileCipher = new GenericFileCipher(keyServices);
+            version = FileCipher.Generic.V12.LABEL;
+        } else if ("generic-1.3".equals(format)) {
+            fileCipher = new GenericFileCipher(keyServices);
+            version = FileCipher.Generic.V13.LABEL;
+        } else if ("csv".equals(format)) {
+            fileCipher = new CsvFileCipher(keyServices);
+        } else if ("pdf".equals(format)) {
+            fileCipher = new PdfFileCipher(keyServices);
+        } else {
+            fileCipher = new OpenXmlFileCipher(keyServices);
+            plainText = Stream.read(Resource.resolve(RESOURCE_DOCX));
+        }
+        cipherText = encrypt();
+    }
+
+    /**
+     * @return the file ciphertext
+     * @throws IonicException on key request or cryptography failures
+     */
+    @Benchmark
+    public byte[] encrypt() throws IonicException {
+        final FileCryptoEncryptAttributes encryptAttributes = new FileCryptoEncryptAttributes(version);
+        return fileCipher.encrypt(plainText, encryptAttributes);
+    }
+
+    /**
+     * @return the file plaintext
+     * @throws IonicException on key request or cryptography failures
+     */
+    @Benchmark
+    public byte[] decrypt() throws IonicException {
+        return fileCipher.decrypt(cipherText);
+    }
+
+    /**
+     * A sample OpenXML document, from the test suite resources.
+     */
+    private static final String RESOURCE_DOCX =
+            "com/ionic/sdk/agent/cipher/file/openxml/docx_v1_1_plaintext_good_portions.docx";
+}
@@ -0,0 +1,102 @@
+package com.ionic.sdk.ks.bench;
+
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.ks.service.TestKeyServices;
+import com.ionic.sdk.ks.test.IonicTestEnvironment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the key services create keys and get keys transactions.
+ * <p>
+ * The "environment" key services are those configured for the test suite (see {@link IonicTestEnvironment}).  When
+ * a device profile persistor is configured, this is an {@link com.ionic.sdk.agent.Agent}, and the benchmark measures
+ * the full request / response transaction (request serialization, envelope cryptography, HTTP round trip, response
+ * parsing) against the server named by the profile, which should be a local stand-in server.  Otherwise, the
+ * loopback agent is used.  The "test" key services measure the cost of the in-memory implementation, as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class KeyServicesBenchmark {
+
+    /**
+     * The key services implementation under test.
+     */
+    @Param({"environment", "test"})
+    public String keyServicesType;
+
+    /**
+     * The count of keys in each request.
+     */
+    @Param({"1", "10"})
+    public int count;
+
+    /**
+     * The key services under test.
+     */
+    private KeyServices keyServices;
+
+    /**
+     * The keys to be fetched.
+     */
+    private String[] keyIds;
+
+    /**
+     * Initialize the key services, and create the keys to be fetched.
+     *
+     * @throws IonicException on key services initialization failures
+     */
+    @Setup
+    public void setUp() throws IonicException {
+        keyServices = "test".equals(keyServicesType)
+                ? new TestKeyServices("Java") : IonicTestEnvironment.getInstance().getKeyServices();
+        final CreateKeysResponse createKeysResponse = createKeys();
+        keyIds = new String[createKeysResponse.getKeys().size()];
+        for (int i = 0; (i < keyIds.length); ++i) {
+            keyIds[i] = createKeysResponse.getKeys().get(i).getId();
+        }
+    }
+
+    /**
+     * @return the response to the create keys request
+     * @throws IonicException on failure of the request
+     */
+    @Benchmark
+    public CreateKeysResponse createKeys() throws IonicException {
+        return keyServices.createKeys(new CreateKeysRequest(new CreateKeysRequest.Key(REF_ID, count)));
+    }
+
+    /**
+     * @return the response to the get keys request
+     * @throws IonicException on failure of the request
+     */
+    @Benchmark
+    public GetKeysResponse getKeys() throws IonicException {
+        return keyServices.getKeys(new GetKeysRequest(keyIds));
+    }
+
+    /**
+     * The reference id of the keys in each create keys request.
+     */
+    private static final String REF_ID = "ref";
+}
@@ -0,0 +1,175 @@
+package com.ionic.sdk.ks.bench;
+
+import com.ionic.sdk.cipher.aes.AesCipher;
+import com.ionic.sdk.core.rng.CryptoRng;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.keyvault.KeyVaultKey;
+import com.ionic.sdk.keyvault.KeyVaultTimeUtil;
+import com.ionic.sdk.keyvault.impl.KeyVaultPassword;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of key retrieval from a {@link com.ionic.sdk.keyvault.KeyVaultBase} shared by increasing numbers of
+ * threads, with and without a concurrent thread which updates and syncs the vault.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class KeyVaultBenchmark {
+
+    /**
+     * The number of keys in the vault.
+     */
+    @Param({"1000"})
+    public int count;
+
+    /**
+     * The key vault under test, shared by all benchmark threads.
+     */
+    private KeyVaultPassword vault;
+
+    /**
+     * The ids of the keys in the vault.
+     */
+    private String[] keyIds;
+
+    /**
+     * The issue time of the most recent key update, which must increase for an update to be accepted.
+     */
+    private AtomicLong issuedServerTimeUtcSeconds;
+
+    /**
+     * Populate the key vault, and write it to its file.
+     *
+     * @throws IOException    on failure to create the vault file
+     * @throws IonicException on key vault failures
+     */
+    @Setup
+    public void setUp() throws IOException, IonicException {
+        final File file = File.createTempFile(getClass().getSimpleName(), ".vault");
+        vault = new KeyVaultPassword(file.getPath());
+        vault.setPassword(getClass().getName());
+        vault.cleanVaultStore();
+        final CryptoRng cryptoRng = new CryptoRng();
+        final long now = KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds();
+        issuedServerTimeUtcSeconds = new AtomicLong(now);
+        keyIds = new String[count];
+        for (int i = 0; (i < count); ++i) {
+            keyIds[i] = String.format("ABcd%08d", i);
+            vault.setKey(new KeyVaultKey(keyIds[i], cryptoRng.rand(new byte[AesCipher.KEY_BYTES]),
+                    now, now + LIFETIME_SECS));
+        }
+        vault.sync();
+    }
+
+    /**
+     * Remove the vault file.
+     */
+    @TearDown
+    public void tearDown() {
+        vault.cleanVaultStore();
+    }
+
+    /**
+     * @return a randomly selected key from the vault
+     */
+    private KeyVaultKey randomKey() {
+        return vault.getKey(keyIds[ThreadLocalRandom.current().nextInt(keyIds.length)]);
+    }
+
+    /**
+     * @return a randomly selected key from the vault, retrieved by one thread
+     */
+    @Benchmark
+    @Threads(1)
+    public KeyVaultKey getKeyThreads1() {
+        return randomKey();
+    }
+
+    /**
+     * @return a randomly selected key from the vault, retrieved by each of two threads
+     */
+    @Benchmark
+    @Threads(2)
+    public KeyVaultKey getKeyThreads2() {
+        return randomKey();
+    }
+
+    /**
+     * @return a randomly selected key from the vault, retrieved by each of four threads
+     */
+    @Benchmark
+    @Threads(4)
+    public KeyVaultKey getKeyThreads4() {
+        return randomKey();
+    }
+
+    /**
+     * @return a randomly selected key from the vault, retrieved by each of eight threads
+     */
+    @Benchmark
+    @Threads(8)
+    public KeyVaultKey getKeyThreads8() {
+        return randomKey();
+    }
+
+    /**
+     * @return a randomly selected key from the vault, retrieved while another thread updates and syncs the vault
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(READERS)
+    public KeyVaultKey getKeyWhileSync() {
+        return randomKey();
+    }
+
+    /**
+     * Update a randomly selected key in the vault, and write the vault to its file.
+     *
+     * @return the result of the key update
+     * @throws IonicException on key vault failures
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public int setKeyAndSync() throws IonicException {
+        final KeyVaultKey key = randomKey();
+        key.setIssuedServerTimeUtcSeconds(issuedServerTimeUtcSeconds.incrementAndGet());
+        final int rc = vault.setKey(key);
+        vault.sync();
+        return rc;
+    }
+
+    /**
+     * The lifetime of the keys in the vault, in seconds.
+     */
+    private static final long LIFETIME_SECS = 3600L;
+
+    /**
+     * The number of threads retrieving keys while the vault is updated.
+     */
+    private static final int READERS = 4;
+}
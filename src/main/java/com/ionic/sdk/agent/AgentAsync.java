@@ -0,0 +1,110 @@
+package com.ionic.sdk.agent;
+
+import com.ionic.sdk.agent.request.getresources.GetResourcesRequest;
+import com.ionic.sdk.agent.request.getresources.GetResourcesResponse;
+import com.ionic.sdk.agent.request.logmessage.LogMessagesRequest;
+import com.ionic.sdk.agent.request.logmessage.LogMessagesResponse;
+import com.ionic.sdk.core.annotation.Experimental;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.key.KeyServicesAsync;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Non-blocking variant of the service operations of {@link Agent}.  In addition to the key operations of
+ * {@link com.ionic.sdk.key.AsyncKeyServices}, the Agent-specific Get Resources and Log Messages operations are
+ * available.
+ * <p>
+ * Each operation is performed by the wrapped {@link Agent} on a bounded pool of worker threads, so the request
+ * recovery semantics of {@link Agent} (retry on server rejection of the fingerprint hash or of the request timestamp)
+ * apply unchanged.
+ */
+@Experimental
+public class AgentAsync extends KeyServicesAsync {
+
+    /**
+     * The wrapped {@link Agent}.
+     */
+    private final Agent agent;
+
+    /**
+     * Constructor.  The wrapped operations are performed on {@link #DEFAULT_THREADS} daemon worker threads.
+     *
+     * @param agent the wrapped {@link Agent}
+     */
+    public AgentAsync(final Agent agent) {
+        this(agent, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param agent    the wrapped {@link Agent}
+     * @param executor the executor on which the wrapped operations are performed (if null, an executor of
+     *                 {@link #DEFAULT_THREADS} daemon worker threads is created, and owned by this object)
+     */
+    public AgentAsync(final Agent agent, final ExecutorService executor) {
+        super(agent, executor);
+        this.agent = agent;
+    }
+
+    /**
+     * Gets one or more generic resource(s) from Machina, without blocking the calling thread.
+     *
+     * @param request the generic resource batch request input object
+     * @return a future which completes with the generic resource response output data object
+     * @see Agent#getResources(GetResourcesRequest)
+     */
+    public final Future<GetResourcesResponse> getResourcesAsync(final GetResourcesRequest request) {
+        return getResourcesAsync(request, null);
+    }
+
+    /**
+     * Gets one or more generic resource(s) from Machina, without blocking the calling thread.
+     *
+     * @param request  the generic resource batch request input object
+     * @param callback the callback to be notified on completion of the operation (may be null)
+     * @return a future which completes with the generic resource response output data object
+     * @see Agent#getResources(GetResourcesRequest)
+     */
+    public final Future<GetResourcesResponse> getResourcesAsync(
+            final GetResourcesRequest request, final Callback<GetResourcesResponse> callback) {
+        return submit(new Callable<GetResourcesResponse>() {
+            @Override
+            public GetResourcesResponse call() throws IonicException {
+                return agent.getResources(request);
+            }
+        }, callback);
+    }
+
+    /**
+     * Logs one or more messages to Machina, without blocking the calling thread.
+     *
+     * @param request the message request input data object
+     * @return a future which completes with the response output data object
+     * @see Agent#logMessages(LogMessagesRequest)
+     */
+    public final Future<LogMessagesResponse> logMessagesAsync(final LogMessagesRequest request) {
+        return logMessagesAsync(request, null);
+    }
+
+    /**
+     * Logs one or more messages to Machina, without blocking the calling thread.
+     *
+     * @param request  the message request input data object
+     * @param callback the callback to be notified on completion of the operation (may be null)
+     * @return a future which completes with the response output data object
+     * @see Agent#logMessages(LogMessagesRequest)
+     */
+    public final Future<LogMessagesResponse> logMessagesAsync(
+            final LogMessagesRequest request, final Callback<LogMessagesResponse> callback) {
+        return submit(new Callable<LogMessagesResponse>() {
+            @Override
+            public LogMessagesResponse call() throws IonicException {
+                return agent.logMessages(request);
+            }
+        }, callback);
+    }
+}
@@ -17,10 +17,11 @@ import com.ionic.sdk.error.SdkData;
 import com.ionic.sdk.error.SdkError;
 import com.ionic.sdk.httpclient.HttpHeaders;
 import com.ionic.sdk.json.JsonIO;
-import com.ionic.sdk.json.JsonSource;
+import com.ionic.sdk.json.JsonStream;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 import java.net.URL;
 import java.security.GeneralSecurityException;
 import java.util.Properties;
@@ -182,26 +183,40 @@ public final class VbeProtocol implements ServiceProtocol {
      * @throws IonicException on failure to transform the service response payload
      */
     private byte[] transformResponsePayloadInternal(final byte[] payloadIn, final String cidQ) throws IonicException {
-        final JsonObject jsonSecure = JsonIO.readObject(payloadIn, Level.WARNING);
-        final String cid = JsonSource.getString(jsonSecure, IDC.Payload.CID);
-        final String envelope = JsonSource.getString(jsonSecure, IDC.Payload.ENVELOPE);
+        // the envelope is the bulk of the payload; pick out the members of interest without building a json object
+        String cid = null;
+        String envelope = null;
+        try (JsonParser parser = JsonStream.createParser(payloadIn)) {
+            SdkData.checkTrue(JsonStream.next(parser) == JsonParser.Event.START_OBJECT, SdkError.ISAGENT_PARSEFAILED);
+            JsonParser.Event event = JsonStream.next(parser);
+            while (event != JsonParser.Event.END_OBJECT) {
+                final String name = parser.getString();
+                if (IDC.Payload.CID.equals(name)) {
+                    cid = JsonStream.readString(parser);
+                } else if (IDC.Payload.ENVELOPE.equals(name)) {
+                    envelope = JsonStream.readString(parser);
+                } else {
+                    JsonStream.skip(parser, JsonStream.next(parser));
+                }
+                event = JsonStream.next(parser);
+            }
+        } catch (IonicException e) {
+            logger.warning(Transcoder.utf8().encode(payloadIn));
+            throw e;
+        }
         try {
             AgentTransactionUtil.checkNotNull(cid, IDC.Payload.CID, cid);
             AgentTransactionUtil.checkNotNull(envelope, IDC.Payload.ENVELOPE, envelope);
             AgentTransactionUtil.checkEqual(cidQ, cidQ, cid);
         } catch (IonicException e) {
             throw new IonicException(e.getReturnCode(), e.getMessage(), new IonicServerException(
-                    SdkError.ISAGENT_REQUESTFAILED, JsonIO.write(jsonSecure, false)));
+                    SdkError.ISAGENT_REQUESTFAILED, Transcoder.utf8().encode(payloadIn)));
         }
         final AesGcmCipher cipher = new AesGcmCipher();
         cipher.setKey(deviceProfile.getAesCdIdcProfileKey());
         cipher.setAuthData(Transcoder.utf8().decode(cid));
-        final String payloadOut = cipher.decryptBase64ToString(envelope);
-        // plaintext json; IDC http entity (for debugging)
-        //if (logger.isLoggable(Level.FINEST)) {
-        //    logger.finest(payloadOut);
-        //}
-        return Transcoder.utf8().decode(payloadOut);
+        // plaintext json; IDC http entity (UTF-8 bytes, decrypted directly without an intermediate string)
+        return cipher.decryptBase64(envelope);
     }
 
     @Override
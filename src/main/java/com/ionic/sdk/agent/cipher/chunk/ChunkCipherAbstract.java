@@ -2,20 +2,30 @@ package com.ionic.sdk.agent.cipher.chunk;
 
 import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoChunkInfo;
 import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoDecryptAttributes;
+import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoDecryptResults;
 import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoEncryptAttributes;
+import com.ionic.sdk.agent.data.MetadataMap;
 import com.ionic.sdk.agent.key.AgentKey;
 import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
 import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
 import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
 import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.cipher.CipherAbstract;
+import com.ionic.sdk.cipher.aes.AesCipher;
+import com.ionic.sdk.core.codec.Base64Chars;
 import com.ionic.sdk.core.codec.Transcoder;
 import com.ionic.sdk.core.value.Value;
+import com.ionic.sdk.crypto.CryptoUtils;
+import com.ionic.sdk.crypto.jce.CryptoAbstract;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.error.SdkError;
 import com.ionic.sdk.key.KeyServices;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Ionic Machina Tools chunk crypto abstract implementation.  Subclasses of ChunkCipherAbstract implement the
@@ -57,6 +67,42 @@ public abstract class ChunkCipherAbstract {
      */
     final String encryptInternal(
             final byte[] plainText, final ChunkCryptoEncryptAttributes encryptAttributes) throws IonicException {
+        final CreateKeysResponse.Key createKey = createKey(plainText, encryptAttributes);
+        // perform crypto operation, and format output
+        return format(createKey.getId(), encryptInternalRaw(createKey, plainText, encryptAttributes));
+    }
+
+    /**
+     * Encrypt some bytes, using Ionic infrastructure to abstract away the key management and cryptography.
+     * <p>
+     * The Ionic encoded encrypted representation of the input is appended directly to the output (for example, a
+     * {@link StringBuilder}, or a {@link java.nio.CharBuffer} with sufficient remaining capacity), without the
+     * intermediate strings of {@link #encrypt(byte[], ChunkCryptoEncryptAttributes)}.  If the operation fails, the
+     * content appended to the output (if any) is undefined.
+     *
+     * @param plainText         some bytes to be encrypted
+     * @param encryptAttributes the attributes to pass along to the key created by the operation
+     * @param out               the destination of the Ionic encoded encrypted representation of the input
+     * @throws IonicException on cryptography errors, or on failure to append to the output
+     */
+    public final void encrypt(final byte[] plainText, final ChunkCryptoEncryptAttributes encryptAttributes,
+                              final Appendable out) throws IonicException {
+        final ChunkCipherAbstract chunkCipher = getEncryptCipher();
+        final CreateKeysResponse.Key createKey = chunkCipher.createKey(plainText, encryptAttributes);
+        chunkCipher.format(createKey.getId(), chunkCipher.encryptInternalRaw(createKey, plainText, encryptAttributes),
+                out);
+    }
+
+    /**
+     * Create the key to be used to encrypt some bytes.
+     *
+     * @param plainText         some bytes to be encrypted
+     * @param encryptAttributes the attributes to pass along to the key created by the operation
+     * @return the key to be used in the encryption operation
+     * @throws IonicException on invalid input, or on failure of the key request
+     */
+    private CreateKeysResponse.Key createKey(
+            final byte[] plainText, final ChunkCryptoEncryptAttributes encryptAttributes) throws IonicException {
         if (Value.isEmpty(plainText)) {
             throw new IonicException(SdkError.ISCHUNKCRYPTO_BAD_INPUT);
         }
@@ -84,16 +130,133 @@ public abstract class ChunkCipherAbstract {
         createKey.setAttributesMap(encryptAttributes.getKeyAttributes());
         createKey.setMutableAttributesMap(encryptAttributes.getMutableKeyAttributes());
         encryptAttributes.setKeyResponse(createKey);
-        final String keyId = createKey.getId();
-        // perform crypto operation
-        final String cipherText = normalize(encryptInternal(createKey, plainText, encryptAttributes));
-        // format output
-        final StringBuilder buffer = new StringBuilder();
-        buffer.append(getDelimiterKeyTagStart()).append(keyId)
-                .append(getDelimiterCiphertextStart()).append(cipherText).append(getDelimiterCiphertextEnd());
+        return createKey;
+    }
+
+    /**
+     * Assemble the Ionic encoded representation of an encrypted chunk.
+     *
+     * @param keyId      the Ionic key id of the key used to encrypt the chunk
+     * @param cipherText the ciphertext
+     * @return the Ionic encoded encrypted representation of the chunk
+     * @throws IonicException on failure to assemble the representation
+     */
+    final String format(final String keyId, final byte[] cipherText) throws IonicException {
+        final StringBuilder buffer = new StringBuilder(getDelimiterKeyTagStart().length() + keyId.length()
+                + getDelimiterCiphertextStart().length() + Base64Chars.getEncodedLength(cipherText.length)
+                + getDelimiterCiphertextEnd().length());
+        format(keyId, cipherText, buffer);
         return buffer.toString();
     }
 
+    /**
+     * Append the Ionic encoded representation of an encrypted chunk to the output.  ChunkCipher strips base64
+     * padding ('=') from the ciphertext embedded in a formatted ChunkCipher string.
+     *
+     * @param keyId      the Ionic key id of the key used to encrypt the chunk
+     * @param cipherText the ciphertext
+     * @param out        the destination of the representation
+     * @throws IonicException on failure to append to the output
+     */
+    private void format(final String keyId, final byte[] cipherText, final Appendable out) throws IonicException {
+        try {
+            out.append(getDelimiterKeyTagStart()).append(keyId).append(getDelimiterCiphertextStart());
+            Base64Chars.encode(cipherText, out);
+            out.append(getDelimiterCiphertextEnd());
+        } catch (IOException e) {
+            throw new IonicException(SdkError.ISCHUNKCRYPTO_STREAM_WRITE, e);
+        } catch (BufferOverflowException e) {
+            throw new IonicException(SdkError.ISCHUNKCRYPTO_STREAM_WRITE, e);
+        }
+    }
+
+    /**
+     * Encrypt many byte arrays, using Ionic infrastructure to abstract away the key management and cryptography.
+     * <p>
+     * Each input is encrypted using its own key.  The keys are created using one key request per batch of up to
+     * 1000 inputs (rather than one request per input), and the inputs are then encrypted in parallel.  The output
+     * is identical in format to that of {@link #encrypt(byte[], ChunkCryptoEncryptAttributes)}.
+     *
+     * @param plainTexts        some byte arrays to be encrypted
+     * @param encryptAttributes the attributes to pass along to the keys created by the operation
+     * @return the Ionic encoded encrypted representations of the inputs, in input order
+     * @throws IonicException on cryptography errors
+     */
+    public final List<String> encrypt(final List<byte[]> plainTexts,
+                                      final ChunkCryptoEncryptAttributes encryptAttributes) throws IonicException {
+        return encrypt(plainTexts, encryptAttributes, ChunkCipherBulk.getDefaultExecutor());
+    }
+
+    /**
+     * Encrypt many byte arrays, using Ionic infrastructure to abstract away the key management and cryptography.
+     * <p>
+     * Each input is encrypted using its own key.  The keys are created using one key request per batch of up to
+     * 1000 inputs (rather than one request per input), and the inputs are then encrypted using the specified
+     * executor.  The output is identical in format to that of
+     * {@link #encrypt(byte[], ChunkCryptoEncryptAttributes)}.
+     *
+     * @param plainTexts        some byte arrays to be encrypted
+     * @param encryptAttributes the attributes to pass along to the keys created by the operation
+     * @param executor          the executor on which to perform the cryptography operations
+     * @return the Ionic encoded encrypted representations of the inputs, in input order
+     * @throws IonicException on cryptography errors
+     */
+    public final List<String> encrypt(final List<byte[]> plainTexts,
+                                      final ChunkCryptoEncryptAttributes encryptAttributes,
+                                      final ExecutorService executor) throws IonicException {
+        final ChunkCipherBulk chunkCipherBulk = new ChunkCipherBulk(agent, getDecryptCiphers());
+        final List<String> cipherTexts = chunkCipherBulk.encrypt(this, plainTexts, encryptAttributes, executor);
+        encryptAttributes.setCipherId(getId());
+        return cipherTexts;
+    }
+
+    /**
+     * Deterministically encrypt many byte arrays, using Ionic infrastructure to abstract away the key management and
+     * cryptography.
+     * <p>
+     * A single key is created for the batch, and each input is encrypted using an IV derived from the input (the
+     * "ionic-iv-algorithm" metadata is set to "HmacSHA256" on a copy of the attributes metadata).  Equal inputs
+     * therefore produce equal outputs, which allows an encrypted column to be searched for a value.  One cipher
+     * instance, and one output buffer, are used for the whole batch.  The output is identical in format to that of
+     * {@link #encrypt(byte[], ChunkCryptoEncryptAttributes)}.
+     *
+     * @param plainTexts        some byte arrays to be encrypted
+     * @param encryptAttributes the attributes to pass along to the key created by the operation
+     * @return the Ionic encoded encrypted representations of the inputs, in input order
+     * @throws IonicException on cryptography errors, or if any input is empty
+     */
+    public final List<String> encryptDeterministic(
+            final List<byte[]> plainTexts, final ChunkCryptoEncryptAttributes encryptAttributes) throws IonicException {
+        final List<String> cipherTexts = new ArrayList<String>(plainTexts.size());
+        if (plainTexts.isEmpty()) {
+            return cipherTexts;
+        }
+        for (byte[] plainText : plainTexts) {
+            if (Value.isEmpty(plainText)) {
+                throw new IonicException(SdkError.ISCHUNKCRYPTO_BAD_INPUT);
+            }
+        }
+        final ChunkCipherAbstract chunkCipher = getEncryptCipher();
+        final CreateKeysResponse.Key createKey = chunkCipher.createKey(plainTexts.get(0), encryptAttributes);
+        // the IV algorithm is applied to a copy of the metadata, so that the caller's attributes are left unchanged
+        final MetadataMap metadataCipher = new MetadataMap();
+        metadataCipher.putAll(encryptAttributes.getMetadata());
+        metadataCipher.set(AesCipher.IV_ALGORITHM, CryptoAbstract.HMAC_ALGORITHM);
+        final ChunkCryptoEncryptAttributes attributesCipher = new ChunkCryptoEncryptAttributes(encryptAttributes);
+        attributesCipher.setMetadata(metadataCipher);
+        final CipherAbstract cipher = chunkCipher.createEncryptCipher(createKey, attributesCipher);
+        final StringBuilder buffer = new StringBuilder();
+        for (byte[] plainText : plainTexts) {
+            final byte[] cipherText = (cipher == null)
+                    ? chunkCipher.encryptInternalRaw(createKey, plainText, attributesCipher)
+                    : cipher.encrypt(plainText);
+            buffer.setLength(0);
+            chunkCipher.format(createKey.getId(), cipherText, buffer);
+            cipherTexts.add(buffer.toString());
+        }
+        return cipherTexts;
+    }
+
     /**
      * Decrypt some text, using Ionic infrastructure to abstract away the key management and cryptography.
      *
@@ -104,22 +267,74 @@ public abstract class ChunkCipherAbstract {
      */
     final byte[] decryptInternal(
             final String cipherText, final ChunkCryptoDecryptAttributes decryptAttributes) throws IonicException {
+        return decryptInternal(cipherText, 0, cipherText.length(), decryptAttributes);
+    }
+
+    /**
+     * Decrypt a range of some text, using Ionic infrastructure to abstract away the key management and cryptography.
+     * <p>
+     * The Ionic encoded encrypted representation is parsed in place (for example, from a {@link StringBuilder}, or
+     * from a {@link java.nio.CharBuffer}), without the intermediate strings of
+     * {@link #decryptToBytes(String, ChunkCryptoDecryptAttributes)}.
+     *
+     * @param cipherText        the text containing the representation to be decrypted
+     * @param start             the index of the first character of the representation
+     * @param end               the index after the last character of the representation
+     * @param decryptAttributes the attributes to pass along from the key fetched by the operation
+     * @return the plainText representation of the input
+     * @throws IonicException on cryptography errors
+     */
+    public final byte[] decryptToBytes(final CharSequence cipherText, final int start, final int end,
+                                       final ChunkCryptoDecryptAttributes decryptAttributes) throws IonicException {
+        if ((start < 0) || (end > cipherText.length()) || (start > end)) {
+            throw new IonicException(SdkError.ISCHUNKCRYPTO_BAD_INPUT);
+        }
+        for (final ChunkCipherAbstract chunkCipher : getDecryptCiphers()) {
+            if ((chunkCipher == this) || chunkCipher.isChunk(cipherText, start, end)) {
+                return chunkCipher.decryptInternal(cipherText, start, end, decryptAttributes);
+            }
+        }
+        // no cipher found that understands this data
+        final int errorCode = SdkError.ISAGENT_INVALIDVALUE;
+        throw new IonicException(errorCode, new IonicException(errorCode, cipherText.subSequence(start, end)
+                .toString()));
+    }
+
+    /**
+     * Decrypt a range of some text, using Ionic infrastructure to abstract away the key management and cryptography.
+     *
+     * @param cipherText        the text containing the representation to be decrypted
+     * @param start             the index of the first character of the representation
+     * @param end               the index after the last character of the representation
+     * @param decryptAttributes the attributes to pass along from the key fetched by the operation
+     * @return the plainText representation of the input
+     * @throws IonicException on cryptography errors
+     */
+    private byte[] decryptInternal(final CharSequence cipherText, final int start, final int end,
+                                   final ChunkCryptoDecryptAttributes decryptAttributes) throws IonicException {
         final String delimiterKeyTagStart = getDelimiterKeyTagStart();
         final String delimiterCiphertextStart = getDelimiterCiphertextStart();
         final String delimiterCiphertextEnd = getDelimiterCiphertextEnd();
-        final int keyTagDelimStart = cipherText.indexOf(delimiterKeyTagStart);
+        final int keyTagDelimStart = indexOf(cipherText, delimiterKeyTagStart, start, end);
         final int keyTagDelimEnd = keyTagDelimStart + delimiterKeyTagStart.length();
-        final int cipherTextDelimStart = cipherText.indexOf(delimiterCiphertextStart, keyTagDelimEnd);
+        final int cipherTextDelimStart = (keyTagDelimStart < 0)
+                ? -1 : indexOf(cipherText, delimiterCiphertextStart, keyTagDelimEnd, end);
         final int cipherTextStart = cipherTextDelimStart + delimiterCiphertextStart.length();
-        final int cipherTextEnd = cipherText.indexOf(delimiterCiphertextEnd, cipherTextStart);
-        final int cipherTextDelimEnd = cipherTextEnd + delimiterCiphertextEnd.length();
-        if (keyTagDelimStart >= 0 && cipherTextDelimStart > 0 && cipherTextDelimEnd > 0) {
-            final String keyId = cipherText.substring(keyTagDelimEnd, cipherTextDelimStart);
-            final String cipherTextBase64 = denormalize(cipherText.substring(cipherTextStart, cipherTextEnd));
-            return decryptInternal(keyId, cipherTextBase64, decryptAttributes);
+        final int cipherTextEnd = (cipherTextDelimStart < 0)
+                ? -1 : indexOf(cipherText, delimiterCiphertextEnd, cipherTextStart, end);
+        if (cipherTextEnd >= 0) {
+            final String keyId = cipherText.subSequence(keyTagDelimEnd, cipherTextDelimStart).toString();
+            final byte[] cipherTextBytes;
+            try {
+                cipherTextBytes = Base64Chars.decode(cipherText, cipherTextStart, cipherTextEnd);
+            } catch (IllegalArgumentException e) {
+                throw new IonicException(SdkError.ISCRYPTO_BAD_INPUT, e);
+            }
+            return decryptInternal(keyId, cipherTextBytes, decryptAttributes);
         } else {
             final int errorCode = SdkError.ISAGENT_INVALIDVALUE;
-            throw new IonicException(errorCode, new IonicException(errorCode, cipherText));
+            throw new IonicException(errorCode, new IonicException(errorCode, cipherText.subSequence(start, end)
+                    .toString()));
         }
     }
 
@@ -127,12 +342,12 @@ public abstract class ChunkCipherAbstract {
      * Decrypt the input cipherText, using the key associated with the input Ionic keyId.
      *
      * @param keyIdQ            the Ionic keyId associated with the crypto key to be used to decrypt
-     * @param cipherTextBase64  some text (previously encrypted with an instance of this agent) to be decrypted
+     * @param cipherText        some bytes (previously encrypted with an instance of this agent) to be decrypted
      * @param decryptAttributes the attributes to pass along from the key fetched by the operation
      * @return the plainText representation of the input
      * @throws IonicException on cryptography errors
      */
-    private byte[] decryptInternal(final String keyIdQ, final String cipherTextBase64,
+    private byte[] decryptInternal(final String keyIdQ, final byte[] cipherText,
                                    final ChunkCryptoDecryptAttributes decryptAttributes) throws IonicException {
         decryptAttributes.validateInput();
         // create request
@@ -149,7 +364,7 @@ public abstract class ChunkCipherAbstract {
         final List<GetKeysResponse.Key> getKeys = getKeysResponse.getKeys();
         if (getKeys.isEmpty()) {
             final int errorCode = SdkError.ISAGENT_KEY_DENIED;
-            throw new IonicException(errorCode, new IonicException(errorCode, cipherTextBase64));
+            throw new IonicException(errorCode, new IonicException(errorCode, keyIdQ));
         }
         // capture response key
         final GetKeysResponse.Key getKey = getKeys.iterator().next();
@@ -157,9 +372,99 @@ public abstract class ChunkCipherAbstract {
         final String keyId = getKey.getId();
         if (!keyIdQ.equals(keyId)) {
             final int errorCode = SdkError.ISAGENT_BADRESPONSE;
-            throw new IonicException(errorCode, new IonicException(errorCode, cipherTextBase64));
+            throw new IonicException(errorCode, new IonicException(errorCode, keyIdQ));
+        }
+        return decryptInternalRaw(getKey, cipherText);
+    }
+
+    /**
+     * Decrypt many texts, using Ionic infrastructure to abstract away the key management and cryptography.
+     * <p>
+     * The keys needed to decrypt the inputs are fetched using as few key requests as possible, and the inputs are
+     * then decrypted in parallel.  An input which cannot be decrypted does not cause the operation to fail; its
+     * plaintext is null, and the failure is described in {@link ChunkCryptoDecryptResults#getErrors()}.
+     *
+     * @param cipherTexts some texts (previously encrypted with an instance of this agent) to be decrypted
+     * @return the plainText representations of the inputs, in input order
+     * @throws IonicException on cryptography errors
+     */
+    public final ChunkCryptoDecryptResults<String> decrypt(final List<String> cipherTexts) throws IonicException {
+        return decrypt(cipherTexts, new ChunkCryptoDecryptAttributes());
+    }
+
+    /**
+     * Decrypt many texts, using Ionic infrastructure to abstract away the key management and cryptography.
+     * <p>
+     * The keys needed to decrypt the inputs are fetched using as few key requests as possible, and the inputs are
+     * then decrypted in parallel.  An input which cannot be decrypted does not cause the operation to fail; its
+     * plaintext is null, and the failure is described in {@link ChunkCryptoDecryptResults#getErrors()}.
+     *
+     * @param cipherTexts       some texts (previously encrypted with an instance of this agent) to be decrypted
+     * @param decryptAttributes the attributes to pass along to the key requests made by the operation
+     * @return the plainText representations of the inputs, in input order
+     * @throws IonicException on cryptography errors
+     */
+    public final ChunkCryptoDecryptResults<String> decrypt(
+            final List<String> cipherTexts, final ChunkCryptoDecryptAttributes decryptAttributes)
+            throws IonicException {
+        final ChunkCryptoDecryptResults<byte[]> results = decryptToBytes(cipherTexts, decryptAttributes);
+        final List<String> plainTexts = new ArrayList<String>(results.size());
+        for (final byte[] plainText : results.getPlainTexts()) {
+            plainTexts.add((plainText == null) ? null : Transcoder.utf8().encode(plainText));
         }
-        return decryptInternal(getKey, cipherTextBase64);
+        return new ChunkCryptoDecryptResults<String>(plainTexts, results.getErrors());
+    }
+
+    /**
+     * Decrypt many texts, using Ionic infrastructure to abstract away the key management and cryptography.
+     * <p>
+     * The keys needed to decrypt the inputs are fetched using as few key requests as possible, and the inputs are
+     * then decrypted in parallel.  An input which cannot be decrypted does not cause the operation to fail; its
+     * plaintext is null, and the failure is described in {@link ChunkCryptoDecryptResults#getErrors()}.
+     *
+     * @param cipherTexts some texts (previously encrypted with an instance of this agent) to be decrypted
+     * @return the plainText representations of the inputs, in input order
+     * @throws IonicException on cryptography errors
+     */
+    public final ChunkCryptoDecryptResults<byte[]> decryptToBytes(
+            final List<String> cipherTexts) throws IonicException {
+        return decryptToBytes(cipherTexts, new ChunkCryptoDecryptAttributes());
+    }
+
+    /**
+     * Decrypt many texts, using Ionic infrastructure to abstract away the key management and cryptography.
+     * <p>
+     * The keys needed to decrypt the inputs are fetched using as few key requests as possible, and the inputs are
+     * then decrypted in parallel.  An input which cannot be decrypted does not cause the operation to fail; its
+     * plaintext is null, and the failure is described in {@link ChunkCryptoDecryptResults#getErrors()}.
+     *
+     * @param cipherTexts       some texts (previously encrypted with an instance of this agent) to be decrypted
+     * @param decryptAttributes the attributes to pass along to the key requests made by the operation
+     * @return the plainText representations of the inputs, in input order
+     * @throws IonicException on cryptography errors
+     */
+    public final ChunkCryptoDecryptResults<byte[]> decryptToBytes(
+            final List<String> cipherTexts, final ChunkCryptoDecryptAttributes decryptAttributes)
+            throws IonicException {
+        final ChunkCipherBulk chunkCipherBulk = new ChunkCipherBulk(agent, getDecryptCiphers());
+        final ChunkCryptoDecryptResults<byte[]> results = chunkCipherBulk.decrypt(
+                cipherTexts, decryptAttributes, ChunkCipherBulk.getDefaultExecutor());
+        decryptAttributes.setCipherId(getId());
+        return results;
+    }
+
+    /**
+     * @return the chunk cipher which is used to encrypt data given to this cipher
+     */
+    ChunkCipherAbstract getEncryptCipher() {
+        return this;
+    }
+
+    /**
+     * @return the chunk ciphers which may be used to decrypt data given to this cipher
+     */
+    ChunkCipherAbstract[] getDecryptCiphers() {
+        return new ChunkCipherAbstract[]{this};
     }
 
     /**
@@ -196,6 +501,49 @@ public abstract class ChunkCipherAbstract {
         return new ChunkCryptoChunkInfo(true, keyId, getId(), cipherTextStart, cipherTextEnd - cipherTextStart);
     }
 
+    /**
+     * Inspect a range of some text to determine whether it is formatted as a chunk of this cipher.
+     *
+     * @param data  the text containing the range
+     * @param start the index of the first character of the range
+     * @param end   the index after the last character of the range
+     * @return true if the range starts with the key tag delimiter, and ends with the ciphertext end delimiter
+     */
+    final boolean isChunk(final CharSequence data, final int start, final int end) {
+        final String delimKeyTagStart = getDelimiterKeyTagStart();
+        final String delimCiphertextStart = getDelimiterCiphertextStart();
+        final String delimCiphertextEnd = getDelimiterCiphertextEnd();
+        final int lengthDelims = delimKeyTagStart.length() + delimCiphertextStart.length()
+                + delimCiphertextEnd.length();
+        return ((end - start) >= lengthDelims)
+                && (indexOf(data, delimKeyTagStart, start, start + delimKeyTagStart.length()) == start)
+                && (indexOf(data, delimCiphertextEnd, end - delimCiphertextEnd.length(), end) >= 0)
+                && (indexOf(data, delimCiphertextStart, start + delimKeyTagStart.length(), end) >= 0);
+    }
+
+    /**
+     * Find a token within a range of some text.
+     *
+     * @param data  the text to be searched
+     * @param token the token to find
+     * @param from  the index at which to start the search
+     * @param end   the index after the last character of the range to be searched
+     * @return the index of the first occurrence of the token within the range, or -1 if it is not found
+     */
+    private static int indexOf(final CharSequence data, final String token, final int from, final int end) {
+        final int last = end - token.length();
+        for (int i = from; (i <= last); ++i) {
+            int j = 0;
+            while ((j < token.length()) && (data.charAt(i + j) == token.charAt(j))) {
+                ++j;
+            }
+            if (j == token.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * @return The text id of this cipher.
      */
@@ -352,32 +700,50 @@ public abstract class ChunkCipherAbstract {
     protected abstract byte[] decryptInternal(AgentKey key, String cipherTextBase64) throws IonicException;
 
     /**
-     * ChunkCipher strips base64 padding ('=') from ciphertext embedded in a formatted ChunkCipher string.  This
-     * function takes (padded) base64, and strips the padding for inclusion in a ChunkCipher string.
+     * Encrypt some bytes, using the specified key.
+     * <p>
+     * The default implementation decodes the output of
+     * {@link #encryptInternal(AgentKey, byte[], ChunkCryptoEncryptAttributes)}; subclasses should override this to
+     * avoid the intermediate base64 representation.
      *
-     * @param base64 input text to normalize to ChunkCipher format
-     * @return base64 text with trailing base64 padding characters removed
+     * @param key               the Ionic key associated with the ciphertext
+     * @param plainText         some data to be encrypted
+     * @param encryptAttributes the attributes to be used in the encryption operation
+     * @return the ciphertext
+     * @throws IonicException on cryptography errors
      */
-    private String normalize(final String base64) {
-        return base64.replace(Transcoder.BASE64_PAD, "");
+    protected byte[] encryptInternalRaw(final AgentKey key, final byte[] plainText,
+                                        final ChunkCryptoEncryptAttributes encryptAttributes) throws IonicException {
+        return CryptoUtils.base64ToBin(encryptInternal(key, plainText, encryptAttributes));
     }
 
     /**
-     * ChunkCipher strips base64 padding ('=') from ciphertext embedded in a formatted ChunkCipher string.  This
-     * function takes a ChunkCipher ciphertext string, and restores the base64 padding.
+     * Create the cipher used to encrypt data with the specified key, so that it may be reused across many
+     * encryptions.  The default implementation returns null, in which case each encryption is performed by
+     * {@link #encryptInternalRaw(AgentKey, byte[], ChunkCryptoEncryptAttributes)}.
      *
-     * @param cipherText input text to normalize to base64 format
-     * @return base64 text with trailing base64 padding characters added
+     * @param key               the Ionic key to be used in the encryption operations
+     * @param encryptAttributes the attributes to be used in the encryption operations
+     * @return the initialized cipher, or null if not supported by this chunk cipher
+     * @throws IonicException on cryptography errors
      */
-    private String denormalize(final String cipherText) {
-        final int base64BlockSize = 4;
-        final int lastBlockSize = cipherText.length() % base64BlockSize;
-        if (lastBlockSize == 0) {
-            return cipherText;
-        } else {
-            final char[] padding = new char[base64BlockSize - lastBlockSize];
-            Arrays.fill(padding, '=');
-            return cipherText + new String(padding);
-        }
+    protected CipherAbstract createEncryptCipher(
+            final AgentKey key, final ChunkCryptoEncryptAttributes encryptAttributes) throws IonicException {
+        return null;
+    }
+
+    /**
+     * Decrypt some bytes, using the specified key.
+     * <p>
+     * The default implementation delegates to {@link #decryptInternal(AgentKey, String)}; subclasses should override
+     * this to avoid the intermediate base64 representation.
+     *
+     * @param key        the Ionic key associated with the ciphertext
+     * @param cipherText some bytes (previously encrypted with an instance of this agent) to be decrypted
+     * @return the plainText representation of the input
+     * @throws IonicException on cryptography errors
+     */
+    protected byte[] decryptInternalRaw(final AgentKey key, final byte[] cipherText) throws IonicException {
+        return decryptInternal(key, Transcoder.base64().encode(cipherText));
     }
 }
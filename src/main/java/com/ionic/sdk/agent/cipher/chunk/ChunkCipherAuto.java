@@ -4,6 +4,7 @@ import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoChunkInfo;
 import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoDecryptAttributes;
 import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoEncryptAttributes;
 import com.ionic.sdk.agent.key.AgentKey;
+import com.ionic.sdk.cipher.CipherAbstract;
 import com.ionic.sdk.core.codec.Transcoder;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.error.SdkError;
@@ -144,6 +145,19 @@ public class ChunkCipherAuto extends ChunkCipherAbstract {
         return chunkCipherDefault.encryptInternal(key, plainText, encryptAttributes);
     }
 
+    @Override
+    protected final byte[] encryptInternalRaw(
+            final AgentKey key, final byte[] plainText, final ChunkCryptoEncryptAttributes encryptAttributes)
+            throws IonicException {
+        return chunkCipherDefault.encryptInternalRaw(key, plainText, encryptAttributes);
+    }
+
+    @Override
+    protected final CipherAbstract createEncryptCipher(
+            final AgentKey key, final ChunkCryptoEncryptAttributes encryptAttributes) throws IonicException {
+        return chunkCipherDefault.createEncryptCipher(key, encryptAttributes);
+    }
+
     /**
      * Decrypt some text, using Ionic infrastructure to abstract away the key management and cryptography.
      * <p>
@@ -263,6 +277,22 @@ public class ChunkCipherAuto extends ChunkCipherAbstract {
         throw new IonicException(errorCode, new IonicException(errorCode, cipherTextBase64));
     }
 
+    /**
+     * @return the chunk cipher which is used to encrypt data given to this cipher
+     */
+    @Override
+    final ChunkCipherAbstract getEncryptCipher() {
+        return chunkCipherDefault;
+    }
+
+    /**
+     * @return the chunk ciphers which may be used to decrypt data given to this cipher
+     */
+    @Override
+    final ChunkCipherAbstract[] getDecryptCiphers() {
+        return chunkCiphers;
+    }
+
     /**
      * Inspect the parameter data to determine the relevant Ionic chunk cipher used to encrypt it.
      *
@@ -0,0 +1,404 @@
+package com.ionic.sdk.agent.cipher.chunk;
+
+import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoChunkInfo;
+import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoDecryptAttributes;
+import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoDecryptResults;
+import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoEncryptAttributes;
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.core.codec.Base64Chars;
+import com.ionic.sdk.core.value.Value;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+import com.ionic.sdk.key.KeyServices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk encryption and decryption of many chunks of data.
+ * <p>
+ * On encrypt, the keys for all inputs are created using as few {@link CreateKeysRequest} round trips as possible.
+ * On decrypt, the key ids of all inputs are parsed up front, and the distinct keys are fetched using as few
+ * {@link GetKeysRequest} round trips as possible.  The cryptography operations are then performed in parallel.
+ * <p>
+ * On decrypt, failures affecting individual inputs (unrecognized format, key denied, cryptography failure) are
+ * recorded against those inputs, and do not fail the operation as a whole.
+ */
+final class ChunkCipherBulk {
+
+    /**
+     * The key services implementation; used to fetch the keys needed by the operation.
+     */
+    private final KeyServices keyServices;
+
+    /**
+     * The chunk ciphers which may be used to decrypt the inputs.
+     */
+    private final ChunkCipherAbstract[] chunkCiphers;
+
+    /**
+     * Constructor.
+     *
+     * @param keyServices  the key services implementation
+     * @param chunkCiphers the chunk ciphers which may be used to decrypt the inputs
+     */
+    ChunkCipherBulk(final KeyServices keyServices, final ChunkCipherAbstract... chunkCiphers) {
+        this.keyServices = keyServices;
+        this.chunkCiphers = Arrays.copyOf(chunkCiphers, chunkCiphers.length);
+    }
+
+    /**
+     * Encrypt each of the input plaintexts, using a distinct key for each.  The keys are created using one
+     * {@link CreateKeysRequest} per {@link #MAX_KEYS_PER_REQUEST} inputs.
+     *
+     * @param chunkCipher       the chunk cipher used to encrypt the inputs
+     * @param plainTexts        the plaintexts to be encrypted
+     * @param encryptAttributes the attributes to pass along to the keys created by the operation
+     * @param executor          the executor on which to perform the cryptography operations
+     * @return the Ionic encoded encrypted representations of the inputs, in input order
+     * @throws IonicException on invalid input, key creation failure, or cryptography errors
+     */
+    List<String> encrypt(final ChunkCipherAbstract chunkCipher, final List<byte[]> plainTexts,
+                         final ChunkCryptoEncryptAttributes encryptAttributes,
+                         final ExecutorService executor) throws IonicException {
+        for (final byte[] plainText : plainTexts) {
+            if (Value.isEmpty(plainText)) {
+                throw new IonicException(SdkError.ISCHUNKCRYPTO_BAD_INPUT);
+            }
+        }
+        encryptAttributes.validateInput();
+        final int size = plainTexts.size();
+        // create keys in batches
+        final List<CreateKeysResponse.Key> createKeys = new ArrayList<CreateKeysResponse.Key>(size);
+        final String refId = chunkCipher.getClass().getSimpleName();
+        for (int offset = 0; (offset < size); offset += MAX_KEYS_PER_REQUEST) {
+            final int quantity = Math.min(MAX_KEYS_PER_REQUEST, size - offset);
+            final CreateKeysRequest createKeysRequest = new CreateKeysRequest();
+            createKeysRequest.add(new CreateKeysRequest.Key(refId, quantity,
+                    encryptAttributes.getKeyAttributes(), encryptAttributes.getMutableKeyAttributes()));
+            createKeysRequest.setMetadata(encryptAttributes.getMetadata());
+            final CreateKeysResponse createKeysResponse = keyServices.createKeys(createKeysRequest);
+            if ((createKeysResponse.getServerErrorCode() != SdkError.ISAGENT_OK)
+                    && (encryptAttributes.getServerErrorResponse() == null)) {
+                encryptAttributes.setServerErrorResponse(createKeysResponse);
+            }
+            final List<CreateKeysResponse.Key> createKeysBatch = createKeysResponse.getKeys();
+            if (createKeysBatch.size() < quantity) {
+                throw new IonicException(SdkError.ISAGENT_KEY_DENIED,
+                        SdkError.getErrorString(SdkError.ISAGENT_KEY_DENIED));
+            }
+            createKeys.addAll(createKeysBatch.subList(0, quantity));
+        }
+        // perform cryptography operations
+        final String[] cipherTexts = new String[size];
+        invoke(executor, size, new RangeTask() {
+            @Override
+            void run(final int from, final int to) throws IonicException {
+                for (int i = from; (i < to); ++i) {
+                    final CreateKeysResponse.Key createKey = createKeys.get(i);
+                    cipherTexts[i] = chunkCipher.format(createKey.getId(),
+                            chunkCipher.encryptInternalRaw(createKey, plainTexts.get(i), encryptAttributes));
+                }
+            }
+        });
+        return Arrays.asList(cipherTexts);
+    }
+
+    /**
+     * Decrypt each of the input ciphertexts.
+     *
+     * @param cipherTexts       the Ionic encoded encrypted representations of the plaintexts
+     * @param decryptAttributes the attributes to pass along to the key requests (metadata), and to receive the
+     *                          server error response (if any)
+     * @param executor          the executor on which to perform the cryptography operations
+     * @return the plaintexts recovered from the inputs, along with a description of any per-input failures
+     * @throws IonicException on invalid decrypt attributes
+     */
+    ChunkCryptoDecryptResults<byte[]> decrypt(final List<String> cipherTexts,
+                                              final ChunkCryptoDecryptAttributes decryptAttributes,
+                                              final ExecutorService executor) throws IonicException {
+        decryptAttributes.validateInput();
+        final int size = cipherTexts.size();
+        final Item[] items = new Item[size];
+        // parse inputs, collecting the distinct key ids
+        final Set<String> keyIds = new LinkedHashSet<String>();
+        int index = 0;
+        for (final String cipherText : cipherTexts) {
+            final Item item = parse(index, cipherText);
+            items[index++] = item;
+            if (item.error == null) {
+                keyIds.add(item.keyId);
+            }
+        }
+        // fetch keys in batches
+        final Map<String, GetKeysResponse.Key> keys = new HashMap<String, GetKeysResponse.Key>();
+        final Map<String, GetKeysResponse.IonicError> keyErrors = new HashMap<String, GetKeysResponse.IonicError>();
+        final Iterator<String> iterator = keyIds.iterator();
+        while (iterator.hasNext()) {
+            final GetKeysRequest getKeysRequest = new GetKeysRequest();
+            getKeysRequest.setMetadata(decryptAttributes.getMetadata());
+            while (iterator.hasNext() && (getKeysRequest.getKeyIds().size() < MAX_KEYS_PER_REQUEST)) {
+                getKeysRequest.add(iterator.next());
+            }
+            fetch(getKeysRequest, decryptAttributes, keys, keyErrors);
+        }
+        // associate keys with inputs
+        for (final Item item : items) {
+            if (item.error == null) {
+                item.key = keys.get(item.keyId);
+                if (item.key == null) {
+                    final GetKeysResponse.IonicError keyError = keyErrors.get(item.keyId);
+                    item.error = (keyError == null)
+                            ? new ChunkCryptoDecryptResults.IonicError(item.index, item.keyId,
+                            SdkError.ISAGENT_KEY_DENIED, 0, null)
+                            : new ChunkCryptoDecryptResults.IonicError(item.index, item.keyId,
+                            keyError.getClientError(), keyError.getServerError(), keyError.getServerMessage());
+                }
+            }
+        }
+        // perform cryptography operations
+        invoke(executor, size, new RangeTask() {
+            @Override
+            void run(final int from, final int to) {
+                for (int i = from; (i < to); ++i) {
+                    decrypt(items[i]);
+                }
+            }
+        });
+        // assemble results
+        final List<byte[]> plainTexts = new ArrayList<byte[]>(size);
+        final List<ChunkCryptoDecryptResults.IonicError> errors =
+                new ArrayList<ChunkCryptoDecryptResults.IonicError>();
+        for (final Item item : items) {
+            plainTexts.add(item.plainText);
+            if (item.error != null) {
+                errors.add(item.error);
+            }
+        }
+        return new ChunkCryptoDecryptResults<byte[]>(plainTexts, errors);
+    }
+
+    /**
+     * Decrypt a single input, recording any failure against the input.
+     *
+     * @param item the input
+     */
+    private static void decrypt(final Item item) {
+        if (item.error == null) {
+            try {
+                item.plainText = item.chunkCipher.decryptInternalRaw(item.key, item.cipherText);
+            } catch (IonicException e) {
+                item.error = new ChunkCryptoDecryptResults.IonicError(
+                        item.index, item.keyId, e.getReturnCode(), 0, null);
+            }
+        }
+    }
+
+    /**
+     * Identify the chunk cipher and key id associated with a single input.
+     *
+     * @param index      the index of the input
+     * @param cipherText the input
+     * @return the state associated with the input
+     */
+    private Item parse(final int index, final String cipherText) {
+        final Item item = new Item(index);
+        for (final ChunkCipherAbstract chunkCipher : chunkCiphers) {
+            final ChunkCryptoChunkInfo chunkInfo = chunkCipher.getChunkInfoInternal(cipherText);
+            if (chunkInfo != null) {
+                final int payloadStart = (int) chunkInfo.getPayloadStart();
+                final int payloadEnd = payloadStart + (int) chunkInfo.getPayloadSize();
+                item.chunkCipher = chunkCipher;
+                item.keyId = chunkInfo.getKeyId();
+                try {
+                    item.cipherText = Base64Chars.decode(cipherText, payloadStart, payloadEnd);
+                } catch (IllegalArgumentException e) {
+                    item.error = new ChunkCryptoDecryptResults.IonicError(
+                            index, item.keyId, SdkError.ISCRYPTO_BAD_INPUT, 0, null);
+                }
+                return item;
+            }
+        }
+        item.error = new ChunkCryptoDecryptResults.IonicError(index, null, SdkError.ISAGENT_INVALIDVALUE, 0, null);
+        return item;
+    }
+
+    /**
+     * Fetch a batch of keys.  A failure of the request is recorded against each of the requested keys.
+     *
+     * @param getKeysRequest    the request for a batch of keys
+     * @param decryptAttributes the container for the server error response (if any)
+     * @param keys              the container for the keys received
+     * @param keyErrors         the container for the key errors received
+     */
+    private void fetch(final GetKeysRequest getKeysRequest, final ChunkCryptoDecryptAttributes decryptAttributes,
+                       final Map<String, GetKeysResponse.Key> keys,
+                       final Map<String, GetKeysResponse.IonicError> keyErrors) {
+        try {
+            final GetKeysResponse getKeysResponse = keyServices.getKeys(getKeysRequest);
+            if ((getKeysResponse.getServerErrorCode() != SdkError.ISAGENT_OK)
+                    && (decryptAttributes.getServerErrorResponse() == null)) {
+                decryptAttributes.setServerErrorResponse(getKeysResponse);
+            }
+            for (final GetKeysResponse.Key key : getKeysResponse.getKeys()) {
+                keys.put(key.getId(), key);
+            }
+            for (final GetKeysResponse.IonicError keyError : getKeysResponse.getErrors()) {
+                keyErrors.put(keyError.getKeyId(), keyError);
+            }
+        } catch (IonicException e) {
+            for (final String keyId : getKeysRequest.getKeyIds()) {
+                keyErrors.put(keyId, new GetKeysResponse.IonicError(keyId, e.getReturnCode(), 0, e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * The state associated with a single input of the operation.
+     */
+    private static final class Item {
+
+        /**
+         * The index of the input.
+         */
+        private final int index;
+
+        /**
+         * The chunk cipher which understands the input format.
+         */
+        private ChunkCipherAbstract chunkCipher;
+
+        /**
+         * The id of the key used to encrypt the input.
+         */
+        private String keyId;
+
+        /**
+         * The ciphertext embedded in the input.
+         */
+        private byte[] cipherText;
+
+        /**
+         * The key used to encrypt the input.
+         */
+        private GetKeysResponse.Key key;
+
+        /**
+         * The plaintext recovered from the input.
+         */
+        private byte[] plainText;
+
+        /**
+         * The failure associated with the input.
+         */
+        private ChunkCryptoDecryptResults.IonicError error;
+
+        /**
+         * Constructor.
+         *
+         * @param index the index of the input
+         */
+        private Item(final int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * Perform an operation on each index in [0, size), splitting the range into tasks run on the executor when it
+     * is large.
+     *
+     * @param executor  the executor on which to run the tasks
+     * @param size      the number of inputs
+     * @param rangeTask the operation to be performed
+     * @throws IonicException on failure of any of the tasks
+     */
+    private static void invoke(final ExecutorService executor, final int size,
+                               final RangeTask rangeTask) throws IonicException {
+        if (size < PARALLEL_THRESHOLD) {
+            rangeTask.run(0, size);
+            return;
+        }
+        final int rangeSize = Math.max(PARALLEL_THRESHOLD, size / (Runtime.getRuntime().availableProcessors() * 2));
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int from = 0; (from < size); from += rangeSize) {
+            final int fromRange = from;
+            final int toRange = Math.min(size, from + rangeSize);
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws IonicException {
+                    rangeTask.run(fromRange, toRange);
+                    return null;
+                }
+            });
+        }
+        try {
+            for (final Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw (cause instanceof IonicException)
+                    ? (IonicException) cause : new IonicException(SdkError.ISCHUNKCRYPTO_ERROR, cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IonicException(SdkError.ISCHUNKCRYPTO_ERROR, e);
+        }
+    }
+
+    /**
+     * An operation to be performed on a range of the inputs.
+     */
+    private abstract static class RangeTask {
+
+        /**
+         * Perform the operation on each index in the range.
+         *
+         * @param from the (inclusive) start of the range of inputs
+         * @param to   the (exclusive) end of the range of inputs
+         * @throws IonicException on failure of the operation
+         */
+        abstract void run(int from, int to) throws IonicException;
+    }
+
+    /**
+     * Lazy holder for the default thread pool used to parallelize the cryptography operations.
+     */
+    private static final class ForkJoinPoolHolder {
+
+        /**
+         * The default thread pool used to parallelize the cryptography operations.
+         */
+        private static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    /**
+     * @return the default thread pool used to parallelize the cryptography operations
+     */
+    static ExecutorService getDefaultExecutor() {
+        return ForkJoinPoolHolder.POOL;
+    }
+
+    /**
+     * The maximum number of key ids to include in a single {@link GetKeysRequest}.
+     */
+    static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    /**
+     * The number of inputs below which the cryptography operations are performed on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 64;
+}
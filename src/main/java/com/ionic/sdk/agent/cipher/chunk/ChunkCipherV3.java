@@ -6,6 +6,7 @@ import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoEncryptAttributes;
 import com.ionic.sdk.agent.key.AgentKey;
 import com.ionic.sdk.cipher.aes.AesGcmCipher;
 import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.crypto.CryptoUtils;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.key.KeyServices;
 
@@ -170,11 +171,24 @@ public class ChunkCipherV3 extends ChunkCipherAbstract {
     @Override
     protected final String encryptInternal(final AgentKey key, final byte[] plainText,
                                            final ChunkCryptoEncryptAttributes encryptAttributes) throws IonicException {
+        return Transcoder.base64().encode(encryptInternalRaw(key, plainText, encryptAttributes));
+    }
+
+    @Override
+    protected final byte[] encryptInternalRaw(
+            final AgentKey key, final byte[] plainText, final ChunkCryptoEncryptAttributes encryptAttributes)
+            throws IonicException {
+        return createEncryptCipher(key, encryptAttributes).encrypt(plainText);
+    }
+
+    @Override
+    protected final AesGcmCipher createEncryptCipher(
+            final AgentKey key, final ChunkCryptoEncryptAttributes encryptAttributes) throws IonicException {
         final AesGcmCipher cipher = new AesGcmCipher();
         cipher.setMetadata(encryptAttributes.getMetadata());
         cipher.setKey(key.getKey());
         cipher.setAuthData(Transcoder.utf8().decode(key.getId()));
-        return cipher.encryptToBase64(plainText);
+        return cipher;
     }
 
     /**
@@ -266,9 +280,22 @@ public class ChunkCipherV3 extends ChunkCipherAbstract {
      */
     @Override
     protected final byte[] decryptInternal(final AgentKey key, final String cipherTextBase64) throws IonicException {
+        return decryptInternalRaw(key, CryptoUtils.base64ToBin(cipherTextBase64));
+    }
+
+    /**
+     * Decrypt some bytes, using Ionic infrastructure to abstract away the key management and cryptography.
+     *
+     * @param key        the Ionic key associated with the ciphertext
+     * @param cipherText some bytes (previously encrypted with an instance of this agent) to be decrypted
+     * @return the plainText representation of the input
+     * @throws IonicException on cryptography errors
+     */
+    @Override
+    protected final byte[] decryptInternalRaw(final AgentKey key, final byte[] cipherText) throws IonicException {
         final AesGcmCipher cipher = new AesGcmCipher();
         cipher.setKey(key.getKey());
         cipher.setAuthData(Transcoder.utf8().decode(key.getId()));
-        return cipher.decryptBase64(cipherTextBase64);
+        return cipher.decrypt(cipherText);
     }
 }
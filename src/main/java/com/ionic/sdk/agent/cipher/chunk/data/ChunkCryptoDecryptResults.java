@@ -0,0 +1,168 @@
+package com.ionic.sdk.agent.cipher.chunk.data;
+
+import com.ionic.sdk.error.SdkError;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data class used to encapsulate the outcome of a bulk decryption of many chunks of Ionic Machina-encrypted text.
+ * <p>
+ * The plaintext for each input ciphertext is available at the same index as the input.  An input which could
+ * not be decrypted has a null plaintext, and a corresponding {@link IonicError} describing the failure.  A failure
+ * affecting one input does not prevent the decryption of the others.
+ *
+ * @param <T> the type of the plaintext values (String or byte[])
+ */
+public class ChunkCryptoDecryptResults<T> {
+
+    /**
+     * The plaintexts recovered by the operation, in the order of the input ciphertexts.
+     */
+    private final List<T> plainTexts;
+
+    /**
+     * The errors encountered by the operation, in the order of the input ciphertexts.
+     */
+    private final List<IonicError> errors;
+
+    /**
+     * Constructor.
+     *
+     * @param plainTexts the plaintexts recovered by the operation (null for inputs which failed)
+     * @param errors     the errors encountered by the operation
+     */
+    public ChunkCryptoDecryptResults(final List<T> plainTexts, final List<IonicError> errors) {
+        this.plainTexts = Collections.unmodifiableList(new ArrayList<T>(plainTexts));
+        this.errors = Collections.unmodifiableList(new ArrayList<IonicError>(errors));
+    }
+
+    /**
+     * @return the number of inputs to the operation
+     */
+    public final int size() {
+        return plainTexts.size();
+    }
+
+    /**
+     * @return the plaintexts recovered by the operation, in the order of the input ciphertexts
+     */
+    public final List<T> getPlainTexts() {
+        return plainTexts;
+    }
+
+    /**
+     * @param index the index of the input ciphertext
+     * @return the plaintext recovered from the input ciphertext, or null if the input could not be decrypted
+     */
+    public final T getPlainText(final int index) {
+        return plainTexts.get(index);
+    }
+
+    /**
+     * @return the errors encountered by the operation, in the order of the input ciphertexts
+     */
+    public final List<IonicError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return true, if any of the inputs could not be decrypted
+     */
+    public final boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    /**
+     * Represents an error encountered while decrypting a single input of a bulk decrypt operation.  The fields
+     * follow those of {@link com.ionic.sdk.agent.request.getkey.GetKeysResponse.IonicError}, adding the index of
+     * the input.
+     */
+    public static class IonicError {
+
+        /**
+         * The index of the input ciphertext.
+         */
+        private final int index;
+
+        /**
+         * A String denoting the id of the key, if it could be determined.
+         */
+        private final String keyId;
+
+        /**
+         * The client error code (SDK client side error code).
+         *
+         * @see SdkError
+         */
+        private final int clientError;
+
+        /**
+         * The service error code provided by the {@link com.ionic.sdk.key.KeyServices} implementation.
+         */
+        private final int serverError;
+
+        /**
+         * The service error message provided by the {@link com.ionic.sdk.key.KeyServices} implementation.
+         */
+        private final String serverMessage;
+
+        /**
+         * Constructor.
+         *
+         * @param index         the index of the input ciphertext
+         * @param keyId         the key tag (or null, if the input could not be parsed)
+         * @param clientError   the client error code (SDK client side error code)
+         * @param serverError   the service error code provided by the {@link com.ionic.sdk.key.KeyServices}
+         *                      implementation
+         * @param serverMessage the server error message string provided by the {@link com.ionic.sdk.key.KeyServices}
+         *                      implementation
+         */
+        public IonicError(final int index, final String keyId, final int clientError,
+                          final int serverError, final String serverMessage) {
+            this.index = index;
+            this.keyId = keyId;
+            this.clientError = clientError;
+            this.serverError = serverError;
+            this.serverMessage = serverMessage;
+        }
+
+        /**
+         * @return The index of the input ciphertext.
+         */
+        public final int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return The key tag (or null, if the input could not be parsed).
+         */
+        public final String getKeyId() {
+            return keyId;
+        }
+
+        /**
+         * @return The client error code (SDK client side error code).
+         * @see SdkError
+         */
+        public final int getClientError() {
+            return clientError;
+        }
+
+        /**
+         * @return The service error code provided by the {@link com.ionic.sdk.key.KeyServices} implementation.
+         */
+        public final int getServerError() {
+            return serverError;
+        }
+
+        /**
+         * @return The service error message string provided by the {@link com.ionic.sdk.key.KeyServices}
+         * implementation.
+         */
+        public final String getServerMessage() {
+            return serverMessage;
+        }
+    }
+}
@@ -37,6 +37,7 @@ import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Logger;
 
 /**
@@ -46,6 +47,11 @@ import java.util.logging.Logger;
  * {@link CsvFileCipher} provides APIs to perform file encryption on filesystem files, and also on in-memory
  * byte arrays.
  * <p>
+ * The body of a CSV file contains a version 1.2 {@link GenericFileCipher} payload, encoded as base64 text.  By
+ * default, the payload blocks are processed one at a time on the calling thread.  If an executor is specified using
+ * {@link #setExecutor(ExecutorService)}, the cryptography operations on the payload blocks are instead performed in
+ * parallel on the executor.  The output is in the same format in either case.
+ * <p>
  * Sample (byte[] API):
  * <pre>
  * public final void testFileCipherCsv_EncryptDecryptBytes() throws IonicException {
@@ -105,6 +111,12 @@ public final class CsvFileCipher extends FileCipherAbstract {
      */
     public static final String VERSION_LATEST = VERSION_1_0;
 
+    /**
+     * The executor on which to perform payload block cryptography operations in parallel (or null, to perform them
+     * on the calling thread).
+     */
+    private ExecutorService executor;
+
     /**
      * Constructor.
      *
@@ -124,6 +136,25 @@ public final class CsvFileCipher extends FileCipherAbstract {
         super(agent, coverPageServices);
     }
 
+    /**
+     * @return the executor on which payload block cryptography operations are performed in parallel (or null, if
+     * they are performed on the calling thread)
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Specify an executor on which to perform payload block cryptography operations in parallel.  The number of
+     * blocks held in memory at any one time is bounded by about twice the parallelism of the executor.
+     *
+     * @param executor the executor on which to perform block cryptography operations in parallel (or null, to
+     *                 perform them on the calling thread)
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
     @Deprecated
     @Override
     public String getFamily() {
@@ -388,6 +419,7 @@ public final class CsvFileCipher extends FileCipherAbstract {
         try {
             final ReadableByteChannel plainChannel = Channels.newChannel(plainText);
             final CsvOutput ionicOutput = new CsvOutput(cipherText, sizeInput, getServices(), getCoverPageServices());
+            ionicOutput.setExecutor(executor);
             ionicOutput.init(encryptAttributes);
             final ByteBuffer bufferPlainText = ionicOutput.getPlainText();
             while (plainText.available() > 0) {
@@ -419,6 +451,7 @@ public final class CsvFileCipher extends FileCipherAbstract {
         try {
             final WritableByteChannel plainChannel = Channels.newChannel(plainText);
             final CsvInput ionicInput = new CsvInput(cipherText, sizeInput, getServices());
+            ionicInput.setExecutor(executor);
             final FileCryptoFileInfo fileInfo = new FileCryptoFileInfo();
             ionicInput.init(fileInfo, attributes);
             while (ionicInput.available() > 0) {
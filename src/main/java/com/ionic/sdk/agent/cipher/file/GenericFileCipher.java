@@ -8,6 +8,7 @@ import com.ionic.sdk.agent.cipher.file.data.FileCryptoDecryptAttributes;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoEncryptAttributes;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoFileInfo;
 import com.ionic.sdk.agent.cipher.file.family.generic.input.GenericInput;
+import com.ionic.sdk.agent.cipher.file.family.generic.input.GenericSeekableInput;
 import com.ionic.sdk.agent.cipher.file.family.generic.output.GenericOutput;
 import com.ionic.sdk.core.value.Value;
 import com.ionic.sdk.error.IonicException;
@@ -15,7 +16,6 @@ import com.ionic.sdk.error.SdkData;
 import com.ionic.sdk.error.SdkError;
 import com.ionic.sdk.key.KeyServices;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -27,11 +27,15 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Logger;
 
 /**
@@ -56,6 +60,12 @@ import java.util.logging.Logger;
  * {@link GenericFileCipher} provides APIs to perform file encryption on filesystem files, and also on in-memory
  * byte arrays.
  * <p>
+ * Version 1.2 and 1.3 files are made up of independently encrypted blocks.  By default, blocks are processed one at
+ * a time on the calling thread.  If an executor (for example, a {@link java.util.concurrent.ForkJoinPool}) is
+ * specified using {@link #setExecutor(ExecutorService)}, the cryptography operations on the blocks are instead
+ * performed in parallel on the executor, while the calling thread reads ahead in the input and writes the output
+ * blocks in order.  The output is in the same format in either case.
+ * <p>
  * Sample (byte[] API):
  * <pre>
  * public final void testFileCipherGeneric_EncryptDecryptBytes() throws IonicException {
@@ -130,6 +140,12 @@ public final class GenericFileCipher extends FileCipherAbstract {
      */
     public static final String VERSION_LATEST = VERSION_1_3;
 
+    /**
+     * The executor on which to perform version 1.2 and 1.3 block cryptography operations in parallel (or null, to
+     * perform them on the calling thread).
+     */
+    private ExecutorService executor;
+
     /**
      * Constructor.
      *
@@ -149,6 +165,25 @@ public final class GenericFileCipher extends FileCipherAbstract {
         super(agent, coverPageServices);
     }
 
+    /**
+     * @return the executor on which version 1.2 and 1.3 block cryptography operations are performed in parallel (or
+     * null, if they are performed on the calling thread)
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Specify an executor on which to perform version 1.2 and 1.3 block cryptography operations in parallel.  The
+     * number of blocks held in memory at any one time is bounded by twice the parallelism of the executor.
+     *
+     * @param executor the executor on which to perform block cryptography operations in parallel (or null, to
+     *                 perform them on the calling thread)
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
     @Deprecated
     @Override
     public String getFamily() {
@@ -185,6 +220,12 @@ public final class GenericFileCipher extends FileCipherAbstract {
      */
     private static final List<String> SUPPORTED_VERSIONS = Arrays.asList(VERSION_1_1, VERSION_1_2, VERSION_1_3);
 
+    /**
+     * Allowance for the file header and per-block overhead, used to size the in-memory output of an encryption
+     * operation.  This is sufficient for typical binary (version 1.2, 1.3) output; larger output grows the buffer.
+     */
+    private static final int SIZE_OUTPUT_OVERHEAD = 4096;
+
     @Override
     public FileCryptoFileInfo getFileInfo(final String filePath) throws IonicException {
         final FileCryptoFileInfo fileInfo = new FileCryptoFileInfo();
@@ -209,6 +250,50 @@ public final class GenericFileCipher extends FileCipherAbstract {
         return fileInfo;
     }
 
+    /**
+     * Open a version 1.3 Ionic-protected file for random access reads of its plaintext.  Only the blocks touched by
+     * each read are decrypted, and only the keys protecting those blocks are fetched.
+     *
+     * @param filePath the path of the protected file
+     * @return a read-only channel presenting the plaintext of the file; the caller is responsible for closing it
+     * @throws IonicException on failure to open the file, or to parse its header and block index; or if the file
+     *                        is not protected using version 1.3 of the format
+     */
+    public SeekableByteChannel openSeekable(final String filePath) throws IonicException {
+        final SeekableByteChannel channel;
+        try {
+            channel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new IonicException(SdkError.ISFILECRYPTO_OPENFILE, e);
+        }
+        return openSeekable(channel);
+    }
+
+    /**
+     * Open a version 1.3 Ionic-protected resource for random access reads of its plaintext.  Only the blocks touched
+     * by each read are decrypted, and only the keys protecting those blocks are fetched.
+     *
+     * @param channel the channel from which the protected resource is read; it is closed when the returned channel
+     *                is closed, or on failure of this call
+     * @return a read-only channel presenting the plaintext of the resource; the caller is responsible for closing it
+     * @throws IonicException on failure to parse the header and block index of the resource; or if the resource is
+     *                        not protected using version 1.3 of the format
+     */
+    public SeekableByteChannel openSeekable(final SeekableByteChannel channel) throws IonicException {
+        final GenericSeekableInput seekableInput = new GenericSeekableInput(channel, getServices());
+        try {
+            seekableInput.init(new FileCryptoFileInfo());
+        } catch (IonicException e) {
+            try {
+                channel.close();
+            } catch (IOException eClose) {
+                logger.fine(eClose.getMessage());
+            }
+            throw e;
+        }
+        return seekableInput;
+    }
+
     @Override
     public FileCryptoFileInfo getFileInfo(final byte[] text) throws IonicException {
         final FileCryptoFileInfo fileInfo = new FileCryptoFileInfo();
@@ -234,10 +319,10 @@ public final class GenericFileCipher extends FileCipherAbstract {
         SdkData.checkTrue((attributes != null), SdkError.ISFILECRYPTO_NULL_INPUT,
                 FileCryptoEncryptAttributes.class.getName());
 
-        final BufferedInputStream is = new BufferedInputStream(new ByteArrayInputStream(plainText));
-        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        final BufferedOutputStream os = new BufferedOutputStream(bos);
-        final GenericOutput ionicOutput = encryptInternal(is, plainText.length, os, attributes);
+        // in-memory streams need no buffering; size the output for the (binary) header and block overhead
+        final ByteArrayInputStream is = new ByteArrayInputStream(plainText);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(plainText.length + SIZE_OUTPUT_OVERHEAD);
+        final GenericOutput ionicOutput = encryptInternal(is, plainText.length, bos, attributes);
         final byte[] bytes = bos.toByteArray();
         final byte[] signature = ionicOutput.getSignature();
         if (signature != null) {
@@ -257,10 +342,10 @@ public final class GenericFileCipher extends FileCipherAbstract {
         SdkData.checkTrue(attributes.getFamily() == CipherFamily.FAMILY_UNKNOWN, SdkError.ISFILECRYPTO_INVALIDVALUE);
         SdkData.checkTrue(attributes.getVersion().isEmpty(), SdkError.ISFILECRYPTO_INVALIDVALUE);
 
+        // in-memory streams need no buffering; the plaintext is no larger than the ciphertext
         final ByteArrayInputStream is = new ByteArrayInputStream(cipherText);
-        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        final BufferedOutputStream os = new BufferedOutputStream(bos);
-        decryptInternal(is, cipherText.length, os, attributes);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(cipherText.length);
+        decryptInternal(is, cipherText.length, bos, attributes);
         return bos.toByteArray();
     }
 
@@ -321,10 +406,11 @@ public final class GenericFileCipher extends FileCipherAbstract {
         try (FileOutputStream fos = new FileOutputStream(targetFile)) {
             final BufferedOutputStream os = new BufferedOutputStream(fos);
             final GenericOutput ionicOutput = encryptInternal(is, sizeInput, os, attributes);
+            os.flush();
             final byte[] signature = ionicOutput.getSignature();
             if (signature != null) {
-                fos.getChannel().position(ionicOutput.getHeaderLength());
-                fos.write(signature);
+                // positional write; the stream position (at the end of the output) is unaffected
+                fos.getChannel().write(ByteBuffer.wrap(signature), ionicOutput.getHeaderLength());
             }
             os.close();
         }
@@ -409,14 +495,22 @@ public final class GenericFileCipher extends FileCipherAbstract {
         try {
             final ReadableByteChannel plainChannel = Channels.newChannel(plainText);
             final GenericOutput ionicOutput = new GenericOutput(cipherText, sizeInput, getServices());
+            ionicOutput.setExecutor(executor);
             ionicOutput.init(attributes);
             final ByteBuffer bufferPlainText = ionicOutput.getPlainText();
-            while (plainText.available() > 0) {
+            // fill each block before writing it, until the input is consumed (a file input yields its FileChannel,
+            // so each block is read in a single call, and inputs larger than 2 GiB are handled)
+            boolean isEOF = false;
+            while (!isEOF) {
                 bufferPlainText.clear();
-                plainChannel.read(bufferPlainText);
+                while (bufferPlainText.hasRemaining() && !isEOF) {
+                    isEOF = (plainChannel.read(bufferPlainText) < 0);
+                }
                 bufferPlainText.limit(bufferPlainText.position());
                 bufferPlainText.position(0);
-                ionicOutput.write(bufferPlainText);
+                if (bufferPlainText.hasRemaining()) {
+                    ionicOutput.write(bufferPlainText);
+                }
             }
             ionicOutput.doFinal();
             return ionicOutput;
@@ -439,6 +533,7 @@ public final class GenericFileCipher extends FileCipherAbstract {
         try {
             final WritableByteChannel plainChannel = Channels.newChannel(plainText);
             final GenericInput ionicInput = new GenericInput(cipherText, sizeInput, getServices());
+            ionicInput.setExecutor(executor);
             final FileCryptoFileInfo fileInfo = new FileCryptoFileInfo();
             ionicInput.init(fileInfo, decryptAttributes);
             while (ionicInput.available() > 0) {
@@ -213,11 +213,12 @@ public final class PdfFileCipher extends FileCipherAbstract {
         final byte[] cipherText = bos.toByteArray();
         // fix up ionic payload prologue to contain the correct generic payload length
         final byte[] payloadPrologue = ionicOutput.getIonicPayloadPrologue();
-        System.arraycopy(payloadPrologue, 0, cipherText, ionicOutput.getOffsetPayloadIonic(), payloadPrologue.length);
+        System.arraycopy(payloadPrologue, 0, cipherText, (int) ionicOutput.getOffsetPayloadIonic(),
+                payloadPrologue.length);
         // write generic cipherText signature in the correct location
         final byte[] signature = ionicOutput.getSignature();
         if (signature != null) {
-            System.arraycopy(signature, 0, cipherText, ionicOutput.getSignatureOffset(), signature.length);
+            System.arraycopy(signature, 0, cipherText, (int) ionicOutput.getSignatureOffset(), signature.length);
         }
         return cipherText;
     }
@@ -0,0 +1,98 @@
+package com.ionic.sdk.agent.cipher.file.cover;
+
+import com.ionic.sdk.core.annotation.InternalUseOnly;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Cache of templates derived from cover pages, used by file ciphers to avoid repeating the work of preparing the
+ * cover page portion of their output (parsing, rewriting, and serializing the cover page) for each encryption.
+ * <p>
+ * Templates are indexed by the {@link FileCryptoCoverPageServicesInterface} instance, and by a key describing the
+ * preparation (for example, the file type).  Each template retains the cover page from which it was derived, and is
+ * only returned when the current cover page for the key is unchanged, so that cover page services implementations
+ * which vary their cover pages are honored.  Cover page services instances which are no longer in use are released
+ * from the cache.
+ *
+ * @param <T> the type of the cached templates, which must not be modified once cached
+ */
+@InternalUseOnly
+public final class CoverPageTemplateCache<T> {
+
+    /**
+     * The cached templates, indexed by cover page services instance and by key.
+     */
+    private final Map<FileCryptoCoverPageServicesInterface, Map<String, Entry<T>>> templates;
+
+    /**
+     * Constructor.
+     */
+    public CoverPageTemplateCache() {
+        this.templates = new WeakHashMap<FileCryptoCoverPageServicesInterface, Map<String, Entry<T>>>();
+    }
+
+    /**
+     * Retrieve a template from the cache.
+     *
+     * @param coverPageServices the cover page services instance from which the cover page was obtained
+     * @param key               the key describing the preparation of the template
+     * @param coverPage         the current cover page
+     * @return the cached template, or null if no template derived from the cover page is cached
+     */
+    public synchronized T get(final FileCryptoCoverPageServicesInterface coverPageServices,
+                              final String key, final byte[] coverPage) {
+        final Map<String, Entry<T>> templatesServices = templates.get(coverPageServices);
+        final Entry<T> entry = (templatesServices == null) ? null : templatesServices.get(key);
+        return ((entry == null) || !Arrays.equals(entry.coverPage, coverPage)) ? null : entry.template;
+    }
+
+    /**
+     * Add a template to the cache, replacing any template previously cached for the key.
+     *
+     * @param coverPageServices the cover page services instance from which the cover page was obtained
+     * @param key               the key describing the preparation of the template
+     * @param coverPage         the cover page from which the template was derived
+     * @param template          the template
+     */
+    public synchronized void put(final FileCryptoCoverPageServicesInterface coverPageServices,
+                                 final String key, final byte[] coverPage, final T template) {
+        Map<String, Entry<T>> templatesServices = templates.get(coverPageServices);
+        if (templatesServices == null) {
+            templatesServices = new HashMap<String, Entry<T>>();
+            templates.put(coverPageServices, templatesServices);
+        }
+        templatesServices.put(key, new Entry<T>(coverPage.clone(), template));
+    }
+
+    /**
+     * A cached template, along with the cover page from which it was derived.
+     *
+     * @param <T> the type of the cached template
+     */
+    private static final class Entry<T> {
+
+        /**
+         * The cover page from which the template was derived.
+         */
+        private final byte[] coverPage;
+
+        /**
+         * The template.
+         */
+        private final T template;
+
+        /**
+         * Constructor.
+         *
+         * @param coverPage the cover page from which the template was derived
+         * @param template  the template
+         */
+        private Entry(final byte[] coverPage, final T template) {
+            this.coverPage = coverPage;
+            this.template = template;
+        }
+    }
+}
@@ -5,8 +5,9 @@ import com.ionic.sdk.agent.cipher.file.data.FileCipher;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoDecryptAttributes;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoFileInfo;
 import com.ionic.sdk.agent.cipher.file.family.generic.input.GenericInput;
+import com.ionic.sdk.agent.cipher.file.family.generic.pipeline.GenericBlockPipeline;
 import com.ionic.sdk.core.annotation.InternalUseOnly;
-import com.ionic.sdk.core.codec.BytesTranscoder;
+import com.ionic.sdk.core.codec.Base64Bytes;
 import com.ionic.sdk.core.codec.Transcoder;
 import com.ionic.sdk.core.io.ByteQueueInputStream;
 import com.ionic.sdk.error.IonicException;
@@ -14,14 +15,17 @@ import com.ionic.sdk.error.SdkError;
 import com.ionic.sdk.key.KeyServices;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 
 /**
  * CsvFileCipher version 1.0 extensions for handling the file body content.
+ * <p>
+ * The base64 encoded body is read in bulk from the source stream, split into lines, and decoded into reusable
+ * buffers.  Decoded data is passed to the wrapped cipher in whole cipher blocks, so that the wrapped cipher may
+ * decrypt several blocks in parallel, when an executor is specified.
  */
 @InternalUseOnly
 final class Csv10BodyInput implements CsvBodyInput {
@@ -29,7 +33,7 @@ final class Csv10BodyInput implements CsvBodyInput {
     /**
      * The raw input data stream containing the protected file content.
      */
-    private final BufferedReader sourceReader;
+    private final BufferedInputStream sourceStream;
 
     /**
      * Metadata describing the Ionic state of the file.
@@ -42,7 +46,7 @@ final class Csv10BodyInput implements CsvBodyInput {
     private final FileCryptoDecryptAttributes decryptAttributes;
 
     /**
-     * Intermediate buffer holding data from input CSV (base64 encoded) before being read by wrapped cipher.
+     * Intermediate buffer holding data from input CSV (base64 decoded) before being read by wrapped cipher.
      */
     private final ByteQueueInputStream targetStream;
 
@@ -56,6 +60,51 @@ final class Csv10BodyInput implements CsvBodyInput {
      */
     private final GenericInput genericInput;
 
+    /**
+     * The maximum number of wrapped cipher blocks in flight (one, if blocks are decrypted on the calling thread).
+     */
+    private final int blocksInFlight;
+
+    /**
+     * Buffer holding data read from the source stream.
+     */
+    private final byte[] bytesRead;
+
+    /**
+     * The position in {@link #bytesRead} of the next byte to be consumed.
+     */
+    private int positionRead;
+
+    /**
+     * The number of bytes of data in {@link #bytesRead}.
+     */
+    private int limitRead;
+
+    /**
+     * Buffer holding the current line of base64 text, without its line separator.
+     */
+    private byte[] line;
+
+    /**
+     * The number of bytes in the current line.
+     */
+    private int lineLength;
+
+    /**
+     * Buffer holding decoded data, which has not yet been passed to the wrapped cipher.
+     */
+    private byte[] decoded;
+
+    /**
+     * The number of bytes of data in {@link #decoded}.
+     */
+    private int decodedLength;
+
+    /**
+     * True, once the "data end" marker (or the end of the source stream) has been reached.
+     */
+    private boolean isDataEnd;
+
     /**
      * Constructor.
      *
@@ -64,26 +113,34 @@ final class Csv10BodyInput implements CsvBodyInput {
      * @param agent        the key services implementation; used to provide keys for cryptography operations
      * @param fileInfo     the structure into which data about the Ionic state of the file should be written
      * @param attributes   the parameters associated with the decrypt operation
+     * @param executor     the executor on which to decrypt wrapped cipher blocks in parallel (or null, to decrypt
+     *                     blocks on the calling thread)
      */
     Csv10BodyInput(final BufferedInputStream sourceStream, final long sizeInput, final KeyServices agent,
-                   final FileCryptoFileInfo fileInfo, final FileCryptoDecryptAttributes attributes) {
-        this.sourceReader = new BufferedReader(new InputStreamReader(sourceStream, StandardCharsets.UTF_8));
+                   final FileCryptoFileInfo fileInfo, final FileCryptoDecryptAttributes attributes,
+                   final ExecutorService executor) {
+        this.sourceStream = sourceStream;
         this.fileInfo = fileInfo;
         this.decryptAttributes = attributes;
         this.targetStream = new ByteQueueInputStream(FileCipher.Csv.V10.BLOCK_SIZE);
         this.genericInput = new GenericInput(targetStream, sizeInput, agent);
+        this.genericInput.setExecutor(executor);
         this.plainText = genericInput.getPlainText();
+        this.blocksInFlight = (executor == null) ? 1 : GenericBlockPipeline.getCapacity(executor);
+        this.bytesRead = new byte[SIZE_READ];
+        this.line = new byte[FileCipher.Csv.V10.WIDTH];
+        this.decoded = new byte[SIZE_TRANSFER + FileCipher.Csv.V10.WIDTH_RAW];
     }
 
     @Override
     public void init() throws IonicException, IOException {
         // skip header data, up to and including the "data begin" line
-        String line = "";
-        while ((line != null) && !line.contains(FileCipher.Csv.V10.DATA_BEGIN_STRING)) {
-            line = sourceReader.readLine();
+        boolean isDataBegin = false;
+        while (!isDataBegin && readLine()) {
+            isDataBegin = lineContains(DATA_BEGIN);
         }
         // fail on inability to find data delimiter
-        if ((line == null) || !line.contains(FileCipher.Csv.V10.DATA_BEGIN_STRING)) {
+        if (!isDataBegin) {
             throw new IonicException(SdkError.ISFILECRYPTO_EOF);
         }
     }
@@ -91,43 +148,34 @@ final class Csv10BodyInput implements CsvBodyInput {
     @Override
     public int available() throws IOException {
         // non-zero if there is source data, or data cached in the wrapped stream
-        return sourceReader.ready() ? 1 : genericInput.available();
+        final boolean isSourceData = (decodedLength > 0)
+                || (!isDataEnd && ((positionRead < limitRead) || (sourceStream.available() > 0)));
+        return isSourceData ? 1 : genericInput.available();
     }
 
     @Override
     public ByteBuffer read() throws IonicException, IOException {
-        final BytesTranscoder transcoderBase64 = Transcoder.base64();
-        String line;
-        boolean doneEmbedRead = false;
-        while (!doneEmbedRead) {
-            line = sourceReader.readLine();
-            if (line == null) {
-                // end of input reached
-                doneEmbedRead = true;
-            } else if (line.contains(FileCipher.Csv.V10.DATA_END_STRING)) {
-                doneEmbedRead = true;
-                // no relevant data past the "end data" marker; skip it
-                java.util.logging.Logger.getLogger(getClass().getName()).fine(String.format("%s, %d bytes skipped",
-                        FileCipher.Csv.V10.DATA_END_STRING, sourceReader.skip(Long.MAX_VALUE)));
-            } else {
-                // write to wrapped buffer
-                final byte[] lineBytes = transcoderBase64.decode(line);
-                targetStream.addBytes(lineBytes, 0, lineBytes.length);
-                if (targetStream.available() >= FileCipher.Generic.V12.BLOCK_SIZE_CIPHER) {
-                    // there is enough data for the wrapped cipher to extract a complete block
-                    doneEmbedRead = true;
-                }
-            }
-        }
         // unidirectional state machine with two states
         plainText.clear();
         if (decryptAttributes.getFamily().equals(CipherFamily.FAMILY_UNKNOWN)) {
+            // there is enough data for the wrapped cipher to read its header
+            fill(FileCipher.Generic.V12.BLOCK_SIZE_CIPHER);
             plainText.limit(0);
             genericInput.init(fileInfo, decryptAttributes);
             fileInfo.setCipherFamily(CipherFamily.FAMILY_CSV);
             fileInfo.setCipherVersion(FileCipher.Csv.V10.LABEL);
         } else {
-            plainText = genericInput.read();
+            // top up the wrapped stream to whole blocks, enough to keep the wrapped cipher busy
+            final long blockSize = FileCipher.Generic.V12.BLOCK_SIZE_CIPHER;
+            final long blocks = Math.max(1, blocksInFlight - genericInput.getBlocksPending());
+            final long available = targetStream.available();
+            final long blocksQueued = (available + blockSize - 1) / blockSize;
+            fill((Math.max(blocks, blocksQueued) * blockSize) - available);
+            if (genericInput.available() > 0) {
+                plainText = genericInput.read();
+            } else {
+                plainText.limit(0);
+            }
         }
         return plainText;
     }
@@ -138,4 +186,157 @@ final class Csv10BodyInput implements CsvBodyInput {
         decryptAttributes.setFamily(CipherFamily.FAMILY_CSV);
         decryptAttributes.setVersion(FileCipher.Csv.V10.LABEL);
     }
+
+    /**
+     * Decode lines of the body until the requested amount of data is available, and pass it to the wrapped cipher.
+     * Decoded data is passed along in batches, so that the decode buffer stays small.
+     *
+     * @param length the number of bytes to pass to the wrapped cipher
+     * @throws IonicException on invalid base64 content
+     * @throws IOException    on failure reading from the stream
+     */
+    private void fill(final long length) throws IonicException, IOException {
+        long remaining = length;
+        while ((remaining > 0) && ((decodedLength > 0) || !isDataEnd)) {
+            if ((decodedLength >= remaining) || (decodedLength >= SIZE_TRANSFER) || isDataEnd) {
+                final int count = (int) Math.min(remaining, decodedLength);
+                targetStream.addBytes(decoded, 0, count);
+                decodedLength -= count;
+                System.arraycopy(decoded, count, decoded, 0, decodedLength);
+                remaining -= count;
+            } else if (!readLine()) {
+                // end of input reached
+                isDataEnd = true;
+            } else if (lineContains(DATA_END)) {
+                isDataEnd = true;
+                // no relevant data past the "end data" marker; skip it
+                java.util.logging.Logger.getLogger(getClass().getName()).fine(String.format("%s, %d bytes skipped",
+                        FileCipher.Csv.V10.DATA_END_STRING, skip()));
+            } else {
+                decodeLine();
+            }
+        }
+    }
+
+    /**
+     * Decode the current line, appending the data to the decoded data buffer.
+     *
+     * @throws IonicException on invalid base64 content
+     */
+    private void decodeLine() throws IonicException {
+        final int lengthMax = Base64Bytes.getDecodedLength(lineLength);
+        if (decoded.length < decodedLength + lengthMax) {
+            decoded = Arrays.copyOf(decoded, Math.max(decoded.length * 2, decodedLength + lengthMax));
+        }
+        try {
+            decodedLength += Base64Bytes.decode(line, 0, lineLength, decoded, decodedLength);
+        } catch (IllegalArgumentException e) {
+            throw new IonicException(SdkError.ISFILECRYPTO_PARSEFAILED, e);
+        }
+    }
+
+    /**
+     * Read the next line from the source stream into the line buffer.  The line separator (LF, or CR LF) is not
+     * included.
+     *
+     * @return true, if a line was read; false, if the end of the source stream was reached
+     * @throws IOException on failure reading from the stream
+     */
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        boolean isLine = false;
+        while (true) {
+            if (positionRead == limitRead) {
+                limitRead = Math.max(0, sourceStream.read(bytesRead));
+                positionRead = 0;
+                if (limitRead == 0) {
+                    break;
+                }
+            }
+            isLine = true;
+            int end = positionRead;
+            while ((end < limitRead) && (bytesRead[end] != LF)) {
+                ++end;
+            }
+            final int count = end - positionRead;
+            if (line.length < lineLength + count) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + count));
+            }
+            System.arraycopy(bytesRead, positionRead, line, lineLength, count);
+            lineLength += count;
+            positionRead = end;
+            if (end < limitRead) {
+                ++positionRead;
+                break;
+            }
+        }
+        if ((lineLength > 0) && (line[lineLength - 1] == CR)) {
+            --lineLength;
+        }
+        return isLine;
+    }
+
+    /**
+     * @param marker the content to search for
+     * @return true, if the current line contains the marker
+     */
+    private boolean lineContains(final byte[] marker) {
+        for (int i = 0; (i <= lineLength - marker.length); ++i) {
+            int j = 0;
+            while ((j < marker.length) && (line[i + j] == marker[j])) {
+                ++j;
+            }
+            if (j == marker.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Consume the remainder of the source stream.
+     *
+     * @return the number of bytes skipped
+     * @throws IOException on failure reading from the stream
+     */
+    private long skip() throws IOException {
+        long count = limitRead - positionRead;
+        positionRead = limitRead;
+        int countRead = sourceStream.read(bytesRead);
+        while (countRead >= 0) {
+            count += countRead;
+            countRead = sourceStream.read(bytesRead);
+        }
+        return count;
+    }
+
+    /**
+     * The size of the buffer used to read from the source stream.
+     */
+    private static final int SIZE_READ = 8192;
+
+    /**
+     * The amount of decoded data accumulated before it is passed to the wrapped cipher.
+     */
+    private static final int SIZE_TRANSFER = 65536;
+
+    /**
+     * The line feed character.
+     */
+    private static final byte LF = '\n';
+
+    /**
+     * The carriage return character.
+     */
+    private static final byte CR = '\r';
+
+    /**
+     * The "data begin" marker, as bytes.
+     */
+    private static final byte[] DATA_BEGIN = Transcoder.utf8().decode(FileCipher.Csv.V10.DATA_BEGIN_STRING);
+
+    /**
+     * The "data end" marker, as bytes.
+     */
+    private static final byte[] DATA_END = Transcoder.utf8().decode(FileCipher.Csv.V10.DATA_END_STRING);
 }
@@ -12,6 +12,7 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Wrap an input stream with logic to manage the Ionic augmentation of the content (header, content representation).
@@ -39,6 +40,12 @@ public final class CsvInput {
      */
     private CsvBodyInput bodyInput;
 
+    /**
+     * The executor on which to decrypt the wrapped version 1.2 blocks in parallel (or null, to decrypt blocks on the
+     * calling thread).
+     */
+    private ExecutorService executor;
+
     /**
      * Constructor.
      *
@@ -52,6 +59,17 @@ public final class CsvInput {
         this.agent = agent;
     }
 
+    /**
+     * Specify an executor on which to decrypt the wrapped version 1.2 blocks in parallel.  This must be called before
+     * {@link #init(FileCryptoFileInfo, FileCryptoDecryptAttributes)}.
+     *
+     * @param executor the executor on which to decrypt blocks in parallel (or null, to decrypt blocks on the
+     *                 calling thread)
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
     /**
      * Initialize this object for processing an Ionic-protected file.  The file is expected to begin with a text
      * header, indicating the content type associated with the file.
@@ -67,7 +85,8 @@ public final class CsvInput {
         final String ionicHeader = new CsvHeaderInput().read(sourceStream);
         if (ionicHeader.contains(FileCipher.Csv.V10.VERSION_1_0_STRING)) {
             // alternate CsvBodyOutput implementation can be substituted here
-            bodyInput = new Csv10BodyInput(sourceStream, sizeInput, agent, fileInfo, decryptAttributes);
+            bodyInput = new Csv10BodyInput(
+                    sourceStream, sizeInput, agent, fileInfo, decryptAttributes, executor);
         } else {
             throw new IonicException(SdkError.ISFILECRYPTO_VERSION_UNSUPPORTED);
         }
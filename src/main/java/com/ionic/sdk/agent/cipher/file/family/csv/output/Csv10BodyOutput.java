@@ -4,7 +4,9 @@ import com.ionic.sdk.agent.cipher.file.data.FileCipher;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoEncryptAttributes;
 import com.ionic.sdk.agent.cipher.file.family.generic.output.GenericOutput;
 import com.ionic.sdk.core.annotation.InternalUseOnly;
+import com.ionic.sdk.core.codec.Base64Bytes;
 import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.io.ByteQueue;
 import com.ionic.sdk.core.io.ByteQueueOutputStream;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.key.KeyServices;
@@ -12,7 +14,7 @@ import com.ionic.sdk.key.KeyServices;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Extensions for handling output of {@link com.ionic.sdk.agent.cipher.file.CsvFileCipher}
@@ -41,6 +43,17 @@ final class Csv10BodyOutput implements CsvBodyOutput {
      */
     private final GenericOutput genericOutput;
 
+    /**
+     * Buffer holding wrapped cipher output, to be base64 encoded.  Reused across calls to {@link #write(ByteBuffer)}.
+     */
+    private final byte[] dataRaw;
+
+    /**
+     * Buffer holding the base64 encoding of {@link #dataRaw}, with line separators.  Reused across calls to
+     * {@link #write(ByteBuffer)}.
+     */
+    private final byte[] dataEncoded;
+
     /**
      * @return the {@link ByteBuffer} allocated to hold a plaintext block for this cryptography operation
      */
@@ -55,19 +68,25 @@ final class Csv10BodyOutput implements CsvBodyOutput {
      * @param sizeInput         the length of the resource to be encrypted
      * @param agent             the key services implementation; used to provide keys for cryptography operations
      * @param encryptAttributes the attributes to pass along to the key created by the operation
+     * @param executor          the executor on which to encrypt wrapped cipher blocks in parallel (or null, to
+     *                          encrypt blocks on the calling thread)
      */
     Csv10BodyOutput(final BufferedOutputStream targetStream, final long sizeInput, final KeyServices agent,
-                    final FileCryptoEncryptAttributes encryptAttributes) {
+                    final FileCryptoEncryptAttributes encryptAttributes, final ExecutorService executor) {
         this.targetStream = targetStream;
         this.encryptAttributes = encryptAttributes;
         this.byteQueueOutputStream = new ByteQueueOutputStream(FileCipher.Csv.V10.BLOCK_SIZE);
         this.genericOutput = new GenericOutput(byteQueueOutputStream, sizeInput, agent);
+        this.genericOutput.setExecutor(executor);
+        this.dataRaw = new byte[FileCipher.Csv.V10.WIDTH_RAW * LINES_PER_WRITE];
+        this.dataEncoded = new byte[Base64Bytes.getEncodedLength(
+                dataRaw.length, FileCipher.Csv.V10.WIDTH_RAW, LINE_SEPARATOR.length)];
     }
 
     @Override
     public void init() throws IOException, IonicException {
         targetStream.write(Transcoder.utf8().decode(FileCipher.Csv.V10.DATA_BEGIN_STRING));
-        targetStream.write(Transcoder.utf8().decode(FileCipher.Csv.V10.LINE_SEPARATOR));
+        targetStream.write(LINE_SEPARATOR);
         final FileCryptoEncryptAttributes encryptAttributesWrapped =
                 new FileCryptoEncryptAttributes(FileCipher.Generic.V12.LABEL);
         encryptAttributesWrapped.setKeyAttributes(encryptAttributes.getKeyAttributes());
@@ -86,26 +105,36 @@ final class Csv10BodyOutput implements CsvBodyOutput {
     @Override
     public void write(final ByteBuffer byteBuffer) throws IOException, IonicException {
         genericOutput.write(byteBuffer);
-        final byte[] data = new byte[FileCipher.Csv.V10.WIDTH_RAW];
-        while (byteQueueOutputStream.getByteQueue().available() >= FileCipher.Csv.V10.WIDTH_RAW) {
-            final int countRead = byteQueueOutputStream.getByteQueue().removeData(data, 0, data.length);
-            targetStream.write(Transcoder.utf8().decode(Transcoder.base64().encode(Arrays.copyOf(data, countRead))));
-            targetStream.write(Transcoder.utf8().decode(FileCipher.Csv.V10.LINE_SEPARATOR));
-        }
+        writeLines(false);
     }
 
     @Override
-    public void doFinal() throws IOException {
-        final byte[] data = new byte[FileCipher.Csv.V10.WIDTH_RAW];
-        while (byteQueueOutputStream.getByteQueue().available() > 0) {
-            final int countToRead = Math.min(
-                    byteQueueOutputStream.getByteQueue().available(), FileCipher.Csv.V10.WIDTH_RAW);
-            final int countRead = byteQueueOutputStream.getByteQueue().removeData(data, 0, countToRead);
-            targetStream.write(Transcoder.utf8().decode(Transcoder.base64().encode(Arrays.copyOf(data, countRead))));
-            targetStream.write(Transcoder.utf8().decode(FileCipher.Csv.V10.LINE_SEPARATOR));
-        }
+    public void doFinal() throws IOException, IonicException {
+        genericOutput.doFinal();
+        writeLines(true);
         targetStream.write(Transcoder.utf8().decode(FileCipher.Csv.V10.DATA_END_STRING));
-        targetStream.write(Transcoder.utf8().decode(FileCipher.Csv.V10.LINE_SEPARATOR));
+        targetStream.write(LINE_SEPARATOR);
+    }
+
+    /**
+     * Base64 encode the available wrapped cipher output, and write it to the target stream as lines of
+     * {@link FileCipher.Csv.V10#WIDTH} characters.  Many lines are encoded into a buffer, and written in one call.
+     *
+     * @param isFinal true, to also write the final (partial) line of output
+     * @throws IOException on failure writing to the stream
+     */
+    private void writeLines(final boolean isFinal) throws IOException {
+        final ByteQueue byteQueue = byteQueueOutputStream.getByteQueue();
+        int available = byteQueue.available();
+        while ((available >= FileCipher.Csv.V10.WIDTH_RAW) || (isFinal && (available > 0))) {
+            final int countLines = Math.min(available, dataRaw.length) / FileCipher.Csv.V10.WIDTH_RAW;
+            final int countToRead = (countLines == 0) ? available : countLines * FileCipher.Csv.V10.WIDTH_RAW;
+            final int countRead = byteQueue.removeData(dataRaw, 0, countToRead);
+            final int countEncoded = Base64Bytes.encodeLines(
+                    dataRaw, 0, countRead, FileCipher.Csv.V10.WIDTH_RAW, LINE_SEPARATOR, dataEncoded, 0);
+            targetStream.write(dataEncoded, 0, countEncoded);
+            available = byteQueue.available();
+        }
     }
 
     @Override
@@ -117,4 +146,14 @@ final class Csv10BodyOutput implements CsvBodyOutput {
     public byte[] getSignatureWrapped() throws IonicException {
         return genericOutput.getSignature();
     }
+
+    /**
+     * The maximum number of lines of base64 text encoded into the output buffer before it is written.
+     */
+    private static final int LINES_PER_WRITE = 1024;
+
+    /**
+     * The line separator, as bytes.
+     */
+    private static final byte[] LINE_SEPARATOR = Transcoder.utf8().decode(FileCipher.Csv.V10.LINE_SEPARATOR);
 }
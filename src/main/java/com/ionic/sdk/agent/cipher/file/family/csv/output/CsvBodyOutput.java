@@ -46,9 +46,10 @@ interface CsvBodyOutput {
     /**
      * Finish processing of the output stream.
      *
-     * @throws IOException on failure writing to the stream
+     * @throws IOException    on failure writing to the stream
+     * @throws IonicException on failure to encrypt any remaining blocks
      */
-    void doFinal() throws IOException;
+    void doFinal() throws IOException, IonicException;
 
     /**
      * The length of the Ionic file header in the wrapped output.  We cache this position so we can seek in the
@@ -18,6 +18,7 @@ import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Wrap an output stream with logic to manage the Ionic augmentation of the content (header, cipher blocks).
@@ -63,6 +64,12 @@ public class CsvOutput {
      */
     private int headerLength;
 
+    /**
+     * The executor on which to encrypt the wrapped version 1.2 blocks in parallel (or null, to encrypt blocks on the
+     * calling thread).
+     */
+    private ExecutorService executor;
+
     /**
      * @return the {@link ByteBuffer} allocated to hold a plaintext block for this cryptography operation
      */
@@ -87,6 +94,17 @@ public class CsvOutput {
         this.coverPageServices = coverPageServices;
     }
 
+    /**
+     * Specify an executor on which to encrypt the wrapped version 1.2 blocks in parallel.  This must be called before
+     * {@link #init(FileCryptoEncryptAttributes)}.
+     *
+     * @param executor the executor on which to encrypt blocks in parallel (or null, to encrypt blocks on the
+     *                 calling thread)
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
     /**
      * Initialize this object for processing the body of an Ionic-protected file.
      *
@@ -113,7 +131,7 @@ public class CsvOutput {
         targetStream.write(Transcoder.utf8().decode(new CsvHeaderOutput().write(version)));
         if (FileCipher.Csv.V10.LABEL.equals(version)) {
             // alternate CsvBodyOutput implementation can be substituted here
-            bodyOutput = new Csv10BodyOutput(targetStream, sizeInput, agent, encryptAttributes);
+            bodyOutput = new Csv10BodyOutput(targetStream, sizeInput, agent, encryptAttributes, executor);
         } else {
             throw new IonicException(SdkError.ISFILECRYPTO_VERSION_UNSUPPORTED);
         }
@@ -149,9 +167,10 @@ public class CsvOutput {
     /**
      * Finish processing of the output stream.
      *
-     * @throws IOException on failure flushing the stream
+     * @throws IOException    on failure flushing the stream
+     * @throws IonicException on failure to encrypt any remaining blocks
      */
-    public void doFinal() throws IOException {
+    public void doFinal() throws IOException, IonicException {
         bodyOutput.doFinal();
         // quote replicates core SDK behavior
         targetStream.write(Transcoder.utf8().decode(FileCipher.Csv.V10.QUOTE_CHAR));
@@ -82,6 +82,11 @@ final class Generic11BodyInput implements GenericBodyInput {
         }
     }
 
+    @Override
+    public int getBlocksPending() {
+        return 0;
+    }
+
     /**
      * Finish processing of the input stream.
      */
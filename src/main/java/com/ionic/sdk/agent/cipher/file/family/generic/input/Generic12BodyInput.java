@@ -1,7 +1,9 @@
 package com.ionic.sdk.agent.cipher.file.family.generic.input;
 
 import com.ionic.sdk.agent.cipher.file.data.FileCipher;
+import com.ionic.sdk.agent.cipher.file.family.generic.pipeline.GenericBlockPipeline;
 import com.ionic.sdk.agent.key.AgentKey;
+import com.ionic.sdk.cipher.aes.AesCipher;
 import com.ionic.sdk.cipher.aes.AesCtrCipher;
 import com.ionic.sdk.core.annotation.InternalUseOnly;
 import com.ionic.sdk.crypto.CryptoUtils;
@@ -13,9 +15,11 @@ import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
 import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 
 /**
  * GenericFileCipher version 1.2 input extensions for handling the file body content.  These include handling the
@@ -49,6 +53,16 @@ final class Generic12BodyInput implements GenericBodyInput {
      */
     private final AesCtrCipher cipher;
 
+    /**
+     * The pipeline used to decrypt file blocks in parallel (or null, if blocks are decrypted on the calling thread).
+     */
+    private final GenericBlockPipeline pipeline;
+
+    /**
+     * The ciphers not currently in use by a pipeline worker.
+     */
+    private final Queue<AesCtrCipher> ciphers;
+
     /**
      * A running buffer used to store block hashes.  These are hashed and signed at the completion of the
      * file crypto operation, and the result is prepended to the file content.
@@ -67,10 +81,13 @@ final class Generic12BodyInput implements GenericBodyInput {
      * @param key          the cryptography key used to decrypt and verify the file content
      * @param plainText    ByteBuffer to receive the result of the cryptography operation
      * @param cipherText   ByteBuffer containing bytes to decrypt
+     * @param executor     the executor on which to decrypt blocks in parallel (or null, to decrypt blocks on the
+     *                     calling thread)
      * @throws IonicException on cipher initialization failures
      */
     Generic12BodyInput(final BufferedInputStream sourceStream, final AgentKey key,
-                       final ByteBuffer plainText, final ByteBuffer cipherText) throws IonicException {
+                       final ByteBuffer plainText, final ByteBuffer cipherText,
+                       final ExecutorService executor) throws IonicException {
         this.sourceStream = sourceStream;
         this.plainText = plainText;
         this.cipherText = cipherText;
@@ -80,6 +97,9 @@ final class Generic12BodyInput implements GenericBodyInput {
             this.cipher.setKey(key.getKey());
         }
         this.plainTextBlockHashes = new ByteArrayOutputStream();
+        // blocks are only decrypted when a key is available ("getFileInfo()" does not supply one)
+        this.pipeline = ((executor == null) || (key == null)) ? null : new GenericBlockPipeline(executor);
+        this.ciphers = new ConcurrentLinkedQueue<AesCtrCipher>();
     }
 
     /**
@@ -102,10 +122,20 @@ final class Generic12BodyInput implements GenericBodyInput {
 
     @Override
     public ByteBuffer read() throws IOException, IonicException {
+        return (pipeline == null) ? readBlock() : readBlockParallel();
+    }
+
+    /**
+     * Read the next block from the input resource, and decrypt and verify it on the calling thread.
+     *
+     * @return the next plaintext block extracted from the resource, wrapped in a {@link ByteBuffer} object
+     * @throws IOException    on failure reading from the resource
+     * @throws IonicException on failure to decrypt the block
+     */
+    private ByteBuffer readBlock() throws IOException, IonicException {
         // consume input data
-        final ReadableByteChannel readableChannel = Channels.newChannel(sourceStream);
         cipherText.clear();
-        final int blockSize = readableChannel.read(cipherText);
+        final int blockSize = readCipherText(cipherText.array(), cipherText.arrayOffset(), cipherText.capacity());
         // perform decryption
         cipherText.limit(blockSize);
         cipherText.position(0);
@@ -125,6 +155,90 @@ final class Generic12BodyInput implements GenericBodyInput {
         return plainText;
     }
 
+    /**
+     * Read ahead in the input resource, submitting blocks to the decryption pipeline until the pipeline is full (or
+     * the resource is consumed); then return the oldest block in the pipeline, and record its hash.  Each pipeline
+     * result is the plaintext block, followed by the hash of the plaintext block.
+     *
+     * @return the next plaintext block extracted from the resource, wrapped in a {@link ByteBuffer} object
+     * @throws IOException    on failure reading from the resource
+     * @throws IonicException on failure to decrypt the block
+     */
+    private ByteBuffer readBlockParallel() throws IOException, IonicException {
+        try {
+            while (!pipeline.isFull() && (sourceStream.available() > 0)) {
+                final byte[] blockMax = new byte[cipherText.capacity()];
+                final int blockSize = readCipherText(blockMax, 0, blockMax.length);
+                SdkData.checkTrue(blockSize >= AesCipher.SIZE_IV, SdkError.ISFILECRYPTO_EOF);
+                final byte[] block = (blockSize == blockMax.length) ? blockMax : Arrays.copyOf(blockMax, blockSize);
+                pipeline.submit(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() throws IonicException {
+                        return decryptBlock(block);
+                    }
+                });
+            }
+        } catch (IonicException e) {
+            pipeline.cancel();
+            throw e;
+        }
+        final byte[] result = pipeline.take();
+        final int sizePlainText = result.length - CryptoUtils.SHA256_DIGEST_SIZE;
+        plainTextBlockHashes.write(result, sizePlainText, CryptoUtils.SHA256_DIGEST_SIZE);
+        return ByteBuffer.wrap(result, 0, sizePlainText);
+    }
+
+    /**
+     * Decrypt and sign a ciphertext block (on a pipeline worker).
+     *
+     * @param block the ciphertext block
+     * @return the plaintext block, followed by the hash of the plaintext block
+     * @throws IonicException on failure to decrypt or sign the block
+     */
+    private byte[] decryptBlock(final byte[] block) throws IonicException {
+        final AesCtrCipher cipherPooled = ciphers.poll();
+        final AesCtrCipher cipherBlock = (cipherPooled == null) ? new AesCtrCipher(key.getKey()) : cipherPooled;
+        try {
+            final int sizePlainText = block.length - AesCipher.SIZE_IV;
+            final byte[] result = new byte[sizePlainText + CryptoUtils.SHA256_DIGEST_SIZE];
+            cipherBlock.decrypt(ByteBuffer.wrap(result, 0, sizePlainText).slice(), ByteBuffer.wrap(block));
+            final byte[] plainTextBlockHash = CryptoUtils.hmacSHA256(
+                    ByteBuffer.wrap(result, 0, sizePlainText), key.getKey());
+            System.arraycopy(plainTextBlockHash, 0, result, sizePlainText, plainTextBlockHash.length);
+            return result;
+        } finally {
+            ciphers.offer(cipherBlock);
+        }
+    }
+
+    /**
+     * Read a block of ciphertext from the input resource, directly into the destination array (a stream channel
+     * adapter would copy it through in small chunks).  As with the adapter, reading stops when no more input is
+     * available.
+     *
+     * @param bytes  the destination array
+     * @param offset the offset in the destination array at which to start
+     * @param length the maximum number of bytes to read
+     * @return the number of bytes read
+     * @throws IOException on failure reading from the resource
+     */
+    private int readCipherText(final byte[] bytes, final int offset, final int length) throws IOException {
+        int blockSize = 0;
+        do {
+            final int count = sourceStream.read(bytes, offset + blockSize, length - blockSize);
+            if (count <= 0) {
+                break;
+            }
+            blockSize += count;
+        } while ((blockSize < length) && (sourceStream.available() > 0));
+        return blockSize;
+    }
+
+    @Override
+    public int getBlocksPending() {
+        return (pipeline == null) ? 0 : pipeline.size();
+    }
+
     /**
      * Finish processing of the input stream.
      *
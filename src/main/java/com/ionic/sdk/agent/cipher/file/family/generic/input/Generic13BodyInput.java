@@ -1,12 +1,13 @@
 package com.ionic.sdk.agent.cipher.file.family.generic.input;
 
 import com.ionic.sdk.agent.cipher.file.data.FileCipher;
+import com.ionic.sdk.agent.cipher.file.family.generic.pipeline.GenericBlockPipeline;
 import com.ionic.sdk.agent.key.AgentKey;
 import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.cipher.aes.AesCipher;
 import com.ionic.sdk.cipher.aes.AesGcmCipher;
 import com.ionic.sdk.core.annotation.InternalUseOnly;
 import com.ionic.sdk.core.codec.Transcoder;
-import com.ionic.sdk.core.value.BytesReader;
 import com.ionic.sdk.core.value.Value;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.error.SdkData;
@@ -17,10 +18,11 @@ import com.ionic.sdk.key.KeyServices;
 
 import javax.json.JsonObject;
 import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.ExecutorService;
 
 /**
  * GenericFileCipher version 1.3 input extensions for handling the file body content.  These include handling the
@@ -44,6 +46,16 @@ final class Generic13BodyInput implements GenericBodyInput {
      */
     private final AgentKey key;
 
+    /**
+     * The cryptography key used to decrypt the content of the current meta block.
+     */
+    private AgentKey keyBlock;
+
+    /**
+     * The default size of a single encryption block.
+     */
+    private final int blockSize;
+
     /**
      * The count of encryption blocks which use the same encryption key.
      */
@@ -70,6 +82,11 @@ final class Generic13BodyInput implements GenericBodyInput {
      */
     private final AesGcmCipher cipher;
 
+    /**
+     * The pipeline used to decrypt file blocks in parallel (or null, if blocks are decrypted on the calling thread).
+     */
+    private final GenericBlockPipeline pipeline;
+
     /**
      * Constructor.
      *
@@ -80,20 +97,26 @@ final class Generic13BodyInput implements GenericBodyInput {
      * @param metaSize     the count of blocks which use the same encryption key
      * @param plainText    ByteBuffer to receive the result of the cryptography operation
      * @param cipherText   ByteBuffer containing bytes to decrypt
+     * @param executor     the executor on which to decrypt blocks in parallel (or null, to decrypt blocks on the
+     *                     calling thread)
      * @throws IonicException on cipher initialization failures
      */
-    @SuppressWarnings("PMD.UnusedFormalParameter")  // preserve the existing API signature
     Generic13BodyInput(final BufferedInputStream sourceStream, final KeyServices agent, final AgentKey key,
                        final int blockSize, final int metaSize,
-                       final ByteBuffer plainText, final ByteBuffer cipherText) throws IonicException {
+                       final ByteBuffer plainText, final ByteBuffer cipherText,
+                       final ExecutorService executor) throws IonicException {
         this.sourceStream = sourceStream;
         this.agent = agent;
         this.key = key;
+        this.keyBlock = key;
+        this.blockSize = blockSize;
         this.metaSize = metaSize;
         this.blockIndex = 0;
         this.plainText = plainText;
         this.cipherText = cipherText;
         this.cipher = new AesGcmCipher();
+        // blocks are only decrypted when a key is available ("getFileInfo()" does not supply one)
+        this.pipeline = ((executor == null) || (key == null)) ? null : new GenericBlockPipeline(executor);
         if (key != null) {
             this.cipher.setKey(key.getKey());
             this.cipher.setAuthData(Transcoder.utf8().decode(key.getId()));
@@ -109,34 +132,67 @@ final class Generic13BodyInput implements GenericBodyInput {
 
     @Override
     public ByteBuffer read() throws IOException, IonicException {
+        return (pipeline == null) ? readBlock() : readBlockParallel();
+    }
+
+    @Override
+    public int getBlocksPending() {
+        return (pipeline == null) ? 0 : pipeline.size();
+    }
+
+    /**
+     * Consume the key rotation header which precedes a meta block, and fetch the cryptography key for the meta block.
+     *
+     * @throws IonicException on failure to parse the header, or to fetch the key
+     */
+    private void rotateKey() throws IonicException {
+        // deserialize Ionic generic v1.3 key rotation JSON header
+        final String ionicHeader = new GenericHeaderInput().read(sourceStream);
+        final JsonObject jsonHeader = JsonIO.readObject(ionicHeader, SdkError.ISFILECRYPTO_PARSEFAILED);
+        final String tag = JsonSource.getString(jsonHeader, FileCipher.Header.TAG);
+        SdkData.checkTrue(!Value.isEmpty(tag), SdkError.ISFILECRYPTO_MISSINGVALUE);
+        // rotate file cipher key
+        final GetKeysResponse.Key keyRotate = agent.getKey(tag).getFirstKey();
+        keyBlock = keyRotate;
+        cipher.setKey(keyRotate.getKey());
+        cipher.setAuthData(Transcoder.utf8().decode(keyRotate.getId()));
+    }
+
+    /**
+     * Read the next block from the input resource, and decrypt it on the calling thread.
+     *
+     * @return the next plaintext block extracted from the resource, wrapped in a {@link ByteBuffer} object
+     * @throws IOException    on failure reading from the resource
+     * @throws IonicException on failure to decrypt the block
+     */
+    private ByteBuffer readBlock() throws IOException, IonicException {
         // cryptography keys are rotated every 'metaSize' blocks
         if ((blockIndex > 0) && ((blockIndex % metaSize) == 0)) {
-            // deserialize Ionic generic v1.3 key rotation JSON header
-            final String ionicHeader = new GenericHeaderInput().read(sourceStream);
-            final JsonObject jsonHeader = JsonIO.readObject(ionicHeader, SdkError.ISFILECRYPTO_PARSEFAILED);
-            final String tag = JsonSource.getString(jsonHeader, FileCipher.Header.TAG);
-            SdkData.checkTrue(!Value.isEmpty(tag), SdkError.ISFILECRYPTO_MISSINGVALUE);
-            // rotate file cipher key
-            final GetKeysResponse.Key keyRotate = agent.getKey(tag).getFirstKey();
-            cipher.setKey(keyRotate.getKey());
-            cipher.setAuthData(Transcoder.utf8().decode(keyRotate.getId()));
+            rotateKey();
         }
-        // consume input data
-        final ReadableByteChannel readableChannel = Channels.newChannel(sourceStream);
         // consume Generic v1.3 block length (32 bit integer)
+        final int sizeBlock;
+        try {
+            sizeBlock = new DataInputStream(sourceStream).readInt();
+        } catch (EOFException e) {
+            throw new IonicException(SdkError.ISFILECRYPTO_EOF, e);
+        }
+        SdkData.checkTrue((sizeBlock >= 0) && (sizeBlock <= cipherText.capacity()), SdkError.ISFILECRYPTO_BAD_INPUT);
+        // consume Generic v1.3 block, directly into the backing array (a stream channel adapter would copy it
+        // through in small chunks)
         cipherText.clear();
-        cipherText.limit(Integer.SIZE / Byte.SIZE);
-        final int countInteger = readableChannel.read(cipherText);
-        SdkData.checkTrue(cipherText.limit() == countInteger, SdkError.ISFILECRYPTO_EOF);
-        final int sizeBlock = BytesReader.readInt(cipherText.array(), 0, cipherText.limit());
-        // consume Generic v1.3 block
-        cipherText.clear();
-        cipherText.limit(sizeBlock);
-        final int countBlock = readableChannel.read(cipherText);
+        int countBlock = 0;
+        while (countBlock < sizeBlock) {
+            final int count = sourceStream.read(
+                    cipherText.array(), cipherText.arrayOffset() + countBlock, sizeBlock - countBlock);
+            if (count <= 0) {
+                break;
+            }
+            countBlock += count;
+        }
         SdkData.checkTrue(sizeBlock == countBlock, SdkError.ISFILECRYPTO_EOF);
+        cipherText.limit(sizeBlock);
         // perform decryption
-        cipherText.limit(cipherText.position());
-        cipherText.position(0);
         plainText.limit(cipherText.limit());
         plainText.position(0);
         if (key != null) {
@@ -149,10 +205,50 @@ final class Generic13BodyInput implements GenericBodyInput {
         return plainText;
     }
 
+    /**
+     * Read ahead in the input resource, submitting blocks to the decryption pipeline until the pipeline is full (or
+     * the resource is consumed); then return the oldest block in the pipeline.
+     *
+     * @return the next plaintext block extracted from the resource, wrapped in a {@link ByteBuffer} object
+     * @throws IOException    on failure reading from the resource
+     * @throws IonicException on failure to decrypt the block
+     */
+    private ByteBuffer readBlockParallel() throws IOException, IonicException {
+        final DataInputStream dis = new DataInputStream(sourceStream);
+        try {
+            while (!pipeline.isFull() && (sourceStream.available() > 0)) {
+                // cryptography keys are rotated every 'metaSize' blocks
+                if ((blockIndex > 0) && ((blockIndex % metaSize) == 0)) {
+                    rotateKey();
+                }
+                // consume Generic v1.3 block length (32 bit integer), and block
+                final int sizeBlock = dis.readInt();
+                SdkData.checkTrue((sizeBlock >= 0) && (sizeBlock <= blockSize + SIZE_OVERHEAD),
+                        SdkError.ISFILECRYPTO_BAD_INPUT);
+                final byte[] block = new byte[sizeBlock];
+                dis.readFully(block);
+                pipeline.decrypt(block, keyBlock);
+                ++blockIndex;
+            }
+        } catch (EOFException e) {
+            pipeline.cancel();
+            throw new IonicException(SdkError.ISFILECRYPTO_EOF, e);
+        } catch (IonicException e) {
+            pipeline.cancel();
+            throw e;
+        }
+        return ByteBuffer.wrap(pipeline.take());
+    }
+
     /**
      * Finish processing of the input stream.
      */
     @Override
     public void doFinal() {
     }
+
+    /**
+     * The size of the AES-GCM data added to each plaintext block on encryption (initialization vector, auth tag).
+     */
+    private static final int SIZE_OVERHEAD = AesCipher.SIZE_IV + AesCipher.SIZE_ATAG;
 }
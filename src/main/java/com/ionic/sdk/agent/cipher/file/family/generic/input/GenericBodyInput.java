@@ -29,6 +29,11 @@ interface GenericBodyInput {
      */
     ByteBuffer read() throws IOException, IonicException;
 
+    /**
+     * @return the number of blocks consumed from the input resource, but not yet returned by {@link #read()}
+     */
+    int getBlocksPending();
+
     /**
      * Finish processing of the input resource.
      *
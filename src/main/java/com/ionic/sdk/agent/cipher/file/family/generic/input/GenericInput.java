@@ -21,6 +21,7 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Wrap an input stream with logic to manage the Ionic augmentation of the content (header, cipher blocks).
@@ -53,6 +54,12 @@ public final class GenericInput {
      */
     private GenericBodyInput bodyInput;
 
+    /**
+     * The executor on which to decrypt version 1.3 blocks in parallel (or null, to decrypt blocks on the calling
+     * thread).
+     */
+    private ExecutorService executor;
+
     /**
      * @return the {@link ByteBuffer} allocated to hold a plaintext block for this cryptography operation
      */
@@ -83,6 +90,17 @@ public final class GenericInput {
         this.cipherText = ByteBuffer.allocate(sizeBlockCipher);
     }
 
+    /**
+     * Specify an executor on which to decrypt blocks in parallel.  This applies to version 1.2 and 1.3 input, and must
+     * be specified before {@link #init(FileCryptoFileInfo, FileCryptoDecryptAttributes)}.
+     *
+     * @param executor the executor on which to decrypt blocks in parallel (or null, to decrypt blocks on the
+     *                 calling thread)
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
     /**
      * Initialize this object for processing an Ionic-protected file.  The file is expected to begin with a JSON
      * header, describing metadata associated with the file.
@@ -134,11 +152,12 @@ public final class GenericInput {
         if (isV11) {
             bodyInput = new Generic11BodyInput(sourceStream, key);
         } else if (isV12) {
-            bodyInput = new Generic12BodyInput(sourceStream, key, plainText, cipherText);
+            bodyInput = new Generic12BodyInput(sourceStream, key, plainText, cipherText, executor);
         } else if (isV13) {
             final int blockSize = JsonSource.getInt(jsonHeader, FileCipher.Generic.BLOCK_SIZE);
             final int metaSize = JsonSource.getInt(jsonHeader, FileCipher.Generic.META_SIZE);
-            bodyInput = new Generic13BodyInput(sourceStream, agent, key, blockSize, metaSize, plainText, cipherText);
+            bodyInput = new Generic13BodyInput(
+                    sourceStream, agent, key, blockSize, metaSize, plainText, cipherText, executor);
         } else {
             throw new IonicException(SdkError.ISFILECRYPTO_VERSION_UNSUPPORTED);
         }
@@ -151,14 +170,25 @@ public final class GenericInput {
 
     /**
      * Returns an estimate of the number of bytes that can be read (or skipped over) from this input stream
-     * without blocking by the next invocation of a method for this input stream.
+     * without blocking by the next invocation of a method for this input stream.  When blocks are decrypted in
+     * parallel, the input stream may be consumed while blocks remain to be returned by {@link #read()}; in this case,
+     * the number of such blocks is returned.
      *
      * @return an estimate of the number of bytes that can be read (or skipped over) from this input stream
      * without blocking
      * @throws IOException if this input stream has been closed, or an I/O error occurs
      */
     public int available() throws IOException {
-        return sourceStream.available();
+        final int available = sourceStream.available();
+        return ((available == 0) && (bodyInput != null)) ? bodyInput.getBlocksPending() : available;
+    }
+
+    /**
+     * @return the number of blocks submitted for parallel decryption, which have not yet been returned by
+     * {@link #read()}
+     */
+    public int getBlocksPending() {
+        return (bodyInput == null) ? 0 : bodyInput.getBlocksPending();
     }
 
     /**
@@ -0,0 +1,391 @@
+package com.ionic.sdk.agent.cipher.file.family.generic.input;
+
+import com.ionic.sdk.agent.cipher.file.data.CipherFamily;
+import com.ionic.sdk.agent.cipher.file.data.FileCipher;
+import com.ionic.sdk.agent.cipher.file.data.FileCryptoFileInfo;
+import com.ionic.sdk.agent.key.AgentKey;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.cipher.aes.AesCipher;
+import com.ionic.sdk.cipher.aes.AesGcmCipher;
+import com.ionic.sdk.core.annotation.InternalUseOnly;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.value.Value;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkData;
+import com.ionic.sdk.error.SdkError;
+import com.ionic.sdk.json.JsonIO;
+import com.ionic.sdk.json.JsonSource;
+import com.ionic.sdk.key.KeyServices;
+
+import javax.json.JsonObject;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only {@link SeekableByteChannel} presenting the plaintext of a
+ * {@link com.ionic.sdk.agent.cipher.file.GenericFileCipher} version 1.3 resource.
+ * <p>
+ * Version 1.3 content is made up of independently encrypted, length-prefixed blocks, with a key rotation header
+ * preceding each group of "meta_size" blocks.  On initialization, the block lengths and rotation headers are
+ * walked (without decrypting anything) to build an index of the ciphertext offset of each block, and of the key
+ * tag protecting it.  Reads then decrypt only the blocks they touch, and fetch only the keys protecting those
+ * blocks (in a single request, when a read spans key rotation boundaries).  The most recently decrypted block is
+ * retained, so that small sequential reads do not repeat the decryption.
+ * <p>
+ * Failures to fetch a key or to decrypt a block are reported by {@link #read(ByteBuffer)} as an
+ * {@link IOException}, whose cause is the underlying {@link IonicException}.
+ * <p>
+ * Instances of this class are not safe for use by multiple threads.
+ */
+@InternalUseOnly
+public final class GenericSeekableInput implements SeekableByteChannel {
+
+    /**
+     * The channel from which the protected resource is read.
+     */
+    private final SeekableByteChannel channel;
+
+    /**
+     * Key services implementation; used to fetch the keys protecting the blocks which are read.
+     */
+    private final KeyServices agent;
+
+    /**
+     * The Ionic cipher used to decrypt file blocks.
+     */
+    private final AesGcmCipher cipher;
+
+    /**
+     * The keys fetched so far, indexed by key tag.
+     */
+    private final Map<String, AgentKey> keys;
+
+    /**
+     * The key tag of each meta block.
+     */
+    private final List<String> tags;
+
+    /**
+     * The position in the protected resource of the ciphertext of each block.
+     */
+    private final List<Long> offsetsCipher;
+
+    /**
+     * The length of the ciphertext of each block.
+     */
+    private final List<Integer> lengthsCipher;
+
+    /**
+     * The position in the plaintext of the start of each block, followed by the length of the plaintext.
+     */
+    private long[] offsetsPlain;
+
+    /**
+     * The count of encryption blocks which use the same encryption key.
+     */
+    private int metaSize;
+
+    /**
+     * The current position in the plaintext.
+     */
+    private long position;
+
+    /**
+     * The index of the most recently decrypted block (or -1, if no block has been decrypted).
+     */
+    private int blockIndexCached;
+
+    /**
+     * The plaintext of the most recently decrypted block.
+     */
+    private byte[] blockCached;
+
+    /**
+     * Constructor.
+     *
+     * @param channel the channel from which the protected resource is read; it is closed when this channel is closed
+     * @param agent   the key services implementation; used to provide keys for cryptography operations
+     * @throws IonicException on cipher initialization failures
+     */
+    public GenericSeekableInput(final SeekableByteChannel channel, final KeyServices agent) throws IonicException {
+        this.channel = channel;
+        this.agent = agent;
+        this.cipher = new AesGcmCipher();
+        this.keys = new HashMap<String, AgentKey>();
+        this.tags = new ArrayList<String>();
+        this.offsetsCipher = new ArrayList<Long>();
+        this.lengthsCipher = new ArrayList<Integer>();
+        this.offsetsPlain = new long[1];
+        this.position = 0L;
+        this.blockIndexCached = -1;
+        this.blockCached = null;
+    }
+
+    /**
+     * Initialize this object for reading an Ionic-protected resource.  The resource header is parsed, and the block
+     * index is built.
+     *
+     * @param fileInfo the structure into which data about the Ionic state of the resource should be written
+     * @throws IonicException on failure to load or parse the header or the block index, or specification of an
+     *                        unsupported file format
+     */
+    public void init(final FileCryptoFileInfo fileInfo) throws IonicException {
+        try {
+            channel.position(0L);
+            final InputStream is = Channels.newInputStream(channel);
+            // deserialize Ionic generic file family JSON header
+            final JsonObject jsonHeader = JsonIO.readObject(
+                    new GenericHeaderInput().read(is), SdkError.ISFILECRYPTO_PARSEFAILED);
+            final String family = Value.defaultOnEmpty(
+                    JsonSource.getString(jsonHeader, FileCipher.Header.FAMILY), FileCipher.Generic.FAMILY);
+            SdkData.checkTrue(FileCipher.Generic.FAMILY.equals(family), SdkError.ISFILECRYPTO_UNRECOGNIZED);
+            final String version = JsonSource.getString(jsonHeader, FileCipher.Header.VERSION);
+            final String tag = JsonSource.getString(jsonHeader, FileCipher.Header.TAG);
+            SdkData.checkTrue(FileCipher.Generic.V13.LABEL.equals(version) && !Value.isEmpty(tag),
+                    SdkError.ISFILECRYPTO_VERSION_UNSUPPORTED);
+            final int blockSize = JsonSource.getInt(jsonHeader, FileCipher.Generic.BLOCK_SIZE);
+            metaSize = JsonSource.getInt(jsonHeader, FileCipher.Generic.META_SIZE);
+            SdkData.checkTrue((blockSize > 0) && (metaSize > 0), SdkError.ISFILECRYPTO_INVALIDVALUE);
+            fileInfo.setEncrypted(true);
+            fileInfo.setCipherFamily(CipherFamily.FAMILY_GENERIC);
+            fileInfo.setCipherVersion(version);
+            fileInfo.setKeyId(tag);
+            fileInfo.setServer(JsonSource.getString(jsonHeader, FileCipher.Header.SERVER));
+            tags.add(tag);
+            // walk the body, recording the location of each block
+            final List<Long> offsets = new ArrayList<Long>();
+            final ByteBuffer bufferLength = ByteBuffer.allocate(Integer.SIZE / Byte.SIZE);
+            final long size = channel.size();
+            long offsetCipher = channel.position();
+            long offsetPlain = 0L;
+            while (offsetCipher < size) {
+                final int blockIndex = offsetsCipher.size();
+                // cryptography keys are rotated every 'metaSize' blocks
+                if ((blockIndex > 0) && ((blockIndex % metaSize) == 0)) {
+                    channel.position(offsetCipher);
+                    final JsonObject jsonRotate = JsonIO.readObject(
+                            new GenericHeaderInput().read(is), SdkError.ISFILECRYPTO_PARSEFAILED);
+                    final String tagRotate = JsonSource.getString(jsonRotate, FileCipher.Header.TAG);
+                    SdkData.checkTrue(!Value.isEmpty(tagRotate), SdkError.ISFILECRYPTO_MISSINGVALUE);
+                    tags.add(tagRotate);
+                    offsetCipher = channel.position();
+                }
+                // consume Generic v1.3 block length (32 bit integer)
+                bufferLength.clear();
+                readFully(offsetCipher, bufferLength);
+                final int sizeBlock = bufferLength.getInt(0);
+                SdkData.checkTrue((sizeBlock >= SIZE_OVERHEAD) && (sizeBlock <= blockSize + SIZE_OVERHEAD),
+                        SdkError.ISFILECRYPTO_BAD_INPUT);
+                offsetCipher += bufferLength.capacity();
+                offsetsCipher.add(offsetCipher);
+                lengthsCipher.add(sizeBlock);
+                offsets.add(offsetPlain);
+                offsetCipher += sizeBlock;
+                offsetPlain += (sizeBlock - SIZE_OVERHEAD);
+            }
+            SdkData.checkTrue(offsetCipher == size, SdkError.ISFILECRYPTO_EOF);
+            offsetsPlain = new long[offsets.size() + 1];
+            for (int i = 0; (i < offsets.size()); ++i) {
+                offsetsPlain[i] = offsets.get(i);
+            }
+            offsetsPlain[offsets.size()] = offsetPlain;
+        } catch (EOFException e) {
+            throw new IonicException(SdkError.ISFILECRYPTO_EOF, e);
+        } catch (IOException e) {
+            throw new IonicException(SdkError.ISFILECRYPTO_IOSTREAM_ERROR, e);
+        }
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        checkOpen();
+        final long size = size();
+        if (position >= size) {
+            return -1;
+        }
+        // fetch the keys for all meta blocks touched by this read in a single request
+        final long positionEnd = Math.min(size, position + dst.remaining());
+        try {
+            fetchKeys(getBlockIndex(position) / metaSize, getBlockIndex(positionEnd - 1) / metaSize);
+        } catch (IonicException e) {
+            throw new IOException(e);
+        }
+        int count = 0;
+        while (dst.hasRemaining() && (position < size)) {
+            final int blockIndex = getBlockIndex(position);
+            final byte[] block = getBlock(blockIndex);
+            final int offsetBlock = (int) (position - offsetsPlain[blockIndex]);
+            final int length = Math.min(dst.remaining(), block.length - offsetBlock);
+            dst.put(block, offsetBlock, length);
+            position += length;
+            count += length;
+        }
+        return count;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        checkOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException(Long.toString(newPosition));
+        }
+        position = newPosition;
+        return this;
+    }
+
+    /**
+     * @return the length of the plaintext of the protected resource
+     */
+    @Override
+    public long size() {
+        return offsetsPlain[offsetsPlain.length - 1];
+    }
+
+    @Override
+    public SeekableByteChannel truncate(final long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        blockCached = null;
+        channel.close();
+    }
+
+    /**
+     * @throws ClosedChannelException if this channel has been closed
+     */
+    private void checkOpen() throws ClosedChannelException {
+        if (!channel.isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * @param positionPlain a position in the plaintext (less than the plaintext length)
+     * @return the index of the block containing the position
+     */
+    private int getBlockIndex(final long positionPlain) {
+        final int index = Arrays.binarySearch(offsetsPlain, 0, offsetsPlain.length - 1, positionPlain);
+        return (index >= 0) ? index : (-index - 2);
+    }
+
+    /**
+     * Decrypt a block of the protected resource, fetching its key if needed.
+     *
+     * @param blockIndex the index of the block
+     * @return the plaintext of the block
+     * @throws IOException on failure reading from the resource, or to fetch the key, or to decrypt the block
+     */
+    private byte[] getBlock(final int blockIndex) throws IOException {
+        if (blockIndex != blockIndexCached) {
+            final ByteBuffer cipherText = ByteBuffer.allocate(lengthsCipher.get(blockIndex));
+            readFully(offsetsCipher.get(blockIndex), cipherText);
+            try {
+                final AgentKey key = getKey(tags.get(blockIndex / metaSize));
+                cipher.setKey(key.getKey());
+                cipher.setAuthData(Transcoder.utf8().decode(key.getId()));
+                blockCached = cipher.decrypt(cipherText.array());
+                blockIndexCached = blockIndex;
+            } catch (IonicException e) {
+                throw new IOException(e);
+            }
+        }
+        return blockCached;
+    }
+
+    /**
+     * Fetch the keys (not already fetched) protecting a range of meta blocks, in a single request.  Keys which are
+     * not returned are left to be fetched individually, so that the failure is reported for the key concerned.
+     *
+     * @param metaFirst the index of the first meta block in the range
+     * @param metaLast  the index of the last meta block in the range
+     * @throws IonicException on failure of the key request
+     */
+    private void fetchKeys(final int metaFirst, final int metaLast) throws IonicException {
+        final Set<String> tagsFetch = new LinkedHashSet<String>();
+        for (int i = metaFirst; (i <= metaLast); ++i) {
+            final String tag = tags.get(i);
+            if (!keys.containsKey(tag)) {
+                tagsFetch.add(tag);
+            }
+        }
+        if (tagsFetch.size() > 1) {
+            final GetKeysResponse getKeysResponse = agent.getKeys(
+                    new GetKeysRequest(tagsFetch.toArray(new String[tagsFetch.size()])));
+            for (String tag : tagsFetch) {
+                final AgentKey key = getKeysResponse.getKey(tag);
+                if (key != null) {
+                    keys.put(tag, key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fetch the key with the specified key tag, if it has not already been fetched.
+     *
+     * @param tag the key tag
+     * @return the key
+     * @throws IonicException on failure to fetch the key
+     */
+    private AgentKey getKey(final String tag) throws IonicException {
+        AgentKey key = keys.get(tag);
+        if (key == null) {
+            key = agent.getKey(tag).getFirstKey();
+            keys.put(tag, key);
+        }
+        return key;
+    }
+
+    /**
+     * Fill a buffer from the protected resource.
+     *
+     * @param positionCipher the position in the protected resource from which to read
+     * @param buffer         the buffer to be filled
+     * @throws IOException on failure reading from the resource, or if the resource ends before the buffer is filled
+     */
+    private void readFully(final long positionCipher, final ByteBuffer buffer) throws IOException {
+        channel.position(positionCipher);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * The size of the AES-GCM data added to each plaintext block on encryption (initialization vector, auth tag).
+     */
+    private static final int SIZE_OVERHEAD = AesCipher.SIZE_IV + AesCipher.SIZE_ATAG;
+}
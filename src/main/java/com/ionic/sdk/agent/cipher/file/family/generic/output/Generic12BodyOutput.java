@@ -1,7 +1,9 @@
 package com.ionic.sdk.agent.cipher.file.family.generic.output;
 
 import com.ionic.sdk.agent.cipher.file.data.FileCipher;
+import com.ionic.sdk.agent.cipher.file.family.generic.pipeline.GenericBlockPipeline;
 import com.ionic.sdk.agent.key.AgentKey;
+import com.ionic.sdk.cipher.aes.AesCipher;
 import com.ionic.sdk.cipher.aes.AesCtrCipher;
 import com.ionic.sdk.core.annotation.InternalUseOnly;
 import com.ionic.sdk.crypto.CryptoUtils;
@@ -11,8 +13,10 @@ import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Extensions for handling output of {@link com.ionic.sdk.agent.cipher.file.GenericFileCipher}
@@ -36,6 +40,16 @@ final class Generic12BodyOutput implements GenericBodyOutput {
      */
     private final AgentKey key;
 
+    /**
+     * The pipeline used to encrypt file blocks in parallel (or null, if blocks are encrypted on the calling thread).
+     */
+    private final GenericBlockPipeline pipeline;
+
+    /**
+     * The ciphers not currently in use by a pipeline worker.
+     */
+    private final Queue<AesCtrCipher> ciphers;
+
     /**
      * The buffer to hold a plaintext block (source buffer for encryption, target buffer for decryption).
      */
@@ -60,13 +74,17 @@ final class Generic12BodyOutput implements GenericBodyOutput {
      * @param key          the cryptography key used to decrypt and verify the file content
      * @param plainText    ByteBuffer containing bytes to encrypt
      * @param cipherText   ByteBuffer to receive the result of the cryptography operation
+     * @param executor     the executor on which to encrypt blocks in parallel (or null, to encrypt blocks on the
+     *                     calling thread)
      */
     Generic12BodyOutput(final BufferedOutputStream targetStream, final AesCtrCipher cipher, final AgentKey key,
-                        final ByteBuffer plainText, final ByteBuffer cipherText) {
+                        final ByteBuffer plainText, final ByteBuffer cipherText, final ExecutorService executor) {
         this.targetStream = targetStream;
         this.plainTextBlockHashes = new ByteArrayOutputStream();
         this.cipher = cipher;
         this.key = key;
+        this.pipeline = (executor == null) ? null : new GenericBlockPipeline(executor);
+        this.ciphers = new ConcurrentLinkedQueue<AesCtrCipher>();
         this.plainText = plainText;
         this.cipherText = cipherText;
     }
@@ -90,21 +108,93 @@ final class Generic12BodyOutput implements GenericBodyOutput {
 
     @Override
     public int write(final ByteBuffer byteBuffer) throws IOException, IonicException {
+        return (pipeline == null) ? writeBlock(byteBuffer) : writeBlockParallel(byteBuffer);
+    }
+
+    /**
+     * Encrypt and sign the current plaintext block on the calling thread, and write it to the output resource.
+     *
+     * @param byteBuffer the plaintext block
+     * @return the length of the ciphertext block
+     * @throws IOException    on failure writing to the stream
+     * @throws IonicException on failure to encrypt or sign the block
+     */
+    private int writeBlock(final ByteBuffer byteBuffer) throws IOException, IonicException {
         final byte[] plainTextBlockHash = CryptoUtils.hmacSHA256(byteBuffer, key.getKey());
         plainTextBlockHashes.write(plainTextBlockHash);
         plainText.position(0);
         cipherText.clear();
         final int encryptedLen = cipher.encrypt(plainText, cipherText);
-        final WritableByteChannel cipherChannel = Channels.newChannel(targetStream);
-        cipherText.limit(cipherText.position());
-        cipherText.position(0);
-        cipherChannel.write(cipherText);
+        // write the block in a single call (a stream channel adapter would copy it through in small chunks)
+        targetStream.write(cipherText.array(), cipherText.arrayOffset(), cipherText.position());
         targetStream.flush();
         return encryptedLen;
     }
 
+    /**
+     * Submit the current plaintext block to the encryption pipeline, and write any blocks needed to bring the
+     * pipeline within its bound to the output resource.  Each pipeline result is the ciphertext block, followed by
+     * the hash of the plaintext block.
+     *
+     * @param byteBuffer the plaintext block
+     * @return the length of the ciphertext block (which is determined by the length of the plaintext block)
+     * @throws IOException    on failure writing to the stream
+     * @throws IonicException on failure to encrypt or sign a block
+     */
+    private int writeBlockParallel(final ByteBuffer byteBuffer) throws IOException, IonicException {
+        final ByteBuffer plainTextBlock = byteBuffer.duplicate();
+        plainTextBlock.position(0);
+        final byte[] block = new byte[plainTextBlock.remaining()];
+        plainTextBlock.get(block);
+        pipeline.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws IonicException {
+                final AesCtrCipher cipherPooled = ciphers.poll();
+                final AesCtrCipher cipherBlock = (cipherPooled == null) ? new AesCtrCipher(key.getKey()) : cipherPooled;
+                try {
+                    final int sizeCipherText = AesCipher.SIZE_IV + block.length;
+                    final byte[] result = new byte[sizeCipherText + CryptoUtils.SHA256_DIGEST_SIZE];
+                    cipherBlock.encrypt(ByteBuffer.wrap(block), ByteBuffer.wrap(result));
+                    final byte[] plainTextBlockHash = CryptoUtils.hmacSHA256(block, key.getKey());
+                    System.arraycopy(plainTextBlockHash, 0, result, sizeCipherText, plainTextBlockHash.length);
+                    return result;
+                } finally {
+                    ciphers.offer(cipherBlock);
+                }
+            }
+        });
+        while (pipeline.isFull()) {
+            drain();
+        }
+        return AesCipher.SIZE_IV + block.length;
+    }
+
+    /**
+     * Write the oldest block in the encryption pipeline to the output resource, and record its hash.
+     *
+     * @throws IOException    on failure writing to the stream
+     * @throws IonicException on failure to encrypt or sign the block
+     */
+    private void drain() throws IOException, IonicException {
+        final byte[] result = pipeline.take();
+        final int sizeCipherText = result.length - CryptoUtils.SHA256_DIGEST_SIZE;
+        plainTextBlockHashes.write(result, sizeCipherText, CryptoUtils.SHA256_DIGEST_SIZE);
+        try {
+            targetStream.write(result, 0, sizeCipherText);
+            targetStream.flush();
+        } catch (IOException e) {
+            pipeline.cancel();
+            throw e;
+        }
+    }
+
     @Override
-    public void doFinal() {
+    public void doFinal() throws IOException, IonicException {
+        if (pipeline != null) {
+            while (pipeline.size() > 0) {
+                drain();
+            }
+        }
     }
 
     /**
@@ -1,12 +1,18 @@
 package com.ionic.sdk.agent.cipher.file.family.generic.output;
 
 import com.ionic.sdk.agent.cipher.file.data.FileCipher;
+import com.ionic.sdk.agent.cipher.file.family.generic.pipeline.GenericBlockPipeline;
 import com.ionic.sdk.agent.key.AgentKey;
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
 import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.service.IDC;
+import com.ionic.sdk.cipher.aes.AesCipher;
 import com.ionic.sdk.cipher.aes.AesGcmCipher;
 import com.ionic.sdk.core.annotation.InternalUseOnly;
 import com.ionic.sdk.core.codec.Transcoder;
 import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkData;
+import com.ionic.sdk.error.SdkError;
 import com.ionic.sdk.json.JsonTarget;
 import com.ionic.sdk.key.KeyServices;
 
@@ -16,8 +22,9 @@ import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Extensions for handling output of {@link com.ionic.sdk.agent.cipher.file.GenericFileCipher}
@@ -41,11 +48,31 @@ final class Generic13BodyOutput implements GenericBodyOutput {
      */
     private final AgentKey key;
 
+    /**
+     * The cryptography key used to encrypt the content of the current meta block.
+     */
+    private AgentKey keyBlock;
+
+    /**
+     * Keys created ahead of need, for use in the key rotations of subsequent meta blocks.
+     */
+    private final Deque<CreateKeysResponse.Key> keysRotate;
+
+    /**
+     * The length of the resource to be encrypted; used to determine the number of key rotations needed.
+     */
+    private final long sizeInput;
+
     /**
      * The Ionic cipher used to encrypt file blocks.
      */
     private final AesGcmCipher cipher;
 
+    /**
+     * The pipeline used to encrypt file blocks in parallel (or null, if blocks are encrypted on the calling thread).
+     */
+    private final GenericBlockPipeline pipeline;
+
     /**
      * The default size of a single encryption block.
      */
@@ -78,18 +105,26 @@ final class Generic13BodyOutput implements GenericBodyOutput {
      * @param targetStream the raw output data containing the protected file content
      * @param agent        the key services implementation; used to provide keys for cryptography operations
      * @param key          the cryptography key used to encrypt the content of the first meta block
+     * @param sizeInput    the length of the resource to be encrypted
      * @param blockSize    the default size of a single encryption block
      * @param metaSize     the count of blocks which use the same encryption key
      * @param plainText    ByteBuffer containing bytes to encrypt
      * @param cipherText   ByteBuffer to receive the result of the cryptography operation
+     * @param executor     the executor on which to encrypt blocks in parallel (or null, to encrypt blocks on the
+     *                     calling thread)
      * @throws IonicException on failure to instantiate the AES/GCM cipher
      */
     Generic13BodyOutput(final BufferedOutputStream targetStream, final KeyServices agent,
-                        final AgentKey key, final int blockSize, final int metaSize,
-                        final ByteBuffer plainText, final ByteBuffer cipherText) throws IonicException {
+                        final AgentKey key, final long sizeInput, final int blockSize, final int metaSize,
+                        final ByteBuffer plainText, final ByteBuffer cipherText,
+                        final ExecutorService executor) throws IonicException {
         this.targetStream = targetStream;
         this.agent = agent;
         this.key = key;
+        this.keyBlock = key;
+        this.keysRotate = new ArrayDeque<CreateKeysResponse.Key>();
+        this.sizeInput = sizeInput;
+        this.pipeline = (executor == null) ? null : new GenericBlockPipeline(executor);
         this.cipher = new AesGcmCipher(key.getKey());
         this.cipher.setAuthData(Transcoder.utf8().decode(key.getId()));
         this.blockSize = blockSize;
@@ -111,41 +146,125 @@ final class Generic13BodyOutput implements GenericBodyOutput {
 
     @Override
     public int write(final ByteBuffer byteBuffer) throws IOException, IonicException {
-        final DataOutputStream dos = new DataOutputStream(targetStream);
         // cryptography keys are rotated every 'metaSize' blocks
-        if ((blockIndex > 0) && ((blockIndex % metaSize) == 0)) {
-            // rotate file cipher key
-            final CreateKeysResponse createKeysResponse = agent.createKey(
-                    key.getAttributesMap(), key.getMutableAttributesMap());
-            final CreateKeysResponse.Key keyRotate = createKeysResponse.getFirstKey();
-            cipher.setKey(keyRotate.getKey());
-            cipher.setAuthData(Transcoder.utf8().decode(keyRotate.getId()));
-            // serialize Ionic generic v1.3 key rotation JSON header
-            final JsonObjectBuilder jsonHeaderBuilder = Json.createObjectBuilder();
-            JsonTarget.addNotNull(jsonHeaderBuilder, FileCipher.Header.TAG, keyRotate.getId());
-            final String headerText = new GenericHeaderOutput().write(
-                    jsonHeaderBuilder, FileCipher.Generic.V13.LABEL);
-            dos.write(Transcoder.utf8().decode(headerText));
+        final byte[] header = ((blockIndex > 0) && ((blockIndex % metaSize) == 0)) ? rotateKey() : new byte[0];
+        ++blockIndex;
+        return (pipeline == null) ? writeBlock(header) : writeBlockParallel(header, byteBuffer);
+    }
+
+    /**
+     * Switch to a new cryptography key for the next meta block, and serialize the key rotation header which precedes
+     * the meta block.
+     * <p>
+     * At the first rotation, the keys for all of the remaining meta blocks (as determined by the length of the
+     * resource) are created in a single request, so that the encryption does not wait on a server round trip at
+     * each subsequent rotation.  Should the resource turn out to be longer than expected, further keys are created
+     * as needed.
+     *
+     * @return the serialized Ionic generic v1.3 key rotation header
+     * @throws IonicException on failure to create the key
+     */
+    private byte[] rotateKey() throws IonicException {
+        // rotate file cipher key
+        if (keysRotate.isEmpty()) {
+            final long countBlocks = (sizeInput + blockSize - 1) / blockSize;
+            final long countMetaBlocks = (countBlocks + metaSize - 1) / metaSize;
+            final long countRemaining = countMetaBlocks - (blockIndex / metaSize);
+            final int quantity = (int) Math.max(1L, Math.min(countRemaining, ROTATE_KEYS_MAX));
+            final CreateKeysRequest createKeysRequest = new CreateKeysRequest();
+            createKeysRequest.add(new CreateKeysRequest.Key(
+                    IDC.Payload.REF, quantity, key.getAttributesMap(), key.getMutableAttributesMap()));
+            keysRotate.addAll(agent.createKeys(createKeysRequest).getKeys());
+            SdkData.checkTrue(!keysRotate.isEmpty(), SdkError.ISAGENT_KEY_DENIED);
         }
+        final CreateKeysResponse.Key keyRotate = keysRotate.poll();
+        keyBlock = keyRotate;
+        cipher.setKey(keyRotate.getKey());
+        cipher.setAuthData(Transcoder.utf8().decode(keyRotate.getId()));
+        // serialize Ionic generic v1.3 key rotation JSON header
+        final JsonObjectBuilder jsonHeaderBuilder = Json.createObjectBuilder();
+        JsonTarget.addNotNull(jsonHeaderBuilder, FileCipher.Header.TAG, keyRotate.getId());
+        final String headerText = new GenericHeaderOutput().write(jsonHeaderBuilder, FileCipher.Generic.V13.LABEL);
+        return Transcoder.utf8().decode(headerText);
+    }
+
+    /**
+     * Encrypt the current plaintext block on the calling thread, and write it to the output resource.
+     *
+     * @param header the serialized key rotation header to precede the block (may be empty)
+     * @return the length of the ciphertext block
+     * @throws IOException    on failure writing to the stream
+     * @throws IonicException on failure to encrypt the block
+     */
+    private int writeBlock(final byte[] header) throws IOException, IonicException {
+        final DataOutputStream dos = new DataOutputStream(targetStream);
+        dos.write(header);
         plainText.position(0);
         cipherText.clear();
         final int encryptedLen = cipher.encrypt(plainText, cipherText);
         dos.writeInt(encryptedLen);
-        final WritableByteChannel cipherChannel = Channels.newChannel(targetStream);
-        cipherText.limit(cipherText.position());
-        cipherText.position(0);
-        cipherChannel.write(cipherText);
+        // write the block in a single call (a stream channel adapter would copy it through in small chunks)
+        dos.write(cipherText.array(), cipherText.arrayOffset(), cipherText.position());
         targetStream.flush();
-        ++blockIndex;
         return encryptedLen;
     }
 
+    /**
+     * Submit the current plaintext block to the encryption pipeline, and write any blocks needed to bring the
+     * pipeline within its bound to the output resource.
+     *
+     * @param header     the serialized key rotation header to precede the block (may be empty)
+     * @param byteBuffer the plaintext block
+     * @return the length of the ciphertext block (which is determined by the length of the plaintext block)
+     * @throws IOException    on failure writing to the stream
+     * @throws IonicException on failure to encrypt a block
+     */
+    private int writeBlockParallel(final byte[] header, final ByteBuffer byteBuffer)
+            throws IOException, IonicException {
+        final ByteBuffer plainTextBlock = byteBuffer.duplicate();
+        plainTextBlock.position(0);
+        final byte[] block = new byte[plainTextBlock.remaining()];
+        plainTextBlock.get(block);
+        pipeline.encrypt(header, block, keyBlock);
+        while (pipeline.isFull()) {
+            drain();
+        }
+        return AesCipher.SIZE_IV + block.length + AesCipher.SIZE_ATAG;
+    }
+
+    /**
+     * Write the oldest block in the encryption pipeline to the output resource.
+     *
+     * @throws IOException    on failure writing to the stream
+     * @throws IonicException on failure to encrypt the block
+     */
+    private void drain() throws IOException, IonicException {
+        final byte[] block = pipeline.take();
+        try {
+            targetStream.write(block);
+            targetStream.flush();
+        } catch (IOException e) {
+            pipeline.cancel();
+            throw e;
+        }
+    }
+
     @Override
-    public void doFinal() {
+    public void doFinal() throws IOException, IonicException {
+        if (pipeline != null) {
+            while (pipeline.size() > 0) {
+                drain();
+            }
+        }
     }
 
     @Override
     public byte[] getSignature() {
         return null;
     }
+
+    /**
+     * The maximum number of rotation keys to create in a single request.
+     */
+    private static final long ROTATE_KEYS_MAX = 1000L;
 }
@@ -42,8 +42,11 @@ interface GenericBodyOutput {
 
     /**
      * Finish processing of the output stream.
+     *
+     * @throws IOException    on failure writing to the stream
+     * @throws IonicException on failure to encrypt any remaining blocks
      */
-    void doFinal();
+    void doFinal() throws IOException, IonicException;
 
     /**
      * Retrieve the calculated file signature for the output (if applicable for the version of the generic file
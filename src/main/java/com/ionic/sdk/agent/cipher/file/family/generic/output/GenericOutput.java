@@ -21,6 +21,7 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Wrap an output stream with logic to manage the Ionic augmentation of the content (header, cipher blocks).
@@ -78,11 +79,17 @@ public final class GenericOutput {
      */
     private int headerLength;
 
+    /**
+     * The executor on which to encrypt version 1.3 blocks in parallel (or null, to encrypt blocks on the calling
+     * thread).
+     */
+    private ExecutorService executor;
+
     /**
      * The length of the output of the encryption operation.  This is tracked so that it may be available to
      * wrapping ciphers (in particular, {@link com.ionic.sdk.agent.cipher.file.PdfFileCipher}).
      */
-    private int outputLength;
+    private long outputLength;
 
     /**
      * Constructor.
@@ -97,6 +104,17 @@ public final class GenericOutput {
         this.agent = agent;
     }
 
+    /**
+     * Specify an executor on which to encrypt blocks in parallel.  This applies to version 1.2 and 1.3 output, and must
+     * be specified before {@link #init(FileCryptoEncryptAttributes)}.
+     *
+     * @param executor the executor on which to encrypt blocks in parallel (or null, to encrypt blocks on the
+     *                 calling thread)
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
     /**
      * Initialize this object for processing the body of an Ionic-protected file.
      *
@@ -132,7 +150,7 @@ public final class GenericOutput {
             final int sizeBlock = (int) Math.min(sizeInput, FileCipher.Generic.V12.BLOCK_SIZE_PLAIN);
             plainText = ByteBuffer.allocate(sizeBlock);
             cipherText = ByteBuffer.allocate(sizeBlock + AesCipher.SIZE_IV);
-            bodyOutput = new Generic12BodyOutput(targetStream, cipher, createKey, plainText, cipherText);
+            bodyOutput = new Generic12BodyOutput(targetStream, cipher, createKey, plainText, cipherText, executor);
         } else if (FileCipher.Generic.V13.LABEL.equals(version)) {
             final String propMetaSize = encryptAttributes.getProperty(FileCipher.Generic.META_SIZE);
             final String propBlockSize = encryptAttributes.getProperty(FileCipher.Generic.BLOCK_SIZE);
@@ -144,7 +162,7 @@ public final class GenericOutput {
             plainText = ByteBuffer.allocate(blockSize);
             cipherText = ByteBuffer.allocate(blockSize + AesCipher.SIZE_IV + AesCipher.SIZE_IV);
             bodyOutput = new Generic13BodyOutput(targetStream, agent, createKey,
-                    blockSize, metaSize, plainText, cipherText);
+                    sizeInput, blockSize, metaSize, plainText, cipherText, executor);
         } else {
             throw new IonicException(SdkError.ISFILECRYPTO_VERSION_UNSUPPORTED);
         }
@@ -193,9 +211,10 @@ public final class GenericOutput {
     /**
      * Finish processing of the output stream.
      *
-     * @throws IOException on failure flushing the stream
+     * @throws IOException    on failure flushing the stream
+     * @throws IonicException on failure to encrypt any remaining blocks
      */
-    public void doFinal() throws IOException {
+    public void doFinal() throws IOException, IonicException {
         bodyOutput.doFinal();
         targetStream.flush();
     }
@@ -231,7 +250,7 @@ public final class GenericOutput {
     /**
      * @return the length of the output of the encryption operation
      */
-    public int getOutputLength() {
+    public long getOutputLength() {
         return outputLength;
     }
 }
@@ -0,0 +1,223 @@
+package com.ionic.sdk.agent.cipher.file.family.generic.pipeline;
+
+import com.ionic.sdk.agent.key.AgentKey;
+import com.ionic.sdk.cipher.aes.AesGcmCipher;
+import com.ionic.sdk.core.annotation.InternalUseOnly;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkData;
+import com.ionic.sdk.error.SdkError;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Pipeline of {@link com.ionic.sdk.agent.cipher.file.GenericFileCipher} file blocks, on which the cryptography
+ * operations are performed in parallel.  The version 1.3 (AES-GCM) operations are provided by the pipeline; other
+ * block operations (version 1.2) are submitted as tasks.
+ * <p>
+ * Blocks are submitted in file order by the thread reading the input resource, and their results are taken in the
+ * same order by the thread writing the output resource.  The number of blocks in flight is bounded, so that memory
+ * use does not depend on the size of the resource.  Each block carries its own key, so that blocks on either side of
+ * a key rotation boundary may be in flight at the same time.
+ * <p>
+ * {@link AesGcmCipher} instances are not thread safe, and are relatively expensive to create.  Each worker takes a
+ * cipher from a pool owned by the pipeline, and returns it on completion of the block, so that at most one cipher
+ * is created per concurrent worker.
+ */
+@InternalUseOnly
+public final class GenericBlockPipeline {
+
+    /**
+     * The executor on which the cryptography operations are performed.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The maximum number of blocks in flight.
+     */
+    private final int capacity;
+
+    /**
+     * The blocks in flight, in file order.
+     */
+    private final Deque<Future<byte[]>> blocks;
+
+    /**
+     * The ciphers not currently in use by a worker.
+     */
+    private final Queue<AesGcmCipher> ciphers;
+
+    /**
+     * Constructor.
+     *
+     * @param executor the executor on which the cryptography operations are performed
+     */
+    public GenericBlockPipeline(final ExecutorService executor) {
+        this.executor = executor;
+        this.capacity = getCapacity(executor);
+        this.blocks = new ArrayDeque<Future<byte[]>>();
+        this.ciphers = new ConcurrentLinkedQueue<AesGcmCipher>();
+    }
+
+    /**
+     * Calculate the maximum number of blocks in flight in a pipeline, which is twice the parallelism of the executor.
+     *
+     * @param executor the executor on which the cryptography operations are performed
+     * @return the maximum number of blocks in flight
+     */
+    public static int getCapacity(final ExecutorService executor) {
+        final int parallelism = (executor instanceof ForkJoinPool)
+                ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+        return Math.max(2, parallelism * 2);
+    }
+
+    /**
+     * @return true, if no further blocks should be submitted until a result is taken
+     */
+    public boolean isFull() {
+        return (blocks.size() >= capacity);
+    }
+
+    /**
+     * @return the number of blocks in flight
+     */
+    public int size() {
+        return blocks.size();
+    }
+
+    /**
+     * Submit a plaintext block for encryption.  The result of the operation is the serialized version 1.3 block:
+     * the (optional) key rotation header, the length of the ciphertext, and the ciphertext.
+     *
+     * @param header    the serialized key rotation header to precede the block (may be empty)
+     * @param plainText the plaintext block
+     * @param key       the key with which to encrypt the block
+     */
+    public void encrypt(final byte[] header, final byte[] plainText, final AgentKey key) {
+        submit(new BlockTask(key) {
+            @Override
+            byte[] run(final AesGcmCipher cipher) throws IonicException {
+                final byte[] cipherText = cipher.encrypt(plainText);
+                final ByteBuffer block = ByteBuffer.allocate(header.length + SIZE_INT + cipherText.length);
+                block.put(header);
+                block.putInt(cipherText.length);
+                block.put(cipherText);
+                return block.array();
+            }
+        });
+    }
+
+    /**
+     * Submit a ciphertext block for decryption.  The result of the operation is the plaintext block.
+     *
+     * @param cipherText the ciphertext block (excluding the length prefix)
+     * @param key        the key with which to decrypt the block
+     */
+    public void decrypt(final byte[] cipherText, final AgentKey key) {
+        submit(new BlockTask(key) {
+            @Override
+            byte[] run(final AesGcmCipher cipher) throws IonicException {
+                return cipher.decrypt(cipherText);
+            }
+        });
+    }
+
+    /**
+     * Wait for the result of the oldest block in flight.
+     *
+     * @return the result of the cryptography operation on the block
+     * @throws IonicException on failure of the cryptography operation; or if no block is in flight
+     */
+    public byte[] take() throws IonicException {
+        final Future<byte[]> block = blocks.poll();
+        SdkData.checkTrue(block != null, SdkError.ISFILECRYPTO_EOF);
+        try {
+            return block.get();
+        } catch (ExecutionException e) {
+            cancel();
+            final Throwable cause = e.getCause();
+            throw (cause instanceof IonicException)
+                    ? (IonicException) cause : new IonicException(SdkError.ISFILECRYPTO_ERROR, cause);
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new IonicException(SdkError.ISFILECRYPTO_ERROR, e);
+        }
+    }
+
+    /**
+     * Abandon the blocks in flight (on failure of the operation).
+     */
+    public void cancel() {
+        for (Future<byte[]> block : blocks) {
+            block.cancel(false);
+        }
+        blocks.clear();
+    }
+
+    /**
+     * Submit a block operation.  The result of the operation is made available by {@link #take()}, in submission
+     * order.
+     *
+     * @param blockTask the operation to be performed
+     */
+    public void submit(final Callable<byte[]> blockTask) {
+        blocks.add(executor.submit(blockTask));
+    }
+
+    /**
+     * The cryptography operation on a single block.
+     */
+    private abstract class BlockTask implements Callable<byte[]> {
+
+        /**
+         * The key with which the block is protected.
+         */
+        private final AgentKey key;
+
+        /**
+         * Constructor.
+         *
+         * @param key the key with which the block is protected
+         */
+        BlockTask(final AgentKey key) {
+            this.key = key;
+        }
+
+        /**
+         * Perform the cryptography operation.
+         *
+         * @param cipher the cipher, initialized with the key of the block
+         * @return the result of the cryptography operation
+         * @throws IonicException on cryptography failures
+         */
+        abstract byte[] run(AesGcmCipher cipher) throws IonicException;
+
+        @Override
+        public byte[] call() throws IonicException {
+            final AesGcmCipher cipherPooled = ciphers.poll();
+            final AesGcmCipher cipher = (cipherPooled == null) ? new AesGcmCipher() : cipherPooled;
+            try {
+                cipher.setKey(key.getKey());
+                cipher.setAuthData(Transcoder.utf8().decode(key.getId()));
+                return run(cipher);
+            } finally {
+                ciphers.offer(cipher);
+            }
+        }
+    }
+
+    /**
+     * The size of the serialized block length (a 32 bit integer).
+     */
+    private static final int SIZE_INT = Integer.SIZE / Byte.SIZE;
+}
@@ -0,0 +1,4 @@
+/**
+ * Internal implementation of parallel generic format file block processing.
+ */
+package com.ionic.sdk.agent.cipher.file.family.generic.pipeline;
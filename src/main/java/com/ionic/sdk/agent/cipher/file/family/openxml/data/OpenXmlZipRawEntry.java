@@ -0,0 +1,315 @@
+package com.ionic.sdk.agent.cipher.file.family.openxml.data;
+
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkData;
+import com.ionic.sdk.error.SdkError;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A zip entry of an in-memory zip file (for example, a cover page), referenced in its stored (possibly compressed)
+ * form.  This allows the entry to be copied into another zip file without being inflated and deflated again.
+ */
+public final class OpenXmlZipRawEntry {
+
+    /**
+     * The zip file containing the entry.
+     */
+    private final byte[] zip;
+
+    /**
+     * The name of the entry, as stored in the zip file.
+     */
+    private final byte[] name;
+
+    /**
+     * The general purpose bit flags of the entry.
+     */
+    private final int flags;
+
+    /**
+     * The compression method of the entry.
+     */
+    private final int method;
+
+    /**
+     * The last modification time of the entry, in MS-DOS format (date in the high 16 bits).
+     */
+    private final int dosTime;
+
+    /**
+     * The CRC-32 checksum of the uncompressed entry data.
+     */
+    private final long crc;
+
+    /**
+     * The size of the compressed entry data.
+     */
+    private final long compressedSize;
+
+    /**
+     * The size of the uncompressed entry data.
+     */
+    private final long size;
+
+    /**
+     * The position in the zip file of the compressed entry data.
+     */
+    private final int offsetData;
+
+    /**
+     * Constructor.
+     *
+     * @param zip            the zip file containing the entry
+     * @param name           the name of the entry, as stored in the zip file
+     * @param flags          the general purpose bit flags of the entry
+     * @param method         the compression method of the entry
+     * @param dosTime        the last modification time of the entry, in MS-DOS format
+     * @param crc            the CRC-32 checksum of the uncompressed entry data
+     * @param compressedSize the size of the compressed entry data
+     * @param size           the size of the uncompressed entry data
+     * @param offsetData     the position in the zip file of the compressed entry data
+     */
+    private OpenXmlZipRawEntry(final byte[] zip, final byte[] name, final int flags, final int method,
+                               final int dosTime, final long crc, final long compressedSize, final long size,
+                               final int offsetData) {
+        this.zip = zip;
+        this.name = name;
+        this.flags = flags;
+        this.method = method;
+        this.dosTime = dosTime;
+        this.crc = crc;
+        this.compressedSize = compressedSize;
+        this.size = size;
+        this.offsetData = offsetData;
+    }
+
+    /**
+     * @return the name of the entry
+     */
+    public String getName() {
+        return Transcoder.utf8().encode(name);
+    }
+
+    /**
+     * @return the name of the entry, as stored in the zip file
+     */
+    byte[] getNameBytes() {
+        return name.clone();
+    }
+
+    /**
+     * @return the general purpose bit flags of the entry
+     */
+    int getFlags() {
+        return flags;
+    }
+
+    /**
+     * @return the compression method of the entry
+     */
+    int getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the last modification time of the entry, in MS-DOS format
+     */
+    int getDosTime() {
+        return dosTime;
+    }
+
+    /**
+     * @return the CRC-32 checksum of the uncompressed entry data
+     */
+    long getCrc() {
+        return crc;
+    }
+
+    /**
+     * @return the size of the compressed entry data
+     */
+    long getCompressedSize() {
+        return compressedSize;
+    }
+
+    /**
+     * @return the size of the uncompressed entry data
+     */
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the zip file containing the entry
+     */
+    byte[] getZip() {
+        return zip;
+    }
+
+    /**
+     * @return the position in the zip file of the compressed entry data
+     */
+    int getOffsetData() {
+        return offsetData;
+    }
+
+    /**
+     * Enumerate the entries of an in-memory zip file, using its central directory.
+     *
+     * @param zip the zip file content
+     * @return the entries of the zip file, in central directory order
+     * @throws IonicException on failure to parse the zip file
+     */
+    public static List<OpenXmlZipRawEntry> read(final byte[] zip) throws IonicException {
+        final ByteBuffer buffer = ByteBuffer.wrap(zip).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            // locate the end of central directory record (it may be followed by a comment)
+            int offsetEnd = zip.length - SIZE_END;
+            while ((offsetEnd >= 0) && (buffer.getInt(offsetEnd) != OpenXmlZipWriter.SIG_END)) {
+                --offsetEnd;
+            }
+            SdkData.checkTrue((offsetEnd >= 0), SdkError.ISFILECRYPTO_PARSEFAILED);
+            final int count = buffer.getShort(offsetEnd + OFFSET_END_COUNT) & MASK_16;
+            final long offsetDirectory = buffer.getInt(offsetEnd + OFFSET_END_DIRECTORY) & MASK_32;
+            // zip64 archives are not expected here
+            SdkData.checkTrue((offsetDirectory < offsetEnd), SdkError.ISFILECRYPTO_PARSEFAILED);
+            final List<OpenXmlZipRawEntry> entries = new ArrayList<OpenXmlZipRawEntry>();
+            int position = (int) offsetDirectory;
+            for (int i = 0; (i < count); ++i) {
+                SdkData.checkTrue((buffer.getInt(position) == OpenXmlZipWriter.SIG_CENTRAL),
+                        SdkError.ISFILECRYPTO_PARSEFAILED);
+                final int flags = buffer.getShort(position + OFFSET_CENTRAL_FLAGS) & MASK_16;
+                final int method = buffer.getShort(position + OFFSET_CENTRAL_METHOD) & MASK_16;
+                final int dosTime = buffer.getInt(position + OFFSET_CENTRAL_TIME);
+                final long crc = buffer.getInt(position + OFFSET_CENTRAL_CRC) & MASK_32;
+                final long compressedSize = buffer.getInt(position + OFFSET_CENTRAL_COMPRESSED) & MASK_32;
+                final long size = buffer.getInt(position + OFFSET_CENTRAL_SIZE) & MASK_32;
+                final int lengthName = buffer.getShort(position + OFFSET_CENTRAL_NAME) & MASK_16;
+                final int lengthExtra = buffer.getShort(position + OFFSET_CENTRAL_EXTRA) & MASK_16;
+                final int lengthComment = buffer.getShort(position + OFFSET_CENTRAL_COMMENT) & MASK_16;
+                final long offsetLocal = buffer.getInt(position + OFFSET_CENTRAL_LOCAL) & MASK_32;
+                final int offsetName = position + SIZE_CENTRAL;
+                final byte[] name = Arrays.copyOfRange(zip, offsetName, offsetName + lengthName);
+                // the local header may carry different extra data than the central directory
+                SdkData.checkTrue((offsetLocal < offsetDirectory), SdkError.ISFILECRYPTO_PARSEFAILED);
+                final int local = (int) offsetLocal;
+                SdkData.checkTrue((buffer.getInt(local) == OpenXmlZipWriter.SIG_LOCAL),
+                        SdkError.ISFILECRYPTO_PARSEFAILED);
+                final int offsetData = local + SIZE_LOCAL + (buffer.getShort(local + OFFSET_LOCAL_NAME) & MASK_16)
+                        + (buffer.getShort(local + OFFSET_LOCAL_EXTRA) & MASK_16);
+                SdkData.checkTrue(((offsetData + compressedSize) <= offsetDirectory),
+                        SdkError.ISFILECRYPTO_PARSEFAILED);
+                entries.add(new OpenXmlZipRawEntry(
+                        zip, name, flags, method, dosTime, crc, compressedSize, size, offsetData));
+                position = offsetName + lengthName + lengthExtra + lengthComment;
+            }
+            return entries;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IonicException(SdkError.ISFILECRYPTO_PARSEFAILED, e);
+        } catch (BufferUnderflowException e) {
+            throw new IonicException(SdkError.ISFILECRYPTO_PARSEFAILED, e);
+        }
+    }
+
+    /**
+     * Bit mask for an unsigned 16 bit value.
+     */
+    private static final int MASK_16 = 0xffff;
+
+    /**
+     * Bit mask for an unsigned 32 bit value.
+     */
+    private static final long MASK_32 = 0xffffffffL;
+
+    /**
+     * The size of the fixed portion of a local file header.
+     */
+    private static final int SIZE_LOCAL = 30;
+
+    /**
+     * The offset of the file name length in a local file header.
+     */
+    private static final int OFFSET_LOCAL_NAME = 26;
+
+    /**
+     * The offset of the extra field length in a local file header.
+     */
+    private static final int OFFSET_LOCAL_EXTRA = 28;
+
+    /**
+     * The size of the fixed portion of a central directory file header.
+     */
+    private static final int SIZE_CENTRAL = 46;
+
+    /**
+     * The offset of the general purpose bit flags in a central directory file header.
+     */
+    private static final int OFFSET_CENTRAL_FLAGS = 8;
+
+    /**
+     * The offset of the compression method in a central directory file header.
+     */
+    private static final int OFFSET_CENTRAL_METHOD = 10;
+
+    /**
+     * The offset of the modification time (and date) in a central directory file header.
+     */
+    private static final int OFFSET_CENTRAL_TIME = 12;
+
+    /**
+     * The offset of the CRC-32 checksum in a central directory file header.
+     */
+    private static final int OFFSET_CENTRAL_CRC = 16;
+
+    /**
+     * The offset of the compressed size in a central directory file header.
+     */
+    private static final int OFFSET_CENTRAL_COMPRESSED = 20;
+
+    /**
+     * The offset of the uncompressed size in a central directory file header.
+     */
+    private static final int OFFSET_CENTRAL_SIZE = 24;
+
+    /**
+     * The offset of the file name length in a central directory file header.
+     */
+    private static final int OFFSET_CENTRAL_NAME = 28;
+
+    /**
+     * The offset of the extra field length in a central directory file header.
+     */
+    private static final int OFFSET_CENTRAL_EXTRA = 30;
+
+    /**
+     * The offset of the file comment length in a central directory file header.
+     */
+    private static final int OFFSET_CENTRAL_COMMENT = 32;
+
+    /**
+     * The offset of the local file header position in a central directory file header.
+     */
+    private static final int OFFSET_CENTRAL_LOCAL = 42;
+
+    /**
+     * The size of the fixed portion of the end of central directory record.
+     */
+    private static final int SIZE_END = 22;
+
+    /**
+     * The offset of the total entry count in the end of central directory record.
+     */
+    private static final int OFFSET_END_COUNT = 10;
+
+    /**
+     * The offset of the central directory position in the end of central directory record.
+     */
+    private static final int OFFSET_END_DIRECTORY = 16;
+}
@@ -0,0 +1,47 @@
+package com.ionic.sdk.agent.cipher.file.family.openxml.data;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prepared leading entries of a zip file (local headers and entry data, along with the metadata needed for the
+ * central directory), which may be written at the beginning of many zip files.  Instances are created using
+ * {@link OpenXmlZipWriter#getTemplate()}, and are not modified once created.
+ */
+public final class OpenXmlZipTemplate {
+
+    /**
+     * The zip file content of the entries.
+     */
+    private final byte[] content;
+
+    /**
+     * The metadata of the entries, with positions relative to the beginning of the content.
+     */
+    private final List<OpenXmlZipWriter.Record> records;
+
+    /**
+     * Constructor.
+     *
+     * @param content the zip file content of the entries
+     * @param records the metadata of the entries, with positions relative to the beginning of the content
+     */
+    OpenXmlZipTemplate(final byte[] content, final List<OpenXmlZipWriter.Record> records) {
+        this.content = content;
+        this.records = Collections.unmodifiableList(records);
+    }
+
+    /**
+     * @return the zip file content of the entries
+     */
+    byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * @return the metadata of the entries, with positions relative to the beginning of the content
+     */
+    List<OpenXmlZipWriter.Record> getRecords() {
+        return records;
+    }
+}
@@ -0,0 +1,723 @@
+package com.ionic.sdk.agent.cipher.file.family.openxml.data;
+
+import com.ionic.sdk.agent.cipher.file.data.FileCipher;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.io.Crc32OutputStream;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkData;
+import com.ionic.sdk.error.SdkError;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Write a zip file, with control over the storage of each entry, which {@link java.util.zip.ZipOutputStream}
+ * does not provide.
+ * <p>
+ * Entries of another zip file may be copied in their compressed form ({@link #writeRaw(OpenXmlZipRawEntry)}).
+ * Entries of incompressible content (such as ciphertext) are written without compression; when the destination is
+ * a file, such an entry may be written as a stream ({@link #openStored(String)}), and its local header updated
+ * when the entry is closed ({@link #closeStored(long, byte[])}).
+ * <p>
+ * Entries (and archives) too large for the 32 bit fields of the zip format are written using the zip64
+ * extensions.
+ * <p>
+ * Leading entries common to many zip files (such as the cover page entries of file cipher output) may be prepared
+ * once using a writer created by {@link #createTemplateWriter()}, and captured as an {@link OpenXmlZipTemplate},
+ * to be written at the beginning of each subsequent zip file using {@link #writeTemplate(OpenXmlZipTemplate)}.
+ */
+public final class OpenXmlZipWriter {
+
+    /**
+     * The destination of the zip file content.
+     */
+    private final OutputStream targetStream;
+
+    /**
+     * The file channel of the destination, if it is a file (allowing in-place update of written content).
+     */
+    private final FileChannel channel;
+
+    /**
+     * The position of the file channel at which the zip file content begins.
+     */
+    private final long channelStart;
+
+    /**
+     * The number of bytes written to the zip file.
+     */
+    private long position;
+
+    /**
+     * The entries written to the zip file, to be listed in the central directory.
+     */
+    private final List<Record> records;
+
+    /**
+     * The destination of the zip file content, when preparing a template (or null).
+     */
+    private final ByteArrayOutputStream templateStream;
+
+    /**
+     * The stored entry currently being streamed (or null).
+     */
+    private Record recordStored;
+
+    /**
+     * The stream accepting the content of the stored entry currently being streamed (or null).
+     */
+    private Crc32OutputStream streamStored;
+
+    /**
+     * Constructor.
+     *
+     * @param outputStream the destination of the zip file content
+     * @throws IOException on failure to query the position of a destination file
+     */
+    public OpenXmlZipWriter(final OutputStream outputStream) throws IOException {
+        this(outputStream, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param outputStream   the destination of the zip file content
+     * @param templateStream the destination of the zip file content, when preparing a template (or null)
+     * @throws IOException on failure to query the position of a destination file
+     */
+    private OpenXmlZipWriter(final OutputStream outputStream,
+                             final ByteArrayOutputStream templateStream) throws IOException {
+        this.templateStream = templateStream;
+        this.targetStream = new BufferedOutputStream(outputStream, FileCipher.OpenXml.ZIPFILE_BLOCK_SIZE);
+        if (outputStream instanceof FileOutputStream) {
+            this.channel = ((FileOutputStream) outputStream).getChannel();
+            this.channelStart = channel.position();
+        } else {
+            this.channel = null;
+            this.channelStart = 0L;
+        }
+        this.position = 0L;
+        this.records = new ArrayList<Record>();
+    }
+
+    /**
+     * Create a writer for preparing a template.  Entries written to this writer are held in memory, and may then be
+     * captured using {@link #getTemplate()}.
+     *
+     * @return a writer for preparing a template
+     * @throws IOException on failure to initialize the writer
+     */
+    public static OpenXmlZipWriter createTemplateWriter() throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        return new OpenXmlZipWriter(os, os);
+    }
+
+    /**
+     * Capture the entries written by a writer created using {@link #createTemplateWriter()}.
+     *
+     * @return the template containing the entries written to this writer
+     * @throws IOException    on failure writing to the destination
+     * @throws IonicException if this writer was not created for preparing a template, or if a stored entry is still
+     *                        being streamed
+     */
+    public OpenXmlZipTemplate getTemplate() throws IOException, IonicException {
+        SdkData.checkTrue((templateStream != null) && (recordStored == null), SdkError.ISFILECRYPTO_STREAM_WRITE);
+        targetStream.flush();
+        final List<Record> recordsTemplate = new ArrayList<Record>();
+        for (Record record : records) {
+            recordsTemplate.add(new Record(record, 0L));
+        }
+        return new OpenXmlZipTemplate(templateStream.toByteArray(), recordsTemplate);
+    }
+
+    /**
+     * Write the entries of a template into this zip file.
+     *
+     * @param template the template containing the entries
+     * @throws IOException on failure writing to the destination
+     */
+    public void writeTemplate(final OpenXmlZipTemplate template) throws IOException {
+        for (Record record : template.getRecords()) {
+            records.add(new Record(record, position));
+        }
+        final byte[] content = template.getContent();
+        write(content, 0, content.length);
+    }
+
+    /**
+     * @return true, if entries may be streamed into the zip file using {@link #openStored(String)}
+     */
+    public boolean isSeekable() {
+        return (channel != null);
+    }
+
+    /**
+     * Copy an entry of another zip file into this zip file, without decompressing it.
+     *
+     * @param entry the entry to copy
+     * @throws IOException on failure writing to the destination
+     */
+    public void writeRaw(final OpenXmlZipRawEntry entry) throws IOException {
+        // sizes are written to the local header, so no data descriptor is needed
+        final Record record = new Record(entry.getNameBytes(), entry.getFlags() & ~FLAG_DESCRIPTOR,
+                entry.getMethod(), entry.getDosTime());
+        record.crc = entry.getCrc();
+        record.compressedSize = entry.getCompressedSize();
+        record.size = entry.getSize();
+        writeLocalHeader(record, false);
+        write(entry.getZip(), entry.getOffsetData(), (int) entry.getCompressedSize());
+    }
+
+    /**
+     * Write an entry into this zip file, compressing its content.
+     *
+     * @param name  the name of the entry
+     * @param bytes the content of the entry
+     * @throws IOException on failure writing to the destination
+     */
+    public void writeDeflated(final String name, final byte[] bytes) throws IOException {
+        final Record record = new Record(getNameBytes(name), getFlags(name), METHOD_DEFLATED, getDosTime());
+        final CRC32 crc32 = new CRC32();
+        crc32.update(bytes);
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            final byte[] block = new byte[FileCipher.OpenXml.ZIPFILE_BLOCK_SIZE];
+            while (!deflater.finished()) {
+                os.write(block, 0, deflater.deflate(block));
+            }
+        } finally {
+            deflater.end();
+        }
+        record.crc = crc32.getValue();
+        record.compressedSize = os.size();
+        record.size = bytes.length;
+        writeLocalHeader(record, false);
+        os.writeTo(new ZipStream());
+    }
+
+    /**
+     * Write an entry into this zip file, without compressing its content.  The size and checksum of the content
+     * must be known in advance.
+     *
+     * @param name        the name of the entry
+     * @param inputStream the content of the entry
+     * @param size        the size of the content
+     * @param crc         the CRC-32 checksum of the content
+     * @throws IOException    on failure reading the content, or writing to the destination
+     * @throws IonicException on content that does not match the specified size
+     */
+    public void writeStored(final String name, final InputStream inputStream,
+                            final long size, final long crc) throws IOException, IonicException {
+        final Record record = new Record(getNameBytes(name), getFlags(name), METHOD_STORED, getDosTime());
+        record.crc = crc;
+        record.compressedSize = size;
+        record.size = size;
+        writeLocalHeader(record, false);
+        final long positionData = position;
+        final byte[] block = new byte[FileCipher.OpenXml.ZIPFILE_BLOCK_SIZE];
+        int count = inputStream.read(block);
+        while (count >= 0) {
+            write(block, 0, count);
+            count = inputStream.read(block);
+        }
+        SdkData.checkTrue(((position - positionData) == size), SdkError.ISFILECRYPTO_STREAM_WRITE);
+    }
+
+    /**
+     * Begin an entry of this zip file, without compressing its content.  The content is written to the returned
+     * stream; the entry must then be closed using {@link #closeStored(long, byte[])}.
+     *
+     * @param name the name of the entry
+     * @return the stream to which the content of the entry should be written
+     * @throws IOException    on failure writing to the destination
+     * @throws IonicException if the destination does not allow update of written content
+     */
+    public OutputStream openStored(final String name) throws IOException, IonicException {
+        SdkData.checkTrue(isSeekable() && (recordStored == null), SdkError.ISFILECRYPTO_STREAM_WRITE);
+        recordStored = new Record(getNameBytes(name), getFlags(name), METHOD_STORED, getDosTime());
+        // the sizes are not yet known, so room is reserved for zip64 sizes
+        writeLocalHeader(recordStored, true);
+        streamStored = new Crc32OutputStream(new ZipStream());
+        return streamStored;
+    }
+
+    /**
+     * Finish the entry begun by {@link #openStored(String)}.  Optionally, a zero-filled region of the entry content
+     * is overwritten with the specified bytes.  The local header of the entry is then updated with the size and
+     * checksum of the content.
+     *
+     * @param offset the position in the entry content of the region to be overwritten
+     * @param bytes  the replacement content for the region (or null)
+     * @throws IOException    on failure writing to the destination
+     * @throws IonicException if no stored entry is being streamed
+     */
+    public void closeStored(final long offset, final byte[] bytes) throws IOException, IonicException {
+        SdkData.checkTrue((recordStored != null), SdkError.ISFILECRYPTO_STREAM_WRITE);
+        final Record record = recordStored;
+        final long positionData = record.offset + getLocalHeaderLength(record, true);
+        targetStream.flush();
+        if (bytes != null) {
+            writeAt(positionData + offset, ByteBuffer.wrap(bytes));
+            record.crc = streamStored.getValue(offset, bytes);
+        } else {
+            record.crc = streamStored.getValue();
+        }
+        record.compressedSize = streamStored.getCount();
+        record.size = streamStored.getCount();
+        writeAt(record.offset, ByteBuffer.wrap(getLocalHeader(record, true)));
+        recordStored = null;
+        streamStored = null;
+    }
+
+    /**
+     * Write the central directory, completing the zip file.  The destination stream is flushed, but not closed.
+     *
+     * @throws IOException    on failure writing to the destination
+     * @throws IonicException if a stored entry is still being streamed
+     */
+    public void finish() throws IOException, IonicException {
+        SdkData.checkTrue((recordStored == null), SdkError.ISFILECRYPTO_STREAM_WRITE);
+        final long offsetDirectory = position;
+        for (Record record : records) {
+            writeCentralHeader(record);
+        }
+        final long sizeDirectory = position - offsetDirectory;
+        final int count = records.size();
+        final boolean isZip64 = (count >= MAX_16) || (offsetDirectory >= MAX_32) || (sizeDirectory >= MAX_32);
+        if (isZip64) {
+            final long offsetEnd64 = position;
+            final ByteBuffer end64 = allocate(SIZE_END64 + SIZE_LOCATOR64);
+            end64.putInt(SIG_END64).putLong(SIZE_END64 - SIZE_END64_HEADER);
+            end64.putShort((short) VERSION_ZIP64).putShort((short) VERSION_ZIP64).putInt(0).putInt(0);
+            end64.putLong(count).putLong(count).putLong(sizeDirectory).putLong(offsetDirectory);
+            end64.putInt(SIG_LOCATOR64).putInt(0).putLong(offsetEnd64).putInt(1);
+            write(end64.array(), 0, end64.position());
+        }
+        final ByteBuffer end = allocate(SIZE_END);
+        end.putInt(SIG_END).putShort((short) 0).putShort((short) 0);
+        end.putShort((short) Math.min(count, MAX_16)).putShort((short) Math.min(count, MAX_16));
+        end.putInt((int) Math.min(sizeDirectory, MAX_32)).putInt((int) Math.min(offsetDirectory, MAX_32));
+        end.putShort((short) 0);
+        write(end.array(), 0, end.position());
+        targetStream.flush();
+    }
+
+    /**
+     * Write the local file header of an entry, and register the entry for inclusion in the central directory.
+     *
+     * @param record   the entry
+     * @param isZip64  true, to reserve room for zip64 sizes whatever the entry size
+     * @throws IOException on failure writing to the destination
+     */
+    private void writeLocalHeader(final Record record, final boolean isZip64) throws IOException {
+        record.offset = position;
+        records.add(record);
+        final byte[] header = getLocalHeader(record, isZip64);
+        write(header, 0, header.length);
+    }
+
+    /**
+     * @param record  the entry
+     * @param isZip64 true, to include room for zip64 sizes whatever the entry size
+     * @return the length of the local file header of the entry
+     */
+    private static int getLocalHeaderLength(final Record record, final boolean isZip64) {
+        final boolean isExtra = isZip64 || record.isZip64Size();
+        return SIZE_LOCAL + record.name.length + (isExtra ? SIZE_EXTRA_LOCAL64 : 0);
+    }
+
+    /**
+     * @param record  the entry
+     * @param isZip64 true, to include room for zip64 sizes whatever the entry size
+     * @return the local file header of the entry
+     */
+    private static byte[] getLocalHeader(final Record record, final boolean isZip64) {
+        final boolean isZip64Size = record.isZip64Size();
+        final boolean isExtra = isZip64 || isZip64Size;
+        final ByteBuffer header = allocate(getLocalHeaderLength(record, isZip64));
+        header.putInt(SIG_LOCAL).putShort((short) (isZip64Size ? VERSION_ZIP64 : VERSION_DEFAULT));
+        header.putShort((short) record.flags).putShort((short) record.method).putInt(record.dosTime);
+        header.putInt((int) record.crc);
+        header.putInt((int) (isZip64Size ? MAX_32 : record.compressedSize));
+        header.putInt((int) (isZip64Size ? MAX_32 : record.size));
+        header.putShort((short) record.name.length).putShort((short) (isExtra ? SIZE_EXTRA_LOCAL64 : 0));
+        header.put(record.name);
+        if (isExtra) {
+            header.putShort((short) EXTRA_ZIP64).putShort((short) (SIZE_EXTRA_LOCAL64 - SIZE_EXTRA_HEADER));
+            header.putLong(record.size).putLong(record.compressedSize);
+        }
+        return header.array();
+    }
+
+    /**
+     * Write the central directory file header of an entry.
+     *
+     * @param record the entry
+     * @throws IOException on failure writing to the destination
+     */
+    private void writeCentralHeader(final Record record) throws IOException {
+        final boolean isZip64Size = (record.size >= MAX_32);
+        final boolean isZip64Compressed = (record.compressedSize >= MAX_32);
+        final boolean isZip64Offset = (record.offset >= MAX_32);
+        final int lengthExtra64 = ((isZip64Size ? Long.SIZE : 0) + (isZip64Compressed ? Long.SIZE : 0)
+                + (isZip64Offset ? Long.SIZE : 0)) / Byte.SIZE;
+        final int lengthExtra = (lengthExtra64 > 0) ? (SIZE_EXTRA_HEADER + lengthExtra64) : 0;
+        final int version = (lengthExtra > 0) ? VERSION_ZIP64 : VERSION_DEFAULT;
+        final ByteBuffer header = allocate(SIZE_CENTRAL + record.name.length + lengthExtra);
+        header.putInt(SIG_CENTRAL).putShort((short) version).putShort((short) version);
+        header.putShort((short) record.flags).putShort((short) record.method).putInt(record.dosTime);
+        header.putInt((int) record.crc);
+        header.putInt((int) (isZip64Compressed ? MAX_32 : record.compressedSize));
+        header.putInt((int) (isZip64Size ? MAX_32 : record.size));
+        header.putShort((short) record.name.length).putShort((short) lengthExtra).putShort((short) 0);
+        header.putShort((short) 0).putShort((short) 0).putInt(0);
+        header.putInt((int) (isZip64Offset ? MAX_32 : record.offset));
+        header.put(record.name);
+        if (lengthExtra > 0) {
+            header.putShort((short) EXTRA_ZIP64).putShort((short) lengthExtra64);
+            if (isZip64Size) {
+                header.putLong(record.size);
+            }
+            if (isZip64Compressed) {
+                header.putLong(record.compressedSize);
+            }
+            if (isZip64Offset) {
+                header.putLong(record.offset);
+            }
+        }
+        write(header.array(), 0, header.position());
+    }
+
+    /**
+     * Write bytes to the destination.
+     *
+     * @param bytes  the data to write
+     * @param offset the start offset in the data
+     * @param length the number of bytes to write
+     * @throws IOException on failure writing to the destination
+     */
+    private void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        targetStream.write(bytes, offset, length);
+        position += length;
+    }
+
+    /**
+     * Overwrite previously written bytes of the destination file.
+     *
+     * @param offset the position in the zip file at which to write
+     * @param buffer the data to write
+     * @throws IOException on failure writing to the destination
+     */
+    private void writeAt(final long offset, final ByteBuffer buffer) throws IOException {
+        long positionWrite = channelStart + offset;
+        while (buffer.hasRemaining()) {
+            positionWrite += channel.write(buffer, positionWrite);
+        }
+    }
+
+    /**
+     * @param name the name of a new entry
+     * @return the general purpose bit flags of the entry
+     */
+    private static int getFlags(final String name) {
+        boolean isAscii = true;
+        for (int i = 0; (isAscii && (i < name.length())); ++i) {
+            isAscii = (name.charAt(i) < MAX_ASCII);
+        }
+        return isAscii ? 0 : FLAG_UTF8;
+    }
+
+    /**
+     * @param name the name of a new entry
+     * @return the name of the entry, as stored in the zip file
+     */
+    private static byte[] getNameBytes(final String name) {
+        return Transcoder.utf8().decode(name);
+    }
+
+    /**
+     * @return the current time, in MS-DOS format (date in the high 16 bits)
+     */
+    private static int getDosTime() {
+        final Calendar calendar = Calendar.getInstance();
+        final int year = calendar.get(Calendar.YEAR);
+        return (year < DOS_YEAR) ? DOS_TIME_MIN : ((year - DOS_YEAR) << DOS_SHIFT_YEAR)
+                | ((calendar.get(Calendar.MONTH) + 1) << DOS_SHIFT_MONTH)
+                | (calendar.get(Calendar.DAY_OF_MONTH) << DOS_SHIFT_DAY)
+                | (calendar.get(Calendar.HOUR_OF_DAY) << DOS_SHIFT_HOUR)
+                | (calendar.get(Calendar.MINUTE) << DOS_SHIFT_MINUTE)
+                | (calendar.get(Calendar.SECOND) >> 1);
+    }
+
+    /**
+     * @param capacity the size of the buffer
+     * @return a buffer for serialization of zip records
+     */
+    private static ByteBuffer allocate(final int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * The stream accepting entry content, which is written to the zip file.
+     */
+    private final class ZipStream extends OutputStream {
+
+        @Override
+        public void write(final int b) throws IOException {
+            OpenXmlZipWriter.this.write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            OpenXmlZipWriter.this.write(bytes, offset, length);
+        }
+    }
+
+    /**
+     * The metadata of an entry written to the zip file.
+     */
+    static final class Record {
+
+        /**
+         * The name of the entry, as stored in the zip file.
+         */
+        private final byte[] name;
+
+        /**
+         * The general purpose bit flags of the entry.
+         */
+        private final int flags;
+
+        /**
+         * The compression method of the entry.
+         */
+        private final int method;
+
+        /**
+         * The last modification time of the entry, in MS-DOS format.
+         */
+        private final int dosTime;
+
+        /**
+         * The CRC-32 checksum of the uncompressed entry data.
+         */
+        private long crc;
+
+        /**
+         * The size of the compressed entry data.
+         */
+        private long compressedSize;
+
+        /**
+         * The size of the uncompressed entry data.
+         */
+        private long size;
+
+        /**
+         * The position in the zip file of the local file header of the entry.
+         */
+        private long offset;
+
+        /**
+         * Constructor.
+         *
+         * @param name    the name of the entry, as stored in the zip file
+         * @param flags   the general purpose bit flags of the entry
+         * @param method  the compression method of the entry
+         * @param dosTime the last modification time of the entry, in MS-DOS format
+         */
+        private Record(final byte[] name, final int flags, final int method, final int dosTime) {
+            this.name = name;
+            this.flags = flags;
+            this.method = method;
+            this.dosTime = dosTime;
+        }
+
+        /**
+         * Copy constructor.
+         *
+         * @param record     the entry metadata to copy
+         * @param offsetBase the position in the zip file of the (template) content containing the entry
+         */
+        private Record(final Record record, final long offsetBase) {
+            this(record.name, record.flags, record.method, record.dosTime);
+            this.crc = record.crc;
+            this.compressedSize = record.compressedSize;
+            this.size = record.size;
+            this.offset = offsetBase + record.offset;
+        }
+
+        /**
+         * @return true, if the sizes of the entry do not fit in the 32 bit fields of the local file header
+         */
+        private boolean isZip64Size() {
+            return (size >= MAX_32) || (compressedSize >= MAX_32);
+        }
+    }
+
+    /**
+     * Signature of a local file header.
+     */
+    static final int SIG_LOCAL = 0x04034b50;
+
+    /**
+     * Signature of a central directory file header.
+     */
+    static final int SIG_CENTRAL = 0x02014b50;
+
+    /**
+     * Signature of the end of central directory record.
+     */
+    static final int SIG_END = 0x06054b50;
+
+    /**
+     * Signature of the zip64 end of central directory record.
+     */
+    private static final int SIG_END64 = 0x06064b50;
+
+    /**
+     * Signature of the zip64 end of central directory locator.
+     */
+    private static final int SIG_LOCATOR64 = 0x07064b50;
+
+    /**
+     * Compression method of entries stored without compression.
+     */
+    private static final int METHOD_STORED = 0;
+
+    /**
+     * Compression method of entries compressed using DEFLATE.
+     */
+    private static final int METHOD_DEFLATED = 8;
+
+    /**
+     * General purpose flag, indicating that sizes and checksum follow the entry data in a data descriptor.
+     */
+    private static final int FLAG_DESCRIPTOR = 0x0008;
+
+    /**
+     * General purpose flag, indicating that the entry name is encoded in UTF-8.
+     */
+    private static final int FLAG_UTF8 = 0x0800;
+
+    /**
+     * Zip specification version needed to extract a (non-zip64) entry.
+     */
+    private static final int VERSION_DEFAULT = 20;
+
+    /**
+     * Zip specification version needed to extract a zip64 entry.
+     */
+    private static final int VERSION_ZIP64 = 45;
+
+    /**
+     * Header ID of the zip64 extended information extra field.
+     */
+    private static final int EXTRA_ZIP64 = 0x0001;
+
+    /**
+     * The size of the header of an extra field.
+     */
+    private static final int SIZE_EXTRA_HEADER = 4;
+
+    /**
+     * The size of the zip64 extra field of a local file header (both sizes).
+     */
+    private static final int SIZE_EXTRA_LOCAL64 = 20;
+
+    /**
+     * The size of the fixed portion of a local file header.
+     */
+    private static final int SIZE_LOCAL = 30;
+
+    /**
+     * The size of the fixed portion of a central directory file header.
+     */
+    private static final int SIZE_CENTRAL = 46;
+
+    /**
+     * The size of the end of central directory record (without comment).
+     */
+    private static final int SIZE_END = 22;
+
+    /**
+     * The size of the zip64 end of central directory record.
+     */
+    private static final int SIZE_END64 = 56;
+
+    /**
+     * The size of the leading fields of the zip64 end of central directory record (signature and record size), which
+     * are not included in the record size field.
+     */
+    private static final int SIZE_END64_HEADER = 12;
+
+    /**
+     * The size of the zip64 end of central directory locator.
+     */
+    private static final int SIZE_LOCATOR64 = 20;
+
+    /**
+     * The maximum value of a 16 bit zip field.
+     */
+    private static final int MAX_16 = 0xffff;
+
+    /**
+     * The maximum value of a 32 bit zip field.
+     */
+    private static final long MAX_32 = 0xffffffffL;
+
+    /**
+     * Bound of the US-ASCII character range.
+     */
+    private static final int MAX_ASCII = 0x80;
+
+    /**
+     * The first year representable in MS-DOS format.
+     */
+    private static final int DOS_YEAR = 1980;
+
+    /**
+     * The earliest time representable in MS-DOS format (1980-01-01 00:00:00).
+     */
+    private static final int DOS_TIME_MIN = (1 << 21) | (1 << 16);
+
+    /**
+     * MS-DOS format bit shift of the year.
+     */
+    private static final int DOS_SHIFT_YEAR = 25;
+
+    /**
+     * MS-DOS format bit shift of the month.
+     */
+    private static final int DOS_SHIFT_MONTH = 21;
+
+    /**
+     * MS-DOS format bit shift of the day of the month.
+     */
+    private static final int DOS_SHIFT_DAY = 16;
+
+    /**
+     * MS-DOS format bit shift of the hour.
+     */
+    private static final int DOS_SHIFT_HOUR = 11;
+
+    /**
+     * MS-DOS format bit shift of the minute.
+     */
+    private static final int DOS_SHIFT_MINUTE = 5;
+}
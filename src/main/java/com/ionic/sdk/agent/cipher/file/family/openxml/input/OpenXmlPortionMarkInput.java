@@ -2,7 +2,6 @@ package com.ionic.sdk.agent.cipher.file.family.openxml.input;
 
 import com.ionic.sdk.agent.cipher.file.data.FileCipher;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoDecryptAttributes;
-import com.ionic.sdk.agent.cipher.file.family.openxml.data.OpenXmlZip;
 import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
 import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
 import com.ionic.sdk.cipher.aes.AesCtrCipher;
@@ -10,38 +9,46 @@ import com.ionic.sdk.core.annotation.InternalUseOnly;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.error.SdkError;
 import com.ionic.sdk.key.KeyServices;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartDocument;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Post process a decrypted file or byte array to check for and decrypt any portion marked sections.
+ * <p>
+ * The Word document XML is streamed (using StAX) rather than loaded into memory.  A first pass over the document
+ * collects the key ids of the portion marked sections, so that the keys may be fetched in a single request.  A
+ * second pass rewrites the document, decrypting the portion marked sections.  Only the content of a single "w:r"
+ * element is held in memory at a time.
  */
 @InternalUseOnly
 public final class OpenXmlPortionMarkInput {
 
     /**
-     * The xmlDocument found in the OpenXML file.
+     * The key ids of the portion marked sections found in the OpenXML file.
      */
-    private Document xmlDocument = null;
-
-    /**
-     * A list of the XML nodes containing portion marked text.
-     */
-    private ArrayList<OpenXmlPortionMarkNode> foundNodes = null;
+    private final Set<String> keyIds = new LinkedHashSet<String>();
 
     /**
      * Key services implementation; used to broker key transactions and crypto operations.
@@ -131,62 +138,31 @@ public final class OpenXmlPortionMarkInput {
     }
 
    /**
-     * Check for portion marked sections in a decrypted document file, and if found, decrypt them and
-     * write out a new file.
-     *
-     * NOTE: Since this is a prototype feature, the document processing is done in RAM.
+     * Check for portion marked sections in a decrypted document file, and collect the key ids needed to decrypt
+     * them.
      *
      * @param inputStream the raw input data containing the protected file content
      * @return true if portion marked sections are found
      */
     public boolean findPortionMarkedSections(final InputStream inputStream) {
-
+        keyIds.clear();
         try {
             final ZipInputStream scanZipStream = new ZipInputStream(inputStream);
             ZipEntry zipEntry = null;
             while (null != (zipEntry = scanZipStream.getNextEntry())) {
                 if (FileCipher.OpenXml.DOCUMENT_XML_PATH.equals(zipEntry.getName())) {
-
-                    final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-                    final DocumentBuilder builder = factory.newDocumentBuilder();
-                    xmlDocument = builder.parse(scanZipStream);
-                    xmlDocument.getDocumentElement().normalize();
+                    processDocument(scanZipStream, null, null);
                     break;
                 }
             }
         } catch (IOException e) {
             return false;
-        } catch (SAXException e) {
+        } catch (XMLStreamException e) {
             return false;
-        } catch (ParserConfigurationException e) {
+        } catch (IonicException e) {
             return false;
         }
-
-        if (null == xmlDocument) {
-            return false;
-        }
-
-        final NodeList nList = xmlDocument.getElementsByTagName(DOCX_BODY_LABEL);
-        if (nList.getLength() == 0) {
-            return false;
-        }
-        for (int temp = 0; temp < nList.getLength(); temp++) {
-            final Node nNode = nList.item(temp);
-            if (nNode.getNodeType() == Node.ELEMENT_NODE) {
-
-                final ArrayList<OpenXmlPortionMarkNode> found = processDocxPortions(nNode);
-                if (foundNodes != null) {
-                    foundNodes.addAll(found);
-                } else {
-                    foundNodes = found;
-                }
-            }
-         }
-
-         if (foundNodes != null && !foundNodes.isEmpty()) {
-            return true;
-         }
-         return false;
+        return !keyIds.isEmpty();
     }
 
     /**
@@ -203,28 +179,8 @@ public final class OpenXmlPortionMarkInput {
         boolean decryptedAny = false;
         final GetKeysResponse getKeyResponse = getKeys();
         if (getKeyResponse != null) {
-            final AesCtrCipher cipher = new AesCtrCipher();
-
-
-            for (OpenXmlPortionMarkNode node : foundNodes) {
-
-                final String nodeText = node.getText();
-                final int endPos = nodeText.indexOf(CIPHER_BLOCK_SEPARATOR);
-
-                if (endPos != -1) {
-
-                    final String keyId = nodeText.substring(0, endPos);
-                    final GetKeysResponse.Key foundKey = getKeyResponse.getKey(keyId);
-                    if (foundKey != null) {
-
-                        cipher.setKey(foundKey.getKey());
-                        final String encryptedText = nodeText.substring(endPos + 1);
-                        final String plainText = cipher.decryptBase64ToString(encryptedText);
-
-                        node.getNode().setNodeValue(plainText);
-                        decryptedAny = true;
-                    }
-                }
+            for (String keyId : keyIds) {
+                decryptedAny |= (getKeyResponse.getKey(keyId) != null);
             }
         }
 
@@ -232,18 +188,34 @@ public final class OpenXmlPortionMarkInput {
 
             try {
                 final ZipInputStream zipStream = new ZipInputStream(inputStream);
-                final OpenXmlZip zipOut = new OpenXmlZip(zipStream);
-
-                // Add a modified XML file
-                zipOut.addModifiedXmlFile(FileCipher.OpenXml.DOCUMENT_XML_PATH, xmlDocument);
-
-                // Write out the destination file.
-                zipOut.openZipFile(outputStream);
-                zipOut.writeZipFile();
-                zipOut.closeZipFile();
-
+                final ZipOutputStream zipOut = new ZipOutputStream(outputStream);
+                final byte[] block = new byte[FileCipher.OpenXml.ZIPFILE_BLOCK_SIZE];
+                ZipEntry entry = null;
+                while (null != (entry = zipStream.getNextEntry())) {
+                    if (FileCipher.OpenXml.DOCUMENT_XML_PATH.equals(entry.getName())) {
+                        // Write a modified XML file
+                        final ZipEntry entryModified = new ZipEntry(entry.getName());
+                        entryModified.setTime(System.currentTimeMillis());
+                        zipOut.putNextEntry(entryModified);
+                        processDocument(zipStream, zipOut, getKeyResponse);
+                    } else {
+                        // reset the compressed size value - since we may not match the original value.
+                        final ZipEntry entryCopy = new ZipEntry(entry);
+                        entryCopy.setCompressedSize(-1);
+                        zipOut.putNextEntry(entryCopy);
+                        int length;
+                        while ((length = zipStream.read(block)) > 0) {
+                            zipOut.write(block, 0, length);
+                        }
+                    }
+                    zipOut.closeEntry();
+                }
+                zipOut.finish();
+                zipOut.flush();
             } catch (IOException e) {
                 throw new IonicException(SdkError.ISFILECRYPTO_STREAM_WRITE, e);
+            } catch (XMLStreamException e) {
+                throw new IonicException(SdkError.ISFILECRYPTO_BAD_ZIP, e);
             }
         }
         return decryptedAny;
@@ -255,124 +227,187 @@ public final class OpenXmlPortionMarkInput {
     private static final int CIPHER_BLOCK_SEPARATOR = '|';
 
     /**
-     * Walk through previously discovered Portion Marked sections, collect the Key Ids, and request those
-     * keys from the key service agaent.
+     * Request the keys of the previously discovered Portion Marked sections from the key service agent.
      *
      * @throws IonicException on failure to open the .zip file
      * @return The GetKeysResponse from the service.
      */
     private GetKeysResponse getKeys() throws IonicException {
-        final HashSet<String> keysRequested = new HashSet<String>();
-
         final GetKeysRequest getKeysRequest = new GetKeysRequest();
         getKeysRequest.setMetadata(attributes.getMetadata());
-        for (OpenXmlPortionMarkNode node : foundNodes) {
-
-            final String nodeText = node.getText();
-            final int endPos = nodeText.indexOf(CIPHER_BLOCK_SEPARATOR);
-
-            if (endPos != -1) {
-                // add key ID to the key fetch request object
-                final String keyId = nodeText.substring(0, endPos);
-                if (!keysRequested.contains(keyId)) {
-
-                    getKeysRequest.add(keyId);
-                    keysRequested.add(keyId);
-                }
-            }
+        for (String keyId : keyIds) {
+            // add key ID to the key fetch request object
+            getKeysRequest.add(keyId);
         }
         return agent.getKeys(getKeysRequest);
     }
 
-
     /**
-     * Walk through the w:body node of a Word Document XML file and look for portion marked sections.
-     *
-     * NOTE: Since this is a prototype feature, the document processing is done in RAM
+     * Walk through the w:body element of a Word Document XML file and look for portion marked sections.
+     * <p>
+     * When no output is specified, the key ids of the portion marked sections are collected.  Otherwise, the
+     * document is written to the output, with the portion marked sections decrypted using the specified keys.
      *
-     * @param xmlNode the XML Node described above
-     * @return count of portion marked sections found
+     * @param inputStream the Word Document XML content
+     * @param outputStream the target of the rewritten Word Document XML content; or null, to collect key ids
+     * @param getKeyResponse the keys with which to decrypt the portion marked sections
+     * @throws XMLStreamException on failure to read or write the XML content
+     * @throws IonicException on failure to decrypt a portion marked section
      */
-    private static ArrayList<OpenXmlPortionMarkNode> processDocxPortions(final Node xmlNode) {
-
-        final ArrayList<OpenXmlPortionMarkNode> foundNodes = new ArrayList<OpenXmlPortionMarkNode>();
-
-        final NodeList nList = xmlNode.getChildNodes();
-        for (int index = 0; index < nList.getLength(); index++) {
-            final Node item = nList.item(index);
-            if (item.getNodeType() == Node.ELEMENT_NODE
-                && item.hasAttributes()
-                && DOCX_P_LABEL.equals(item.getNodeName())) {
-
-                final NodeList nPList = item.getChildNodes();
-                for (int indexP = 0; indexP < nPList.getLength(); indexP++) {
-                    final Node itemP = nPList.item(indexP);
-
-                    if (itemP.getNodeType() == Node.ELEMENT_NODE
-                        && itemP.hasAttributes()
-                        && DOCX_R_LABEL.equals(itemP.getNodeName())) {
-
-                        final Element eElement = (Element) itemP;
-                        if (eElement.getAttribute(DOCX_RSI_LABEL).length() > 0) {
-                            final OpenXmlPortionMarkNode foundNode = processDocxPortionsRNode(eElement);
-                            if (foundNode != null) {
-                                foundNodes.add(foundNode);
-                            }
+    private void processDocument(final InputStream inputStream, final OutputStream outputStream,
+                                 final GetKeysResponse getKeyResponse) throws XMLStreamException, IonicException {
+        final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        final XMLEventReader reader = inputFactory.createXMLEventReader(new EntryInputStream(inputStream));
+        final XMLEventWriter writer = (outputStream == null) ? null : createWriter(reader, outputStream);
+        final AesCtrCipher cipher = new AesCtrCipher();
+        int depth = 0;
+        int depthBody = -1;
+        int depthParagraph = -1;
+        while (reader.hasNext()) {
+            final XMLEvent event = reader.nextEvent();
+            if (event.isStartElement()) {
+                final StartElement element = event.asStartElement();
+                final String name = getQualifiedName(element.getName());
+                if ((depthParagraph >= 0) && (depth == depthParagraph + 1) && DOCX_R_LABEL.equals(name)
+                        && (getAttribute(element, DOCX_RSI_LABEL).length() > 0)) {
+                    // the run is read in its entirety, so the element depth is unchanged
+                    final OpenXmlPortionMarkNode node = processDocxPortionsRNode(reader, element);
+                    final String keyId = getKeyId(node);
+                    if (writer == null) {
+                        if (keyId != null) {
+                            keyIds.add(keyId);
+                        }
+                    } else {
+                        if (keyId != null) {
+                            decryptNode(node, keyId, getKeyResponse, cipher);
+                        }
+                        for (XMLEvent eventNode : node.getEvents()) {
+                            writer.add(eventNode);
                         }
                     }
+                    continue;
+                }
+                if ((depthBody < 0) && DOCX_BODY_LABEL.equals(name)) {
+                    depthBody = depth;
+                } else if ((depthBody >= 0) && (depth == depthBody + 1) && DOCX_P_LABEL.equals(name)
+                        && (element.getAttributes().hasNext() || element.getNamespaces().hasNext())) {
+                    depthParagraph = depth;
+                }
+                ++depth;
+            } else if (event.isEndElement()) {
+                --depth;
+                if (depth == depthParagraph) {
+                    depthParagraph = -1;
+                } else if (depth == depthBody) {
+                    depthBody = -1;
                 }
             }
+            if (writer != null) {
+                writer.add(event);
+            }
+        }
+        if (writer != null) {
+            writer.flush();
         }
-
-        return foundNodes;
     }
 
     /**
-     * Walk through an "w:r" node and find highlight, color, and text attributes.
+     * Create the writer for the rewritten Word Document XML content, using the character encoding of the source.
      *
-     * NOTE: Since this is a prototype feature, the document processing is done in RAM
-     *
-     * @param eElement the XML element described above
-     * @return A OpenXmlPortionMarkNode if everything is found, or null
+     * @param reader the reader of the source Word Document XML content
+     * @param outputStream the target of the rewritten Word Document XML content
+     * @return the writer for the rewritten Word Document XML content
+     * @throws XMLStreamException on failure to read the XML content
      */
-    private static OpenXmlPortionMarkNode processDocxPortionsRNode(final Element eElement) {
-
-        String color = null;
-        String text = null;
-        Node node = null;
+    private static XMLEventWriter createWriter(
+            final XMLEventReader reader, final OutputStream outputStream) throws XMLStreamException {
+        final XMLEvent event = reader.peek();
+        final StartDocument startDocument = ((event != null) && event.isStartDocument())
+                ? (StartDocument) event : null;
+        final String encoding = ((startDocument != null) && startDocument.encodingSet())
+                ? startDocument.getCharacterEncodingScheme() : ENCODING_DEFAULT;
+        return XMLOutputFactory.newInstance().createXMLEventWriter(outputStream, encoding);
+    }
 
-        final NodeList nList = eElement.getChildNodes();
-        for (int index = 0; index < nList.getLength(); index++) {
-            final Node item = nList.item(index);
-            if (item.getNodeType() == Node.ELEMENT_NODE
-                && DOCX_RPR_LABEL.equals(item.getNodeName())) {
+    /**
+     * Decrypt the text of a portion marked section.  The section is left unchanged if its key is not available.
+     *
+     * @param node the portion marked section
+     * @param keyId the id of the key with which the section text was encrypted
+     * @param getKeyResponse the keys with which to decrypt the portion marked sections
+     * @param cipher the cipher used to decrypt the section text
+     * @throws IonicException on failure to decrypt the section text
+     */
+    private static void decryptNode(final OpenXmlPortionMarkNode node, final String keyId,
+                                    final GetKeysResponse getKeyResponse,
+                                    final AesCtrCipher cipher) throws IonicException {
+        final GetKeysResponse.Key foundKey = getKeyResponse.getKey(keyId);
+        if (foundKey != null) {
 
-                final NodeList rprList = item.getChildNodes();
-                for (int rprIndex = 0; rprIndex < rprList.getLength(); rprIndex++) {
-                    final Node rprItem = rprList.item(rprIndex);
-                    if (rprItem.getNodeType() == Node.ELEMENT_NODE
-                        && DOCX_HIGHLIGHT_LABEL.equals(rprItem.getNodeName())) {
+            cipher.setKey(foundKey.getKey());
+            final String nodeText = node.getText();
+            final String encryptedText = nodeText.substring(nodeText.indexOf(CIPHER_BLOCK_SEPARATOR) + 1);
+            final String plainText = cipher.decryptBase64ToString(encryptedText);
 
-                        final Element higlightElem = (Element) rprItem;
-                        color = higlightElem.getAttribute(DOCX_VAL_LABEL);
-                    }
-                }
-            } else if (item.getNodeType() == Node.ELEMENT_NODE
-                && DOCX_T_LABEL.equals(item.getNodeName())) {
+            node.setText(XMLEventFactory.newInstance().createCharacters(plainText));
+        }
+    }
 
-                final NodeList tList = item.getChildNodes();
-                for (int tIndex = 0; tIndex < tList.getLength(); tIndex++) {
-                    final Node tItem = tList.item(tIndex);
-                    if (tItem.getNodeType() == Node.TEXT_NODE) {
+    /**
+     * Read through an "w:r" element and find highlight, color, and text attributes.
+     *
+     * @param reader the reader of the Word Document XML content, positioned after the start of the element
+     * @param startElement the start of the XML element described above
+     * @return A OpenXmlPortionMarkNode containing the XML events of the element
+     * @throws XMLStreamException on failure to read the XML content
+     */
+    private static OpenXmlPortionMarkNode processDocxPortionsRNode(
+            final XMLEventReader reader, final StartElement startElement) throws XMLStreamException {
 
-                        text = tItem.getNodeValue();
-                        node = tItem;
-                    }
+        final List<XMLEvent> events = new ArrayList<XMLEvent>();
+        events.add(startElement);
+        String color = null;
+        String text = null;
+        int indexText = -1;
+        // the name of the current child element of the "w:r" element
+        String nameChild = null;
+        int depth = 1;
+        while (depth > 0) {
+            final XMLEvent event = reader.nextEvent();
+            events.add(event);
+            if (event.isStartElement()) {
+                final StartElement element = event.asStartElement();
+                final String name = getQualifiedName(element.getName());
+                if (depth == 1) {
+                    nameChild = name;
+                } else if ((depth == 2) && DOCX_RPR_LABEL.equals(nameChild) && DOCX_HIGHLIGHT_LABEL.equals(name)) {
+                    color = getAttribute(element, DOCX_VAL_LABEL);
                 }
+                ++depth;
+            } else if (event.isEndElement()) {
+                --depth;
+            } else if ((depth == 2) && event.isCharacters() && DOCX_T_LABEL.equals(nameChild)) {
+                text = event.asCharacters().getData();
+                indexText = events.size() - 1;
             }
         }
+        return new OpenXmlPortionMarkNode(color, text, events, indexText);
+    }
 
-        if (color == null || text == null || node == null
+    /**
+     * Check an "w:r" element for an encrypted portion marked section.
+     *
+     * @param node the XML element described above
+     * @return the id of the key with which the section was encrypted, or null if the element is not an encrypted
+     * portion marked section
+     */
+    private static String getKeyId(final OpenXmlPortionMarkNode node) {
+        final String color = node.getColor();
+        final String text = node.getText();
+        if (color == null || text == null
             || getHilightColorConfidentiality(color) == null) {
             return null;
         }
@@ -383,7 +418,36 @@ public final class OpenXmlPortionMarkInput {
             return null;
         }
 
-        return new OpenXmlPortionMarkNode(color, text, node);
+        return text.substring(0, endPos);
+    }
+
+    /**
+     * Get the name of an XML element, as it appears in the document.
+     *
+     * @param name the qualified name of the XML element
+     * @return the name of the XML element, including its namespace prefix (if any)
+     */
+    private static String getQualifiedName(final QName name) {
+        final String prefix = name.getPrefix();
+        return ((prefix == null) || prefix.isEmpty()) ? name.getLocalPart() : (prefix + ':' + name.getLocalPart());
+    }
+
+    /**
+     * Get the value of an attribute of an XML element.
+     *
+     * @param element the XML element
+     * @param qualifiedName the name of the attribute, including its namespace prefix (if any)
+     * @return the attribute value, or the empty string if the element has no such attribute
+     */
+    private static String getAttribute(final StartElement element, final String qualifiedName) {
+        final Iterator<?> iterator = element.getAttributes();
+        while (iterator.hasNext()) {
+            final Attribute attribute = (Attribute) iterator.next();
+            if (qualifiedName.equals(getQualifiedName(attribute.getName()))) {
+                return attribute.getValue();
+            }
+        }
+        return "";
     }
 
     /**
@@ -404,4 +468,30 @@ public final class OpenXmlPortionMarkInput {
         }
         return null;
     }
+
+    /**
+     * The content of a zip entry.  The XML reader closes its input at the end of the document, which must not close
+     * the enclosing zip stream.
+     */
+    private static final class EntryInputStream extends FilterInputStream {
+
+        /**
+         * Constructor.
+         *
+         * @param inputStream the zip stream, positioned at the start of the entry content
+         */
+        private EntryInputStream(final InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public void close() {
+            // the enclosing zip stream remains open
+        }
+    }
+
+    /**
+     * The character encoding used to write Word Document XML content which does not declare its encoding.
+     */
+    private static final String ENCODING_DEFAULT = "UTF-8";
 }
@@ -2,10 +2,12 @@ package com.ionic.sdk.agent.cipher.file.family.openxml.input;
 
 import com.ionic.sdk.core.annotation.InternalUseOnly;
 
-import org.w3c.dom.Node;
+import javax.xml.stream.events.XMLEvent;
+import java.util.List;
 
 /**
- * Represents a found portion marked node.
+ * Represents a found portion marked node.  The XML events of the enclosing "w:r" element are retained, so that the
+ * element may be written once its text has been processed.
  */
 @InternalUseOnly
 public final class OpenXmlPortionMarkNode {
@@ -21,21 +23,30 @@ public final class OpenXmlPortionMarkNode {
     private final String text;
 
     /**
-     * The XML node containing the text that will need decrypted / encrypted.
+     * The XML events of the element, from its start element to its end element.
      */
-    private final Node node;
+    private final List<XMLEvent> events;
+
+    /**
+     * The index in the XML events of the event containing the text that will need decrypted / encrypted, or -1 if
+     * none was found.
+     */
+    private final int indexText;
 
     /**
      * Constructor.
      * @param color the color found on the node
      * @param text the raw text found on the node
-     * @param node the node identified as containing the portion mark text.
+     * @param events the XML events of the element, from its start element to its end element
+     * @param indexText the index in the XML events of the event containing the portion mark text
     */
-    public OpenXmlPortionMarkNode(final String color, final String text, final Node node) {
+    public OpenXmlPortionMarkNode(final String color, final String text,
+                                  final List<XMLEvent> events, final int indexText) {
 
         this.color = color;
         this.text = text;
-        this.node = node;
+        this.events = events;
+        this.indexText = indexText;
     }
 
     /**
@@ -57,11 +68,20 @@ public final class OpenXmlPortionMarkNode {
     }
 
     /**
-     * Node Getter.
+     * Events Getter.
+     *
+     * @return the XML events of the element, from its start element to its end element
+    */
+    public List<XMLEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * Replace the portion mark text of the element.
      *
-     * @return the node identified as containing the portion mark text.
+     * @param event the XML event containing the replacement text
     */
-    public Node getNode() {
-        return node;
+    public void setText(final XMLEvent event) {
+        events.set(indexText, event);
     }
 }
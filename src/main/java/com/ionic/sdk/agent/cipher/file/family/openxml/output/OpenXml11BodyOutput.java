@@ -1,17 +1,20 @@
 package com.ionic.sdk.agent.cipher.file.family.openxml.output;
 
+import com.ionic.sdk.agent.cipher.file.cover.CoverPageTemplateCache;
 import com.ionic.sdk.agent.cipher.file.cover.FileCryptoCoverPageServicesInterface;
 import com.ionic.sdk.agent.cipher.file.data.FileCipher;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoEncryptAttributes;
 import com.ionic.sdk.agent.cipher.file.data.FileType;
 import com.ionic.sdk.agent.cipher.file.family.generic.output.GenericOutput;
-import com.ionic.sdk.agent.cipher.file.family.openxml.data.OpenXmlZip;
-import com.ionic.sdk.agent.cipher.file.family.openxml.data.OpenXmlZipEntry;
+import com.ionic.sdk.agent.cipher.file.family.openxml.data.OpenXmlZipRawEntry;
+import com.ionic.sdk.agent.cipher.file.family.openxml.data.OpenXmlZipTemplate;
+import com.ionic.sdk.agent.cipher.file.family.openxml.data.OpenXmlZipWriter;
 import com.ionic.sdk.agent.cipher.file.family.openxml.OpenXmlUtils;
 import com.ionic.sdk.agent.cipher.file.OpenXmlFileCipher;
 import com.ionic.sdk.core.annotation.InternalUseOnly;
 import com.ionic.sdk.core.datastructures.Tuple;
 import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.io.Crc32OutputStream;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.json.JsonIO;
 import com.ionic.sdk.json.JsonTarget;
@@ -28,7 +31,6 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
-import java.util.zip.ZipInputStream;
 import javax.json.Json;
 import javax.json.JsonObjectBuilder;
 
@@ -37,6 +39,12 @@ import org.w3c.dom.Document;
 /**
  * Extensions for handling output of {@link com.ionic.sdk.agent.cipher.file.OpenXmlFileCipher}
  * version 1.0 file body content.
+ * <p>
+ * The entries of the cover page are copied into the output zip file in their compressed form, except for the entries
+ * updated to reference the Ionic content.  The cover page entries are prepared once for each cover page, and cached
+ * for use by subsequent encryptions.  The ciphertext payload is incompressible, so its entry is stored without
+ * compression.  When the output is a file, the payload is encrypted directly into the output zip file; otherwise, it
+ * is staged in a temp file (or in memory), with its CRC-32 checksum calculated as it is written.
  */
 @InternalUseOnly
 final class OpenXml11BodyOutput implements OpenXmlBodyOutput {
@@ -67,9 +75,9 @@ final class OpenXml11BodyOutput implements OpenXmlBodyOutput {
     private GenericOutput genericOutput = null;
 
     /**
-     * Object representing the output zip file and all the various elements the make it up.
+     * Writer of the output zip file.
      */
-    private OpenXmlZip outputZip = null;
+    private OpenXmlZipWriter zipWriter = null;
 
     /**
      * The speific OpenXML file type discovered in an early step.
@@ -81,16 +89,6 @@ final class OpenXml11BodyOutput implements OpenXmlBodyOutput {
      */
     private final byte[] customPropFile;
 
-    /**
-     * The contents XML doc from the coverpage.
-     */
-    private Document contents = null;
-
-    /**
-     * The relationships XML doc from the coverpage.
-     */
-    private Document relationships = null;
-
     /**
      * an optional filename to use as a temp file during the process.  Can be null.
      */
@@ -106,6 +104,12 @@ final class OpenXml11BodyOutput implements OpenXmlBodyOutput {
      */
     private ByteArrayOutputStream byteOutputStream = null;
 
+    /**
+     * The checksum of the ciphertext payload staged in the temp stream (null, if the payload is written directly
+     * into the output zip file).
+     */
+    private Crc32OutputStream crcOutputStream = null;
+
     /**
      * Constructor.
      *
@@ -135,49 +139,28 @@ final class OpenXml11BodyOutput implements OpenXmlBodyOutput {
 
     @Override
     public void init() throws IOException, IonicException {
-        final ByteArrayInputStream coverpageStream = new ByteArrayInputStream(coverPageServices.getCoverPage(fileType));
-        final Tuple<Document, Document> docs = OpenXmlUtils.getContentsAndRelationsFilesFromStream(coverpageStream);
-        contents = docs.first();
-        relationships = docs.second();
-        coverpageStream.reset();
-
-        // Update the content references:
-        OpenXmlUtils.registerOpenXmlContentType(contents,
-                                                FileCipher.OpenXml.ION_CONTENT_TYPE_EXT,
-                                                FileCipher.OpenXml.ION_CONTENT_TYPE);
-        if (customPropFile != null) {
-            OpenXmlUtils.registerOpenXmlContentTypeOverride(contents,
-                                                            FileCipher.OpenXml.CUSTOM_CONTENT_TYPE_PART,
-                                                            FileCipher.OpenXml.CUSTOM_CONTENT_TYPE);
+        // Write out the cover page entries, prepared once per cover page.
+        final byte[] coverpage = coverPageServices.getCoverPage(fileType);
+        final String key = String.format(TEMPLATE_KEY_FORMAT, fileType.name(), (customPropFile != null));
+        OpenXmlZipTemplate template = TEMPLATES.get(coverPageServices, key, coverpage);
+        if (template == null) {
+            template = createTemplate(coverpage, (customPropFile != null));
+            TEMPLATES.put(coverPageServices, key, coverpage, template);
         }
-
-        // Update the Relationships:
-        OpenXmlUtils.registerOpenXmlRelationship(relationships,
-                                                 FileCipher.OpenXml.IONIC_EMBED_TYPE,
-                                                 FileCipher.OpenXml.IONIC_EMBED_PATH,
-                                                 FileCipher.OpenXml.IONIC_EMBED_REL_ID);
-        OpenXmlUtils.registerOpenXmlRelationship(relationships,
-                                                 FileCipher.OpenXml.IONIC_INFO_TYPE,
-                                                 FileCipher.OpenXml.IONIC_INFO_PATH,
-                                                 FileCipher.OpenXml.IONIC_INFO_REL_ID);
-        if (customPropFile != null) {
-            OpenXmlUtils.registerOpenXmlRelationship(relationships,
-                                                     FileCipher.OpenXml.CUSTOM_TYPE,
-                                                     FileCipher.OpenXml.CUSTOM_PATH,
-                                                     FileCipher.OpenXml.CUSTOM_REL_ID);
-        }
-
-        outputZip = new OpenXmlZip(new ZipInputStream(coverpageStream));
-        outputZip.addModifiedXmlFile(FileCipher.OpenXml.CONTENT_TYPES_XML_PATH, contents);
-        outputZip.addModifiedXmlFile(FileCipher.OpenXml.RELS_XML_PATH, relationships);
+        zipWriter = new OpenXmlZipWriter(targetStream);
+        zipWriter.writeTemplate(template);
 
         OutputStream tempOutput = null;
-        if (tempFile != null) {
+        if (zipWriter.isSeekable()) {
+            tempOutput = zipWriter.openStored(FileCipher.OpenXml.IONIC_EMBED_PATH);
+        } else if (tempFile != null) {
             fileOutputStream = new FileOutputStream(tempFile);
-            tempOutput = fileOutputStream;
+            crcOutputStream = new Crc32OutputStream(fileOutputStream);
+            tempOutput = crcOutputStream;
         } else {
             byteOutputStream = new ByteArrayOutputStream();
-            tempOutput = byteOutputStream;
+            crcOutputStream = new Crc32OutputStream(byteOutputStream);
+            tempOutput = crcOutputStream;
         }
         final FileCryptoEncryptAttributes genericEncryptAttributes =
                 new FileCryptoEncryptAttributes(FileCipher.Generic.V12.LABEL,
@@ -193,8 +176,7 @@ final class OpenXml11BodyOutput implements OpenXmlBodyOutput {
     public void doEncryption(final InputStream plainText) throws IOException, IonicException {
         final ReadableByteChannel plainChannel = Channels.newChannel(plainText);
 
-        // Step one, encrypt to the tempFile:
-        InputStream encryptedPayloadStream = null;
+        // Step one, encrypt to the output zip file (or to the tempFile):
         final ByteBuffer bufferPlainText = genericOutput.getPlainText();
 
         while (plainText.available() > 0) {
@@ -207,52 +189,116 @@ final class OpenXml11BodyOutput implements OpenXmlBodyOutput {
         }
         genericOutput.doFinal();
         final byte[] signature = genericOutput.getSignature();
-        final long fileSize;
-        if (fileOutputStream != null) {
-            if (signature != null) {
-                fileOutputStream.getChannel().position(genericOutput.getHeaderLength());
-                fileOutputStream.write(signature);
-            }
-            fileOutputStream.close();
-            encryptedPayloadStream = new FileInputStream(tempFile);
-            fileSize = tempFile.length();
+        final int signatureOffset = genericOutput.getSignatureOffset();
+        if (crcOutputStream == null) {
+            zipWriter.closeStored(signatureOffset, signature);
         } else {
-            final byte[] bytes = byteOutputStream.toByteArray();
-            if (signature != null) {
-                System.arraycopy(signature, 0, bytes,
-                                   genericOutput.getHeaderLength(), signature.length);
+            // Step two, copy the staged payload into the output zip file
+            final long crc = (signature == null)
+                    ? crcOutputStream.getValue() : crcOutputStream.getValue(signatureOffset, signature);
+            final long fileSize = crcOutputStream.getCount();
+            final InputStream encryptedPayloadStream;
+            if (fileOutputStream != null) {
+                if (signature != null) {
+                    fileOutputStream.getChannel().position(signatureOffset);
+                    fileOutputStream.write(signature);
+                }
+                fileOutputStream.close();
+                encryptedPayloadStream = new FileInputStream(tempFile);
+            } else {
+                final byte[] bytes = byteOutputStream.toByteArray();
+                if (signature != null) {
+                    System.arraycopy(signature, 0, bytes, signatureOffset, signature.length);
+                }
+                encryptedPayloadStream = new ByteArrayInputStream(bytes);
+            }
+            try {
+                zipWriter.writeStored(FileCipher.OpenXml.IONIC_EMBED_PATH, encryptedPayloadStream, fileSize, crc);
+            } finally {
+                encryptedPayloadStream.close();
             }
-            encryptedPayloadStream = new ByteArrayInputStream(bytes);
-            fileSize = bytes.length;
         }
 
-        // Step Two, write out the final zip file
-        final OpenXmlZipEntry payloadEntry = new OpenXmlZipEntry(
-                encryptedPayloadStream, FileCipher.OpenXml.IONIC_EMBED_PATH, fileSize);
-        outputZip.addNewEntry(payloadEntry);
-
         if (customPropFile != null) {
-            final OpenXmlZipEntry propEntry = new OpenXmlZipEntry(new ByteArrayInputStream(customPropFile),
-                                                            FileCipher.OpenXml.CUSTOM_PATH,
-                                                            customPropFile.length);
-            outputZip.addNewEntry(propEntry);
+            zipWriter.writeDeflated(FileCipher.OpenXml.CUSTOM_PATH, customPropFile);
         }
 
         final byte[] jsonInfo = Transcoder.utf8().decode(createJsonInfo());
-        final OpenXmlZipEntry infoEntry = new OpenXmlZipEntry(
-                                        new ByteArrayInputStream(jsonInfo),
-                                        FileCipher.OpenXml.IONIC_INFO_PATH,
-                                        jsonInfo.length);
-        outputZip.addNewEntry(infoEntry);
-
-        // Write out the destination file.
-        outputZip.openZipFile(targetStream);
-        outputZip.writeZipFile();
-        outputZip.closeZipFile();
-
-        encryptedPayloadStream.close();
+        zipWriter.writeDeflated(FileCipher.OpenXml.IONIC_INFO_PATH, jsonInfo);
+
+        // Write out the central directory of the destination file.
+        zipWriter.finish();
     }
 
+    /**
+     * Prepare the cover page entries of the output zip file.  The entries of the cover page are copied in their
+     * compressed form, except for the content types and relationships parts, which are updated to reference the
+     * Ionic content.
+     *
+     * @param coverpage          the cover page
+     * @param isCustomProperties true, if the output includes a custom properties part
+     * @return the prepared cover page entries
+     * @throws IOException    on failure writing the entries
+     * @throws IonicException on failure to parse or serialize the cover page
+     */
+    private static OpenXmlZipTemplate createTemplate(
+            final byte[] coverpage, final boolean isCustomProperties) throws IOException, IonicException {
+        final Tuple<Document, Document> docs =
+                OpenXmlUtils.getContentsAndRelationsFilesFromStream(new ByteArrayInputStream(coverpage));
+        final Document contents = docs.first();
+        final Document relationships = docs.second();
+
+        // Update the content references:
+        OpenXmlUtils.registerOpenXmlContentType(contents,
+                                                FileCipher.OpenXml.ION_CONTENT_TYPE_EXT,
+                                                FileCipher.OpenXml.ION_CONTENT_TYPE);
+        if (isCustomProperties) {
+            OpenXmlUtils.registerOpenXmlContentTypeOverride(contents,
+                                                            FileCipher.OpenXml.CUSTOM_CONTENT_TYPE_PART,
+                                                            FileCipher.OpenXml.CUSTOM_CONTENT_TYPE);
+        }
+
+        // Update the Relationships:
+        OpenXmlUtils.registerOpenXmlRelationship(relationships,
+                                                 FileCipher.OpenXml.IONIC_EMBED_TYPE,
+                                                 FileCipher.OpenXml.IONIC_EMBED_PATH,
+                                                 FileCipher.OpenXml.IONIC_EMBED_REL_ID);
+        OpenXmlUtils.registerOpenXmlRelationship(relationships,
+                                                 FileCipher.OpenXml.IONIC_INFO_TYPE,
+                                                 FileCipher.OpenXml.IONIC_INFO_PATH,
+                                                 FileCipher.OpenXml.IONIC_INFO_REL_ID);
+        if (isCustomProperties) {
+            OpenXmlUtils.registerOpenXmlRelationship(relationships,
+                                                     FileCipher.OpenXml.CUSTOM_TYPE,
+                                                     FileCipher.OpenXml.CUSTOM_PATH,
+                                                     FileCipher.OpenXml.CUSTOM_REL_ID);
+        }
+
+        final OpenXmlZipWriter templateWriter = OpenXmlZipWriter.createTemplateWriter();
+        for (OpenXmlZipRawEntry entry : OpenXmlZipRawEntry.read(coverpage)) {
+            final String name = entry.getName();
+            if (FileCipher.OpenXml.CONTENT_TYPES_XML_PATH.equals(name)) {
+                templateWriter.writeDeflated(name, OpenXmlUtils.convertDocumentToByteArray(contents));
+            } else if (FileCipher.OpenXml.RELS_XML_PATH.equals(name)) {
+                templateWriter.writeDeflated(name, OpenXmlUtils.convertDocumentToByteArray(relationships));
+            } else {
+                templateWriter.writeRaw(entry);
+            }
+        }
+        return templateWriter.getTemplate();
+    }
+
+    /**
+     * The prepared cover page entries, indexed by cover page services, file type, and custom properties inclusion.
+     */
+    private static final CoverPageTemplateCache<OpenXmlZipTemplate> TEMPLATES =
+            new CoverPageTemplateCache<OpenXmlZipTemplate>();
+
+    /**
+     * The key of a template in the cache of prepared cover page entries.
+     */
+    private static final String TEMPLATE_KEY_FORMAT = "%s:%s";
+
     /**
      * Ionic info file JSON field label.
      */
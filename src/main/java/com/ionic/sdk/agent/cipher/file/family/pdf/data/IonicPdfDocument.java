@@ -31,7 +31,7 @@ public final class IonicPdfDocument {
      * @param channel the {@link java.nio.channels.Channel} interface to the PDF document data
      * @param length  the length (in bytes) of the document content
      */
-    public IonicPdfDocument(final SeekableByteChannel channel, final int length) {
+    public IonicPdfDocument(final SeekableByteChannel channel, final long length) {
         this.pdfDocument = new PdfDocument(channel, length);
     }
 
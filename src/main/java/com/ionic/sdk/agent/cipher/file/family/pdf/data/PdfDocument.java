@@ -39,7 +39,7 @@ public final class PdfDocument {
     /**
      * The length of the backing PDF document data source.
      */
-    private final int length;
+    private final long length;
 
     /**
      * The container for metadata associated with the PDF document's cross reference tables.
@@ -59,7 +59,7 @@ public final class PdfDocument {
      * @param channel the {@link java.nio.channels.Channel} interface to the PDF document data
      * @param length  the length (in bytes) of the document content
      */
-    public PdfDocument(final SeekableByteChannel channel, final int length) {
+    public PdfDocument(final SeekableByteChannel channel, final long length) {
         this.channel = channel;
         this.length = length;
         this.xrefTables = new ArrayList<XrefTable>();
@@ -73,9 +73,9 @@ public final class PdfDocument {
      */
     public void initialize() throws IOException, IonicException {
         SdkData.checkTrue((length > 0), SdkError.ISFILECRYPTO_EOF);
-        String offsetXref = getStartXref((int) channel.size());
+        String offsetXref = getStartXref(channel.size());
         while (offsetXref != null) {
-            final int offset = Value.toInt(offsetXref, length);
+            final long offset = Value.toLong(offsetXref, length);
             SdkData.checkTrue((offset >= 0), SdkError.ISFILECRYPTO_PARSEFAILED);
             SdkData.checkTrue((offset < length), SdkError.ISFILECRYPTO_PARSEFAILED);
             final XrefTable xrefTable = loadXrefTable(offset);
@@ -104,9 +104,9 @@ public final class PdfDocument {
      * @throws IOException    on channel seek / read failure
      * @throws IonicException on data expectation failure
      */
-    private String getStartXref(final int offsetEnd) throws IOException, IonicException {
-        final int offsetBegin = Math.max(0, (offsetEnd - MAX_STARTXREF));
-        final byte[] bytes = new byte[offsetEnd - offsetBegin];
+    private String getStartXref(final long offsetEnd) throws IOException, IonicException {
+        final long offsetBegin = Math.max(0L, (offsetEnd - MAX_STARTXREF));
+        final byte[] bytes = new byte[(int) (offsetEnd - offsetBegin)];
         final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
         channel.position(offsetBegin);
         final int bytesReadStartXref = channel.read(byteBuffer);
@@ -126,7 +126,7 @@ public final class PdfDocument {
      * @throws IOException    on channel seek / read failure
      * @throws IonicException on data expectation failure
      */
-    private XrefTable loadXrefTable(final int offset) throws IOException, IonicException {
+    private XrefTable loadXrefTable(final long offset) throws IOException, IonicException {
         channel.position(offset);
         final Scanner scanner = new Scanner(channel, Pdf.CHARSET);
         final String xrefTableHeader = scanner.findWithinHorizon(Pdf.Regex.XREF_TABLE_HEADER, MAX_STARTXREF);
@@ -160,7 +160,7 @@ public final class PdfDocument {
      * @return the loaded xref table
      * @throws IonicException on data expectation failure
      */
-    private XrefTable parseXrefTable(final int offset, final Scanner scanner) throws IonicException {
+    private XrefTable parseXrefTable(final long offset, final Scanner scanner) throws IonicException {
         final XrefTable xrefTable = new XrefTable(offset);
         boolean foundTrailer = false;
         while (!foundTrailer) {
@@ -176,7 +176,7 @@ public final class PdfDocument {
                     final Xref xref = new Xref(matchXrefItem.group(), i);
                     xrefTable.put(i, xref);
                 }
-            } else if (scanner.findWithinHorizon(Pdf.Regex.TRAILER_HEAD, length) != null) {
+            } else if (scanner.findWithinHorizon(Pdf.Regex.TRAILER_HEAD, getHorizon()) != null) {
                 foundTrailer = true;
                 // load xref table trailing dictionary
                 final PdfDictionaryReader reader = new PdfDictionaryReader(scanner);
@@ -190,6 +190,13 @@ public final class PdfDocument {
         return xrefTable;
     }
 
+    /**
+     * @return the maximum amount of data (in bytes) to scan for a token in the document
+     */
+    private int getHorizon() {
+        return (int) Math.min(length, Integer.MAX_VALUE);
+    }
+
     /**
      * Read the header portion of a PDF object record.
      *
@@ -2,7 +2,6 @@ package com.ionic.sdk.agent.cipher.file.family.pdf.input;
 
 import com.ionic.sdk.agent.cipher.file.PdfFileCipher;
 import com.ionic.sdk.agent.cipher.file.data.CipherFamily;
-import com.ionic.sdk.agent.cipher.file.data.FileCipher;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoDecryptAttributes;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoFileInfo;
 import com.ionic.sdk.agent.cipher.file.family.generic.input.GenericInput;
@@ -13,7 +12,7 @@ import com.ionic.sdk.agent.cipher.file.family.pdf.io.PdfObjectReader;
 import com.ionic.sdk.agent.cipher.file.family.pdf.xref.Xref;
 import com.ionic.sdk.core.annotation.InternalUseOnly;
 import com.ionic.sdk.core.io.ByteChannelWindow;
-import com.ionic.sdk.core.io.ByteQueueInputStream;
+import com.ionic.sdk.core.io.ByteChannelWindowInputStream;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.error.SdkData;
 import com.ionic.sdk.error.SdkError;
@@ -44,21 +43,6 @@ public final class PdfInput {
      */
     private PdfObjectReader pdfObjectReader;
 
-    /**
-     * The view in the source channel encompassing the Ionic generic-protected content.
-     */
-    private ByteChannelWindow byteChannelWindow;
-
-    /**
-     * Intermediate buffer holding data from PDF object to be piped through the wrapped cipher.
-     */
-    private ByteQueueInputStream intermediateStream;
-
-    /**
-     * The buffer to hold a ciphertext block (source buffer for decryption, target buffer for encryption).
-     */
-    private ByteBuffer cipherText;
-
     /**
      * Wrapped cipher implementing protection of PDF content.
      */
@@ -88,7 +72,7 @@ public final class PdfInput {
                      final FileCryptoDecryptAttributes decryptAttributes) throws IonicException, IOException {
         fileInfo.setCipherFamily(CipherFamily.FAMILY_UNKNOWN);
         fileInfo.setCipherVersion("");
-        final IonicPdfDocument ionicPdfDocument = new IonicPdfDocument(sourceChannel, (int) sourceChannel.size());
+        final IonicPdfDocument ionicPdfDocument = new IonicPdfDocument(sourceChannel, sourceChannel.size());
         ionicPdfDocument.initialize();
         // at this point, we know that the document content is presenting as a PDF (trailer, xref table)
         // mimic the behavior of the core SDK
@@ -100,19 +84,13 @@ public final class PdfInput {
         pdfObjectReader = new PdfObjectReader(sourceChannel, xrefIonic, ionicPdfDocument.getXrefTable());
         final PdfBodyObject pdfBodyObject = pdfObjectReader.readPartial();
         // ascertain the bounds of the Ionic embed content
-        final int start = pdfObjectReader.readStreamInit(pdfBodyObject);
-        final int length = pdfObjectReader.readStreamLength(pdfBodyObject.getDictionaryValue(Pdf.KV.LENGTH));
+        final long start = pdfObjectReader.readStreamInit(pdfBodyObject);
+        final long length = pdfObjectReader.readStreamLength(pdfBodyObject.getDictionaryValue(Pdf.KV.LENGTH));
         SdkData.checkTrue((length > 0), SdkError.ISFILECRYPTO_PARSEFAILED);
-        // initialize state for document read
-        byteChannelWindow = new ByteChannelWindow(sourceChannel, start, start + length);
-        intermediateStream = new ByteQueueInputStream(FileCipher.Generic.HEADER_SIZE_MAX);
-        // load the Ionic header (applicability to "GetFileInfo()" API call)
-        final byte[] bytesHeader = new byte[FileCipher.Generic.HEADER_SIZE_MAX];
-        final int bytesRead = byteChannelWindow.read(bytesHeader);
-        intermediateStream.addBytes(bytesHeader, 0, bytesRead);
+        // initialize state for document read; the embedded content is streamed from the channel as it is consumed
+        final ByteChannelWindow byteChannelWindow = new ByteChannelWindow(sourceChannel, start, start + length);
         fileInfo.setEncrypted(true);
-        genericInput = new GenericInput(intermediateStream, length, agent);
-        cipherText = genericInput.getCipherText();
+        genericInput = new GenericInput(new ByteChannelWindowInputStream(byteChannelWindow), length, agent);
         final FileCryptoFileInfo fileInfoEmbed = new FileCryptoFileInfo();
         genericInput.init(fileInfoEmbed, decryptAttributes);
         fileInfo.setKeyId(fileInfoEmbed.getKeyId());
@@ -130,7 +108,7 @@ public final class PdfInput {
      * @throws IOException on failure reading from the input channel
      */
     public int available() throws IOException {
-        return genericInput.available() + intermediateStream.available() + (int) byteChannelWindow.available();
+        return genericInput.available();
     }
 
     /**
@@ -141,12 +119,6 @@ public final class PdfInput {
      * @throws IonicException on failure to read from the embedded Ionic data stream
      */
     public ByteBuffer read() throws IOException, IonicException {
-        final int blockSize = FileCipher.Generic.V12.BLOCK_SIZE_CIPHER;
-        while ((intermediateStream.available() < blockSize) && (byteChannelWindow.available() > 0)) {
-            cipherText.clear();
-            byteChannelWindow.read(cipherText);
-            intermediateStream.addBytes(cipherText);
-        }
         return genericInput.read();
     }
 
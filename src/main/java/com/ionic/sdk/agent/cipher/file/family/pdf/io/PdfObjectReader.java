@@ -99,14 +99,14 @@ public final class PdfObjectReader {
      * @throws IOException    on failure to read or write the channel's cursor
      * @throws IonicException on expectation failure associated with the PDF object stream wrapper
      */
-    public int readStreamInit(final PdfBodyObject pdfBodyObject) throws IOException, IonicException {
-        final int offsetPdfStream = pdfBodyObject.getXref().getOffset() + pdfBodyObject.getOffsetStream();
+    public long readStreamInit(final PdfBodyObject pdfBodyObject) throws IOException, IonicException {
+        final long offsetPdfStream = pdfBodyObject.getXref().getOffset() + pdfBodyObject.getOffsetStream();
         channel.position(offsetPdfStream);
         final Scanner scanner = new Scanner(channel, Pdf.CHARSET);
         final String streamOpen = scanner.findWithinHorizon(OBJ_STREAM_OPEN, 32);
         SdkData.checkTrue((streamOpen != null), SdkError.ISFILECRYPTO_PARSEFAILED);
         final int lengthToken = scanner.match().end() - scanner.match().start();
-        return (int) channel.position(offsetPdfStream + lengthToken).position();
+        return channel.position(offsetPdfStream + lengthToken).position();
     }
 
     /**
@@ -117,18 +117,18 @@ public final class PdfObjectReader {
      * @throws IOException    on failure to read or write to the channel
      * @throws IonicException on expectation failure associated with the PDF object stream wrapper
      */
-    public int readStreamLength(final String lengthStream) throws IOException, IonicException {
+    public long readStreamLength(final String lengthStream) throws IOException, IonicException {
         final Matcher matcherDirect = Pattern.compile(REGEX_REFERENCE_DIRECT).matcher(lengthStream);
         final Matcher matcherIndirect = Pattern.compile(REGEX_REFERENCE_INDIRECT).matcher(lengthStream);
         if (matcherDirect.matches()) {
-            return Value.toInt(lengthStream, 0);
+            return Value.toLong(lengthStream, 0L);
         } else if (matcherIndirect.matches()) {
             final int objectNumber = Value.toInt(matcherIndirect.group(1), 0);
             SdkData.checkTrue(objectNumber > 0, SdkError.ISFILECRYPTO_PARSEFAILED);
             final Xref xrefIndirect = xrefTable.get(objectNumber);
             final PdfObjectReader readerIndirect = new PdfObjectReader(channel, xrefIndirect, xrefTable);
             final PdfBodyObject pdfBodyObjectIndirect = readerIndirect.readPartial();
-            return Value.toInt(pdfBodyObjectIndirect.getStringValue(), 0);
+            return Value.toLong(pdfBodyObjectIndirect.getStringValue(), 0L);
         } else {
             throw new IonicException(SdkError.ISFILECRYPTO_PARSEFAILED);
         }
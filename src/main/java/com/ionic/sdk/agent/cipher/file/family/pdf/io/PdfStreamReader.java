@@ -40,10 +40,11 @@ public final class PdfStreamReader {
      * @throws IonicException on expectation failure associated with the PDF object stream wrapper
      */
     public byte[] readStream(final PdfBodyObject pdfBodyObject) throws IOException, IonicException {
-        final int start = pdfObjectReader.readStreamInit(pdfBodyObject);
-        final int length = pdfObjectReader.readStreamLength(pdfBodyObject.getDictionaryValue(Pdf.KV.LENGTH));
-        SdkData.checkTrue((length > 0), SdkError.ISFILECRYPTO_PARSEFAILED);
-        final int end = start + length;
+        final long start = pdfObjectReader.readStreamInit(pdfBodyObject);
+        final long length = pdfObjectReader.readStreamLength(pdfBodyObject.getDictionaryValue(Pdf.KV.LENGTH));
+        // this API reads the stream into memory; large streams should be read using a ByteChannelWindow
+        SdkData.checkTrue(((length > 0) && (length < Integer.MAX_VALUE)), SdkError.ISFILECRYPTO_PARSEFAILED);
+        final long end = start + length;
         final ByteChannelWindow byteChannelWindow = new ByteChannelWindow(pdfObjectReader.getChannel(), start, end);
         final ByteArrayOutputStream os = new ByteArrayOutputStream();
         final byte[] buffer = new byte[BLOCK_SIZE_PLAIN];
@@ -107,7 +107,7 @@ public final class Pdf10BodyOutput implements PdfBodyOutput {
     }
 
     @Override
-    public int getOutputLength() {
+    public long getOutputLength() {
         return genericOutput.getOutputLength();
     }
 
@@ -76,5 +76,5 @@ interface PdfBodyOutput {
      *
      * @return the number of bytes in the wrapped generic ciphertext stream
      */
-    int getOutputLength();
+    long getOutputLength();
 }
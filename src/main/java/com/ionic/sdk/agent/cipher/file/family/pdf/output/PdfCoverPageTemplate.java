@@ -0,0 +1,170 @@
+package com.ionic.sdk.agent.cipher.file.family.pdf.output;
+
+import com.ionic.sdk.agent.cipher.file.family.pdf.body.PdfBodyObject;
+import com.ionic.sdk.agent.cipher.file.family.pdf.data.Pdf;
+import com.ionic.sdk.agent.cipher.file.family.pdf.data.PdfDictionary;
+import com.ionic.sdk.agent.cipher.file.family.pdf.data.PdfDocument;
+import com.ionic.sdk.agent.cipher.file.family.pdf.data.PdfObject;
+import com.ionic.sdk.agent.cipher.file.family.pdf.data.PdfString;
+import com.ionic.sdk.agent.cipher.file.family.pdf.io.PdfObjectReader;
+import com.ionic.sdk.agent.cipher.file.family.pdf.io.PdfObjectWriter;
+import com.ionic.sdk.agent.cipher.file.family.pdf.xref.Xref;
+import com.ionic.sdk.agent.cipher.file.family.pdf.xref.XrefTable;
+import com.ionic.sdk.agent.cipher.file.family.pdf.xref.XrefTableWriter;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.io.SeekableByteBufferChannel;
+import com.ionic.sdk.core.value.Value;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkData;
+import com.ionic.sdk.error.SdkError;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * The portions of an Ionic-protected PDF document which depend only on the cover page.  This includes the content
+ * preceding the Ionic ciphertext payload PDF object (the cover page and the Ionic "info" PDF object), and the PDF
+ * epilogue content up to the "startxref" token (the Ionic xref tables and the trailer dictionary).
+ * <p>
+ * Instances are immutable, so that they may be shared by concurrent encryptions using the same cover page.
+ */
+final class PdfCoverPageTemplate {
+
+    /**
+     * The content of the output document preceding the Ionic ciphertext payload PDF object.
+     */
+    private final byte[] prologue;
+
+    /**
+     * The content of the output document following the Ionic ciphertext payload PDF object, up to the "startxref"
+     * token.
+     */
+    private final byte[] epilogue;
+
+    /**
+     * The PDF object number of the Ionic ciphertext payload PDF object.
+     */
+    private final int objNumPayloadIonic;
+
+    /**
+     * Constructor.  Derive the Ionic content from the cover page.
+     *
+     * @param coverPage the cover page
+     * @throws IOException    on failure reading the cover page, or writing the derived content
+     * @throws IonicException on failure to parse the cover page
+     */
+    PdfCoverPageTemplate(final byte[] coverPage) throws IOException, IonicException {
+        // load cover page (some Ionic content derived from it)
+        final SeekableByteBufferChannel channelCoverPage = new SeekableByteBufferChannel(coverPage);
+        final PdfDocument documentCoverPage = new PdfDocument(channelCoverPage, coverPage.length);
+        documentCoverPage.initialize();
+        final Collection<Xref> xrefsIonic = new ArrayList<Xref>();
+        // copy zero xref from cover page
+        final XrefTable xrefTable = documentCoverPage.getXrefTable();
+        final Collection<Xref> xrefsTable = xrefTable.values();
+        if (!xrefsTable.isEmpty()) {
+            xrefsIonic.add(xrefsTable.iterator().next());
+        }
+        // the cover page trailer dictionary forms the basis of the Ionic "info" PDF object in the ciphertext
+        final PdfDictionary trailerDictionary = xrefTable.getTrailerDictionary();
+        SdkData.checkTrue(trailerDictionary != null, SdkError.ISFILECRYPTO_PARSEFAILED);
+        final int size = Value.toInt(trailerDictionary.getStringValue(Pdf.KV.SIZE), 0);
+        final String referenceInfo = trailerDictionary.getStringValue(Pdf.KV.INFO);
+        final int referenceId = Xref.getIdentifier(referenceInfo);
+        final Xref xrefInfo = documentCoverPage.getXrefIndirect(referenceId);
+        final int objNumInfoIonic = (xrefInfo == null) ? size : xrefInfo.getObjectNumber();
+        // the generation number is incremented so as not to conflict with the previous "info" PDF object
+        final int genNumInfoIonic = (xrefInfo == null) ? 0 : xrefInfo.getGenerationNum() + 1;
+        final Xref xrefInfoIonic = new Xref(objNumInfoIonic, coverPage.length, genNumInfoIonic, Pdf.XREF_IN_USE, null);
+        xrefsIonic.add(xrefInfoIonic);
+        final Xref referenceInfoIonic = (xrefInfo == null) ? xrefInfoIonic : xrefInfo;
+        this.objNumPayloadIonic = (xrefInfo == null) ? size + 1 : size;
+        final PdfDictionary dictionaryInfo;
+        if (xrefInfo == null) {
+            dictionaryInfo = new PdfDictionary();
+            dictionaryInfo.put(Pdf.KV.INFO, new PdfString(Value.join(
+                    Pdf.Token.SPACER, objNumInfoIonic, xrefInfoIonic.getGenerationNum(), Pdf.REFERENCE)));
+            dictionaryInfo.put(Pdf.KV.SIZE, new PdfString(Integer.toString(objNumPayloadIonic + 1)));
+        } else {
+            final PdfObjectReader readerInfo = documentCoverPage.getPdfObjectReader(xrefInfo.getObjectNumber());
+            final PdfBodyObject bodyInfo = readerInfo.readPartial();
+            dictionaryInfo = bodyInfo.getDictionary();
+        }
+        SdkData.checkTrue(dictionaryInfo != null, SdkError.ISFILECRYPTO_PARSEFAILED);
+        // add the trailer dictionary reference to the Ionic payload
+        dictionaryInfo.put(Pdf.KV.IONIC_PAYLOAD, new PdfString(Value.join(
+                Pdf.Token.SPACER, objNumPayloadIonic, 0, Pdf.REFERENCE)));
+        // serialize the cover page and the Ionic "info" PDF object
+        final ByteArrayOutputStream osPrologue = new ByteArrayOutputStream();
+        osPrologue.write(coverPage);
+        final PdfBodyObject bodyObjectInfo = new PdfBodyObject(xrefInfoIonic, dictionaryInfo, 0, null);
+        final PdfObjectWriter writerInfo = new PdfObjectWriter(osPrologue, bodyObjectInfo, false);
+        writerInfo.writeBegin();
+        writerInfo.writeEnd();
+        this.prologue = osPrologue.toByteArray();
+        // the Ionic "payload" PDF object immediately follows the prologue
+        xrefsIonic.add(new Xref(objNumPayloadIonic, prologue.length, 0, Pdf.XREF_IN_USE, null));
+        // serialize the PDF epilogue for the ciphertext output stream
+        final ByteArrayOutputStream osEpilogue = new ByteArrayOutputStream();
+        osEpilogue.write(Transcoder.utf8().decode(Pdf.Token.XREF));
+        final XrefTableWriter xrefTableWriter = new XrefTableWriter(osEpilogue);
+        for (Xref xref : xrefsIonic) {
+            // as Ionic xrefs are expected to be sparse, each is serialized into a discrete xref table
+            final XrefTable xrefTableIonic = new XrefTable(0);
+            xrefTableIonic.put(xref.getObjectNumber(), xref);
+            xrefTableWriter.write(xref.getObjectNumber(), xrefTableIonic);
+        }
+        // continuation of PDF epilogue; trailer dictionary inherited from cover page
+        final PdfObject encrypt = trailerDictionary.remove(Pdf.KV.ENCRYPT);
+        final int sizeTrailer = (encrypt == null) ? size : size - 1;
+        trailerDictionary.put(Pdf.KV.INFO, new PdfString(referenceInfoIonic.toReference()));
+        trailerDictionary.put(Pdf.KV.PREV, new PdfString(Long.toString(xrefTable.getOffset())));
+        // original + ciphertext payload
+        trailerDictionary.put(Pdf.KV.SIZE, new PdfString(Integer.toString(sizeTrailer + 1)));
+        osEpilogue.write(Transcoder.utf8().decode(Pdf.Token.TRAILER));
+        xrefTableWriter.write(trailerDictionary);
+        this.epilogue = osEpilogue.toByteArray();
+    }
+
+    /**
+     * Write the content of the output document preceding the Ionic ciphertext payload PDF object.
+     *
+     * @param os the output document stream
+     * @return the number of bytes written
+     * @throws IOException on failure writing to the stream
+     */
+    int writePrologue(final OutputStream os) throws IOException {
+        os.write(prologue);
+        return prologue.length;
+    }
+
+    /**
+     * Write the content of the output document following the Ionic ciphertext payload PDF object, up to the
+     * "startxref" token.
+     *
+     * @param os the output document stream
+     * @return the number of bytes written
+     * @throws IOException on failure writing to the stream
+     */
+    int writeEpilogue(final OutputStream os) throws IOException {
+        os.write(epilogue);
+        return epilogue.length;
+    }
+
+    /**
+     * @return the PDF object number of the Ionic ciphertext payload PDF object
+     */
+    int getObjNumPayloadIonic() {
+        return objNumPayloadIonic;
+    }
+
+    /**
+     * @return the position in the output document of the Ionic ciphertext payload PDF object
+     */
+    long getOffsetPayloadIonic() {
+        return prologue.length;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ionic.sdk.agent.cipher.file.family.pdf.output;
 
 import com.ionic.sdk.agent.cipher.file.PdfFileCipher;
+import com.ionic.sdk.agent.cipher.file.cover.CoverPageTemplateCache;
 import com.ionic.sdk.agent.cipher.file.cover.FileCryptoCoverPageServicesInterface;
 import com.ionic.sdk.agent.cipher.file.data.CipherFamily;
 import com.ionic.sdk.agent.cipher.file.data.FileCipher;
@@ -9,17 +10,10 @@ import com.ionic.sdk.agent.cipher.file.data.FileType;
 import com.ionic.sdk.agent.cipher.file.family.pdf.body.PdfBodyObject;
 import com.ionic.sdk.agent.cipher.file.family.pdf.data.Pdf;
 import com.ionic.sdk.agent.cipher.file.family.pdf.data.PdfDictionary;
-import com.ionic.sdk.agent.cipher.file.family.pdf.data.PdfDocument;
-import com.ionic.sdk.agent.cipher.file.family.pdf.data.PdfObject;
 import com.ionic.sdk.agent.cipher.file.family.pdf.data.PdfString;
-import com.ionic.sdk.agent.cipher.file.family.pdf.io.PdfObjectReader;
 import com.ionic.sdk.agent.cipher.file.family.pdf.io.PdfObjectWriter;
 import com.ionic.sdk.agent.cipher.file.family.pdf.xref.Xref;
-import com.ionic.sdk.agent.cipher.file.family.pdf.xref.XrefTable;
-import com.ionic.sdk.agent.cipher.file.family.pdf.xref.XrefTableWriter;
 import com.ionic.sdk.core.annotation.InternalUseOnly;
-import com.ionic.sdk.core.codec.Transcoder;
-import com.ionic.sdk.core.io.SeekableByteBufferChannel;
 import com.ionic.sdk.core.value.Value;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.error.SdkData;
@@ -33,8 +27,6 @@ import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.Collection;
 
 /**
  * Wrap an output stream with logic to manage the Ionic augmentation of the content.
@@ -69,35 +61,25 @@ public final class PdfOutput {
     private PdfBodyOutput bodyOutput;
 
     /**
-     * Container for metadata derived from Ionic document cover page.
+     * Container for the output content derived from the Ionic document cover page.
      */
-    private PdfDocument documentCoverPage;
-
-    /**
-     * The PDF xrefs associated with the Ionic encryption wrapper for the source document.
-     */
-    private final Collection<Xref> xrefsIonic;
-
-    /**
-     * Cache value of reference in "init()", to be added to trailer dictionary in "doFinal()".
-     */
-    private Xref referenceInfoIonic;
+    private PdfCoverPageTemplate template;
 
     /**
      * The running count of the number of bytes written to the cipher text stream.
      */
-    private int sizeDocumentWrite;
+    private long sizeDocumentWrite;
 
     /**
      * The position in the PDF output stream at which the generic file signature should be written.
      */
-    private int signatureOffset;
+    private long signatureOffset;
 
     /**
      * The position in the output stream of the Ionic ciphertext payload PDF object.  This is cached so that the
      * length of the ciphertext may be updated in the payload dictionary after the length is known.
      */
-    private int offsetPayloadIonic;
+    private long offsetPayloadIonic;
 
     /**
      * Cached copy of the Ionic payload PDF object.  This is held so that the prologue dictionary may be rewritten
@@ -119,11 +101,10 @@ public final class PdfOutput {
         this.sizeInput = sizeInput;
         this.agent = agent;
         this.coverPageServices = coverPageServices;
-        this.xrefsIonic = new ArrayList<Xref>();
-        this.referenceInfoIonic = null;
-        this.sizeDocumentWrite = 0;
-        this.signatureOffset = 0;
-        this.offsetPayloadIonic = 0;
+        this.template = null;
+        this.sizeDocumentWrite = 0L;
+        this.signatureOffset = 0L;
+        this.offsetPayloadIonic = 0L;
     }
 
     /**
@@ -145,61 +126,18 @@ public final class PdfOutput {
         encryptAttributes.setFamily(CipherFamily.FAMILY_PDF);
         encryptAttributes.setVersion(version);
         SdkData.checkTrue(!Value.isEmpty(version), SdkError.ISFILECRYPTO_MISSINGVALUE);
+        // the content derived from the cover page is prepared once for each cover page
         final byte[] coverPage = coverPageServices.getCoverPage(FileType.FILETYPE_PDF);
-        targetStream.write(coverPage);
-        sizeDocumentWrite += coverPage.length;
-        // load cover page (some Ionic content derived from it)
-        final SeekableByteBufferChannel channelCoverPage = new SeekableByteBufferChannel(coverPage);
-        documentCoverPage = new PdfDocument(channelCoverPage, coverPage.length);
-        documentCoverPage.initialize();
-        // copy zero xref from cover page
-        final XrefTable xrefTable = documentCoverPage.getXrefTable();
-        final Collection<Xref> xrefsTable = xrefTable.values();
-        if (!xrefsTable.isEmpty()) {
-            xrefsIonic.add(xrefsTable.iterator().next());
+        template = TEMPLATES.get(coverPageServices, FileType.FILETYPE_PDF.name(), coverPage);
+        if (template == null) {
+            template = new PdfCoverPageTemplate(coverPage);
+            TEMPLATES.put(coverPageServices, FileType.FILETYPE_PDF.name(), coverPage, template);
         }
-        // the cover page trailer dictionary forms the basis of the Ionic "info" PDF object in the ciphertext
-        final PdfDictionary trailerDictionary = xrefTable.getTrailerDictionary();
-        SdkData.checkTrue(trailerDictionary != null, SdkError.ISFILECRYPTO_PARSEFAILED);
-        final int size = Value.toInt(trailerDictionary.getStringValue(Pdf.KV.SIZE), 0);
-        final String referenceInfo = trailerDictionary.getStringValue(Pdf.KV.INFO);
-        final int referenceId = Xref.getIdentifier(referenceInfo);
-        final Xref xrefInfo = documentCoverPage.getXrefIndirect(referenceId);
-        final int objNumInfoIonic = (xrefInfo == null) ? size : xrefInfo.getObjectNumber();
-        // the generation number is incremented so as not to conflict with the previous "info" PDF object
-        final int genNumInfoIonic = (xrefInfo == null) ? 0 : xrefInfo.getGenerationNum() + 1;
-        final Xref xrefInfoIonic = new Xref(objNumInfoIonic, coverPage.length, genNumInfoIonic, Pdf.XREF_IN_USE, null);
-        xrefsIonic.add(xrefInfoIonic);
-        referenceInfoIonic = (xrefInfo == null) ? xrefInfoIonic : xrefInfo;
-        final int objNumPayloadIonic = (xrefInfo == null) ? size + 1 : size;
-        final PdfDictionary dictionaryInfo;
-        if (xrefInfo == null) {
-            dictionaryInfo = new PdfDictionary();
-            dictionaryInfo.put(Pdf.KV.INFO, new PdfString(Value.join(
-                    Pdf.Token.SPACER, objNumInfoIonic, xrefInfoIonic.getGenerationNum(), Pdf.REFERENCE)));
-            dictionaryInfo.put(Pdf.KV.SIZE, new PdfString(Integer.toString(objNumPayloadIonic + 1)));
-        } else {
-            final PdfObjectReader readerInfo = documentCoverPage.getPdfObjectReader(xrefInfo.getObjectNumber());
-            final PdfBodyObject bodyInfo = readerInfo.readPartial();
-            dictionaryInfo = bodyInfo.getDictionary();
-        }
-        SdkData.checkTrue(dictionaryInfo != null, SdkError.ISFILECRYPTO_PARSEFAILED);
-        // add the trailer dictionary reference to the Ionic payload
-        dictionaryInfo.put(Pdf.KV.IONIC_PAYLOAD, new PdfString(Value.join(
-                Pdf.Token.SPACER, objNumPayloadIonic, 0, Pdf.REFERENCE)));
-        //dictionaryInfo.remove(Pdf.KV.LENGTH);
-        // serialize the Ionic "info" PDF object
-        final PdfBodyObject bodyObjectInfo = new PdfBodyObject(xrefInfoIonic, dictionaryInfo, 0, null);
-        final ByteArrayOutputStream osInfo = new ByteArrayOutputStream();
-        final PdfObjectWriter writerInfo = new PdfObjectWriter(osInfo, bodyObjectInfo, false);
-        writerInfo.writeBegin();
-        writerInfo.writeEnd();
-        targetStream.write(osInfo.toByteArray());
-        sizeDocumentWrite += osInfo.size();
+        sizeDocumentWrite += template.writePrologue(targetStream);
         // serialize the Ionic "payload" PDF object
-        offsetPayloadIonic = coverPage.length + osInfo.size();
-        final Xref xrefPayloadIonic = new Xref(objNumPayloadIonic, offsetPayloadIonic, 0, Pdf.XREF_IN_USE, null);
-        xrefsIonic.add(xrefPayloadIonic);
+        offsetPayloadIonic = template.getOffsetPayloadIonic();
+        final Xref xrefPayloadIonic = new Xref(
+                template.getObjNumPayloadIonic(), offsetPayloadIonic, 0, Pdf.XREF_IN_USE, null);
         final PdfDictionary dictionaryPayload = new PdfDictionary();
         // placeholder for size of GenericFileCipher payload
         dictionaryPayload.put(Pdf.KV.LENGTH, new PdfString(String.format(Pdf.LENGTH_FORMAT, 0)));
@@ -254,26 +192,7 @@ public final class PdfOutput {
         sizeDocumentWrite += bodyOutput.doFinal();
         // write the PDF epilogue for the ciphertext output stream
         final ByteArrayOutputStream osEpiloguePdf = new ByteArrayOutputStream();
-        osEpiloguePdf.write(Transcoder.utf8().decode(Pdf.Token.XREF));
-        final XrefTableWriter xrefTableWriter = new XrefTableWriter(osEpiloguePdf);
-        for (Xref xref : xrefsIonic) {
-            // as Ionic xrefs are expected to be sparse, each is serialized into a discrete xref table
-            final XrefTable xrefTable = new XrefTable(0);
-            xrefTable.put(xref.getObjectNumber(), xref);
-            xrefTableWriter.write(xref.getObjectNumber(), xrefTable);
-        }
-        // continuation of PDF epilogue; trailer dictionary inherited from cover page
-        final XrefTable xrefTable = documentCoverPage.getXrefTable();
-        final PdfDictionary trailerDictionary = xrefTable.getTrailerDictionary();
-        final PdfObject encrypt = trailerDictionary.remove(Pdf.KV.ENCRYPT);
-        final int sizeOld = Value.toInt(trailerDictionary.getStringValue(Pdf.KV.SIZE), 0);
-        final int size = (encrypt == null) ? sizeOld : sizeOld - 1;
-        SdkData.checkTrue(referenceInfoIonic != null, SdkError.ISFILECRYPTO_MISSINGVALUE);
-        trailerDictionary.put(Pdf.KV.INFO, new PdfString(referenceInfoIonic.toReference()));
-        trailerDictionary.put(Pdf.KV.PREV, new PdfString(Integer.toString(xrefTable.getOffset())));
-        trailerDictionary.put(Pdf.KV.SIZE, new PdfString(Integer.toString(size + 1))); // original + ciphertext payload
-        osEpiloguePdf.write(Transcoder.utf8().decode(Pdf.Token.TRAILER));
-        xrefTableWriter.write(trailerDictionary);
+        template.writeEpilogue(osEpiloguePdf);
         final PrintStream printStream = new PrintStream(osEpiloguePdf, false, Pdf.CHARSET);
         printStream.print(Pdf.Token.STARTXREF);
         printStream.print(sizeDocumentWrite);
@@ -301,7 +220,7 @@ public final class PdfOutput {
      *
      * @return the position in the PDF output stream at which the generic file signature should be written
      */
-    public int getSignatureOffset() {
+    public long getSignatureOffset() {
         return signatureOffset;
     }
 
@@ -313,7 +232,7 @@ public final class PdfOutput {
      * @throws IonicException on failure to initialize this object for character-based writes
      */
     public byte[] getIonicPayloadPrologue() throws IonicException {
-        final int sizeCipherText = bodyOutput.getOutputLength();
+        final long sizeCipherText = bodyOutput.getOutputLength();
         final PdfDictionary dictionary = bodyObjectPayload.getDictionary();
         SdkData.checkTrue(dictionary != null, SdkError.ISFILECRYPTO_PARSEFAILED);
         dictionary.put(Pdf.KV.LENGTH,
@@ -334,7 +253,13 @@ public final class PdfOutput {
     /**
      * @return the position in the output stream of the Ionic ciphertext payload PDF object
      */
-    public int getOffsetPayloadIonic() {
+    public long getOffsetPayloadIonic() {
         return offsetPayloadIonic;
     }
+
+    /**
+     * The output content derived from cover pages, shared by instances of this class.
+     */
+    private static final CoverPageTemplateCache<PdfCoverPageTemplate> TEMPLATES =
+            new CoverPageTemplateCache<PdfCoverPageTemplate>();
 }
@@ -59,7 +59,7 @@ public final class StreamXrefTableReader {
      * @throws IonicException on failure to parse the specified data as an XrefTable
      * @throws IOException    on channel seek / read failure
      */
-    public XrefTable read(final int offset, final SeekableByteChannel channel, final byte[] bytes)
+    public XrefTable read(final long offset, final SeekableByteChannel channel, final byte[] bytes)
             throws IonicException, IOException {
         // process metadata descriptor for cross-reference stream
         final PdfDictionary dictionary = pdfBodyObject.getDictionary();
@@ -174,7 +174,7 @@ public final class StreamXrefTableReader {
         final int offsetField2 = offsetField1 + field1Width;
         final int offsetField3 = offsetField2 + field2Width;
         final int field1 = BytesReader.readInt(record, offsetField1, (offsetField1 + field1Width));
-        final int field2 = BytesReader.readInt(record, offsetField2, (offsetField2 + field2Width));
+        final long field2 = BytesReader.readLong(record, offsetField2, (offsetField2 + field2Width));
         final int field3 = BytesReader.readInt(record, offsetField3, (offsetField3 + field3Width));
         final String trace = String.format(FORMAT_XREF_TRACE, objnum, field1, field2, field3);
         //Logger.getLogger(getClass().getName()).finest(trace);
@@ -186,7 +186,8 @@ public final class StreamXrefTableReader {
                 break;
             case 2:
                 // placeholder object (ObjStm offset to be resolved in post-processing)
-                xrefTable.put(objnum, new Xref(objnum, 0, 0, Pdf.XREF_IN_USE, new ObjStmEntry(field2, field3)));
+                SdkData.checkTrue((field2 <= Integer.MAX_VALUE), SdkError.ISFILECRYPTO_PARSEFAILED);
+                xrefTable.put(objnum, new Xref(objnum, 0, 0, Pdf.XREF_IN_USE, new ObjStmEntry((int) field2, field3)));
                 break;
             default:
                 throw new IonicException(SdkError.ISFILECRYPTO_PARSEFAILED, new IllegalArgumentException(trace));
@@ -23,7 +23,7 @@ public final class Xref {
     /**
      * Offset in the channel of the associated PDF object.  Mutable to handle cross reference stream / ObjStm case.
      */
-    private int offset;
+    private long offset;
 
     /**
      * Generation number of the associated PDF object.
@@ -55,7 +55,7 @@ public final class Xref {
     /**
      * @return the offset in the channel of the associated PDF object
      */
-    public int getOffset() {
+    public long getOffset() {
         return offset;
     }
 
@@ -64,7 +64,7 @@ public final class Xref {
      *
      * @param offset the offset in the channel of the associated PDF object
      */
-    public void setOffset(final int offset) {
+    public void setOffset(final long offset) {
         this.offset = offset;
     }
 
@@ -107,7 +107,7 @@ public final class Xref {
         final Matcher matcher = Pdf.Regex.XREF_ENTRY.matcher(entry);
         if (matcher.matches()) {
             int group = 0;
-            this.offset = Value.toInt(matcher.group(++group), 0);
+            this.offset = Value.toLong(matcher.group(++group), 0L);
             this.generationNum = Value.toInt(matcher.group(++group), 0);
             this.inUse = matcher.group(++group);
         } else {
@@ -125,7 +125,7 @@ public final class Xref {
      * @param inUse         the flag indicating the state of the associated PDF object
      * @param objStmEntry   if present, this reference is to a PDF object contained within an object stream
      */
-    public Xref(final int objectNumber, final int offset, final int generationNum,
+    public Xref(final int objectNumber, final long offset, final int generationNum,
                 final String inUse, final ObjStmEntry objStmEntry) {
         this.objectNumber = objectNumber;
         this.offset = offset;
@@ -15,12 +15,12 @@ public final class XrefTable extends TreeMap<Integer, Xref> {
     /**
      * The offset in the containing PDF document at which this xref table was found.
      */
-    private final int offset;
+    private final long offset;
 
     /**
      * @return the offset in the containing PDF document at which this xref table was found
      */
-    public int getOffset() {
+    public long getOffset() {
         return offset;
     }
 
@@ -50,7 +50,7 @@ public final class XrefTable extends TreeMap<Integer, Xref> {
      *
      * @param offset the offset in the containing PDF document at which this xref table was found
      */
-    public XrefTable(final int offset) {
+    public XrefTable(final long offset) {
         this.offset = offset;
     }
 
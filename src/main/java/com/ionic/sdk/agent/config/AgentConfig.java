@@ -265,5 +265,15 @@ public class AgentConfig {
          * If unspecified, default is {@link Boolean#TRUE}.
          */
         public static final String AUTOSELECT_PROFILE = "autoselectprofile";
+
+        /**
+         * If set to true, responses to key requests retain the json object representation of the server response,
+         * available via {@link com.ionic.sdk.agent.request.base.AgentResponseBase#getJsonPayload()}.  Key responses
+         * are otherwise deserialized as a stream, without building a json object representation of the full
+         * response.
+         * <p>
+         * If unspecified, default is {@link Boolean#FALSE}.
+         */
+        public static final String RETAIN_JSON_PAYLOAD = "retainjsonpayload";
     }
 }
@@ -77,7 +77,10 @@ public class AgentResponseBase implements Serializable {
     }
 
     /**
-     * @return the json object representation of the server response
+     * Responses to key requests only retain the json representation of the server response when the
+     * {@link com.ionic.sdk.agent.config.AgentConfig.Key#RETAIN_JSON_PAYLOAD} configuration property is set.
+     *
+     * @return the json object representation of the server response (or null, if not retained)
      */
     public final JsonObject getJsonPayload() {
         return jsonPayload;
@@ -21,9 +21,11 @@ import com.ionic.sdk.httpclient.HttpRequest;
 import com.ionic.sdk.httpclient.HttpResponse;
 import com.ionic.sdk.json.JsonIO;
 import com.ionic.sdk.json.JsonSource;
+import com.ionic.sdk.json.JsonStream;
 
 import javax.json.JsonObject;
 import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
 import java.io.IOException;
 import java.util.Properties;
 import java.util.Set;
@@ -203,6 +205,92 @@ public abstract class AgentTransactionBase {
     protected final void parseHttpResponseBase(
             final HttpRequest httpRequest, final HttpResponse httpResponse,
             final String cidQ) throws IonicException {
+        final byte[] entityClear = readHttpResponseBase(httpResponse, cidQ);
+        final JsonObject jsonPayload = JsonIO.readObject(entityClear);
+        final JsonObject error = JsonSource.getJsonObjectNullable(jsonPayload, IDC.Payload.ERROR);
+        responseBase.setConversationId((cidQ == null)
+                ? JsonSource.getString(jsonPayload, IDC.Payload.CID) : cidQ);
+        responseBase.setJsonPayload(jsonPayload);
+        final JsonValue.ValueType valueType = JsonSource.getValueType(jsonPayload, IDC.Payload.DATA);
+        processResponseError(cidQ, error, JsonValue.ValueType.OBJECT.equals(valueType));
+    }
+
+    /**
+     * Common handling of server responses to client requests, for responses which may be large.  The response
+     * json is consumed as a stream of parser events.  The "data" member of the response is passed to
+     * {@link #parseHttpResponseData(JsonParser)} as it is encountered, so that a json object representation of the
+     * entire response need not be built.
+     * <p>
+     * The json object representation of the response is only retained on the response object when the
+     * {@link AgentConfig.Key#RETAIN_JSON_PAYLOAD} configuration property is set.
+     *
+     * @param httpRequest   the server request
+     * @param httpResponse  the server response
+     * @param cidQ          the cid of the client request (for comparison to the one found in the server response)
+     * @throws IonicException on server error code, inability to deserialize response, unexpected response content,
+     *                        or problems parsing the response payload bytes
+     */
+    protected final void parseHttpResponseBaseStream(
+            final HttpRequest httpRequest, final HttpResponse httpResponse,
+            final String cidQ) throws IonicException {
+        final byte[] entityClear = readHttpResponseBase(httpResponse, cidQ);
+        if (protocol.getConfig().getPropertyBool(AgentConfig.Key.RETAIN_JSON_PAYLOAD, false)) {
+            responseBase.setJsonPayload(JsonIO.readObject(entityClear));
+        }
+        String cid = null;
+        JsonObject error = null;
+        boolean isDataObject = false;
+        try (JsonParser parser = JsonStream.createParser(entityClear)) {
+            SdkData.checkTrue(JsonStream.next(parser) == JsonParser.Event.START_OBJECT, SdkError.ISAGENT_PARSEFAILED);
+            JsonParser.Event event = JsonStream.next(parser);
+            while (event != JsonParser.Event.END_OBJECT) {
+                final String name = parser.getString();
+                if (IDC.Payload.CID.equals(name)) {
+                    cid = JsonStream.readString(parser);
+                } else if (IDC.Payload.ERROR.equals(name)) {
+                    JsonStream.nextObject(parser, name);
+                    error = JsonStream.readObject(parser);
+                } else if (IDC.Payload.DATA.equals(name)) {
+                    event = JsonStream.next(parser);
+                    isDataObject = (event == JsonParser.Event.START_OBJECT);
+                    if (isDataObject) {
+                        parseHttpResponseData(parser);
+                    } else {
+                        JsonStream.skip(parser, event);
+                    }
+                } else {
+                    JsonStream.skip(parser, JsonStream.next(parser));
+                }
+                event = JsonStream.next(parser);
+            }
+        }
+        responseBase.setConversationId((cidQ == null) ? cid : cidQ);
+        processResponseError(cidQ, error, isDataObject);
+    }
+
+    /**
+     * Process the members of the "data" object of a server response, as they are encountered by
+     * {@link #parseHttpResponseBaseStream(HttpRequest, HttpResponse, String)}.  On entry, the parser is positioned at
+     * the start of the "data" object; on return, it must be positioned at the end of the "data" object.
+     * <p>
+     * Subclasses using {@link #parseHttpResponseBaseStream(HttpRequest, HttpResponse, String)} must override this.
+     *
+     * @param parser the json event source
+     * @throws IonicException on unexpected response content
+     */
+    protected void parseHttpResponseData(final JsonParser parser) throws IonicException {
+        throw new IonicException(SdkError.ISAGENT_NOTIMPLEMENTED, getClass().getName());
+    }
+
+    /**
+     * Validate the server response to a client request, and unwrap the embedded, secured response.
+     *
+     * @param httpResponse  the server response
+     * @param cidQ          the cid of the client request (for comparison to the one found in the server response)
+     * @return the cleartext server response json
+     * @throws IonicException on unexpected response content, or problems unwrapping the response payload bytes
+     */
+    private byte[] readHttpResponseBase(final HttpResponse httpResponse, final String cidQ) throws IonicException {
         responseBase.setHttpResponseCode(httpResponse.getStatusCode());
         // log an error if we got an unexpected HTTP response code
         if (AgentTransactionUtil.isHttpErrorCode(httpResponse.getStatusCode())) {
@@ -219,12 +307,19 @@ public abstract class AgentTransactionBase {
         // decompose cleartext content of server response
         // according to "https://dev.ionic.com/api/device/device-request-payload-format", server responses to
         // device requests are expected to be secure JSON, and the unwrapped response is also expected to be JSON
-        final byte[] entityClear = protocol.transformResponsePayload(entitySecure, cidQ);
-        final JsonObject jsonPayload = JsonIO.readObject(entityClear);
-        final JsonObject error = JsonSource.getJsonObjectNullable(jsonPayload, IDC.Payload.ERROR);
-        responseBase.setConversationId((cidQ == null)
-                ? JsonSource.getString(jsonPayload, IDC.Payload.CID) : cidQ);
-        responseBase.setJsonPayload(jsonPayload);
+        return protocol.transformResponsePayload(entitySecure, cidQ);
+    }
+
+    /**
+     * Record the server error (if any) in the server response json, and respond to it.
+     *
+     * @param cidQ         the cid of the client request
+     * @param error        the server error json object, if present in the response
+     * @param isDataObject true iff the server response contains a "data" json object
+     * @throws IonicException on server error code, or unexpected response content
+     */
+    private void processResponseError(
+            final String cidQ, final JsonObject error, final boolean isDataObject) throws IonicException {
         responseBase.setServerErrorCode((error == null) ? 0 : JsonSource.getInt(error, IDC.Payload.CODE));
         responseBase.setServerErrorMessage((error == null)
                 ? null : JsonSource.getString(error, IDC.Payload.MESSAGE));
@@ -235,7 +330,7 @@ public abstract class AgentTransactionBase {
         // Because IonicServerException needs to derive from ServerException; we must wrap here.
         // on removal of ServerException, this stuff can be simplified
         try {
-            processResponseErrorServer(cidQ);
+            processResponseErrorServer(cidQ, isDataObject);
         } catch (IonicServerException e) {
             throw new IonicException(e.getReturnCode(), e);
         }
@@ -252,10 +347,12 @@ public abstract class AgentTransactionBase {
      * <p>
      * (3) a json response entity containing data in an unexpected format
      *
-     * @param cid the request conversation ID
+     * @param cid          the request conversation ID
+     * @param isDataObject true iff the server response contains a "data" json object
      * @throws IonicServerException on errors
      */
-    private void processResponseErrorServer(final String cid) throws IonicServerException {
+    private void processResponseErrorServer(
+            final String cid, final boolean isDataObject) throws IonicServerException {
         switch (responseBase.getServerErrorCode()) {
             case ServerError.HFPHASH_DENIED:
                 throw new IonicServerException(SdkError.ISAGENT_FPHASH_DENIED, cid, responseBase);
@@ -264,7 +361,7 @@ public abstract class AgentTransactionBase {
                 throw new IonicServerException(SdkError.ISAGENT_CID_TIMESTAMP_DENIED, cid, responseBase);
                 //break;
             case ServerError.SERVER_OK:
-                processResponseErrorHttp(cid);
+                processResponseErrorHttp(cid, isDataObject);
                 break;
             default:
                 throw new IonicServerException(SdkError.ISAGENT_REQUESTFAILED, cid, responseBase);
@@ -316,14 +413,16 @@ public abstract class AgentTransactionBase {
      * <p>
      * (3) a json response entity containing data in an unexpected format
      *
-     * @param cid the request conversation ID
+     * @param cid          the request conversation ID
+     * @param isDataObject true iff the server response contains a "data" json object
      * @throws IonicServerException on errors
      */
-    private void processResponseErrorHttp(final String cid) throws IonicServerException {
+    private void processResponseErrorHttp(
+            final String cid, final boolean isDataObject) throws IonicServerException {
         if (AgentTransactionUtil.isHttpErrorCode(responseBase.getHttpResponseCode())) {
             throw new IonicServerException(SdkError.ISAGENT_REQUESTFAILED, cid, responseBase);
         } else {
-            processResponseErrorData(cid);
+            processResponseErrorData(cid, isDataObject);
         }
     }
 
@@ -338,13 +437,13 @@ public abstract class AgentTransactionBase {
      * <p>
      * (3) a json response entity containing data in an unexpected format
      *
-     * @param cid the request conversation ID
+     * @param cid          the request conversation ID
+     * @param isDataObject true iff the server response contains a "data" json object
      * @throws IonicServerException on errors
      */
-    private void processResponseErrorData(final String cid) throws IonicServerException {
-        final JsonObject jsonPayload = responseBase.getJsonPayload();
-        final JsonValue.ValueType valueType = JsonSource.getValueType(jsonPayload, IDC.Payload.DATA);
-        if (!JsonValue.ValueType.OBJECT.equals(valueType) && responseBase.isDataRequired()) {
+    private void processResponseErrorData(
+            final String cid, final boolean isDataObject) throws IonicServerException {
+        if (!isDataObject && responseBase.isDataRequired()) {
             throw new IonicServerException(SdkError.ISAGENT_BADRESPONSE, cid, responseBase);
         }
     }
@@ -18,11 +18,13 @@ import com.ionic.sdk.httpclient.HttpRequest;
 import com.ionic.sdk.httpclient.HttpResponse;
 import com.ionic.sdk.json.JsonIO;
 import com.ionic.sdk.json.JsonSource;
+import com.ionic.sdk.json.JsonStream;
 
-import javax.json.JsonArray;
 import javax.json.JsonObject;
-import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
 import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -36,6 +38,11 @@ public class CreateKeysTransaction extends AgentTransactionBase {
      */
     private CreateKeysMessage message;
 
+    /**
+     * The keys deserialized from the server response, pending validation of the response.
+     */
+    private final List<CreateKeysResponse.Key> keys;
+
     /**
      * Constructor.
      *
@@ -47,6 +54,7 @@ public class CreateKeysTransaction extends AgentTransactionBase {
             final ServiceProtocol protocol, final AgentRequestBase requestBase, final AgentResponseBase responseBase) {
         super(protocol, requestBase, responseBase);
         this.message = null;
+        this.keys = new ArrayList<CreateKeysResponse.Key>();
     }
 
     /**
@@ -83,39 +91,78 @@ public class CreateKeysTransaction extends AgentTransactionBase {
     @Override
     protected final void parseHttpResponse(
             final HttpRequest httpRequest, final HttpResponse httpResponse) throws IonicException {
-        // unwrap the server response
-        parseHttpResponseBase(httpRequest, httpResponse, message.getCid());
+        final AgentResponseBase agentResponseBase = getResponseBase();
+        SdkData.checkTrue(agentResponseBase instanceof CreateKeysResponse, SdkError.ISAGENT_ERROR);
+        final CreateKeysResponse response = (CreateKeysResponse) agentResponseBase;
+        keys.clear();
+        // unwrap the server response (response keys are deserialized as they are encountered)
+        parseHttpResponseBaseStream(httpRequest, httpResponse, message.getCid());
         // apply logic specific to the response type
+        for (CreateKeysResponse.Key key : keys) {
+            response.add(key);
+        }
+    }
+
+    /**
+     * Deserialize the content of the "data" object of the server response.  Each response key is materialized,
+     * verified, and discarded in turn, so that a json representation of the full response is not needed.
+     *
+     * @param parser the json event source
+     * @throws IonicException on unexpected response content, or on failure to verify a response key
+     */
+    @Override
+    protected final void parseHttpResponseData(final JsonParser parser) throws IonicException {
         final AgentRequestBase agentRequestBase = getRequestBase();
-        final AgentResponseBase agentResponseBase = getResponseBase();
         SdkData.checkTrue(agentRequestBase instanceof CreateKeysRequest, SdkError.ISAGENT_ERROR);
-        SdkData.checkTrue(agentResponseBase instanceof CreateKeysResponse, SdkError.ISAGENT_ERROR);
         final CreateKeysRequest request = (CreateKeysRequest) agentRequestBase;
-        final CreateKeysResponse response = (CreateKeysResponse) agentResponseBase;
-        final String cid = response.getConversationId();
-        final JsonObject jsonPayload = response.getJsonPayload();
-        final JsonObject jsonData = JsonSource.getJsonObject(jsonPayload, IDC.Payload.DATA);
-        final JsonArray jsonProtectionKeys = JsonSource.getJsonArray(jsonData, IDC.Payload.PROTECTION_KEYS);
-        for (JsonValue value : jsonProtectionKeys) {
-            // deserialize each response key into a user-consumable object
-            final JsonObject jsonProtectionKey = JsonSource.toJsonObject(value, IDC.Payload.PROTECTION_KEYS);
-            final String ref = JsonSource.getString(jsonProtectionKey, IDC.Payload.REF);
-            AgentTransactionUtil.checkNotNull(cid, IDC.Payload.REF, ref);
-            final CreateKeysRequest.Key keyRequest = request.getKey(ref);
-            final String csigQ = message.getCsigs().getProperty(ref);
-            final String msigQ = message.getMsigs().getProperty(ref);
-            final String id = JsonSource.getString(jsonProtectionKey, IDC.Payload.ID);
-            final String authData = Value.join(IDC.Signature.DELIMITER, cid, ref, id, csigQ, msigQ);
-            final String keyHex = JsonSource.getString(jsonProtectionKey, IDC.Payload.KEY);
-            final String csig = JsonSource.getString(jsonProtectionKey, IDC.Payload.CSIG);
-            final String msig = JsonSource.getString(jsonProtectionKey, IDC.Payload.MSIG);
-            final KeyObligationsMap keyObligationsMap = AgentTransactionUtil.toObligations(
-                    JsonSource.getJsonObjectNullable(jsonProtectionKey, IDC.Payload.OBLIGATIONS));
-            // verify each received response key
-            final byte[] keyBytes = getProtocol().getKeyBytes(keyHex, authData);
-            response.add(new CreateKeysResponse.Key(ref, id, keyBytes, getProtocol().getIdentity(),
-                    keyRequest.getAttributesMap(), keyRequest.getMutableAttributesMap(),
-                    keyObligationsMap, IDC.Metadata.KEYORIGIN_IONIC, csig, msig));
+        boolean isProtectionKeys = false;
+        JsonParser.Event event = JsonStream.next(parser);
+        while (event != JsonParser.Event.END_OBJECT) {
+            final String name = parser.getString();
+            if (IDC.Payload.PROTECTION_KEYS.equals(name)) {
+                isProtectionKeys = true;
+                JsonStream.nextArray(parser, name);
+                event = JsonStream.next(parser);
+                while (event != JsonParser.Event.END_ARRAY) {
+                    SdkData.checkTrue(event == JsonParser.Event.START_OBJECT, SdkError.ISAGENT_INVALIDVALUE, name);
+                    keys.add(toKey(request, JsonStream.readObject(parser)));
+                    event = JsonStream.next(parser);
+                }
+            } else {
+                JsonStream.skip(parser, JsonStream.next(parser));
+            }
+            event = JsonStream.next(parser);
         }
+        SdkData.checkTrue(isProtectionKeys, SdkError.ISAGENT_MISSINGVALUE, IDC.Payload.PROTECTION_KEYS);
+    }
+
+    /**
+     * Deserialize a response key into a user-consumable object.
+     *
+     * @param request           the client request
+     * @param jsonProtectionKey the json representation of the response key
+     * @return the response key
+     * @throws IonicException on failure to verify the response key
+     */
+    private CreateKeysResponse.Key toKey(
+            final CreateKeysRequest request, final JsonObject jsonProtectionKey) throws IonicException {
+        final String cid = message.getCid();
+        final String ref = JsonSource.getString(jsonProtectionKey, IDC.Payload.REF);
+        AgentTransactionUtil.checkNotNull(cid, IDC.Payload.REF, ref);
+        final CreateKeysRequest.Key keyRequest = request.getKey(ref);
+        final String csigQ = message.getCsigs().getProperty(ref);
+        final String msigQ = message.getMsigs().getProperty(ref);
+        final String id = JsonSource.getString(jsonProtectionKey, IDC.Payload.ID);
+        final String authData = Value.join(IDC.Signature.DELIMITER, cid, ref, id, csigQ, msigQ);
+        final String keyHex = JsonSource.getString(jsonProtectionKey, IDC.Payload.KEY);
+        final String csig = JsonSource.getString(jsonProtectionKey, IDC.Payload.CSIG);
+        final String msig = JsonSource.getString(jsonProtectionKey, IDC.Payload.MSIG);
+        final KeyObligationsMap keyObligationsMap = AgentTransactionUtil.toObligations(
+                JsonSource.getJsonObjectNullable(jsonProtectionKey, IDC.Payload.OBLIGATIONS));
+        // verify each received response key
+        final byte[] keyBytes = getProtocol().getKeyBytes(keyHex, authData);
+        return new CreateKeysResponse.Key(ref, id, keyBytes, getProtocol().getIdentity(),
+                keyRequest.getAttributesMap(), keyRequest.getMutableAttributesMap(),
+                keyObligationsMap, IDC.Metadata.KEYORIGIN_IONIC, csig, msig);
     }
 }
@@ -19,15 +19,15 @@ import com.ionic.sdk.httpclient.HttpRequest;
 import com.ionic.sdk.httpclient.HttpResponse;
 import com.ionic.sdk.json.JsonIO;
 import com.ionic.sdk.json.JsonSource;
+import com.ionic.sdk.json.JsonStream;
 
 import javax.json.JsonArray;
 import javax.json.JsonObject;
 import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
 import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -41,6 +41,21 @@ public class GetKeysTransaction extends AgentTransactionBase {
      */
     private GetKeysMessage message;
 
+    /**
+     * The keys deserialized from the server response, pending validation of the response.
+     */
+    private final List<GetKeysResponse.Key> keys;
+
+    /**
+     * The key errors deserialized from the server response, pending validation of the response.
+     */
+    private final List<GetKeysResponse.IonicError> errors;
+
+    /**
+     * The (optional) external id query results deserialized from the server response.
+     */
+    private JsonObject jsonQueries;
+
     /**
      * Constructor.
      *
@@ -52,6 +67,9 @@ public class GetKeysTransaction extends AgentTransactionBase {
             final ServiceProtocol protocol, final AgentRequestBase requestBase, final AgentResponseBase responseBase) {
         super(protocol, requestBase, responseBase);
         this.message = null;
+        this.keys = new ArrayList<GetKeysResponse.Key>();
+        this.errors = new ArrayList<GetKeysResponse.IonicError>();
+        this.jsonQueries = null;
     }
 
     /**
@@ -94,54 +112,23 @@ public class GetKeysTransaction extends AgentTransactionBase {
     @Override
     protected final void parseHttpResponse(
             final HttpRequest httpRequest, final HttpResponse httpResponse) throws IonicException {
-        // unwrap the server response
-        parseHttpResponseBase(httpRequest, httpResponse, message.getCid());
-        // apply logic specific to the response type
         final AgentResponseBase agentResponseBase = getResponseBase();
         SdkData.checkTrue(agentResponseBase instanceof GetKeysResponse, SdkError.ISAGENT_ERROR);
         final GetKeysResponse response = (GetKeysResponse) agentResponseBase;
-        final String cid = response.getConversationId();
-        final JsonObject jsonPayload = response.getJsonPayload();
-        final JsonObject jsonData = JsonSource.getJsonObject(jsonPayload, IDC.Payload.DATA);
-        final JsonArray jsonProtectionKeys = JsonSource.getJsonArray(jsonData, IDC.Payload.PROTECTION_KEYS);
-        for (JsonValue value : jsonProtectionKeys) {
-            // deserialize each response key into a user-consumable object
-            final JsonObject jsonProtectionKey = JsonSource.toJsonObject(value, IDC.Payload.PROTECTION_KEYS);
-            final String id = JsonSource.getString(jsonProtectionKey, IDC.Payload.ID);
-            final String keyHex = JsonSource.getString(jsonProtectionKey, IDC.Payload.KEY);
-            final String cattrs = JsonSource.getString(jsonProtectionKey, IDC.Payload.CATTRS);
-            final String mattrs = JsonSource.getString(jsonProtectionKey, IDC.Payload.MATTRS);
-            final String csig = JsonSource.getString(jsonProtectionKey, IDC.Payload.CSIG);
-            final String msig = JsonSource.getString(jsonProtectionKey, IDC.Payload.MSIG);
-            final KeyObligationsMap keyObligationsMap = AgentTransactionUtil.toObligations(
-                    JsonSource.getJsonObjectNullable(jsonProtectionKey, IDC.Payload.OBLIGATIONS));
-            final String authData = Value.join(IDC.Signature.DELIMITER, cid, id, csig, msig);
-            // verify each received response key
-            final byte[] clearBytesKey = getProtocol().getKeyBytes(keyHex, authData);
-            // verify each received response attributes
-            getProtocol().verifySignature(IDC.Payload.CSIG, csig, cattrs, clearBytesKey);
-            getProtocol().verifySignature(IDC.Payload.MSIG, msig, mattrs, clearBytesKey);
-            final KeyAttributesMap cattrsKey = message.getJsonAttrs(cattrs, id, clearBytesKey);
-            final KeyAttributesMap mattrsKey = message.getJsonAttrs(mattrs, id, clearBytesKey);
-            response.add(new GetKeysResponse.Key(id, clearBytesKey, getProtocol().getIdentity(), cattrsKey, mattrsKey,
-                    keyObligationsMap, IDC.Metadata.KEYORIGIN_IONIC, csig, msig));
+        keys.clear();
+        errors.clear();
+        jsonQueries = null;
+        // unwrap the server response (response keys are deserialized as they are encountered)
+        parseHttpResponseBaseStream(httpRequest, httpResponse, message.getCid());
+        // apply logic specific to the response type
+        for (GetKeysResponse.Key key : keys) {
+            response.add(key);
         }
         // populate the errors into the response
-        final JsonObject jsonErrors = JsonSource.getJsonObjectNullable(jsonData, IDC.Payload.ERROR_MAP);
-        if (jsonErrors != null) {
-            final Iterator<Map.Entry<String, JsonValue>> iterator = JsonSource.getIterator(jsonErrors);
-            while (iterator.hasNext()) {
-                final Map.Entry<String, JsonValue> entry = iterator.next();
-                // deserialize each response key into a user-consumable object
-                final String keyId = entry.getKey();
-                final JsonObject error = JsonSource.toJsonObject(entry.getValue(), IDC.Payload.ERROR_MAP);
-                final int serverCode = JsonSource.getInt(error, IDC.Payload.CODE);
-                final String serverMessage = JsonSource.getString(error, IDC.Payload.MESSAGE);
-                response.add(new GetKeysResponse.IonicError(keyId, 0, serverCode, serverMessage));
-            }
+        for (GetKeysResponse.IonicError error : errors) {
+            response.add(error);
         }
         // optional query results map
-        final JsonObject jsonQueries = JsonSource.getJsonObjectNullable(jsonData, IDC.Payload.QUERY_RESULTS);
         if (jsonQueries != null) {
             // grab the request
             final AgentRequestBase agentRequestBase = getRequestBase();
@@ -170,4 +157,79 @@ public class GetKeysTransaction extends AgentTransactionBase {
             }
         }
     }
+
+    /**
+     * Deserialize the content of the "data" object of the server response.  Each response key is materialized,
+     * verified, and discarded in turn, so that a json representation of the full response is not needed.
+     *
+     * @param parser the json event source
+     * @throws IonicException on unexpected response content, or on failure to verify a response key
+     */
+    @Override
+    protected final void parseHttpResponseData(final JsonParser parser) throws IonicException {
+        boolean isProtectionKeys = false;
+        JsonParser.Event event = JsonStream.next(parser);
+        while (event != JsonParser.Event.END_OBJECT) {
+            final String name = parser.getString();
+            if (IDC.Payload.PROTECTION_KEYS.equals(name)) {
+                isProtectionKeys = true;
+                JsonStream.nextArray(parser, name);
+                event = JsonStream.next(parser);
+                while (event != JsonParser.Event.END_ARRAY) {
+                    SdkData.checkTrue(event == JsonParser.Event.START_OBJECT, SdkError.ISAGENT_INVALIDVALUE, name);
+                    keys.add(toKey(JsonStream.readObject(parser)));
+                    event = JsonStream.next(parser);
+                }
+            } else if (IDC.Payload.ERROR_MAP.equals(name)) {
+                JsonStream.nextObject(parser, name);
+                event = JsonStream.next(parser);
+                while (event != JsonParser.Event.END_OBJECT) {
+                    // deserialize each response key error into a user-consumable object
+                    final String keyId = parser.getString();
+                    JsonStream.nextObject(parser, name);
+                    final JsonObject error = JsonStream.readObject(parser);
+                    final int serverCode = JsonSource.getInt(error, IDC.Payload.CODE);
+                    final String serverMessage = JsonSource.getString(error, IDC.Payload.MESSAGE);
+                    errors.add(new GetKeysResponse.IonicError(keyId, 0, serverCode, serverMessage));
+                    event = JsonStream.next(parser);
+                }
+            } else if (IDC.Payload.QUERY_RESULTS.equals(name)) {
+                JsonStream.nextObject(parser, name);
+                jsonQueries = JsonStream.readObject(parser);
+            } else {
+                JsonStream.skip(parser, JsonStream.next(parser));
+            }
+            event = JsonStream.next(parser);
+        }
+        SdkData.checkTrue(isProtectionKeys, SdkError.ISAGENT_MISSINGVALUE, IDC.Payload.PROTECTION_KEYS);
+    }
+
+    /**
+     * Deserialize a response key into a user-consumable object.
+     *
+     * @param jsonProtectionKey the json representation of the response key
+     * @return the response key
+     * @throws IonicException on failure to verify the response key
+     */
+    private GetKeysResponse.Key toKey(final JsonObject jsonProtectionKey) throws IonicException {
+        final String cid = message.getCid();
+        final String id = JsonSource.getString(jsonProtectionKey, IDC.Payload.ID);
+        final String keyHex = JsonSource.getString(jsonProtectionKey, IDC.Payload.KEY);
+        final String cattrs = JsonSource.getString(jsonProtectionKey, IDC.Payload.CATTRS);
+        final String mattrs = JsonSource.getString(jsonProtectionKey, IDC.Payload.MATTRS);
+        final String csig = JsonSource.getString(jsonProtectionKey, IDC.Payload.CSIG);
+        final String msig = JsonSource.getString(jsonProtectionKey, IDC.Payload.MSIG);
+        final KeyObligationsMap keyObligationsMap = AgentTransactionUtil.toObligations(
+                JsonSource.getJsonObjectNullable(jsonProtectionKey, IDC.Payload.OBLIGATIONS));
+        final String authData = Value.join(IDC.Signature.DELIMITER, cid, id, csig, msig);
+        // verify each received response key
+        final byte[] clearBytesKey = getProtocol().getKeyBytes(keyHex, authData);
+        // verify each received response attributes
+        getProtocol().verifySignature(IDC.Payload.CSIG, csig, cattrs, clearBytesKey);
+        getProtocol().verifySignature(IDC.Payload.MSIG, msig, mattrs, clearBytesKey);
+        final KeyAttributesMap cattrsKey = message.getJsonAttrs(cattrs, id, clearBytesKey);
+        final KeyAttributesMap mattrsKey = message.getJsonAttrs(mattrs, id, clearBytesKey);
+        return new GetKeysResponse.Key(id, clearBytesKey, getProtocol().getIdentity(), cattrsKey, mattrsKey,
+                keyObligationsMap, IDC.Metadata.KEYORIGIN_IONIC, csig, msig);
+    }
 }
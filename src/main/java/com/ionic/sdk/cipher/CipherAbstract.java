@@ -13,6 +13,7 @@ import javax.crypto.Cipher;
 import javax.crypto.Mac;
 import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
+import java.security.InvalidAlgorithmParameterException;
 import java.security.Key;
 import java.security.spec.AlgorithmParameterSpec;
 
@@ -22,7 +23,7 @@ import java.security.spec.AlgorithmParameterSpec;
 public abstract class CipherAbstract extends MetadataHolder {
 
     /**
-     * The native Java cipher instance to wrap.
+     * The native Java cipher instance to wrap (or null, if subclass overrides {@link #getCipher()}).
      */
     private final Cipher cipherInstance;
 
@@ -40,6 +41,30 @@ public abstract class CipherAbstract extends MetadataHolder {
         this.cipherInstance = cipher;
     }
 
+    /**
+     * Get the native Java cipher instance to be used by a cryptography operation.  Subclasses may override this to
+     * supply an instance shared with other code on the calling thread; each operation fully initializes the instance
+     * before use.
+     *
+     * @return the native Java cipher instance
+     * @throws IonicException if the cipher cannot be instantiated
+     */
+    protected Cipher getCipher() throws IonicException {
+        return cipherInstance;
+    }
+
+    /**
+     * Get a native Java cipher instance for the exclusive use of a cryptography operation.  This is used when the
+     * instance supplied by {@link #getCipher()} refuses the operation parameters (a JCE provider may refuse to reuse
+     * the key and IV of its previous AES-GCM encryption).
+     *
+     * @return the native Java cipher instance
+     * @throws IonicException if the cipher cannot be instantiated
+     */
+    protected Cipher newCipher() throws IonicException {
+        return cipherInstance;
+    }
+
     /**
      * Retrieve the Cipher crossplatform class ID.
      *
@@ -63,6 +88,15 @@ public abstract class CipherAbstract extends MetadataHolder {
         this.keyInstance = key;
     }
 
+    /**
+     * Get the key for this cipher.
+     *
+     * @return the native Java key used to perform the cipher operation
+     */
+    protected final Key getKeyNative() {
+        return keyInstance;
+    }
+
     /**
      * Compute a MAC (message authentication code) for the input value, using the member key.
      *
@@ -72,7 +106,7 @@ public abstract class CipherAbstract extends MetadataHolder {
      */
     public byte[] hmacSHA256(final byte[] message) throws IonicException {
         try {
-            final Mac hmacSHA256 = AgentSdk.getCrypto().getHmacSha256();
+            final Mac hmacSHA256 = AgentSdk.getCrypto().getThreadHmacSha256();
             hmacSHA256.init(keyInstance);
             return hmacSHA256.doFinal(message);
         } catch (GeneralSecurityException e) {
@@ -200,22 +234,15 @@ public abstract class CipherAbstract extends MetadataHolder {
      * @param authData      additional authenticated data used by some ciphers in crypto operations
      * @param parameterSpec additional configuration specific to some ciphers
      * @return an array of bytes representing the ciphertext
+     * @throws IonicException           if the cipher cannot be instantiated
      * @throws GeneralSecurityException on cryptography errors
      */
     private byte[] encryptInner(final byte[] plainText, final byte[] authData,
-                                final AlgorithmParameterSpec parameterSpec) throws GeneralSecurityException {
-        // set cipher parameters
-        if (parameterSpec == null) {
-            cipherInstance.init(Cipher.ENCRYPT_MODE, keyInstance);
-        } else {
-            cipherInstance.init(Cipher.ENCRYPT_MODE, keyInstance, parameterSpec);
-        }
-        // set aad
-        if (authData != null) {
-            cipherInstance.updateAAD(authData);
-        }
+                                final AlgorithmParameterSpec parameterSpec)
+            throws IonicException, GeneralSecurityException {
+        final Cipher cipher = initCipher(Cipher.ENCRYPT_MODE, authData, parameterSpec);
         // encrypt
-        return cipherInstance.doFinal(plainText);
+        return cipher.doFinal(plainText);
     }
 
     /**
@@ -249,22 +276,15 @@ public abstract class CipherAbstract extends MetadataHolder {
      * @param authData      additional authenticated data used by some ciphers in crypto operations
      * @param parameterSpec additional configuration specific to some ciphers
      * @return the number of bytes stored in ciphertext
+     * @throws IonicException           if the cipher cannot be instantiated
      * @throws GeneralSecurityException on cryptography errors
      */
     private int encryptInner(final ByteBuffer plainText, final ByteBuffer cipherText, final byte[] authData,
-                             final AlgorithmParameterSpec parameterSpec) throws GeneralSecurityException {
-        // set cipher parameters
-        if (parameterSpec == null) {
-            cipherInstance.init(Cipher.ENCRYPT_MODE, keyInstance);
-        } else {
-            cipherInstance.init(Cipher.ENCRYPT_MODE, keyInstance, parameterSpec);
-        }
-        // set aad
-        if (authData != null) {
-            cipherInstance.updateAAD(authData);
-        }
+                             final AlgorithmParameterSpec parameterSpec)
+            throws IonicException, GeneralSecurityException {
+        final Cipher cipher = initCipher(Cipher.ENCRYPT_MODE, authData, parameterSpec);
         // encrypt
-        return cipherInstance.doFinal(plainText, cipherText);
+        return cipher.doFinal(plainText, cipherText);
     }
 
     /**
@@ -294,23 +314,16 @@ public abstract class CipherAbstract extends MetadataHolder {
      * @param authData      additional authenticated data used by some ciphers in crypto operations
      * @param parameterSpec additional configuration specific to some ciphers
      * @return array of bytes representing the decrypted plaintext
+     * @throws IonicException           if the cipher cannot be instantiated
      * @throws GeneralSecurityException on cryptography errors
      */
     private byte[] decryptInner(final byte[] cipherText, final byte[] authData,
-                                final AlgorithmParameterSpec parameterSpec) throws GeneralSecurityException {
-        // set cipher parameters
-        if (parameterSpec == null) {
-            cipherInstance.init(Cipher.DECRYPT_MODE, keyInstance);
-        } else {
-            cipherInstance.init(Cipher.DECRYPT_MODE, keyInstance, parameterSpec);
-        }
-        // set aad
-        if (authData != null) {
-            cipherInstance.updateAAD(authData);
-        }
+                                final AlgorithmParameterSpec parameterSpec)
+            throws IonicException, GeneralSecurityException {
+        final Cipher cipher = initCipher(Cipher.DECRYPT_MODE, authData, parameterSpec);
         // decrypt
         final int inputLen = cipherText.length - AesCipher.SIZE_IV;
-        return cipherInstance.doFinal(cipherText, AesCipher.SIZE_IV, inputLen);
+        return cipher.doFinal(cipherText, AesCipher.SIZE_IV, inputLen);
     }
 
     /**
@@ -345,21 +358,61 @@ public abstract class CipherAbstract extends MetadataHolder {
      * @param authData      additional authenticated data used by some ciphers in crypto operations
      * @param parameterSpec additional configuration specific to some ciphers
      * @return the number of bytes stored in plaintext
+     * @throws IonicException           if the cipher cannot be instantiated
      * @throws GeneralSecurityException on cryptography errors
      */
     private int decryptInner(final ByteBuffer plainText, final ByteBuffer cipherText, final byte[] authData,
-                             final AlgorithmParameterSpec parameterSpec) throws GeneralSecurityException {
-        // set cipher parameters
-        if (parameterSpec == null) {
-            cipherInstance.init(Cipher.DECRYPT_MODE, keyInstance);
-        } else {
-            cipherInstance.init(Cipher.DECRYPT_MODE, keyInstance, parameterSpec);
+                             final AlgorithmParameterSpec parameterSpec)
+            throws IonicException, GeneralSecurityException {
+        final Cipher cipher = initCipher(Cipher.DECRYPT_MODE, authData, parameterSpec);
+        // decrypt
+        return cipher.doFinal(cipherText, plainText);
+    }
+
+    /**
+     * Initialize a native Java cipher instance for a cryptography operation.
+     *
+     * @param mode          the operation mode of the cipher ({@link Cipher#ENCRYPT_MODE}, {@link Cipher#DECRYPT_MODE})
+     * @param authData      additional authenticated data used by some ciphers in crypto operations
+     * @param parameterSpec additional configuration specific to some ciphers
+     * @return the initialized cipher instance
+     * @throws IonicException           if the cipher cannot be instantiated
+     * @throws GeneralSecurityException on cryptography errors
+     */
+    private Cipher initCipher(final int mode, final byte[] authData, final AlgorithmParameterSpec parameterSpec)
+            throws IonicException, GeneralSecurityException {
+        Cipher cipher = getCipher();
+        try {
+            initCipher(cipher, mode, parameterSpec);
+        } catch (InvalidAlgorithmParameterException e) {
+            final Cipher cipherNew = newCipher();
+            if (cipherNew == cipher) {
+                throw e;
+            }
+            cipher = cipherNew;
+            initCipher(cipher, mode, parameterSpec);
         }
         // set aad
         if (authData != null) {
-            cipherInstance.updateAAD(authData);
+            cipher.updateAAD(authData);
+        }
+        return cipher;
+    }
+
+    /**
+     * Initialize a native Java cipher instance with the member key.
+     *
+     * @param cipher        the native Java cipher instance
+     * @param mode          the operation mode of the cipher
+     * @param parameterSpec additional configuration specific to some ciphers
+     * @throws GeneralSecurityException on cryptography errors
+     */
+    private void initCipher(final Cipher cipher, final int mode, final AlgorithmParameterSpec parameterSpec)
+            throws GeneralSecurityException {
+        if (parameterSpec == null) {
+            cipher.init(mode, keyInstance);
+        } else {
+            cipher.init(mode, keyInstance, parameterSpec);
         }
-        // decrypt
-        return cipherInstance.doFinal(cipherText, plainText);
     }
 }
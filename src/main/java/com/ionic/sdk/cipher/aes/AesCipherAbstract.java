@@ -4,7 +4,6 @@ import com.ionic.sdk.cipher.CipherAbstract;
 import com.ionic.sdk.core.codec.Transcoder;
 import com.ionic.sdk.core.rng.CryptoRng;
 import com.ionic.sdk.core.value.Value;
-import com.ionic.sdk.crypto.CryptoUtils;
 import com.ionic.sdk.crypto.jce.CryptoAbstract;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.error.SdkData;
@@ -12,6 +11,7 @@ import com.ionic.sdk.error.SdkData;
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
 import java.util.Arrays;
 
 /**
@@ -19,6 +19,12 @@ import java.util.Arrays;
  */
 public abstract class AesCipherAbstract extends CipherAbstract {
 
+    /**
+     * The deterministic IV derivation state of the most recently used cipher key, retained to avoid deriving the IV
+     * key on each encryption.
+     */
+    private HmacIvDerivation hmacIvDerivation;
+
     /**
      * Construct and initialize an object of this type.
      *
@@ -87,6 +93,9 @@ public abstract class AesCipherAbstract extends CipherAbstract {
 
     /**
      * Generate IV using SQL Server deterministic encryption IV generation strategy.
+     * <p>
+     * The IV derivation key depends only on the cipher key, so it is computed once per key (see
+     * {@link HmacIvDerivation}), rather than once per IV.
      *
      * @param plainText input to IV generation
      * @return the IV to be used
@@ -94,8 +103,13 @@ public abstract class AesCipherAbstract extends CipherAbstract {
      */
     private byte[] getHmacIV(final byte[] plainText) throws IonicException {
         // https://docs.microsoft.com/en-us/sql/relational-databases/security/encryption/always-encrypted-cryptography
-        final String input = String.format(AesCipher.PATTERN_HMAC, CryptoAbstract.HMAC_ALGORITHM, AesCipher.KEY_BITS);
-        final byte[] ivKey = hmacSHA256(Transcoder.utf8().decode(input));
-        return CryptoUtils.hmacSHA256(plainText, ivKey);
+        final Key key = getKeyNative();
+        SdkData.checkNotNull(key, Key.class.getName());
+        HmacIvDerivation derivation = hmacIvDerivation;
+        if ((derivation == null) || !derivation.isFor(key)) {
+            derivation = new HmacIvDerivation(key);
+            hmacIvDerivation = derivation;
+        }
+        return derivation.getMac().doFinal(plainText);
     }
 }
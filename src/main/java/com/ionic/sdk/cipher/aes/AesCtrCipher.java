@@ -79,7 +79,7 @@ public class AesCtrCipher extends AesCipherAbstract {
      * @throws IonicException on cryptography errors
      */
     public AesCtrCipher(final byte[] cipherKey) throws IonicException {
-        super(getCipherInstance());
+        super(null);
         setKey(cipherKey);
     }
 
@@ -90,17 +90,30 @@ public class AesCtrCipher extends AesCipherAbstract {
      * @throws IonicException on cryptography errors
      */
     public AesCtrCipher(final SecretKey secretKey) throws IonicException {
-        super(getCipherInstance());
+        super(null);
         setKey(secretKey);
     }
 
+    /**
+     * Get the Java cipher used by a cryptography operation.  The instance is shared with other cryptography operations
+     * on the calling thread, so that the (expensive) JCE provider lookup is not repeated for each operation.
+     *
+     * @return the Java cipher instance
+     * @throws IonicException if Cipher cannot be instantiated
+     */
+    @Override
+    protected final Cipher getCipher() throws IonicException {
+        return AgentSdk.getCrypto().getThreadCipherAesCtr();
+    }
+
     /**
      * Construct an instance of a Java cipher.
      *
-     * @return the Cipher to be wrapped
+     * @return the Java cipher instance
      * @throws IonicException if Cipher cannot be instantiated
      */
-    private static Cipher getCipherInstance() throws IonicException {
+    @Override
+    protected final Cipher newCipher() throws IonicException {
         return AgentSdk.getCrypto().getCipherAesCtr();
     }
 
@@ -0,0 +1,94 @@
+package com.ionic.sdk.cipher.aes;
+
+import com.ionic.sdk.agent.AgentSdk;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.crypto.jce.CryptoAbstract;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+
+/**
+ * The state used to derive deterministic IVs for one AES key.
+ * <p>
+ * The IV derivation key is itself derived from the AES key (see {@link AesCipherAbstract}), so each IV would
+ * otherwise need two HMAC computations and two {@link Mac} initializations.  This object retains a {@link Mac}
+ * initialized with the derived IV key.  Callers receive a clone of the retained instance, which avoids both the key
+ * derivation and the re-initialization.
+ * <p>
+ * Instances are owned by the {@link AesCipherAbstract} using the AES key, and share its lifetime.
+ */
+final class HmacIvDerivation {
+
+    /**
+     * The AES key.
+     */
+    private final Key key;
+
+    /**
+     * The IV derivation key.
+     */
+    private final SecretKeySpec ivKey;
+
+    /**
+     * A {@link Mac} initialized with the IV derivation key, which is never used directly (only cloned).
+     */
+    private final Mac prototype;
+
+    /**
+     * Constructor.
+     *
+     * @param key the AES key
+     * @throws IonicException on cryptography errors
+     */
+    HmacIvDerivation(final Key key) throws IonicException {
+        this.key = key;
+        try {
+            final Mac mac = AgentSdk.getCrypto().getThreadHmacSha256();
+            mac.init(key);
+            ivKey = new SecretKeySpec(mac.doFinal(IV_KEY_INPUT), mac.getAlgorithm());
+            prototype = AgentSdk.getCrypto().getHmacSha256();
+            prototype.init(ivKey);
+        } catch (GeneralSecurityException e) {
+            throw new IonicException(SdkError.ISCRYPTO_ERROR, e);
+        }
+    }
+
+    /**
+     * @param keyCipher the key of a cipher
+     * @return true, if this object was created for the key instance
+     */
+    boolean isFor(final Key keyCipher) {
+        return (key == keyCipher);
+    }
+
+    /**
+     * Get a {@link Mac} initialized with the IV derivation key.  The instance is owned by the caller when the
+     * JCE provider supports cloning; otherwise, the instance cached for reuse by the calling thread is used.
+     *
+     * @return a {@link Mac} ready to compute an IV
+     * @throws IonicException on cryptography errors
+     */
+    Mac getMac() throws IonicException {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            try {
+                final Mac mac = AgentSdk.getCrypto().getThreadHmacSha256();
+                mac.init(ivKey);
+                return mac;
+            } catch (GeneralSecurityException eInit) {
+                throw new IonicException(SdkError.ISCRYPTO_ERROR, eInit);
+            }
+        }
+    }
+
+    /**
+     * The input to the derivation of the IV key from the AES key.
+     */
+    private static final byte[] IV_KEY_INPUT = Transcoder.utf8().decode(
+            String.format(AesCipher.PATTERN_HMAC, CryptoAbstract.HMAC_ALGORITHM, AesCipher.KEY_BITS));
+}
@@ -0,0 +1,225 @@
+package com.ionic.sdk.core.codec;
+
+import java.util.Arrays;
+
+/**
+ * Base64 encoding (RFC 4648, standard alphabet) between byte arrays and their US-ASCII encoded representations,
+ * without the intermediate strings of the {@link Transcoder#base64()} API.
+ * <p>
+ * Encoding writes padded output, wrapped into lines of a fixed width, into a caller supplied byte array; the line
+ * separator is inserted in place.  Decoding reads a range of a byte array into a caller supplied byte array, and
+ * accepts input with or without trailing padding characters.  Both operations allow the caller to reuse its buffers
+ * across calls.
+ */
+public final class Base64Bytes {
+
+    /**
+     * Constructor.
+     * http://checkstyle.sourceforge.net/config_design.html#FinalClass
+     */
+    private Base64Bytes() {
+    }
+
+    /**
+     * Calculate the length of the line wrapped base64 encoding of a byte array.
+     *
+     * @param length          the length of the byte array
+     * @param lengthLine      the number of input bytes encoded on each line (a multiple of 3)
+     * @param lengthSeparator the length of the line separator
+     * @return the number of bytes in the encoding
+     */
+    public static int getEncodedLength(final int length, final int lengthLine, final int lengthSeparator) {
+        final int lines = (length + lengthLine - 1) / lengthLine;
+        return (((length + SIZE_BYTES - 1) / SIZE_BYTES) * SIZE_CHARS) + (lines * lengthSeparator);
+    }
+
+    /**
+     * Encode a range of a byte array into lines of padded base64 text, each followed by the line separator.  Each
+     * line but the last encodes <code>lengthLine</code> input bytes.
+     *
+     * @param bytes      the byte array containing the data to be encoded
+     * @param offset     the index of the first byte to be encoded
+     * @param length     the number of bytes to be encoded
+     * @param lengthLine the number of input bytes encoded on each line (a multiple of 3)
+     * @param separator  the line separator (for example, CR LF)
+     * @param out        the destination of the encoding, which must have room for
+     *                   {@link #getEncodedLength(int, int, int)} bytes following <code>offsetOut</code>
+     * @param offsetOut  the index in the destination at which to write the encoding
+     * @return the number of bytes written to the destination
+     * @throws IllegalArgumentException if the line length is not a positive multiple of 3
+     */
+    public static int encodeLines(final byte[] bytes, final int offset, final int length, final int lengthLine,
+                                  final byte[] separator, final byte[] out, final int offsetOut) {
+        if ((lengthLine <= 0) || ((lengthLine % SIZE_BYTES) != 0)) {
+            throw new IllegalArgumentException(Integer.toString(lengthLine));
+        }
+        final int end = offset + length;
+        int i = offset;
+        int j = offsetOut;
+        while (i < end) {
+            final int endLine = Math.min(end, i + lengthLine);
+            final int endFull = endLine - ((endLine - i) % SIZE_BYTES);
+            while (i < endFull) {
+                final int value = ((bytes[i++] & MASK_BYTE) << SHIFT_BYTE_0)
+                        | ((bytes[i++] & MASK_BYTE) << SHIFT_BYTE_1) | (bytes[i++] & MASK_BYTE);
+                out[j++] = ALPHABET[(value >>> SHIFT_CHAR_0) & MASK_CHAR];
+                out[j++] = ALPHABET[(value >>> SHIFT_CHAR_1) & MASK_CHAR];
+                out[j++] = ALPHABET[(value >>> SHIFT_CHAR_2) & MASK_CHAR];
+                out[j++] = ALPHABET[value & MASK_CHAR];
+            }
+            final int remainder = endLine - i;
+            if (remainder > 0) {
+                int value = (bytes[i++] & MASK_BYTE) << SHIFT_BYTE_0;
+                if (remainder > 1) {
+                    value |= (bytes[i++] & MASK_BYTE) << SHIFT_BYTE_1;
+                }
+                out[j++] = ALPHABET[(value >>> SHIFT_CHAR_0) & MASK_CHAR];
+                out[j++] = ALPHABET[(value >>> SHIFT_CHAR_1) & MASK_CHAR];
+                out[j++] = (remainder > 1) ? ALPHABET[(value >>> SHIFT_CHAR_2) & MASK_CHAR] : PAD;
+                out[j++] = PAD;
+            }
+            System.arraycopy(separator, 0, out, j, separator.length);
+            j += separator.length;
+        }
+        return j - offsetOut;
+    }
+
+    /**
+     * Calculate the maximum length of the decoding of a range of base64 encoded bytes.
+     *
+     * @param length the length of the encoded data
+     * @return the maximum number of decoded bytes
+     */
+    public static int getDecodedLength(final int length) {
+        return ((length + SIZE_CHARS - 1) / SIZE_CHARS) * SIZE_BYTES;
+    }
+
+    /**
+     * Decode a range of base64 encoded bytes (for example, a single line of line wrapped base64 text, without its
+     * line separator).
+     *
+     * @param bytes     the byte array containing the encoded data
+     * @param offset    the index of the first byte of the encoded data
+     * @param length    the number of bytes of encoded data
+     * @param out       the destination of the decoded data, which must have room for
+     *                  {@link #getDecodedLength(int)} bytes following <code>offsetOut</code>
+     * @param offsetOut the index in the destination at which to write the decoded data
+     * @return the number of bytes written to the destination
+     * @throws IllegalArgumentException if the range does not contain valid base64 encoded data
+     */
+    public static int decode(final byte[] bytes, final int offset, final int length,
+                             final byte[] out, final int offsetOut) {
+        final int end = offset + length;
+        // strip padding (if present, it must complete the last block)
+        int endData = end;
+        while ((endData > offset) && ((end - endData) < 2) && (bytes[endData - 1] == PAD)) {
+            --endData;
+        }
+        final int remainder = (endData - offset) % SIZE_CHARS;
+        if ((remainder == 1) || ((endData < end) && ((length % SIZE_CHARS) != 0))) {
+            throw new IllegalArgumentException(String.format("[%d, %d)", offset, end));
+        }
+        final int endFull = endData - remainder;
+        int i = offset;
+        int j = offsetOut;
+        while (i < endFull) {
+            final int value = (decode(bytes[i++]) << SHIFT_CHAR_0) | (decode(bytes[i++]) << SHIFT_CHAR_1)
+                    | (decode(bytes[i++]) << SHIFT_CHAR_2) | decode(bytes[i++]);
+            out[j++] = (byte) (value >>> SHIFT_BYTE_0);
+            out[j++] = (byte) (value >>> SHIFT_BYTE_1);
+            out[j++] = (byte) value;
+        }
+        if (remainder > 0) {
+            int value = (decode(bytes[i++]) << SHIFT_CHAR_0) | (decode(bytes[i++]) << SHIFT_CHAR_1);
+            if (remainder > 2) {
+                value |= decode(bytes[i]) << SHIFT_CHAR_2;
+            }
+            out[j++] = (byte) (value >>> SHIFT_BYTE_0);
+            if (remainder > 2) {
+                out[j++] = (byte) (value >>> SHIFT_BYTE_1);
+            }
+        }
+        return j - offsetOut;
+    }
+
+    /**
+     * @param b a base64 encoded character
+     * @return the 6 bit value of the character
+     * @throws IllegalArgumentException if the character is not in the base64 alphabet
+     */
+    private static int decode(final byte b) {
+        final int value = (b >= 0) ? VALUES[b] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException(Integer.toHexString(b & MASK_BYTE));
+        }
+        return value;
+    }
+
+    /**
+     * The base64 padding character.
+     */
+    private static final byte PAD = '=';
+
+    /**
+     * The number of bytes encoded by a base64 block.
+     */
+    private static final int SIZE_BYTES = 3;
+
+    /**
+     * The number of characters in a base64 block.
+     */
+    private static final int SIZE_CHARS = 4;
+
+    /**
+     * Bit mask for an unsigned byte value.
+     */
+    private static final int MASK_BYTE = 0xff;
+
+    /**
+     * Bit mask for a 6 bit character value.
+     */
+    private static final int MASK_CHAR = 0x3f;
+
+    /**
+     * Bit shift of the first byte of a 24 bit block.
+     */
+    private static final int SHIFT_BYTE_0 = 16;
+
+    /**
+     * Bit shift of the second byte of a 24 bit block.
+     */
+    private static final int SHIFT_BYTE_1 = 8;
+
+    /**
+     * Bit shift of the first character of a 24 bit block.
+     */
+    private static final int SHIFT_CHAR_0 = 18;
+
+    /**
+     * Bit shift of the second character of a 24 bit block.
+     */
+    private static final int SHIFT_CHAR_1 = 12;
+
+    /**
+     * Bit shift of the third character of a 24 bit block.
+     */
+    private static final int SHIFT_CHAR_2 = 6;
+
+    /**
+     * The base64 alphabet, as US-ASCII bytes.
+     */
+    private static final byte[] ALPHABET = Transcoder.utf8().decode(
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/");
+
+    /**
+     * The 6 bit value of each base64 character (or -1, for characters not in the alphabet).
+     */
+    private static final int[] VALUES = new int[Byte.MAX_VALUE + 1];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; (i < ALPHABET.length); ++i) {
+            VALUES[ALPHABET[i]] = i;
+        }
+    }
+}
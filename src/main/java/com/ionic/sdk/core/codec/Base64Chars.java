@@ -0,0 +1,191 @@
+package com.ionic.sdk.core.codec;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Base64 encoding (RFC 4648, standard alphabet) between byte arrays and character sequences, without the
+ * intermediate strings of the {@link Transcoder#base64()} API.
+ * <p>
+ * Encoding writes unpadded output directly to an {@link Appendable} (for example, a {@link StringBuilder} or a
+ * {@link java.nio.CharBuffer}).  Decoding reads a range of a {@link CharSequence}, and accepts input with or without
+ * trailing padding characters.
+ */
+public final class Base64Chars {
+
+    /**
+     * Constructor.
+     * http://checkstyle.sourceforge.net/config_design.html#FinalClass
+     */
+    private Base64Chars() {
+    }
+
+    /**
+     * Calculate the length of the unpadded base64 encoding of a byte array.
+     *
+     * @param length the length of the byte array
+     * @return the number of characters in the unpadded encoding
+     */
+    public static int getEncodedLength(final int length) {
+        return ((length * SIZE_CHARS) + SIZE_BYTES - 1) / SIZE_BYTES;
+    }
+
+    /**
+     * Append the unpadded base64 encoding of a byte array to the output.
+     *
+     * @param bytes the byte array to be encoded
+     * @param out   the destination of the encoded characters
+     * @throws IOException on failure writing to the output
+     */
+    public static void encode(final byte[] bytes, final Appendable out) throws IOException {
+        final int remainder = bytes.length % SIZE_BYTES;
+        final int lengthFull = bytes.length - remainder;
+        int i = 0;
+        while (i < lengthFull) {
+            final int value = ((bytes[i++] & MASK_BYTE) << SHIFT_BYTE_0) | ((bytes[i++] & MASK_BYTE) << SHIFT_BYTE_1)
+                    | (bytes[i++] & MASK_BYTE);
+            out.append(ALPHABET[(value >>> SHIFT_CHAR_0) & MASK_CHAR])
+                    .append(ALPHABET[(value >>> SHIFT_CHAR_1) & MASK_CHAR])
+                    .append(ALPHABET[(value >>> SHIFT_CHAR_2) & MASK_CHAR])
+                    .append(ALPHABET[value & MASK_CHAR]);
+        }
+        if (remainder > 0) {
+            int value = (bytes[i] & MASK_BYTE) << SHIFT_BYTE_0;
+            if (remainder > 1) {
+                value |= (bytes[i + 1] & MASK_BYTE) << SHIFT_BYTE_1;
+            }
+            out.append(ALPHABET[(value >>> SHIFT_CHAR_0) & MASK_CHAR])
+                    .append(ALPHABET[(value >>> SHIFT_CHAR_1) & MASK_CHAR]);
+            if (remainder > 1) {
+                out.append(ALPHABET[(value >>> SHIFT_CHAR_2) & MASK_CHAR]);
+            }
+        }
+    }
+
+    /**
+     * Decode a range of base64 encoded characters.
+     *
+     * @param chars the characters containing the encoded data
+     * @param start the index of the first character of the encoded data
+     * @param end   the index after the last character of the encoded data
+     * @return the decoded byte array
+     * @throws IllegalArgumentException if the range does not contain valid base64 encoded data
+     */
+    public static byte[] decode(final CharSequence chars, final int start, final int end) {
+        if ((start < 0) || (end > chars.length()) || (start > end)) {
+            throw new IllegalArgumentException(String.format("[%d, %d)", start, end));
+        }
+        // strip padding (if present, it must complete the last block)
+        int endData = end;
+        while ((endData > start) && ((end - endData) < 2) && (chars.charAt(endData - 1) == PAD)) {
+            --endData;
+        }
+        final int remainder = (endData - start) % SIZE_CHARS;
+        if ((remainder == 1) || ((endData < end) && (((end - start) % SIZE_CHARS) != 0))) {
+            throw new IllegalArgumentException(String.format("[%d, %d)", start, end));
+        }
+        final byte[] bytes = new byte[((endData - start) * SIZE_BYTES) / SIZE_CHARS];
+        final int endFull = endData - remainder;
+        int i = start;
+        int j = 0;
+        while (i < endFull) {
+            final int value = (decode(chars.charAt(i++)) << SHIFT_CHAR_0) | (decode(chars.charAt(i++)) << SHIFT_CHAR_1)
+                    | (decode(chars.charAt(i++)) << SHIFT_CHAR_2) | decode(chars.charAt(i++));
+            bytes[j++] = (byte) (value >>> SHIFT_BYTE_0);
+            bytes[j++] = (byte) (value >>> SHIFT_BYTE_1);
+            bytes[j++] = (byte) value;
+        }
+        if (remainder > 0) {
+            int value = (decode(chars.charAt(i++)) << SHIFT_CHAR_0) | (decode(chars.charAt(i++)) << SHIFT_CHAR_1);
+            if (remainder > 2) {
+                value |= decode(chars.charAt(i)) << SHIFT_CHAR_2;
+            }
+            bytes[j++] = (byte) (value >>> SHIFT_BYTE_0);
+            if (remainder > 2) {
+                bytes[j] = (byte) (value >>> SHIFT_BYTE_1);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @param c a base64 encoded character
+     * @return the 6 bit value of the character
+     * @throws IllegalArgumentException if the character is not in the base64 alphabet
+     */
+    private static int decode(final char c) {
+        final int value = (c < VALUES.length) ? VALUES[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException(Integer.toHexString(c));
+        }
+        return value;
+    }
+
+    /**
+     * The base64 padding character.
+     */
+    private static final char PAD = '=';
+
+    /**
+     * The number of bytes encoded by a base64 block.
+     */
+    private static final int SIZE_BYTES = 3;
+
+    /**
+     * The number of characters in a base64 block.
+     */
+    private static final int SIZE_CHARS = 4;
+
+    /**
+     * Bit mask for an unsigned byte value.
+     */
+    private static final int MASK_BYTE = 0xff;
+
+    /**
+     * Bit mask for a 6 bit character value.
+     */
+    private static final int MASK_CHAR = 0x3f;
+
+    /**
+     * Bit shift of the first byte of a 24 bit block.
+     */
+    private static final int SHIFT_BYTE_0 = 16;
+
+    /**
+     * Bit shift of the second byte of a 24 bit block.
+     */
+    private static final int SHIFT_BYTE_1 = 8;
+
+    /**
+     * Bit shift of the first character of a 24 bit block.
+     */
+    private static final int SHIFT_CHAR_0 = 18;
+
+    /**
+     * Bit shift of the second character of a 24 bit block.
+     */
+    private static final int SHIFT_CHAR_1 = 12;
+
+    /**
+     * Bit shift of the third character of a 24 bit block.
+     */
+    private static final int SHIFT_CHAR_2 = 6;
+
+    /**
+     * The base64 alphabet.
+     */
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    /**
+     * The 6 bit value of each base64 character (or -1, for characters not in the alphabet).
+     */
+    private static final int[] VALUES = new int[Byte.MAX_VALUE + 1];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; (i < ALPHABET.length); ++i) {
+            VALUES[ALPHABET[i]] = i;
+        }
+    }
+}
@@ -20,7 +20,7 @@ public final class Hash {
      */
     public byte[] sha256(final byte[] value) {
         try {
-            final MessageDigest messageDigest = AgentSdk.getCrypto().getMessageDigestSha256();
+            final MessageDigest messageDigest = AgentSdk.getCrypto().getThreadMessageDigestSha256();
             return messageDigest.digest(value);
         } catch (IonicException e) {
             throw new IllegalStateException(e);
@@ -56,7 +56,7 @@ public final class Hash {
      */
     public byte[] sha512(final byte[] value) {
         try {
-            final MessageDigest messageDigest = AgentSdk.getCrypto().getMessageDigestSha512();
+            final MessageDigest messageDigest = AgentSdk.getCrypto().getThreadMessageDigestSha512();
             return messageDigest.digest(value);
         } catch (IonicException e) {
             throw new IllegalStateException(e);
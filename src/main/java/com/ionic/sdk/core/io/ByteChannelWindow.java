@@ -67,8 +67,24 @@ public class ByteChannelWindow {
      * @throws IOException on failure to read the current position or data from the underlying channel
      */
     public int read(final byte[] bytes) throws IOException {
-        final int bytesToRead = Math.min(bytes.length, (int) (end - channel.position()));
-        final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes, 0, bytesToRead);
+        return read(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads up to <code>length</code> bytes from the backing channel, and stores them into the buffer array.
+     *
+     * @param bytes  the buffer into which the data is read
+     * @param offset the start offset in the buffer at which the data is written
+     * @param length the maximum number of bytes to read
+     * @return the total number of bytes read into the buffer, or -1 if the end of the window has been reached
+     * @throws IOException on failure to read the current position or data from the underlying channel
+     */
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+        final int bytesToRead = (int) Math.min(length, end - channel.position());
+        if (bytesToRead <= 0) {
+            return (length == 0) ? 0 : -1;
+        }
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes, offset, bytesToRead);
         return channel.read(byteBuffer);
     }
 
@@ -80,7 +96,7 @@ public class ByteChannelWindow {
      * @throws IOException on failure to read the current position or data from the underlying channel
      */
     public int read(final ByteBuffer byteBuffer) throws IOException {
-        final int bytesToRead = Math.min(byteBuffer.capacity(), (int) (end - channel.position()));
+        final int bytesToRead = (int) Math.min(byteBuffer.capacity(), end - channel.position());
         final int position = byteBuffer.position();
         byteBuffer.limit(position + bytesToRead);
         final int bytesRead = channel.read(byteBuffer);
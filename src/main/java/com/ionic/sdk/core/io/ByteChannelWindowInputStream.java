@@ -0,0 +1,53 @@
+package com.ionic.sdk.core.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Present a {@link ByteChannelWindow} as an {@link InputStream}, so that content embedded in a larger
+ * {@link java.nio.channels.SeekableByteChannel} may be streamed to consumers of the InputStream API, without first
+ * being staged in memory.  Reads never extend past the end of the window.
+ */
+public final class ByteChannelWindowInputStream extends InputStream {
+
+    /**
+     * The view of the backing channel from which data is read.
+     */
+    private final ByteChannelWindow byteChannelWindow;
+
+    /**
+     * Intermediate buffer for data to be read from this stream, used by the single byte InputStream "read()" API.
+     */
+    private final byte[] byteBuffer;
+
+    /**
+     * Constructor.
+     *
+     * @param byteChannelWindow the view of the backing channel from which data is read
+     */
+    public ByteChannelWindowInputStream(final ByteChannelWindow byteChannelWindow) {
+        this.byteChannelWindow = byteChannelWindow;
+        this.byteBuffer = new byte[1];
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int count = byteChannelWindow.read(byteBuffer, 0, byteBuffer.length);
+        return (count > 0) ? (byteBuffer[0] & BYTE_MASK) : -1;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int len) throws IOException {
+        return byteChannelWindow.read(bytes, offset, len);
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.max(0L, Math.min(byteChannelWindow.available(), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Mask used to filter out high order bits of int to make a byte.
+     */
+    private static final int BYTE_MASK = (1 << Byte.SIZE) - 1;
+}
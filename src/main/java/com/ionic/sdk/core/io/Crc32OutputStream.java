@@ -0,0 +1,158 @@
+package com.ionic.sdk.core.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Output stream filter which maintains a CRC-32 checksum (and count) of the data written through it.
+ * <p>
+ * Some file formats reserve a zero-filled region in their content, which is overwritten once the rest of the
+ * content has been written (for example, a file signature).  The checksum of the final content may be derived from
+ * the checksum of the data as written, using {@link #getValue(long, byte[])}, without reading the content again.
+ */
+public final class Crc32OutputStream extends FilterOutputStream {
+
+    /**
+     * The checksum of the data written to this stream.
+     */
+    private final CRC32 crc32;
+
+    /**
+     * The number of bytes written to this stream.
+     */
+    private long count;
+
+    /**
+     * Constructor.
+     *
+     * @param outputStream the underlying output stream
+     */
+    public Crc32OutputStream(final OutputStream outputStream) {
+        super(outputStream);
+        this.crc32 = new CRC32();
+        this.count = 0L;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        out.write(b);
+        crc32.update(b);
+        ++count;
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        out.write(bytes, offset, length);
+        crc32.update(bytes, offset, length);
+        count += length;
+    }
+
+    /**
+     * @return the number of bytes written to this stream
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the CRC-32 checksum of the data written to this stream
+     */
+    public long getValue() {
+        return crc32.getValue();
+    }
+
+    /**
+     * Calculate the CRC-32 checksum of the data written to this stream, with a zero-filled region of the data
+     * replaced by the specified bytes.
+     * <p>
+     * The checksum is linear in its input, so the change in checksum depends only on the difference between the
+     * original and the replacement data, shifted by the number of bytes that follow the region.
+     *
+     * @param offset the position in the stream of the zero-filled region
+     * @param bytes  the replacement content for the region
+     * @return the CRC-32 checksum of the updated data
+     */
+    public long getValue(final long offset, final byte[] bytes) {
+        final CRC32 crcBytes = new CRC32();
+        crcBytes.update(bytes);
+        final CRC32 crcZeros = new CRC32();
+        crcZeros.update(new byte[bytes.length]);
+        final long delta = crcBytes.getValue() ^ crcZeros.getValue();
+        return crc32.getValue() ^ shift(delta, count - offset - bytes.length);
+    }
+
+    /**
+     * Apply the effect of appending zero bytes to the (linear part of a) CRC-32 checksum, in logarithmic time.  This
+     * uses the GF(2) matrix technique of zlib's <code>crc32_combine()</code>.
+     *
+     * @param crc    the checksum value
+     * @param length the number of zero bytes to append
+     * @return the shifted checksum value
+     */
+    private static long shift(final long crc, final long length) {
+        final long[] even = new long[Integer.SIZE];
+        final long[] odd = new long[Integer.SIZE];
+        // operator for one zero bit
+        odd[0] = POLYNOMIAL;
+        long row = 1L;
+        for (int n = 1; (n < Integer.SIZE); ++n) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        // operators for two and four zero bits
+        square(even, odd);
+        square(odd, even);
+        // apply length zero bytes (first square puts the operator for one zero byte in even)
+        long value = crc;
+        long remaining = length;
+        while (remaining > 0) {
+            square(even, odd);
+            if ((remaining & 1L) != 0) {
+                value = times(even, value);
+            }
+            remaining >>= 1;
+            if (remaining > 0) {
+                square(odd, even);
+                if ((remaining & 1L) != 0) {
+                    value = times(odd, value);
+                }
+                remaining >>= 1;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @param matrix a GF(2) matrix
+     * @param vector a GF(2) vector
+     * @return the product of the matrix and the vector
+     */
+    private static long times(final long[] matrix, final long vector) {
+        long sum = 0L;
+        long v = vector;
+        for (int i = 0; (v != 0); ++i) {
+            if ((v & 1L) != 0) {
+                sum ^= matrix[i];
+            }
+            v >>>= 1;
+        }
+        return sum;
+    }
+
+    /**
+     * @param square the matrix into which the square of the input matrix is written
+     * @param matrix a GF(2) matrix
+     */
+    private static void square(final long[] square, final long[] matrix) {
+        for (int n = 0; (n < Integer.SIZE); ++n) {
+            square[n] = times(matrix, matrix[n]);
+        }
+    }
+
+    /**
+     * The reversed CRC-32 polynomial.
+     */
+    private static final long POLYNOMIAL = 0xedb88320L;
+}
@@ -29,6 +29,23 @@ public final class BytesReader {
         return value;
     }
 
+    /**
+     * Read a "long" value from the parameter byte array, between the parameter boundaries.
+     *
+     * @param bytes the byte array from which to read the integer
+     * @param from  the starting offset (inclusive) in the input array from which to read
+     * @param to    the ending offset (exclusive) in the input array at which to terminate the read
+     * @return the integer value associated with the input data
+     */
+    public static long readLong(final byte[] bytes, final int from, final int to) {
+        long value = 0;
+        for (int i = from; (i < to); ++i) {
+            value = (value << Byte.SIZE);
+            value += (bytes[i] & MASK);
+        }
+        return value;
+    }
+
     /**
      * Bit mask used to target significant bits of incoming byte data.
      */
@@ -164,6 +164,23 @@ public final class Value {
         return number.intValue();
     }
 
+    /**
+     * Convert input string into (64 bit) integral representation.
+     *
+     * @param value        the string which should be converted
+     * @param valueDefault the default value, on non-parsable input
+     * @return the integral representation of the input value, if it can be parsed
+     */
+    public static long toLong(final String value, final long valueDefault) {
+        Number number;
+        try {
+            number = ((value == null) ? valueDefault : NumberFormat.getInstance().parse(value));
+        } catch (ParseException e) {
+            number = valueDefault;
+        }
+        return number.longValue();
+    }
+
     /**
      * Generate a string consisting of <code>count</code> occurrences of <code>value</code>.
      *
@@ -184,7 +184,7 @@ public final class CryptoUtils {
     private static byte[] hmacSHA256Internal(final byte[] message, final byte[] key) throws IonicException {
         try {
             AgentSdk.initialize();
-            final Mac hmacSHA256 = AgentSdk.getCrypto().getHmacSha256();
+            final Mac hmacSHA256 = AgentSdk.getCrypto().getThreadHmacSha256();
             final SecretKeySpec keySpec = new SecretKeySpec(key, hmacSHA256.getAlgorithm());
             hmacSHA256.init(keySpec);
             return hmacSHA256.doFinal(message);
@@ -204,7 +204,7 @@ public final class CryptoUtils {
     private static byte[] hmacSHA256Internal(final ByteBuffer byteBuffer, final byte[] key) throws IonicException {
         try {
             AgentSdk.initialize();
-            final Mac hmacSHA256 = AgentSdk.getCrypto().getHmacSha256();
+            final Mac hmacSHA256 = AgentSdk.getCrypto().getThreadHmacSha256();
             final SecretKeySpec keySpec = new SecretKeySpec(key, hmacSHA256.getAlgorithm());
             hmacSHA256.init(keySpec);
             hmacSHA256.update(byteBuffer);
@@ -19,6 +19,8 @@ import java.security.Provider;
 import java.security.Signature;
 import java.security.spec.MGF1ParameterSpec;
 import java.security.spec.PSSParameterSpec;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -53,6 +55,12 @@ import java.util.logging.Logger;
  * <p>
  * If any algorithm listed above is not implemented and available, use of Ionic APIs depending on the algorithm will
  * fail, throwing an {@link IonicException} noting the failure.
+ * <p>
+ * Looking up a JCE object instance in the provider framework is expensive relative to a small cryptography
+ * operation.  The <code>getThread*()</code> APIs return an instance which is cached for reuse by the calling thread,
+ * keyed by the algorithm (each {@link CryptoAbstract} instance uses a single provider).  These instances must only be
+ * used by the calling thread, and must be fully initialized by each operation (for example, by
+ * {@link Cipher#init(int, java.security.Key)}), as other code on the thread shares them.
  */
 public final class CryptoAbstract {
 
@@ -66,6 +74,11 @@ public final class CryptoAbstract {
      */
     private final Provider provider;
 
+    /**
+     * The JCE object instances cached for reuse by each thread, keyed by algorithm.
+     */
+    private final ThreadLocal<Map<String, Object>> threadInstances;
+
     /**
      * Constructor.
      *
@@ -73,6 +86,12 @@ public final class CryptoAbstract {
      */
     public CryptoAbstract(final Provider provider) {
         this.provider = provider;
+        this.threadInstances = new ThreadLocal<Map<String, Object>>() {
+            @Override
+            protected Map<String, Object> initialValue() {
+                return new HashMap<String, Object>();
+            }
+        };
     }
 
     /**
@@ -109,6 +128,38 @@ public final class CryptoAbstract {
         }
     }
 
+    /**
+     * Return the instance of an AES/CTR cipher cached for reuse by the calling thread.
+     *
+     * @return an instance of {@link Cipher}, using AES 256-bit keys and the CTR cipher
+     * @throws IonicException if the AES/CTR facility is not provided by the configured CryptoAbstract implementation
+     */
+    public Cipher getThreadCipherAesCtr() throws IonicException {
+        final Map<String, Object> instances = threadInstances.get();
+        Cipher cipher = (Cipher) instances.get(AesCipher.TRANSFORM_CTR);
+        if (cipher == null) {
+            cipher = getCipherAesCtr();
+            instances.put(AesCipher.TRANSFORM_CTR, cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * Return the instance of an AES/GCM cipher cached for reuse by the calling thread.
+     *
+     * @return an instance of {@link Cipher}, using AES 256-bit keys and the GCM cipher
+     * @throws IonicException if the AES/GCM facility is not provided by the configured CryptoAbstract implementation
+     */
+    public Cipher getThreadCipherAesGcm() throws IonicException {
+        final Map<String, Object> instances = threadInstances.get();
+        Cipher cipher = (Cipher) instances.get(AesCipher.TRANSFORM_GCM);
+        if (cipher == null) {
+            cipher = getCipherAesGcm();
+            instances.put(AesCipher.TRANSFORM_GCM, cipher);
+        }
+        return cipher;
+    }
+
     /**
      * Return an instance of an AES key generator.
      *
@@ -255,6 +306,42 @@ public final class CryptoAbstract {
         }
     }
 
+    /**
+     * Return the MessageDigest object instance using the SHA-256 hash algorithm cached for reuse by the calling
+     * thread.  The instance is reset before it is returned.
+     *
+     * @return a MessageDigest object instance using the SHA-256 hash algorithm
+     * @throws IonicException if the facility is not provided by the configured CryptoAbstract implementation
+     */
+    public MessageDigest getThreadMessageDigestSha256() throws IonicException {
+        final Map<String, Object> instances = threadInstances.get();
+        MessageDigest messageDigest = (MessageDigest) instances.get(Hash.ALGORITHM);
+        if (messageDigest == null) {
+            messageDigest = getMessageDigestSha256();
+            instances.put(Hash.ALGORITHM, messageDigest);
+        }
+        messageDigest.reset();
+        return messageDigest;
+    }
+
+    /**
+     * Return the MessageDigest object instance using the SHA-512 hash algorithm cached for reuse by the calling
+     * thread.  The instance is reset before it is returned.
+     *
+     * @return a MessageDigest object instance using the SHA-512 hash algorithm
+     * @throws IonicException if the facility is not provided by the configured CryptoAbstract implementation
+     */
+    public MessageDigest getThreadMessageDigestSha512() throws IonicException {
+        final Map<String, Object> instances = threadInstances.get();
+        MessageDigest messageDigest = (MessageDigest) instances.get(Hash.ALGORITHM_512);
+        if (messageDigest == null) {
+            messageDigest = getMessageDigestSha512();
+            instances.put(Hash.ALGORITHM_512, messageDigest);
+        }
+        messageDigest.reset();
+        return messageDigest;
+    }
+
     /**
      * Return an SSLContext object instance using the specified protocol.
      *
@@ -293,6 +380,23 @@ public final class CryptoAbstract {
         }
     }
 
+    /**
+     * Return the Message Authentication Code (MAC) object instance using the HMAC algorithm cached for reuse by the
+     * calling thread.
+     *
+     * @return a Message Authentication Code (MAC) object instance using the HMAC algorithm
+     * @throws IonicException if the facility is not provided by the configured CryptoAbstract implementation
+     */
+    public Mac getThreadHmacSha256() throws IonicException {
+        final Map<String, Object> instances = threadInstances.get();
+        Mac mac = (Mac) instances.get(HMAC_ALGORITHM);
+        if (mac == null) {
+            mac = getHmacSha256();
+            instances.put(HMAC_ALGORITHM, mac);
+        }
+        return mac;
+    }
+
     /**
      * Algorithm name for message authentication code.
      */
@@ -93,6 +93,11 @@ public final class Http {
          */
         public static final String CONNECTION = "Connection";
 
+        /**
+         * The HTTP request and response headers identify the length of the associated entity using this key.
+         */
+        public static final String CONTENT_LENGTH = "Content-Length";
+
         /**
          * The HTTP request and response headers identify the MIME type of the associated entity using this key.
          */
@@ -108,11 +113,26 @@ public final class Http {
          */
         public static final String CONTENT_TYPE_SERVER = "application/json";
 
+        /**
+         * The HTTP request header identifying the host (and port) of the requested resource.
+         */
+        public static final String HOST = "Host";
+
+        /**
+         * The HTTP response header identifying the target of a redirect.
+         */
+        public static final String LOCATION = "Location";
+
         /**
          * The response headers may contain this header, which identifies the application servicing the client request.
          */
         public static final String SERVER = "Server";
 
+        /**
+         * The HTTP request and response headers identify the transfer encoding of the associated entity using this key.
+         */
+        public static final String TRANSFER_ENCODING = "Transfer-Encoding";
+
         /**
          * The request headers may contain this header, which identifies the application generating the client request.
          */
@@ -137,6 +157,16 @@ public final class Http {
          * HTTP connection provides mechanism to signal connection lifecycle from either client or service.
          */
         public static final String CLOSE = "close";
+
+        /**
+         * HTTP connection provides mechanism to signal connection lifecycle from either client or service.
+         */
+        public static final String KEEP_ALIVE = "keep-alive";
+
+        /**
+         * Transfer encoding in which the entity is sent as a series of length-prefixed chunks.
+         */
+        public static final String CHUNKED = "chunked";
     }
 
     /**
@@ -8,6 +8,9 @@ import com.ionic.sdk.error.SdkData;
 import com.ionic.sdk.error.SdkError;
 
 import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Encapsulate the assembly of a new http client, given a string specifying the requested type.
@@ -32,11 +35,47 @@ public final class HttpClientFactory {
      */
     public static HttpClient create(final AgentConfig agentConfig, final String protocol) throws IonicException {
         SdkData.checkNotNull(agentConfig, AgentConfig.class.getName());
-        return Value.isEmpty(agentConfig.getHttpImpl())
-                ? new HttpClientDefault(agentConfig, protocol)
-                : createReflect(agentConfig.getHttpImpl(), agentConfig, protocol);
+        final String httpImpl = agentConfig.getHttpImpl();
+        if (Value.isEmpty(httpImpl)) {
+            return new HttpClientDefault(agentConfig, protocol);
+        } else if (HttpClientPooled.class.getName().equals(httpImpl)) {
+            return createPooled(agentConfig, protocol);
+        } else {
+            return createReflect(httpImpl, agentConfig, protocol);
+        }
+    }
+
+    /**
+     * Get the pooled http client associated with the configuration and protocol, creating it if needed.  The
+     * connection pool of an {@link HttpClientPooled} is only useful if the instance is shared across requests.
+     *
+     * @param agentConfig the configuration settings associated with this agent instance
+     * @param protocol    the protocol to be checked for proxy configuration (e.g. "http", "https")
+     * @return the cached HttpClientPooled instance
+     */
+    private static HttpClient createPooled(final AgentConfig agentConfig, final String protocol) {
+        synchronized (POOLED_CLIENTS) {
+            Map<String, HttpClient> httpClients = POOLED_CLIENTS.get(agentConfig);
+            if (httpClients == null) {
+                httpClients = new HashMap<String, HttpClient>();
+                POOLED_CLIENTS.put(agentConfig, httpClients);
+            }
+            HttpClient httpClient = httpClients.get(protocol);
+            if (httpClient == null) {
+                httpClient = new HttpClientPooled(agentConfig, protocol);
+                httpClients.put(protocol, httpClient);
+            }
+            return httpClient;
+        }
     }
 
+    /**
+     * The cached {@link HttpClientPooled} instances, by (identity of) configuration and protocol.  Entries are
+     * released when the configuration object is no longer in use ({@link HttpClientPooled} does not reference it).
+     */
+    private static final Map<AgentConfig, Map<String, HttpClient>> POOLED_CLIENTS =
+            new WeakHashMap<AgentConfig, Map<String, HttpClient>>();
+
     /**
      * Create a new instance of the HttpClient class specified by the configuration.
      *
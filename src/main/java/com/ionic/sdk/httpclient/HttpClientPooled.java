@@ -0,0 +1,795 @@
+package com.ionic.sdk.httpclient;
+
+import com.ionic.sdk.agent.config.AgentConfig;
+import com.ionic.sdk.core.date.DateTime;
+import com.ionic.sdk.core.value.Value;
+import com.ionic.sdk.httpclient.proxy.ProxyManager;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The object that provides the ability to communicate with an HTTP server, reusing connections across requests.
+ * <p>
+ * {@link HttpClientDefault} opens a new {@link java.net.HttpURLConnection} for each request.  This implementation
+ * instead keeps a bounded pool of persistent (HTTP/1.1 keep-alive) connections for each server, so that
+ * consecutive requests to the same server avoid the TCP and TLS handshakes.  TLS sessions are negotiated using the
+ * default JSSE socket factory, whose session cache allows abbreviated handshakes when a new connection must be made.
+ * The number of concurrent requests to each server is limited to the size of the pool; additional requests wait
+ * (up to the configured HTTP timeout) for a connection to become available.
+ * <p>
+ * The request entity is written directly to the connection, and the response entity is read directly into a buffer
+ * sized from the response "Content-Length" header, when present.
+ * <p>
+ * To use this implementation, specify its class name as the {@link AgentConfig} http implementation:
+ * <pre>
+ * agentConfig.setHttpImpl(HttpClientPooled.class.getName());
+ * </pre>
+ * {@link HttpClientFactory} caches instances of this class for each {@link AgentConfig} and protocol, so that the
+ * connection pool is shared by the requests made by an {@link com.ionic.sdk.agent.Agent}.  The settings used by this
+ * class are copied from the configuration on construction, and the configuration object is not retained, so that the
+ * cache entry is released when the configuration is no longer in use.
+ * <p>
+ * Requests made through a configured proxy are delegated to {@link HttpClientDefault}.
+ */
+public final class HttpClientPooled implements HttpClient {
+
+    /**
+     * The connect and read timeout of requests, and the maximum wait for a pooled connection.
+     */
+    private final int timeoutMillis;
+
+    /**
+     * The maximum number of redirects to follow for a single request.
+     */
+    private final int maxRedirects;
+
+    /**
+     * The proxy configured for this client object (if no configuration, Proxy.NO_PROXY).
+     */
+    private final Proxy proxy;
+
+    /**
+     * The client used to service requests made through a configured proxy.
+     */
+    private final HttpClient httpClientProxy;
+
+    /**
+     * The maximum number of connections (and concurrent requests) to each server.
+     */
+    private final int maxConnectionsPerHost;
+
+    /**
+     * The connection pools associated with each server contacted by this client.
+     */
+    private final Map<String, HostPool> hostPools;
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * Constructor.
+     *
+     * @param agentConfig the configuration settings associated with the agent instance in use
+     * @param protocol    the protocol to be checked for proxy configuration (e.g. "http", "https")
+     */
+    public HttpClientPooled(final AgentConfig agentConfig, final String protocol) {
+        this.timeoutMillis = agentConfig.getHttpTimeoutSecs() * (int) DateTime.ONE_SECOND_MILLIS;
+        this.maxRedirects = agentConfig.getMaxRedirects();
+        this.proxy = ProxyManager.getProxy(protocol);
+        this.httpClientProxy = new HttpClientDefault(new AgentConfig(agentConfig), protocol);
+        this.maxConnectionsPerHost = Math.max(1, Value.toInt(agentConfig.getProperty(
+                KEY_MAX_CONNECTIONS_PER_HOST), MAX_CONNECTIONS_PER_HOST_DEFAULT));
+        this.hostPools = new HashMap<String, HostPool>();
+    }
+
+    /**
+     * {@link AgentConfig} key for the maximum number of connections (and concurrent requests) to each server.
+     */
+    public static final String KEY_MAX_CONNECTIONS_PER_HOST = "http.pool.maxconnectionsperhost";
+
+    /**
+     * Default maximum number of connections (and concurrent requests) to each server.
+     */
+    public static final int MAX_CONNECTIONS_PER_HOST_DEFAULT = 8;
+
+    /**
+     * Send a request to the specified HTTP server.
+     *
+     * @param httpRequest the data associated with the client request
+     * @return the response received from the server
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public HttpResponse execute(final HttpRequest httpRequest) throws IOException {
+        if (proxy.type() != Proxy.Type.DIRECT) {
+            return httpClientProxy.execute(httpRequest);
+        }
+        URL url = httpRequest.getUrl();
+        String method = httpRequest.getMethod();
+        String resource = httpRequest.getResource();
+        ByteArrayInputStream entity = httpRequest.getEntity();
+        if (entity != null) {
+            // the entity is rewound to this position each time it is sent (on retry, or on redirect)
+            entity.mark(entity.available());
+        }
+        HttpResponse httpResponse = execute(url, method, resource, httpRequest.getHttpHeaders(), entity);
+        // follow redirects, consistent with java.net.HttpURLConnection behavior
+        for (int redirect = 0; (redirect < maxRedirects); ++redirect) {
+            final int statusCode = httpResponse.getStatusCode();
+            final String location = httpResponse.getHttpHeaders().getHeaderValue(Http.Header.LOCATION);
+            if ((location == null) || (statusCode < STATUS_REDIRECT_MIN) || (statusCode > STATUS_REDIRECT_MAX)) {
+                break;
+            } else if ((statusCode != STATUS_TEMPORARY_REDIRECT) && (statusCode != STATUS_PERMANENT_REDIRECT)) {
+                method = Http.Method.GET;
+                entity = null;
+            }
+            url = new URL(url, location);
+            resource = url.getFile();
+            logger.finest(String.format("redirect = %s", url.toExternalForm()));
+            httpResponse = execute(url, method, resource, httpRequest.getHttpHeaders(), entity);
+        }
+        return httpResponse;
+    }
+
+    /**
+     * Send a single request to the specified HTTP server, using a pooled connection if one is available.
+     * <p>
+     * The request entity (if any) is rewound to its marked position before each attempt to send it, so that the
+     * entire entity is sent on a retry, and on a redirect which preserves the request method.
+     *
+     * @param url         the server to which the request should be sent
+     * @param method      the HTTP method of the request
+     * @param resource    the server resource (path and query) targeted by the request
+     * @param httpHeaders the request headers
+     * @param entity      the request data (if any)
+     * @return the response received from the server
+     * @throws IOException if an I/O error occurs
+     */
+    private HttpResponse execute(final URL url, final String method, final String resource,
+                                 final HttpHeaders httpHeaders, final ByteArrayInputStream entity)
+            throws IOException {
+        final HostPool hostPool = getHostPool(url);
+        hostPool.acquire(timeoutMillis);
+        try {
+            Connection connection = hostPool.poll();
+            final boolean isReused = (connection != null);
+            if (connection == null) {
+                connection = hostPool.open(timeoutMillis);
+            }
+            HttpResponse httpResponse;
+            try {
+                rewind(entity);
+                httpResponse = connection.exchange(method, resource, httpHeaders, entity);
+            } catch (IOException e) {
+                connection.close();
+                // a pooled connection may have been closed by the server while idle
+                if (!isReused || connection.isResponseStarted()) {
+                    throw e;
+                }
+                logger.finest(String.format("retry on new connection, cause = %s", e.getMessage()));
+                rewind(entity);
+                connection = hostPool.open(timeoutMillis);
+                try {
+                    httpResponse = connection.exchange(method, resource, httpHeaders, entity);
+                } catch (IOException eRetry) {
+                    connection.close();
+                    throw eRetry;
+                }
+            }
+            if (connection.isReusable()) {
+                hostPool.release(connection);
+            } else {
+                connection.close();
+            }
+            return httpResponse;
+        } finally {
+            hostPool.releasePermit();
+        }
+    }
+
+    /**
+     * Rewind a request entity to its marked position, so that it can be sent again.
+     *
+     * @param entity the request data (if any)
+     */
+    private static void rewind(final ByteArrayInputStream entity) {
+        if (entity != null) {
+            entity.reset();
+        }
+    }
+
+    /**
+     * Get the connection pool associated with the server of the specified URL.
+     *
+     * @param url the server to which a request is to be sent
+     * @return the connection pool for the server
+     */
+    private HostPool getHostPool(final URL url) {
+        final boolean isSecure = HTTPS.equalsIgnoreCase(url.getProtocol());
+        final int port = (url.getPort() < 0) ? url.getDefaultPort() : url.getPort();
+        final String key = String.format("%s://%s:%d", url.getProtocol().toLowerCase(), url.getHost(), port);
+        synchronized (hostPools) {
+            HostPool hostPool = hostPools.get(key);
+            if (hostPool == null) {
+                hostPool = new HostPool(url.getHost(), port, isSecure, maxConnectionsPerHost);
+                hostPools.put(key, hostPool);
+            }
+            return hostPool;
+        }
+    }
+
+    /**
+     * Close all idle connections held by this client.
+     */
+    public void close() {
+        synchronized (hostPools) {
+            for (final HostPool hostPool : hostPools.values()) {
+                hostPool.closeIdle();
+            }
+        }
+    }
+
+    /**
+     * The pool of connections to a single server.
+     */
+    private static final class HostPool {
+
+        /**
+         * The server host name.
+         */
+        private final String host;
+
+        /**
+         * The server port.
+         */
+        private final int port;
+
+        /**
+         * True iff connections to the server are to be secured using TLS.
+         */
+        private final boolean isSecure;
+
+        /**
+         * The limit on concurrent requests to the server.
+         */
+        private final Semaphore permits;
+
+        /**
+         * The idle connections to the server, most recently used first.
+         */
+        private final Deque<Connection> idle;
+
+        /**
+         * Constructor.
+         *
+         * @param host           the server host name
+         * @param port           the server port
+         * @param isSecure       true iff connections to the server are to be secured using TLS
+         * @param maxConnections the limit on connections (and concurrent requests) to the server
+         */
+        private HostPool(final String host, final int port, final boolean isSecure, final int maxConnections) {
+            this.host = host;
+            this.port = port;
+            this.isSecure = isSecure;
+            this.permits = new Semaphore(maxConnections, true);
+            this.idle = new ArrayDeque<Connection>();
+        }
+
+        /**
+         * Wait for permission to send a request to the server.
+         *
+         * @param timeoutMillis the maximum time to wait
+         * @throws IOException on timeout or interruption
+         */
+        private void acquire(final int timeoutMillis) throws IOException {
+            try {
+                if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new IOException(String.format("connection pool exhausted, %s:%d", host, port));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        /**
+         * Signal the end of a request to the server.
+         */
+        private void releasePermit() {
+            permits.release();
+        }
+
+        /**
+         * @return the most recently used idle connection to the server, or null if none is available
+         */
+        private Connection poll() {
+            final long expired = System.currentTimeMillis() - IDLE_TIMEOUT_MILLIS;
+            synchronized (idle) {
+                Connection connection = idle.pollFirst();
+                while ((connection != null) && (connection.getLastUsed() < expired)) {
+                    connection.close();
+                    connection = idle.pollFirst();
+                }
+                return connection;
+            }
+        }
+
+        /**
+         * Return a connection to the pool after its use.
+         *
+         * @param connection the connection which may be used by subsequent requests
+         */
+        private void release(final Connection connection) {
+            synchronized (idle) {
+                idle.addFirst(connection);
+            }
+        }
+
+        /**
+         * Close all idle connections to the server.
+         */
+        private void closeIdle() {
+            synchronized (idle) {
+                for (final Connection connection : idle) {
+                    connection.close();
+                }
+                idle.clear();
+            }
+        }
+
+        /**
+         * Open a new connection to the server.
+         *
+         * @param timeoutMillis the connect and read timeout
+         * @return the new connection
+         * @throws IOException if an I/O error occurs
+         */
+        private Connection open(final int timeoutMillis) throws IOException {
+            final Socket socketPlain = new Socket();
+            socketPlain.setTcpNoDelay(true);
+            socketPlain.setSoTimeout(timeoutMillis);
+            socketPlain.connect(new InetSocketAddress(host, port), timeoutMillis);
+            if (!isSecure) {
+                return new Connection(host, port, false, socketPlain);
+            }
+            final SSLSocket socket = (SSLSocket) HttpsURLConnection.getDefaultSSLSocketFactory()
+                    .createSocket(socketPlain, host, port, true);
+            final SSLParameters sslParameters = socket.getSSLParameters();
+            sslParameters.setEndpointIdentificationAlgorithm(HTTPS.toUpperCase());
+            socket.setSSLParameters(sslParameters);
+            socket.startHandshake();
+            return new Connection(host, port, true, socket);
+        }
+    }
+
+    /**
+     * A persistent connection to a server.
+     */
+    private static final class Connection {
+
+        /**
+         * The value of the "Host" request header for requests on this connection.
+         */
+        private final String hostHeader;
+
+        /**
+         * The underlying socket.
+         */
+        private final Socket socket;
+
+        /**
+         * The stream used to read responses from the server.
+         */
+        private final InputStream is;
+
+        /**
+         * The stream used to write requests to the server.
+         */
+        private final OutputStream os;
+
+        /**
+         * The time at which the connection was last used.
+         */
+        private long lastUsed;
+
+        /**
+         * True iff the server has sent any part of the response to the current request.
+         */
+        private boolean isResponseStarted;
+
+        /**
+         * True iff the connection may be used for subsequent requests.
+         */
+        private boolean isReusable;
+
+        /**
+         * Constructor.
+         *
+         * @param host     the server host name
+         * @param port     the server port
+         * @param isSecure true iff the connection is secured using TLS
+         * @param socket   the underlying socket
+         * @throws IOException if an I/O error occurs
+         */
+        private Connection(final String host, final int port, final boolean isSecure,
+                           final Socket socket) throws IOException {
+            final int portDefault = isSecure ? PORT_HTTPS : PORT_HTTP;
+            this.hostHeader = (port == portDefault) ? host : (host + ":" + port);
+            this.socket = socket;
+            this.is = new BufferedInputStream(socket.getInputStream());
+            this.os = new BufferedOutputStream(socket.getOutputStream());
+            this.lastUsed = System.currentTimeMillis();
+        }
+
+        /**
+         * @return the time at which the connection was last used
+         */
+        private long getLastUsed() {
+            return lastUsed;
+        }
+
+        /**
+         * @return true iff the server has sent any part of the response to the most recent request
+         */
+        private boolean isResponseStarted() {
+            return isResponseStarted;
+        }
+
+        /**
+         * @return true iff the connection may be used for subsequent requests
+         */
+        private boolean isReusable() {
+            return isReusable;
+        }
+
+        /**
+         * Close the connection, ignoring any errors.
+         */
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                Logger.getLogger(HttpClientPooled.class.getName()).finest(e.getMessage());
+            }
+        }
+
+        /**
+         * Send a request on this connection, and read the response.
+         *
+         * @param method      the HTTP method of the request
+         * @param resource    the server resource (path and query) targeted by the request
+         * @param httpHeaders the request headers
+         * @param entity      the request data (if any)
+         * @return the response received from the server
+         * @throws IOException if an I/O error occurs
+         */
+        private HttpResponse exchange(final String method, final String resource, final HttpHeaders httpHeaders,
+                                      final ByteArrayInputStream entity) throws IOException {
+            isResponseStarted = false;
+            isReusable = false;
+            writeRequest(method, resource, httpHeaders, entity);
+            // read status line (skipping any interim responses)
+            String statusLine;
+            int statusCode;
+            HttpHeaders httpHeadersResponse;
+            do {
+                statusLine = readLine();
+                isResponseStarted = true;
+                statusCode = parseStatusCode(statusLine);
+                httpHeadersResponse = new HttpHeaders(new HttpHeader(null, statusLine));
+                for (String line = readLine(); (line.length() > 0); line = readLine()) {
+                    final int colon = line.indexOf(':');
+                    if (colon > 0) {
+                        httpHeadersResponse.add(new HttpHeader(
+                                line.substring(0, colon).trim(), line.substring(colon + 1).trim()));
+                    }
+                }
+            } while ((statusCode >= STATUS_CONTINUE) && (statusCode < Http.Status.OK));
+            // read response entity
+            final String connectionHeader = httpHeadersResponse.getHeaderValue(Http.Header.CONNECTION);
+            final boolean isHttp11 = statusLine.startsWith(HTTP_1_1);
+            boolean isPersistent = isHttp11
+                    ? !Http.Value.CLOSE.equalsIgnoreCase(connectionHeader)
+                    : Http.Value.KEEP_ALIVE.equalsIgnoreCase(connectionHeader);
+            final byte[] entityResponse;
+            final String transferEncoding = httpHeadersResponse.getHeaderValue(Http.Header.TRANSFER_ENCODING);
+            final String contentLength = httpHeadersResponse.getHeaderValue(Http.Header.CONTENT_LENGTH);
+            if (HEAD.equals(method) || (statusCode == STATUS_NO_CONTENT) || (statusCode == STATUS_NOT_MODIFIED)) {
+                entityResponse = new byte[0];
+            } else if ((transferEncoding != null) && transferEncoding.toLowerCase().contains(Http.Value.CHUNKED)) {
+                entityResponse = readChunked();
+            } else if (contentLength != null) {
+                entityResponse = readFully(parseLength(contentLength, DECIMAL));
+            } else {
+                entityResponse = readToEnd();
+                isPersistent = false;
+            }
+            isReusable = isPersistent;
+            lastUsed = System.currentTimeMillis();
+            return new HttpResponse(statusCode, httpHeadersResponse, new ByteArrayInputStream(entityResponse));
+        }
+
+        /**
+         * Write a request to the connection.
+         *
+         * @param method      the HTTP method of the request
+         * @param resource    the server resource (path and query) targeted by the request
+         * @param httpHeaders the request headers
+         * @param entity      the request data (if any)
+         * @throws IOException if an I/O error occurs
+         */
+        private void writeRequest(final String method, final String resource, final HttpHeaders httpHeaders,
+                                  final ByteArrayInputStream entity) throws IOException {
+            final StringBuilder buffer = new StringBuilder();
+            buffer.append(method).append(' ').append(Value.isEmpty(resource) ? "/" : resource)
+                    .append(' ').append(HTTP_1_1).append(CRLF);
+            appendHeader(buffer, Http.Header.HOST, hostHeader);
+            for (final HttpHeader httpHeader : httpHeaders) {
+                final String name = httpHeader.getName();
+                if (!(Http.Header.HOST.equalsIgnoreCase(name) || Http.Header.CONNECTION.equalsIgnoreCase(name)
+                        || Http.Header.CONTENT_LENGTH.equalsIgnoreCase(name))) {
+                    appendHeader(buffer, name, httpHeader.getValue());
+                }
+            }
+            appendHeader(buffer, Http.Header.CONNECTION, Http.Value.KEEP_ALIVE);
+            if (entity != null) {
+                appendHeader(buffer, Http.Header.CONTENT_LENGTH, Integer.toString(entity.available()));
+            }
+            buffer.append(CRLF);
+            os.write(buffer.toString().getBytes(ISO_8859_1));
+            if (entity != null) {
+                final byte[] bytes = new byte[BUFFER_SIZE];
+                for (int count = entity.read(bytes); (count >= 0); count = entity.read(bytes)) {
+                    os.write(bytes, 0, count);
+                }
+            }
+            os.flush();
+        }
+
+        /**
+         * Append a header line to the request being assembled.
+         *
+         * @param buffer the request being assembled
+         * @param name   the header name
+         * @param value  the header value
+         */
+        private static void appendHeader(final StringBuilder buffer, final String name, final String value) {
+            buffer.append(name).append(": ").append(value).append(CRLF);
+        }
+
+        /**
+         * Parse the status code from an HTTP response status line.
+         *
+         * @param statusLine the HTTP response status line
+         * @return the status code
+         * @throws IOException on an unrecognized status line
+         */
+        private static int parseStatusCode(final String statusLine) throws IOException {
+            final String[] tokens = statusLine.split(" ", 3);
+            if ((tokens.length < 2) || !tokens[0].startsWith(HTTP)) {
+                throw new IOException(String.format("unexpected status line: %s", statusLine));
+            }
+            try {
+                return Integer.parseInt(tokens[1]);
+            } catch (NumberFormatException e) {
+                throw new IOException(String.format("unexpected status line: %s", statusLine), e);
+            }
+        }
+
+        /**
+         * Parse an entity length (a "Content-Length" header value, or the size of a chunk) received from the server.
+         *
+         * @param value the text of the length
+         * @param radix the radix of the length text
+         * @return the length
+         * @throws IOException on a malformed or negative length
+         */
+        private static int parseLength(final String value, final int radix) throws IOException {
+            try {
+                final int length = Integer.parseInt(value.trim(), radix);
+                if (length < 0) {
+                    throw new IOException(String.format("unexpected entity length: %s", value));
+                }
+                return length;
+            } catch (NumberFormatException e) {
+                throw new IOException(String.format("unexpected entity length: %s", value), e);
+            }
+        }
+
+        /**
+         * Read a line of HTTP header text (terminated by LF or CRLF) from the connection.
+         *
+         * @return the line of text, without the terminator
+         * @throws IOException if an I/O error occurs, or on end of stream
+         */
+        private String readLine() throws IOException {
+            final StringBuilder buffer = new StringBuilder();
+            for (int b = is.read(); (b != '\n'); b = is.read()) {
+                if (b < 0) {
+                    throw new EOFException(socket.toString());
+                } else if (b != '\r') {
+                    buffer.append((char) b);
+                }
+            }
+            return buffer.toString();
+        }
+
+        /**
+         * Read the specified number of bytes from the connection.
+         *
+         * @param length the number of bytes to read
+         * @return the bytes read
+         * @throws IOException if an I/O error occurs, or on end of stream
+         */
+        private byte[] readFully(final int length) throws IOException {
+            final byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                final int count = is.read(bytes, offset, length - offset);
+                if (count < 0) {
+                    throw new EOFException(socket.toString());
+                }
+                offset += count;
+            }
+            return bytes;
+        }
+
+        /**
+         * Read an entity sent using chunked transfer encoding from the connection.
+         *
+         * @return the bytes of the entity
+         * @throws IOException if an I/O error occurs, or on end of stream
+         */
+        private byte[] readChunked() throws IOException {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            for (String line = readLine(); ; line = readLine()) {
+                final int extension = line.indexOf(';');
+                final int length = parseLength((extension < 0) ? line : line.substring(0, extension), HEXADECIMAL);
+                if (length == 0) {
+                    break;
+                }
+                bos.write(readFully(length));
+                readLine();
+            }
+            // consume trailers
+            for (String line = readLine(); (line.length() > 0); line = readLine()) {
+                Logger.getLogger(HttpClientPooled.class.getName()).finest(line);
+            }
+            return bos.toByteArray();
+        }
+
+        /**
+         * Read the connection until end of stream.
+         *
+         * @return the bytes read
+         * @throws IOException if an I/O error occurs
+         */
+        private byte[] readToEnd() throws IOException {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            final byte[] bytes = new byte[BUFFER_SIZE];
+            for (int count = is.read(bytes); (count >= 0); count = is.read(bytes)) {
+                bos.write(bytes, 0, count);
+            }
+            return bos.toByteArray();
+        }
+    }
+
+    /**
+     * The time after which an idle pooled connection is no longer used.
+     */
+    private static final long IDLE_TIMEOUT_MILLIS = 30 * DateTime.ONE_SECOND_MILLIS;
+
+    /**
+     * The radix of a "Content-Length" header value.
+     */
+    private static final int DECIMAL = 10;
+
+    /**
+     * The radix of the size of a chunk, in chunked transfer encoding.
+     */
+    private static final int HEXADECIMAL = 16;
+
+    /**
+     * The size of the buffer used to transfer entity bytes.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The character set of HTTP request / response header text.
+     */
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+    /**
+     * The HTTP line terminator.
+     */
+    private static final String CRLF = "\r\n";
+
+    /**
+     * The prefix of the HTTP protocol version in a status line.
+     */
+    private static final String HTTP = "HTTP/";
+
+    /**
+     * The HTTP protocol version used by this client.
+     */
+    private static final String HTTP_1_1 = "HTTP/1.1";
+
+    /**
+     * The URL protocol for TLS secured HTTP.
+     */
+    private static final String HTTPS = "https";
+
+    /**
+     * The HTTP "HEAD" method, whose response has no entity.
+     */
+    private static final String HEAD = "HEAD";
+
+    /**
+     * The default port for HTTP.
+     */
+    private static final int PORT_HTTP = 80;
+
+    /**
+     * The default port for HTTPS.
+     */
+    private static final int PORT_HTTPS = 443;
+
+    /**
+     * The HTTP status code of an interim response.
+     */
+    private static final int STATUS_CONTINUE = 100;
+
+    /**
+     * The HTTP status code of a response with no entity.
+     */
+    private static final int STATUS_NO_CONTENT = 204;
+
+    /**
+     * The smallest HTTP status code which is followed as a redirect.
+     */
+    private static final int STATUS_REDIRECT_MIN = 301;
+
+    /**
+     * The HTTP status code of a response indicating that a cached entity is still valid.
+     */
+    private static final int STATUS_NOT_MODIFIED = 304;
+
+    /**
+     * The HTTP status code of a redirect for which the request method and entity should be preserved.
+     */
+    private static final int STATUS_TEMPORARY_REDIRECT = 307;
+
+    /**
+     * The HTTP status code of a redirect for which the request method and entity should be preserved.
+     */
+    private static final int STATUS_PERMANENT_REDIRECT = 308;
+
+    /**
+     * The largest HTTP status code which is followed as a redirect.
+     */
+    private static final int STATUS_REDIRECT_MAX = 308;
+}
@@ -0,0 +1,204 @@
+package com.ionic.sdk.json;
+
+import com.ionic.sdk.core.annotation.InternalUseOnly;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkData;
+import com.ionic.sdk.error.SdkError;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.util.NoSuchElementException;
+
+/**
+ * Utility methods for event based deserialization of json messages using the javax.json streaming API.
+ * <p>
+ * Large server responses may be consumed one member at a time, without first building a
+ * {@link JsonObject} representation of the entire response.  Small portions of the stream may still be
+ * materialized on demand, using {@link #readObject(JsonParser)} and {@link #readArray(JsonParser)}.
+ */
+@InternalUseOnly
+public final class JsonStream {
+
+    /**
+     * Constructor.
+     * http://checkstyle.sourceforge.net/config_design.html#FinalClass
+     */
+    private JsonStream() {
+    }
+
+    /**
+     * Create a parser over a byte array.  The byte array is assumed to be a string encoded using the UTF-8 encoding.
+     *
+     * @param jsonBytes a byte array containing json
+     * @return a parser positioned at the start of the input
+     * @throws IonicException on failure to initialize the parser
+     */
+    public static JsonParser createParser(final byte[] jsonBytes) throws IonicException {
+        try {
+            return Json.createParser(new ByteArrayInputStream(jsonBytes));
+        } catch (JsonException e) {
+            throw new IonicException(SdkError.ISAGENT_PARSEFAILED, e);
+        }
+    }
+
+    /**
+     * Advance the parser to the next event.
+     *
+     * @param parser the json event source
+     * @return the next event
+     * @throws IonicException on malformed or truncated input
+     */
+    public static JsonParser.Event next(final JsonParser parser) throws IonicException {
+        try {
+            return parser.next();
+        } catch (JsonException e) {
+            throw new IonicException(SdkError.ISAGENT_PARSEFAILED, e);
+        } catch (NoSuchElementException e) {
+            throw new IonicException(SdkError.ISAGENT_PARSEFAILED, e);
+        }
+    }
+
+    /**
+     * Advance the parser to the next event, which is expected to be the start of a json object.
+     *
+     * @param parser the json event source
+     * @param name   the name of the expected value (for error reporting)
+     * @throws IonicException if the next value is not a json object
+     */
+    public static void nextObject(final JsonParser parser, final String name) throws IonicException {
+        SdkData.checkTrue(next(parser) == JsonParser.Event.START_OBJECT, SdkError.ISAGENT_INVALIDVALUE, name);
+    }
+
+    /**
+     * Advance the parser to the next event, which is expected to be the start of a json array.
+     *
+     * @param parser the json event source
+     * @param name   the name of the expected value (for error reporting)
+     * @throws IonicException if the next value is not a json array
+     */
+    public static void nextArray(final JsonParser parser, final String name) throws IonicException {
+        SdkData.checkTrue(next(parser) == JsonParser.Event.START_ARRAY, SdkError.ISAGENT_INVALIDVALUE, name);
+    }
+
+    /**
+     * Read the next value from the parser, as with {@link JsonSource#getString(JsonObject, String)}.
+     *
+     * @param parser the json event source
+     * @return the string value, or null if the value is not a json string
+     * @throws IonicException on malformed input
+     */
+    public static String readString(final JsonParser parser) throws IonicException {
+        final JsonParser.Event event = next(parser);
+        final String value = (event == JsonParser.Event.VALUE_STRING) ? parser.getString() : null;
+        skip(parser, event);
+        return value;
+    }
+
+    /**
+     * Materialize the json object whose {@link JsonParser.Event#START_OBJECT} event was last returned by the parser.
+     * On return, the parser is positioned at the matching {@link JsonParser.Event#END_OBJECT} event.
+     *
+     * @param parser the json event source
+     * @return the object representation of the parsed events
+     * @throws IonicException on malformed input
+     */
+    public static JsonObject readObject(final JsonParser parser) throws IonicException {
+        final JsonObjectBuilder builder = Json.createObjectBuilder();
+        JsonParser.Event event = next(parser);
+        while (event != JsonParser.Event.END_OBJECT) {
+            final String name = parser.getString();
+            event = next(parser);
+            switch (event) {
+                case START_OBJECT:
+                    builder.add(name, readObject(parser));
+                    break;
+                case START_ARRAY:
+                    builder.add(name, readArray(parser));
+                    break;
+                case VALUE_STRING:
+                    builder.add(name, parser.getString());
+                    break;
+                case VALUE_NUMBER:
+                    builder.add(name, parser.getBigDecimal());
+                    break;
+                case VALUE_TRUE:
+                    builder.add(name, true);
+                    break;
+                case VALUE_FALSE:
+                    builder.add(name, false);
+                    break;
+                default:
+                    builder.addNull(name);
+                    break;
+            }
+            event = next(parser);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Materialize the json array whose {@link JsonParser.Event#START_ARRAY} event was last returned by the parser.
+     * On return, the parser is positioned at the matching {@link JsonParser.Event#END_ARRAY} event.
+     *
+     * @param parser the json event source
+     * @return the array representation of the parsed events
+     * @throws IonicException on malformed input
+     */
+    public static JsonArray readArray(final JsonParser parser) throws IonicException {
+        final JsonArrayBuilder builder = Json.createArrayBuilder();
+        JsonParser.Event event = next(parser);
+        while (event != JsonParser.Event.END_ARRAY) {
+            switch (event) {
+                case START_OBJECT:
+                    builder.add(readObject(parser));
+                    break;
+                case START_ARRAY:
+                    builder.add(readArray(parser));
+                    break;
+                case VALUE_STRING:
+                    builder.add(parser.getString());
+                    break;
+                case VALUE_NUMBER:
+                    builder.add(parser.getBigDecimal());
+                    break;
+                case VALUE_TRUE:
+                    builder.add(true);
+                    break;
+                case VALUE_FALSE:
+                    builder.add(false);
+                    break;
+                default:
+                    builder.addNull();
+                    break;
+            }
+            event = next(parser);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Discard the value whose first event was last returned by the parser.  On return, the parser is positioned at
+     * the last event of the value.
+     *
+     * @param parser the json event source
+     * @param event  the first event of the value to be discarded
+     * @throws IonicException on malformed input
+     */
+    public static void skip(final JsonParser parser, final JsonParser.Event event) throws IonicException {
+        int depth = ((event == JsonParser.Event.START_OBJECT) || (event == JsonParser.Event.START_ARRAY)) ? 1 : 0;
+        while (depth > 0) {
+            final JsonParser.Event eventIt = next(parser);
+            if ((eventIt == JsonParser.Event.START_OBJECT) || (eventIt == JsonParser.Event.START_ARRAY)) {
+                ++depth;
+            } else if ((eventIt == JsonParser.Event.END_OBJECT) || (eventIt == JsonParser.Event.END_ARRAY)) {
+                --depth;
+            }
+        }
+    }
+}
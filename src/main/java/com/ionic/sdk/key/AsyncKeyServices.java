@@ -0,0 +1,103 @@
+package com.ionic.sdk.key;
+
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysRequest;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysResponse;
+import com.ionic.sdk.error.IonicException;
+
+import java.util.concurrent.Future;
+
+/**
+ * Companion interface to {@link KeyServices}, defining non-blocking variants of the key operations.
+ * <p>
+ * Each operation returns immediately with a {@link Future}, which completes when the underlying
+ * {@link KeyServices} operation completes.  On failure of the operation, {@link Future#get()} throws a
+ * {@link java.util.concurrent.ExecutionException} whose cause is the {@link IonicException} describing the
+ * failure.  Callers which should not block at all may instead supply a {@link Callback}, which is notified on
+ * completion of the operation.
+ */
+public interface AsyncKeyServices {
+
+    /**
+     * Creates one or more protection keys, without blocking the calling thread.
+     *
+     * @param request the protection key request input data object
+     * @return a future which completes with the protection key response output data object
+     * @see KeyServices#createKeys(CreateKeysRequest)
+     */
+    Future<CreateKeysResponse> createKeysAsync(CreateKeysRequest request);
+
+    /**
+     * Creates one or more protection keys, without blocking the calling thread.
+     *
+     * @param request  the protection key request input data object
+     * @param callback the callback to be notified on completion of the operation (may be null)
+     * @return a future which completes with the protection key response output data object
+     * @see KeyServices#createKeys(CreateKeysRequest)
+     */
+    Future<CreateKeysResponse> createKeysAsync(CreateKeysRequest request, Callback<CreateKeysResponse> callback);
+
+    /**
+     * Gets protection keys, without blocking the calling thread.
+     *
+     * @param request the protection key request input data object
+     * @return a future which completes with the protection key response output data object
+     * @see KeyServices#getKeys(GetKeysRequest)
+     */
+    Future<GetKeysResponse> getKeysAsync(GetKeysRequest request);
+
+    /**
+     * Gets protection keys, without blocking the calling thread.
+     *
+     * @param request  the protection key request input data object
+     * @param callback the callback to be notified on completion of the operation (may be null)
+     * @return a future which completes with the protection key response output data object
+     * @see KeyServices#getKeys(GetKeysRequest)
+     */
+    Future<GetKeysResponse> getKeysAsync(GetKeysRequest request, Callback<GetKeysResponse> callback);
+
+    /**
+     * Updates protection keys, without blocking the calling thread.
+     *
+     * @param request the protection key request input data object
+     * @return a future which completes with the protection key response output data object
+     * @see KeyServices#updateKeys(UpdateKeysRequest)
+     */
+    Future<UpdateKeysResponse> updateKeysAsync(UpdateKeysRequest request);
+
+    /**
+     * Updates protection keys, without blocking the calling thread.
+     *
+     * @param request  the protection key request input data object
+     * @param callback the callback to be notified on completion of the operation (may be null)
+     * @return a future which completes with the protection key response output data object
+     * @see KeyServices#updateKeys(UpdateKeysRequest)
+     */
+    Future<UpdateKeysResponse> updateKeysAsync(UpdateKeysRequest request, Callback<UpdateKeysResponse> callback);
+
+    /**
+     * Receiver of the outcome of an asynchronous operation.  Notifications are made on the thread which performed
+     * the operation, so implementations should not block.
+     *
+     * @param <T> the type of the operation response
+     */
+    interface Callback<T> {
+
+        /**
+         * Notification of the successful completion of the operation.
+         *
+         * @param response the operation response
+         */
+        void onSuccess(T response);
+
+        /**
+         * Notification of the failure of the operation.
+         *
+         * @param e the exception describing the failure
+         */
+        void onFailure(IonicException e);
+    }
+}
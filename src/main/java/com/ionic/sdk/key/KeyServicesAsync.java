@@ -0,0 +1,240 @@
+package com.ionic.sdk.key;
+
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysRequest;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysResponse;
+import com.ionic.sdk.core.annotation.Experimental;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Implementation of {@link AsyncKeyServices} which performs the operations of a wrapped {@link KeyServices}
+ * implementation on a bounded pool of worker threads.
+ * <p>
+ * The wrapped operations (for {@link com.ionic.sdk.agent.Agent}, HTTPS requests to the Machina service) still block
+ * for the full server round trip, but they do so on one of a fixed number of worker threads, rather than on the
+ * threads of the calling application.  Any recovery logic of the wrapped implementation (for
+ * {@link com.ionic.sdk.agent.Agent}, the retry of a request on fingerprint or timestamp rejection) is unaffected.
+ * <p>
+ * Sample:
+ * <pre>
+ * public final void testKeyServicesAsync_GetKeys() throws Exception {
+ *     final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+ *     final KeyServicesAsync keyServicesAsync = new KeyServicesAsync(keyServices);
+ *     final String keyId = keyServices.createKey().getFirstKey().getId();
+ *     final Future&lt;GetKeysResponse&gt; future = keyServicesAsync.getKeysAsync(new GetKeysRequest(keyId));
+ *     Assert.assertEquals(keyId, future.get().getFirstKey().getId());
+ *     keyServicesAsync.shutdown();
+ * }
+ * </pre>
+ */
+@Experimental
+public class KeyServicesAsync implements AsyncKeyServices {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * The wrapped {@link KeyServices} implementation.
+     */
+    private final KeyServices keyServices;
+
+    /**
+     * The executor on which the wrapped operations are performed.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * True iff the executor was created by (and should be shut down by) this object.
+     */
+    private final boolean isOwnedExecutor;
+
+    /**
+     * Constructor.  The wrapped operations are performed on {@link #DEFAULT_THREADS} daemon worker threads.
+     *
+     * @param keyServices the wrapped {@link KeyServices} implementation
+     */
+    public KeyServicesAsync(final KeyServices keyServices) {
+        this(keyServices, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keyServices the wrapped {@link KeyServices} implementation
+     * @param executor    the executor on which the wrapped operations are performed (if null, an executor of
+     *                    {@link #DEFAULT_THREADS} daemon worker threads is created, and owned by this object)
+     */
+    public KeyServicesAsync(final KeyServices keyServices, final ExecutorService executor) {
+        this.keyServices = keyServices;
+        this.isOwnedExecutor = (executor == null);
+        this.executor = isOwnedExecutor
+                ? Executors.newFixedThreadPool(DEFAULT_THREADS, new DaemonThreadFactory()) : executor;
+    }
+
+    /**
+     * @return the wrapped {@link KeyServices} implementation
+     */
+    public final KeyServices getKeyServices() {
+        return keyServices;
+    }
+
+    @Override
+    public final Future<CreateKeysResponse> createKeysAsync(final CreateKeysRequest request) {
+        return createKeysAsync(request, null);
+    }
+
+    @Override
+    public final Future<CreateKeysResponse> createKeysAsync(
+            final CreateKeysRequest request, final Callback<CreateKeysResponse> callback) {
+        return submit(new Callable<CreateKeysResponse>() {
+            @Override
+            public CreateKeysResponse call() throws IonicException {
+                return keyServices.createKeys(request);
+            }
+        }, callback);
+    }
+
+    @Override
+    public final Future<GetKeysResponse> getKeysAsync(final GetKeysRequest request) {
+        return getKeysAsync(request, null);
+    }
+
+    @Override
+    public final Future<GetKeysResponse> getKeysAsync(
+            final GetKeysRequest request, final Callback<GetKeysResponse> callback) {
+        return submit(new Callable<GetKeysResponse>() {
+            @Override
+            public GetKeysResponse call() throws IonicException {
+                return keyServices.getKeys(request);
+            }
+        }, callback);
+    }
+
+    @Override
+    public final Future<UpdateKeysResponse> updateKeysAsync(final UpdateKeysRequest request) {
+        return updateKeysAsync(request, null);
+    }
+
+    @Override
+    public final Future<UpdateKeysResponse> updateKeysAsync(
+            final UpdateKeysRequest request, final Callback<UpdateKeysResponse> callback) {
+        return submit(new Callable<UpdateKeysResponse>() {
+            @Override
+            public UpdateKeysResponse call() throws IonicException {
+                return keyServices.updateKeys(request);
+            }
+        }, callback);
+    }
+
+    /**
+     * Schedule an operation on the executor.
+     *
+     * @param callable the operation to be performed
+     * @param callback the callback to be notified on completion of the operation (may be null)
+     * @param <T>      the type of the operation response
+     * @return a future which completes with the operation response
+     */
+    protected final <T> Future<T> submit(final Callable<T> callable, final Callback<T> callback) {
+        final FutureTask<T> futureTask = new CallbackFutureTask<T>(callable, callback);
+        executor.execute(futureTask);
+        return futureTask;
+    }
+
+    /**
+     * Release the worker threads of this object, if they were created by this object.  Operations already
+     * submitted are completed.
+     */
+    public final void shutdown() {
+        if (isOwnedExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Task which notifies a {@link Callback} on completion.
+     *
+     * @param <T> the type of the operation response
+     */
+    private final class CallbackFutureTask<T> extends FutureTask<T> {
+
+        /**
+         * The callback to be notified on completion of the operation (may be null).
+         */
+        private final Callback<T> callback;
+
+        /**
+         * Constructor.
+         *
+         * @param callable the operation to be performed
+         * @param callback the callback to be notified on completion of the operation (may be null)
+         */
+        private CallbackFutureTask(final Callable<T> callable, final Callback<T> callback) {
+            super(callable);
+            this.callback = callback;
+        }
+
+        @Override
+        protected void done() {
+            if (callback == null) {
+                return;
+            }
+            try {
+                callback.onSuccess(get());
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                callback.onFailure((cause instanceof IonicException)
+                        ? (IonicException) cause : new IonicException(SdkError.ISAGENT_ERROR, cause));
+            } catch (CancellationException e) {
+                callback.onFailure(new IonicException(SdkError.ISAGENT_ERROR, e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                callback.onFailure(new IonicException(SdkError.ISAGENT_ERROR, e));
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Thread factory for the worker threads created by this object.  Daemon threads are used, so that an
+     * application is not prevented from exiting by an instance which was not shut down.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        /**
+         * Ordinal used to name the worker threads.
+         */
+        private final AtomicInteger ordinal = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, String.format(
+                    "%s-%d", KeyServicesAsync.class.getSimpleName(), ordinal.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * The default number of worker threads on which the wrapped operations are performed.
+     */
+    public static final int DEFAULT_THREADS = 8;
+}
@@ -0,0 +1,512 @@
+package com.ionic.sdk.key.cache;
+
+import com.ionic.sdk.agent.key.AgentKey;
+import com.ionic.sdk.agent.key.KeyObligationsMap;
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysRequest;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysResponse;
+import com.ionic.sdk.core.annotation.Experimental;
+import com.ionic.sdk.core.value.Value;
+import com.ionic.sdk.device.profile.DeviceProfile;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkData;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.key.KeyServicesMinimal;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of {@link KeyServices} which wraps another {@link KeyServices} implementation, and retains
+ * protection keys returned by it in an in-memory cache.  Subsequent requests for a cached key are served from
+ * memory, avoiding a round trip to the wrapped implementation (for {@link com.ionic.sdk.agent.Agent}, an HTTPS
+ * request to the Machina service).
+ * <p>
+ * This is useful in contexts where many ciphertexts protected by the same small set of keys are to be decrypted,
+ * such as a database column protected with {@link com.ionic.sdk.agent.cipher.chunk.ChunkCipherAuto}.
+ * <p>
+ * Cache behavior:
+ * <ul>
+ * <li>Entries expire after a configurable time-to-live.</li>
+ * <li>The number of entries is bounded; when the bound is reached, the least recently used entry is evicted.</li>
+ * <li>Entries are partitioned by the device id of the active {@link DeviceProfile} of the wrapped
+ * {@link KeyServices}, so keys fetched using one profile are never served in the context of another.</li>
+ * <li>Keys carrying {@link KeyObligationsMap} obligations are not cached by default, as the service may require
+ * that obligations be evaluated on each fetch.  Keys carrying server attribute signatures ("csig", "msig") are also
+ * not cached by default, so that applications observe the current server-side attributes; caching of these keys
+ * may be enabled.</li>
+ * <li>Requests for keys by external id are always passed through to the wrapped implementation.</li>
+ * </ul>
+ * <p>
+ * Request metadata is passed along to the wrapped implementation on a cache miss, but is not part of the cache
+ * key.
+ * <p>
+ * Sample:
+ * <pre>
+ * public final void testKeyServicesCache_ChunkCipherDecrypt() throws IonicException {
+ *     final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+ *     final KeyServicesCache keyServicesCache = new KeyServicesCache(keyServices);
+ *     keyServicesCache.setCacheSignedAttributes(true);
+ *     final ChunkCipherAbstract chunkCipher = new ChunkCipherAuto(keyServicesCache);
+ *     final String cipherText = chunkCipher.encrypt("Hello, Machina!");
+ *     Assert.assertEquals("Hello, Machina!", chunkCipher.decrypt(cipherText));
+ *     Assert.assertEquals(1, keyServicesCache.getHitCount());
+ * }
+ * </pre>
+ */
+@Experimental
+public class KeyServicesCache extends KeyServicesMinimal {
+
+    /**
+     * The wrapped {@link KeyServices} implementation, used to service requests for keys not in the cache.
+     */
+    private final KeyServices keyServices;
+
+    /**
+     * The amount of time (in milliseconds) that a cached key is valid after being received.
+     */
+    private final long ttlMillis;
+
+    /**
+     * The maximum number of keys to be retained in the cache.
+     */
+    private final int maxSize;
+
+    /**
+     * The cached keys, indexed by device profile and key tag.  The map is kept in access order, so that the
+     * least recently used entry is the first to be evicted.
+     */
+    private final Map<String, CacheEntry> entries;
+
+    /**
+     * Flag indicating whether keys carrying obligations may be retained in the cache.
+     */
+    private boolean cacheObligations;
+
+    /**
+     * Flag indicating whether keys carrying server attribute signatures may be retained in the cache.
+     */
+    private boolean cacheSignedAttributes;
+
+    /**
+     * The number of key requests serviced from the cache.
+     */
+    private final AtomicLong hitCount;
+
+    /**
+     * The number of key requests passed through to the wrapped {@link KeyServices}.
+     */
+    private final AtomicLong missCount;
+
+    /**
+     * The number of cache entries removed to keep the cache within its size bound.
+     */
+    private final AtomicLong evictionCount;
+
+    /**
+     * The number of cache entries discarded on lookup due to expiration.
+     */
+    private final AtomicLong expiredCount;
+
+    /**
+     * The number of keys received from the wrapped {@link KeyServices} which were not eligible to be cached.
+     */
+    private final AtomicLong bypassCount;
+
+    /**
+     * Constructor.  The default time-to-live and size bound are used.
+     *
+     * @param keyServices the wrapped {@link KeyServices} implementation
+     */
+    public KeyServicesCache(final KeyServices keyServices) {
+        this(keyServices, DEFAULT_TTL_MILLIS, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keyServices the wrapped {@link KeyServices} implementation
+     * @param ttlMillis   the amount of time (in milliseconds) that a cached key is valid after being received
+     * @param maxSize     the maximum number of keys to be retained in the cache
+     */
+    public KeyServicesCache(final KeyServices keyServices, final long ttlMillis, final int maxSize) {
+        SdkData.checkNotNullNPE(keyServices, KeyServices.class.getName());
+        this.keyServices = keyServices;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<String, CacheEntry>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CacheEntry> eldest) {
+                final boolean evict = (size() > KeyServicesCache.this.maxSize);
+                if (evict) {
+                    evictionCount.incrementAndGet();
+                }
+                return evict;
+            }
+
+            /** Class is not serialized. */
+            private static final long serialVersionUID = 1L;
+        };
+        this.cacheObligations = false;
+        this.cacheSignedAttributes = false;
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.evictionCount = new AtomicLong();
+        this.expiredCount = new AtomicLong();
+        this.bypassCount = new AtomicLong();
+    }
+
+    /**
+     * @return the wrapped {@link KeyServices} implementation
+     */
+    public final KeyServices getKeyServices() {
+        return keyServices;
+    }
+
+    /**
+     * @return true, if keys carrying obligations may be retained in the cache
+     */
+    public final boolean isCacheObligations() {
+        return cacheObligations;
+    }
+
+    /**
+     * Specify whether keys carrying obligations may be retained in the cache.  By default, such keys are
+     * always fetched from the wrapped {@link KeyServices}.
+     *
+     * @param cacheObligations true, if keys carrying obligations may be retained in the cache
+     */
+    public final void setCacheObligations(final boolean cacheObligations) {
+        this.cacheObligations = cacheObligations;
+    }
+
+    /**
+     * @return true, if keys carrying server attribute signatures may be retained in the cache
+     */
+    public final boolean isCacheSignedAttributes() {
+        return cacheSignedAttributes;
+    }
+
+    /**
+     * Specify whether keys carrying server attribute signatures ("csig", "msig") may be retained in the cache.  By
+     * default, such keys are always fetched from the wrapped {@link KeyServices}, so that the current (server-side)
+     * key attributes are observed.  Applications which can tolerate stale attributes may enable caching of these
+     * keys.
+     *
+     * @param cacheSignedAttributes true, if keys carrying server attribute signatures may be retained in the cache
+     */
+    public final void setCacheSignedAttributes(final boolean cacheSignedAttributes) {
+        this.cacheSignedAttributes = cacheSignedAttributes;
+    }
+
+    /**
+     * @return the number of key requests serviced from the cache
+     */
+    public final long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of key requests passed through to the wrapped {@link KeyServices}
+     */
+    public final long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return the number of cache entries removed to keep the cache within its size bound
+     */
+    public final long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return the number of cache entries discarded on lookup due to expiration
+     */
+    public final long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    /**
+     * @return the number of keys received from the wrapped {@link KeyServices} which were not eligible to be cached
+     */
+    public final long getBypassCount() {
+        return bypassCount.get();
+    }
+
+    /**
+     * @return the number of keys currently held in the cache (including any expired keys not yet discarded)
+     */
+    public final int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Discard all keys held in the cache.  The cache counters are not reset.
+     */
+    public final void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Discard the cached key with the specified key tag (in the context of the active device profile), if present.
+     *
+     * @param keyId the key tag of the cached key to be discarded
+     * @return true, if a key was discarded
+     */
+    public final boolean invalidate(final String keyId) {
+        synchronized (entries) {
+            return (entries.remove(toCacheKey(getPartition(), keyId)) != null);
+        }
+    }
+
+    @Override
+    public final DeviceProfile getActiveProfile() {
+        return keyServices.getActiveProfile();
+    }
+
+    /**
+     * Creates one or more protection keys using the wrapped {@link KeyServices}.  Newly created keys are added to
+     * the cache, so that subsequent requests for them (for example, to decrypt the data they protect) may be
+     * serviced without a round trip.
+     *
+     * @param request the protection key request input data object
+     * @return the protection key response output data object
+     * @throws IonicException on failure to create the requested protection key(s)
+     */
+    @Override
+    public final CreateKeysResponse createKeys(final CreateKeysRequest request) throws IonicException {
+        final CreateKeysResponse response = keyServices.createKeys(request);
+        final String partition = getPartition();
+        for (CreateKeysResponse.Key key : response.getKeys()) {
+            put(partition, KeyServicesSupport.toGetKey(key, key.getDeviceId()));
+        }
+        return response;
+    }
+
+    /**
+     * Retrieves a set of protection keys.  Keys present in the cache are served from memory; any remaining keys
+     * are requested (in a single request) from the wrapped {@link KeyServices}, and added to the cache.
+     * <p>
+     * The keys in the response are ordered as in the request.  Any errors returned by the wrapped
+     * {@link KeyServices} are included in the response.
+     *
+     * @param request the protection key request input data object
+     * @return the protection key response output data object
+     * @throws IonicException on failure to retrieve the requested protection key(s)
+     */
+    @Override
+    public final GetKeysResponse getKeys(final GetKeysRequest request) throws IonicException {
+        final String partition = getPartition();
+        if (!request.getExternalIdObjects().isEmpty()) {
+            final GetKeysResponse response = keyServices.getKeys(request);
+            for (GetKeysResponse.Key key : response.getKeys()) {
+                put(partition, key);
+            }
+            return response;
+        }
+        // service what is possible from the cache
+        final Set<String> keyIds = new LinkedHashSet<String>(request.getKeyIds());
+        final Map<String, GetKeysResponse.Key> keysCached = new LinkedHashMap<String, GetKeysResponse.Key>();
+        final GetKeysRequest requestMiss = new GetKeysRequest();
+        requestMiss.setMetadata(request.getMetadata());
+        for (String keyId : keyIds) {
+            final GetKeysResponse.Key key = get(partition, keyId);
+            if (key == null) {
+                missCount.incrementAndGet();
+                requestMiss.add(keyId);
+            } else {
+                hitCount.incrementAndGet();
+                keysCached.put(keyId, key);
+            }
+        }
+        // fetch remaining keys
+        final GetKeysResponse response = new GetKeysResponse();
+        final GetKeysResponse responseMiss = (requestMiss.getKeyIds().isEmpty())
+                ? null : keyServices.getKeys(requestMiss);
+        if (responseMiss != null) {
+            KeyServicesSupport.copyStatus(responseMiss, response);
+            for (GetKeysResponse.Key key : responseMiss.getKeys()) {
+                put(partition, key);
+            }
+            for (GetKeysResponse.IonicError error : responseMiss.getErrors()) {
+                response.add(error);
+            }
+        }
+        // assemble response, in request order
+        for (String keyId : keyIds) {
+            final GetKeysResponse.Key keyCached = keysCached.get(keyId);
+            final GetKeysResponse.Key key = (keyCached == null)
+                    ? ((responseMiss == null) ? null : responseMiss.getKey(keyId)) : keyCached;
+            if (key != null) {
+                response.add(key);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Updates a set of protection keys using the wrapped {@link KeyServices}.  Any cached copies of the updated keys
+     * are discarded, so that subsequent requests observe the updated mutable attributes.
+     *
+     * @param request the protection key request input data object
+     * @return the protection key response output data object
+     * @throws IonicException on failure of the request
+     */
+    @Override
+    public final UpdateKeysResponse updateKeys(final UpdateKeysRequest request) throws IonicException {
+        final String partition = getPartition();
+        try {
+            return keyServices.updateKeys(request);
+        } finally {
+            synchronized (entries) {
+                for (UpdateKeysRequest.Key key : request.getKeys()) {
+                    entries.remove(toCacheKey(partition, key.getId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the cache partition associated with the active device profile of the wrapped {@link KeyServices}
+     */
+    private String getPartition() {
+        final DeviceProfile deviceProfile = keyServices.getActiveProfile();
+        return (deviceProfile == null) ? "" : Value.defaultOnEmpty(deviceProfile.getDeviceId(), "");
+    }
+
+    /**
+     * Look up a key in the cache.  Expired entries are discarded.
+     *
+     * @param partition the cache partition associated with the request
+     * @param keyId     the key tag of the requested key
+     * @return a copy of the cached key; or null, if no (unexpired) key is cached
+     */
+    private GetKeysResponse.Key get(final String partition, final String keyId) {
+        final String cacheKey = toCacheKey(partition, keyId);
+        synchronized (entries) {
+            final CacheEntry entry = entries.get(cacheKey);
+            if (entry == null) {
+                return null;
+            } else if (entry.isExpired(System.currentTimeMillis())) {
+                entries.remove(cacheKey);
+                expiredCount.incrementAndGet();
+                return null;
+            } else {
+                return KeyServicesSupport.toGetKey(entry.key, entry.key.getDeviceId());
+            }
+        }
+    }
+
+    /**
+     * Add a key to the cache, if it is eligible.
+     *
+     * @param partition the cache partition associated with the request
+     * @param key       the key received from the wrapped {@link KeyServices}
+     */
+    private void put(final String partition, final GetKeysResponse.Key key) {
+        if (isCacheable(key)) {
+            final CacheEntry entry = new CacheEntry(
+                    KeyServicesSupport.toGetKey(key, key.getDeviceId()), System.currentTimeMillis() + ttlMillis);
+            synchronized (entries) {
+                entries.put(toCacheKey(partition, key.getId()), entry);
+            }
+        } else {
+            bypassCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Determine whether a key received from the wrapped {@link KeyServices} may be retained in the cache.
+     *
+     * @param key the key received from the wrapped {@link KeyServices}
+     * @return true, if the key may be retained in the cache
+     */
+    private boolean isCacheable(final AgentKey key) {
+        final boolean hasObligations = !key.getObligationsMap().isEmpty();
+        final boolean hasSignatures = !(Value.isEmpty(key.getAttributesSigBase64FromServer())
+                && Value.isEmpty(key.getMutableAttributesSigBase64FromServer()));
+        return (maxSize > 0) && (ttlMillis > 0)
+                && (cacheObligations || !hasObligations) && (cacheSignedAttributes || !hasSignatures);
+    }
+
+    /**
+     * @param partition the cache partition associated with the request
+     * @param keyId     the key tag of the requested key
+     * @return the index of the key in the cache
+     */
+    private static String toCacheKey(final String partition, final String keyId) {
+        return partition + SEPARATOR + keyId;
+    }
+
+    /**
+     * A cached key, along with the time at which it should be discarded.
+     */
+    private static final class CacheEntry {
+
+        /**
+         * The cached key.
+         */
+        private final GetKeysResponse.Key key;
+
+        /**
+         * The time (in milliseconds since the epoch) after which the cached key should no longer be used.
+         */
+        private final long expiresAt;
+
+        /**
+         * Constructor.
+         *
+         * @param key       the cached key
+         * @param expiresAt the time (in milliseconds since the epoch) after which the cached key should no longer be
+         *                  used
+         */
+        private CacheEntry(final GetKeysResponse.Key key, final long expiresAt) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @param nowMillis the current time (in milliseconds since the epoch)
+         * @return true, if the cached key should no longer be used
+         */
+        private boolean isExpired(final long nowMillis) {
+            return (nowMillis >= expiresAt);
+        }
+    }
+
+    /**
+     * The default amount of time (in milliseconds) that a cached key is valid after being received (PT5M).
+     */
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000L;
+
+    /**
+     * The default maximum number of keys to be retained in the cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    /**
+     * The initial capacity of the backing map.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The load factor of the backing map.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The separator between the partition and key tag components of a cache index.
+     */
+    private static final String SEPARATOR = "/";
+}
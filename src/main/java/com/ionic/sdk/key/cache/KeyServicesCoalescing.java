@@ -0,0 +1,550 @@
+package com.ionic.sdk.key.cache;
+
+import com.ionic.sdk.agent.Agent;
+import com.ionic.sdk.agent.data.MetadataMap;
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysRequest;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysResponse;
+import com.ionic.sdk.core.annotation.Experimental;
+import com.ionic.sdk.core.value.Value;
+import com.ionic.sdk.device.profile.DeviceProfile;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkData;
+import com.ionic.sdk.error.SdkError;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.key.KeyServicesMinimal;
+import com.ionic.sdk.key.cache.KeyServicesSupport.RequestKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of {@link KeyServices} which wraps another {@link KeyServices} implementation, and merges
+ * concurrent requests made through it into a smaller number of requests to the wrapped implementation (for
+ * {@link com.ionic.sdk.agent.Agent}, HTTPS requests to the Machina service).
+ * <p>
+ * This is useful in contexts where many application threads request keys at about the same time, such as a server
+ * decrypting data protected by a handful of keys on behalf of many concurrent clients.
+ * <p>
+ * Coalescing behavior:
+ * <ul>
+ * <li>The first request of a batch waits for a configurable window (or until the batch reaches its size bound)
+ * before the batch is sent.  Requests arriving during the window join the batch.</li>
+ * <li>Get requests are batched separately for each {@link DeviceProfile} (for {@link com.ionic.sdk.agent.Agent},
+ * as routed by {@link com.ionic.sdk.agent.Agent#getDeviceProfileForKeyId(String)}) and for each distinct set of
+ * request metadata.  Key tags are deduplicated; a request for a key tag already in a pending batch waits on that
+ * batch rather than requesting the key again.</li>
+ * <li>Create requests for a single {@link CreateKeysRequest.Key} are batched for each distinct combination of
+ * immutable key attributes, mutable key attributes, and request metadata.  Each batch is sent as a single request
+ * for the combined quantity of keys, which are then divided among the waiting callers.</li>
+ * <li>Each caller receives its own copies of the keys and errors relevant to its request, in request order.  A
+ * failure of the batch request is reported to each caller in the batch.</li>
+ * <li>Requests for keys by external id, create requests for multiple key specifications, and requests to update
+ * keys are passed through to the wrapped implementation.</li>
+ * </ul>
+ * <p>
+ * Sample:
+ * <pre>
+ * public final void testKeyServicesCoalescing_GetKey() throws IonicException {
+ *     final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+ *     final KeyServicesCoalescing keyServicesCoalescing = new KeyServicesCoalescing(keyServices);
+ *     final String keyId = keyServicesCoalescing.createKey().getFirstKey().getId();
+ *     Assert.assertEquals(keyId, keyServicesCoalescing.getKey(keyId).getFirstKey().getId());
+ * }
+ * </pre>
+ */
+@Experimental
+public class KeyServicesCoalescing extends KeyServicesMinimal {
+
+    /**
+     * The wrapped {@link KeyServices} implementation, used to service the batched requests.
+     */
+    private final KeyServices keyServices;
+
+    /**
+     * The amount of time (in milliseconds) that the first request of a batch waits for other requests to join it.
+     */
+    private final long windowMillis;
+
+    /**
+     * The maximum number of keys to be requested in a single batch.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The get batches accepting new requests, indexed by device profile and request metadata.
+     */
+    private final Map<List<Object>, GetBatch> getBatches;
+
+    /**
+     * The get batches which have not yet completed, indexed by device profile, request metadata, and key tag.
+     */
+    private final Map<List<Object>, GetBatch> getBatchesPending;
+
+    /**
+     * The create batches accepting new requests, indexed by device profile, key attributes, and request metadata.
+     */
+    private final Map<List<Object>, CreateBatch> createBatches;
+
+    /**
+     * The number of requests received from callers (excluding those passed through).
+     */
+    private final AtomicLong requestCount;
+
+    /**
+     * The number of batched requests sent to the wrapped {@link KeyServices}.
+     */
+    private final AtomicLong batchCount;
+
+    /**
+     * Constructor.  The default window and batch size bound are used.
+     *
+     * @param keyServices the wrapped {@link KeyServices} implementation
+     */
+    public KeyServicesCoalescing(final KeyServices keyServices) {
+        this(keyServices, DEFAULT_WINDOW_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keyServices  the wrapped {@link KeyServices} implementation
+     * @param windowMillis the amount of time (in milliseconds) that the first request of a batch waits for other
+     *                     requests to join it
+     * @param maxBatchSize the maximum number of keys to be requested in a single batch
+     */
+    public KeyServicesCoalescing(final KeyServices keyServices, final long windowMillis, final int maxBatchSize) {
+        SdkData.checkNotNullNPE(keyServices, KeyServices.class.getName());
+        this.keyServices = keyServices;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.getBatches = new HashMap<List<Object>, GetBatch>();
+        this.getBatchesPending = new HashMap<List<Object>, GetBatch>();
+        this.createBatches = new HashMap<List<Object>, CreateBatch>();
+        this.requestCount = new AtomicLong();
+        this.batchCount = new AtomicLong();
+    }
+
+    /**
+     * @return the wrapped {@link KeyServices} implementation
+     */
+    public final KeyServices getKeyServices() {
+        return keyServices;
+    }
+
+    /**
+     * @return the number of requests received from callers (excluding those passed through)
+     */
+    public final long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return the number of batched requests sent to the wrapped {@link KeyServices}
+     */
+    public final long getBatchCount() {
+        return batchCount.get();
+    }
+
+    @Override
+    public final DeviceProfile getActiveProfile() {
+        return keyServices.getActiveProfile();
+    }
+
+    /**
+     * Creates one or more protection keys.  A request for a single {@link CreateKeysRequest.Key} joins a batch of
+     * concurrent requests for keys with the same attributes; other requests are passed through to the wrapped
+     * {@link KeyServices}.
+     *
+     * @param request the protection key request input data object
+     * @return the protection key response output data object
+     * @throws IonicException on failure to create the requested protection key(s)
+     */
+    @Override
+    public final CreateKeysResponse createKeys(final CreateKeysRequest request) throws IonicException {
+        final List<CreateKeysRequest.Key> requestKeys = request.getKeys();
+        if ((requestKeys.size() != 1) || (requestKeys.get(0).getQuantity() > maxBatchSize)) {
+            return keyServices.createKeys(request);
+        }
+        requestCount.incrementAndGet();
+        final CreateKeysRequest.Key requestKey = requestKeys.get(0);
+        final int quantity = requestKey.getQuantity();
+        final List<Object> batchKey = Arrays.<Object>asList(getPartition(null), new RequestKey(
+                requestKey.getAttributesMap(), requestKey.getMutableAttributesMap(), request.getMetadata()));
+        CreateBatch batchLead = null;
+        final CreateBatch batch;
+        final int offset;
+        synchronized (this) {
+            CreateBatch batchOpen = createBatches.get(batchKey);
+            if ((batchOpen == null) || (batchOpen.quantity + quantity > maxBatchSize)) {
+                batchOpen = new CreateBatch(batchKey);
+                batchLead = batchOpen;
+                createBatches.put(batchKey, batchOpen);
+            }
+            offset = batchOpen.quantity;
+            batchOpen.quantity += quantity;
+            batch = batchOpen;
+            if (batch.isFull()) {
+                notifyAll();
+            }
+        }
+        if (batchLead != null) {
+            lead(batchLead, createBatches);
+        }
+        // hand out the caller's share of the batch
+        final CreateKeysResponse responseBatch = batch.await();
+        final CreateKeysResponse response = new CreateKeysResponse();
+        KeyServicesSupport.copyStatus(responseBatch, response);
+        final List<CreateKeysResponse.Key> keys = responseBatch.findKeysByRef(CreateBatch.REF_ID);
+        for (int i = offset; (i < Math.min(offset + quantity, keys.size())); ++i) {
+            response.add(KeyServicesSupport.toCreateKey(requestKey.getRefId(), keys.get(i)));
+        }
+        return response;
+    }
+
+    /**
+     * Retrieves a set of protection keys.  The requested key tags join batches of concurrent requests for keys;
+     * requests for keys by external id are passed through to the wrapped {@link KeyServices}.
+     * <p>
+     * The keys in the response are ordered as in the request.  Any errors returned by the wrapped
+     * {@link KeyServices} for the requested keys are included in the response.
+     *
+     * @param request the protection key request input data object
+     * @return the protection key response output data object
+     * @throws IonicException on failure to retrieve the requested protection key(s)
+     */
+    @Override
+    public final GetKeysResponse getKeys(final GetKeysRequest request) throws IonicException {
+        if (!request.getExternalIdObjects().isEmpty() || request.getKeyIds().isEmpty()) {
+            return keyServices.getKeys(request);
+        }
+        requestCount.incrementAndGet();
+        final MetadataMap metadata = request.getMetadata();
+        final Map<String, String> metadataKey = (metadata == null)
+                ? new HashMap<String, String>() : new HashMap<String, String>(metadata);
+        final Set<String> keyIds = new LinkedHashSet<String>(request.getKeyIds());
+        final Map<String, GetBatch> batches = new LinkedHashMap<String, GetBatch>();
+        final List<GetBatch> batchesLead = new ArrayList<GetBatch>();
+        synchronized (this) {
+            for (String keyId : keyIds) {
+                final List<Object> batchKey = Arrays.<Object>asList(getPartition(keyId), metadataKey);
+                final List<Object> pendingKey = Arrays.<Object>asList(batchKey, keyId);
+                GetBatch batch = getBatchesPending.get(pendingKey);
+                if (batch == null) {
+                    batch = getBatches.get(batchKey);
+                    if ((batch == null) || batch.isFull()) {
+                        batch = new GetBatch(batchKey, metadata);
+                        batchesLead.add(batch);
+                        getBatches.put(batchKey, batch);
+                    }
+                    batch.keyIds.add(keyId);
+                    getBatchesPending.put(pendingKey, batch);
+                    if (batch.isFull()) {
+                        notifyAll();
+                    }
+                }
+                batches.put(keyId, batch);
+            }
+        }
+        for (GetBatch batch : batchesLead) {
+            lead(batch, getBatches);
+        }
+        // assemble response, in request order
+        final GetKeysResponse response = new GetKeysResponse();
+        boolean isStatusCopied = false;
+        for (Map.Entry<String, GetBatch> entry : batches.entrySet()) {
+            final String keyId = entry.getKey();
+            final GetKeysResponse responseBatch = entry.getValue().await();
+            if (!isStatusCopied) {
+                KeyServicesSupport.copyStatus(responseBatch, response);
+                isStatusCopied = true;
+            }
+            final GetKeysResponse.Key key = responseBatch.getKey(keyId);
+            if (key != null) {
+                response.add(KeyServicesSupport.toGetKey(key, key.getDeviceId()));
+            }
+            final GetKeysResponse.IonicError error = responseBatch.getError(keyId);
+            if (error != null) {
+                response.add(new GetKeysResponse.IonicError(error.getKeyId(), error.getClientError(),
+                        error.getServerError(), error.getServerMessage()));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Updates a set of protection keys using the wrapped {@link KeyServices}.
+     *
+     * @param request the protection key request input data object
+     * @return the protection key response output data object
+     * @throws IonicException on failure of the request
+     */
+    @Override
+    public final UpdateKeysResponse updateKeys(final UpdateKeysRequest request) throws IonicException {
+        return keyServices.updateKeys(request);
+    }
+
+    /**
+     * Resolve the batch partition of a request.  Keys are requested from the wrapped {@link KeyServices} in the
+     * context of a single {@link DeviceProfile}, so requests to be serviced by different profiles are never merged.
+     *
+     * @param keyId the key tag of the requested key (or null, for a create request)
+     * @return the batch partition associated with the request
+     */
+    private String getPartition(final String keyId) {
+        final DeviceProfile deviceProfile = ((keyId != null) && (keyServices instanceof Agent))
+                ? ((Agent) keyServices).getDeviceProfileForKeyId(keyId) : keyServices.getActiveProfile();
+        return (deviceProfile == null) ? "" : Value.defaultOnEmpty(deviceProfile.getDeviceId(), "");
+    }
+
+    /**
+     * Wait for the batch window to elapse (or for the batch to fill), close the batch to new requests, and send it
+     * to the wrapped {@link KeyServices}.
+     *
+     * @param batch   the batch opened by the calling thread
+     * @param batches the batches accepting new requests, from which the batch is to be removed
+     * @param <T>     the type of the batch response
+     */
+    private <T> void lead(final Batch<T> batch, final Map<List<Object>, ? extends Batch<T>> batches) {
+        boolean isInterrupted = false;
+        synchronized (this) {
+            long remaining = batch.deadline - System.currentTimeMillis();
+            while (!batch.isFull() && (remaining > 0)) {
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    // send the batch now, so that any requests which joined it are not abandoned
+                    isInterrupted = true;
+                    break;
+                }
+                remaining = batch.deadline - System.currentTimeMillis();
+            }
+            if (batches.get(batch.batchKey) == batch) {
+                batches.remove(batch.batchKey);
+            }
+        }
+        batchCount.incrementAndGet();
+        batch.execute();
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A set of requests to be sent to the wrapped {@link KeyServices} as a single request.
+     *
+     * @param <T> the type of the batch response
+     */
+    private abstract class Batch<T> {
+
+        /**
+         * The index of the batch in the map of batches accepting new requests.
+         */
+        private final List<Object> batchKey;
+
+        /**
+         * The time (in milliseconds since the epoch) after which the batch is sent.
+         */
+        private final long deadline;
+
+        /**
+         * Released when the batch response (or failure) is available.
+         */
+        private final CountDownLatch latch;
+
+        /**
+         * The response of the wrapped {@link KeyServices} to the batch request.
+         */
+        private T response;
+
+        /**
+         * The failure of the batch request.
+         */
+        private IonicException failure;
+
+        /**
+         * Constructor.
+         *
+         * @param batchKey the index of the batch in the map of batches accepting new requests
+         */
+        Batch(final List<Object> batchKey) {
+            this.batchKey = batchKey;
+            this.deadline = System.currentTimeMillis() + windowMillis;
+            this.latch = new CountDownLatch(1);
+        }
+
+        /**
+         * @return true, if the batch may accept no further requests
+         */
+        abstract boolean isFull();
+
+        /**
+         * Send the batch request to the wrapped {@link KeyServices}.
+         *
+         * @return the response of the wrapped {@link KeyServices}
+         * @throws IonicException on failure of the request
+         */
+        abstract T send() throws IonicException;
+
+        /**
+         * Release any state associated with the pending batch.  Called before waiting callers are released.
+         */
+        void release() {
+        }
+
+        /**
+         * Send the batch request, and release the callers waiting on it.
+         */
+        final void execute() {
+            try {
+                response = send();
+            } catch (IonicException e) {
+                failure = e;
+            } catch (RuntimeException e) {
+                failure = new IonicException(SdkError.ISAGENT_ERROR, e);
+            } finally {
+                release();
+                latch.countDown();
+            }
+        }
+
+        /**
+         * Wait for the batch response.
+         *
+         * @return the response of the wrapped {@link KeyServices} to the batch request
+         * @throws IonicException on failure of the batch request, or on interruption of the calling thread
+         */
+        final T await() throws IonicException {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IonicException(SdkError.ISAGENT_ERROR, e);
+            }
+            if (failure != null) {
+                throw new IonicException(failure.getReturnCode(), failure.getMessage(), failure);
+            }
+            return response;
+        }
+    }
+
+    /**
+     * A set of requests for keys by key tag, to be sent as a single {@link GetKeysRequest}.
+     */
+    private final class GetBatch extends Batch<GetKeysResponse> {
+
+        /**
+         * The request metadata common to the requests in the batch.
+         */
+        private final MetadataMap metadata;
+
+        /**
+         * The distinct key tags requested in the batch.
+         */
+        private final Set<String> keyIds;
+
+        /**
+         * Constructor.
+         *
+         * @param batchKey the index of the batch in the map of batches accepting new requests
+         * @param metadata the request metadata common to the requests in the batch
+         */
+        private GetBatch(final List<Object> batchKey, final MetadataMap metadata) {
+            super(batchKey);
+            this.metadata = metadata;
+            this.keyIds = new LinkedHashSet<String>();
+        }
+
+        @Override
+        boolean isFull() {
+            return (keyIds.size() >= maxBatchSize);
+        }
+
+        @Override
+        GetKeysResponse send() throws IonicException {
+            final GetKeysRequest request = new GetKeysRequest();
+            request.setMetadata(metadata);
+            synchronized (KeyServicesCoalescing.this) {
+                for (String keyId : keyIds) {
+                    request.add(keyId);
+                }
+            }
+            return keyServices.getKeys(request);
+        }
+
+        @Override
+        void release() {
+            synchronized (KeyServicesCoalescing.this) {
+                for (String keyId : keyIds) {
+                    getBatchesPending.remove(Arrays.<Object>asList(super.batchKey, keyId));
+                }
+            }
+        }
+    }
+
+    /**
+     * A set of requests for new keys with common attributes, to be sent as a single {@link CreateKeysRequest}.
+     */
+    private final class CreateBatch extends Batch<CreateKeysResponse> {
+
+        /**
+         * The combined quantity of keys requested in the batch.
+         */
+        private int quantity;
+
+        /**
+         * Constructor.
+         *
+         * @param batchKey the index of the batch in the map of batches accepting new requests
+         */
+        private CreateBatch(final List<Object> batchKey) {
+            super(batchKey);
+            this.quantity = 0;
+        }
+
+        @Override
+        boolean isFull() {
+            return (quantity >= maxBatchSize);
+        }
+
+        @Override
+        CreateKeysResponse send() throws IonicException {
+            final RequestKey requestKey = (RequestKey) super.batchKey.get(1);
+            final CreateKeysRequest request = new CreateKeysRequest();
+            request.setMetadata(requestKey.getMetadata());
+            final int quantityBatch;
+            synchronized (KeyServicesCoalescing.this) {
+                quantityBatch = quantity;
+            }
+            request.add(new CreateKeysRequest.Key(
+                    REF_ID, quantityBatch, requestKey.getAttributes(), requestKey.getMutableAttributes()));
+            return keyServices.createKeys(request);
+        }
+
+        /**
+         * The reference id used in batched create requests.
+         */
+        private static final String REF_ID = "coalesced";
+    }
+
+    /**
+     * The default amount of time (in milliseconds) that the first request of a batch waits for other requests.
+     */
+    public static final long DEFAULT_WINDOW_MILLIS = 5L;
+
+    /**
+     * The default maximum number of keys to be requested in a single batch.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+}
@@ -0,0 +1,508 @@
+package com.ionic.sdk.key.cache;
+
+import com.ionic.sdk.agent.key.AgentKey;
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysRequest;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysResponse;
+import com.ionic.sdk.core.annotation.Experimental;
+import com.ionic.sdk.core.value.Value;
+import com.ionic.sdk.device.profile.DeviceProfile;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkData;
+import com.ionic.sdk.error.SdkError;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.key.KeyServicesMinimal;
+import com.ionic.sdk.key.cache.KeyServicesSupport.RequestKey;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Implementation of {@link KeyServices} which wraps another {@link KeyServices} implementation, and maintains pools
+ * of keys created in advance of their use.  Requests to create keys are serviced from the pool when possible, so
+ * that the caller does not wait on a round trip to the wrapped implementation (for
+ * {@link com.ionic.sdk.agent.Agent}, an HTTPS request to the Machina service).
+ * <p>
+ * This is useful in contexts where many plaintexts are to be protected with distinct keys having the same key
+ * attributes, such as high volume usage of {@link com.ionic.sdk.agent.cipher.chunk.ChunkCipherAuto}.
+ * <p>
+ * A separate pool is maintained for each distinct combination of device id (of the active {@link DeviceProfile} of
+ * the wrapped implementation), immutable key attributes, mutable key attributes, and request metadata.  When a
+ * pool falls below its low watermark, a background task requests enough keys (in a single request) to fill it to
+ * its high watermark.  When a pool cannot satisfy a request, the shortfall is requested synchronously (in requests
+ * of at most {@link #MAX_KEYS_PER_REQUEST} keys), along with enough keys to fill the pool.  Pooled keys older than
+ * the maximum key age are discarded rather than served.
+ * <p>
+ * Each pooled key is handed out at most once.  Keys remaining in the pools when the application exits are never
+ * used.
+ * <p>
+ * Requests to get and update keys are passed through to the wrapped implementation.
+ * <p>
+ * Sample:
+ * <pre>
+ * public final void testKeyServicesPool_ChunkCipherEncrypt() throws IonicException {
+ *     final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+ *     final KeyServicesPool keyServicesPool = new KeyServicesPool(keyServices);
+ *     final ChunkCipherAbstract chunkCipher = new ChunkCipherAuto(keyServicesPool);
+ *     for (int i = 0; (i &lt; 100); ++i) {
+ *         final String cipherText = chunkCipher.encrypt("Hello, Machina!");
+ *         Assert.assertEquals("Hello, Machina!", chunkCipher.decrypt(cipherText));
+ *     }
+ *     keyServicesPool.shutdown();
+ * }
+ * </pre>
+ */
+@Experimental
+public class KeyServicesPool extends KeyServicesMinimal {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * The wrapped {@link KeyServices} implementation, used to create the pooled keys.
+     */
+    private final KeyServices keyServices;
+
+    /**
+     * The executor on which pool refill tasks are run.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Flag indicating whether the executor was created by (and should be shut down by) this object.
+     */
+    private final boolean isOwnedExecutor;
+
+    /**
+     * The pool size below which a background refill is triggered.
+     */
+    private final int lowWatermark;
+
+    /**
+     * The pool size targeted by a refill.
+     */
+    private final int highWatermark;
+
+    /**
+     * The amount of time (in milliseconds) after creation that a pooled key may be handed out.
+     */
+    private final long maxAgeMillis;
+
+    /**
+     * The key pools, indexed by the device id, key attributes and request metadata used to create them.
+     */
+    private final Map<List<Object>, Pool> pools;
+
+    /**
+     * The number of keys handed out from a pool.
+     */
+    private final AtomicLong servedCount;
+
+    /**
+     * The number of keys requested synchronously, as the relevant pool could not satisfy the request.
+     */
+    private final AtomicLong fetchedCount;
+
+    /**
+     * The number of pooled keys discarded because they exceeded the maximum key age.
+     */
+    private final AtomicLong expiredCount;
+
+    /**
+     * Constructor.  Default watermarks and maximum key age are used, and refills are performed on a dedicated
+     * background thread.
+     *
+     * @param keyServices the wrapped {@link KeyServices} implementation
+     */
+    public KeyServicesPool(final KeyServices keyServices) {
+        this(keyServices, DEFAULT_LOW_WATERMARK, DEFAULT_HIGH_WATERMARK, DEFAULT_MAX_AGE_MILLIS, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keyServices   the wrapped {@link KeyServices} implementation
+     * @param lowWatermark  the pool size below which a background refill is triggered
+     * @param highWatermark the pool size targeted by a refill (at most {@link #MAX_KEYS_PER_REQUEST})
+     * @param maxAgeMillis  the amount of time (in milliseconds) after creation that a pooled key may be handed out
+     * @param executor      the executor on which pool refill tasks are run; if null, a dedicated background thread
+     *                      is used (and released by {@link #shutdown()})
+     * @throws IllegalArgumentException on invalid watermarks
+     */
+    public KeyServicesPool(final KeyServices keyServices, final int lowWatermark, final int highWatermark,
+                           final long maxAgeMillis, final ExecutorService executor) {
+        SdkData.checkNotNullNPE(keyServices, KeyServices.class.getName());
+        if ((lowWatermark < 0) || (highWatermark < lowWatermark) || (highWatermark > MAX_KEYS_PER_REQUEST)) {
+            throw new IllegalArgumentException(String.format("lowWatermark=%d, highWatermark=%d",
+                    lowWatermark, highWatermark));
+        }
+        this.keyServices = keyServices;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.maxAgeMillis = maxAgeMillis;
+        this.isOwnedExecutor = (executor == null);
+        this.executor = isOwnedExecutor ? Executors.newSingleThreadExecutor(new DaemonThreadFactory()) : executor;
+        this.pools = new HashMap<List<Object>, Pool>();
+        this.servedCount = new AtomicLong();
+        this.fetchedCount = new AtomicLong();
+        this.expiredCount = new AtomicLong();
+    }
+
+    /**
+     * @return the wrapped {@link KeyServices} implementation
+     */
+    public final KeyServices getKeyServices() {
+        return keyServices;
+    }
+
+    /**
+     * @return the number of keys handed out from a pool
+     */
+    public final long getServedCount() {
+        return servedCount.get();
+    }
+
+    /**
+     * @return the number of keys requested synchronously, as the relevant pool could not satisfy the request
+     */
+    public final long getFetchedCount() {
+        return fetchedCount.get();
+    }
+
+    /**
+     * @return the number of pooled keys discarded because they exceeded the maximum key age
+     */
+    public final long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    /**
+     * @return the number of keys currently available across all pools
+     */
+    public final int getPooledCount() {
+        int count = 0;
+        synchronized (pools) {
+            for (Pool pool : pools.values()) {
+                count += pool.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Discard all pooled keys, and release the background refill thread (if owned by this object).  Subsequent
+     * requests are passed through to the wrapped {@link KeyServices} implementation.
+     */
+    public final void shutdown() {
+        synchronized (pools) {
+            pools.clear();
+        }
+        if (isOwnedExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public final DeviceProfile getActiveProfile() {
+        return keyServices.getActiveProfile();
+    }
+
+    /**
+     * Creates one or more protection keys.  Keys are handed out from the pool associated with the active device
+     * profile, the attributes of each {@link CreateKeysRequest.Key}, and the request metadata, when possible.
+     *
+     * @param request the protection key request input data object
+     * @return the protection key response output data object
+     * @throws IonicException on failure to create the requested protection key(s)
+     */
+    @Override
+    public final CreateKeysResponse createKeys(final CreateKeysRequest request) throws IonicException {
+        final CreateKeysResponse response = new CreateKeysResponse();
+        final String partition = getPartition();
+        for (CreateKeysRequest.Key requestKey : request.getKeys()) {
+            final Pool pool = getPool(partition, new RequestKey(requestKey.getAttributesMap(),
+                    requestKey.getMutableAttributesMap(), request.getMetadata()));
+            final int quantity = requestKey.getQuantity();
+            final List<AgentKey> keys = pool.take(quantity);
+            servedCount.addAndGet(keys.size());
+            // each fetch receives at least one key (or fails), so the shortfall is eventually filled
+            int shortfall = quantity - keys.size();
+            while (shortfall > 0) {
+                final int quantityFetch = Math.min(MAX_KEYS_PER_REQUEST, shortfall + highWatermark);
+                final CreateKeysResponse responseFetch = pool.fetch(quantityFetch);
+                KeyServicesSupport.copyStatus(responseFetch, response);
+                final List<CreateKeysResponse.Key> keysFetch = responseFetch.getKeys();
+                final int count = Math.min(shortfall, keysFetch.size());
+                keys.addAll(keysFetch.subList(0, count));
+                fetchedCount.addAndGet(count);
+                pool.add(keysFetch.subList(count, keysFetch.size()));
+                shortfall -= count;
+            }
+            for (AgentKey key : keys) {
+                response.add(KeyServicesSupport.toCreateKey(requestKey.getRefId(), key));
+            }
+            pool.refill();
+        }
+        return response;
+    }
+
+    @Override
+    public final GetKeysResponse getKeys(final GetKeysRequest request) throws IonicException {
+        return keyServices.getKeys(request);
+    }
+
+    @Override
+    public final UpdateKeysResponse updateKeys(final UpdateKeysRequest request) throws IonicException {
+        return keyServices.updateKeys(request);
+    }
+
+    /**
+     * @return the device id of the active device profile of the wrapped {@link KeyServices}
+     */
+    private String getPartition() {
+        final DeviceProfile deviceProfile = keyServices.getActiveProfile();
+        return (deviceProfile == null) ? "" : Value.defaultOnEmpty(deviceProfile.getDeviceId(), "");
+    }
+
+    /**
+     * Find the pool associated with the specified device id, attributes and metadata, creating it if needed.
+     *
+     * @param partition  the device id of the device profile used to create the keys in the desired pool
+     * @param requestKey the attributes and metadata of the keys in the desired pool
+     * @return the pool associated with the specified device id, attributes and metadata
+     */
+    private Pool getPool(final String partition, final RequestKey requestKey) {
+        final List<Object> poolKey = Arrays.<Object>asList(partition, requestKey);
+        synchronized (pools) {
+            Pool pool = pools.get(poolKey);
+            if (pool == null) {
+                pool = new Pool(partition, requestKey);
+                pools.put(poolKey, pool);
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * A key created in advance of its use, along with its creation time.
+     */
+    private static final class PooledKey {
+
+        /**
+         * The pooled key.
+         */
+        private final AgentKey key;
+
+        /**
+         * The time (in milliseconds since the epoch) at which the key was received.
+         */
+        private final long createdAt;
+
+        /**
+         * Constructor.
+         *
+         * @param key       the pooled key
+         * @param createdAt the time (in milliseconds since the epoch) at which the key was received
+         */
+        private PooledKey(final AgentKey key, final long createdAt) {
+            this.key = key;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * A set of keys sharing the same device id, attributes and request metadata.
+     */
+    private final class Pool implements Runnable {
+
+        /**
+         * The device id of the device profile used to create all of the keys in this pool.
+         */
+        private final String partition;
+
+        /**
+         * The attributes and metadata shared by all of the keys in this pool.
+         */
+        private final RequestKey poolKey;
+
+        /**
+         * The available keys, oldest first.
+         */
+        private final Deque<PooledKey> keys;
+
+        /**
+         * Flag indicating whether a refill task for this pool has been scheduled, and has not yet completed.
+         */
+        private boolean isRefilling;
+
+        /**
+         * Constructor.
+         *
+         * @param partition the device id of the device profile used to create all of the keys in this pool
+         * @param poolKey   the attributes and metadata shared by all of the keys in this pool
+         */
+        private Pool(final String partition, final RequestKey poolKey) {
+            this.partition = partition;
+            this.poolKey = poolKey;
+            this.keys = new ArrayDeque<PooledKey>();
+            this.isRefilling = false;
+        }
+
+        /**
+         * @return the number of keys available in this pool
+         */
+        private synchronized int size() {
+            return keys.size();
+        }
+
+        /**
+         * Remove up to the specified number of keys from the pool.  Any keys exceeding the maximum key age are
+         * discarded.
+         *
+         * @param quantity the desired number of keys
+         * @return the keys removed from the pool
+         */
+        private synchronized List<AgentKey> take(final int quantity) {
+            final long oldest = System.currentTimeMillis() - maxAgeMillis;
+            final List<AgentKey> keysTake = new ArrayList<AgentKey>();
+            while ((keysTake.size() < quantity) && (!keys.isEmpty())) {
+                final PooledKey pooledKey = keys.removeFirst();
+                if (pooledKey.createdAt < oldest) {
+                    expiredCount.incrementAndGet();
+                } else {
+                    keysTake.add(pooledKey.key);
+                }
+            }
+            return keysTake;
+        }
+
+        /**
+         * Add keys to the pool.
+         *
+         * @param keysAdd the keys to be added
+         */
+        private synchronized void add(final List<? extends AgentKey> keysAdd) {
+            final long createdAt = System.currentTimeMillis();
+            for (AgentKey key : keysAdd) {
+                keys.addLast(new PooledKey(key, createdAt));
+            }
+        }
+
+        /**
+         * Request keys having the attributes and metadata of this pool from the wrapped {@link KeyServices}.
+         *
+         * @param quantity the number of keys to request
+         * @return the response from the wrapped {@link KeyServices}
+         * @throws IonicException on failure to create the requested keys
+         */
+        private CreateKeysResponse fetch(final int quantity) throws IonicException {
+            final CreateKeysRequest request = new CreateKeysRequest();
+            request.setMetadata(poolKey.getMetadata());
+            request.add(new CreateKeysRequest.Key(
+                    REF_ID, quantity, poolKey.getAttributes(), poolKey.getMutableAttributes()));
+            final CreateKeysResponse response = keyServices.createKeys(request);
+            SdkData.checkTrue(!response.getKeys().isEmpty(), SdkError.ISAGENT_KEY_DENIED);
+            return response;
+        }
+
+        /**
+         * Schedule a background refill of this pool, if it has fallen below the low watermark, and no refill is
+         * already scheduled.
+         */
+        private void refill() {
+            synchronized (this) {
+                if (isRefilling || (keys.size() >= lowWatermark) || (highWatermark == 0)) {
+                    return;
+                }
+                isRefilling = true;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    isRefilling = false;
+                }
+                logger.log(Level.FINE, e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Refill this pool to its high watermark.  Failures are logged; the next request to use the pool will
+         * schedule another refill.  The refill is skipped (or its keys discarded) if the active device profile of
+         * the wrapped {@link KeyServices} is no longer the one associated with this pool.
+         */
+        @Override
+        public void run() {
+            try {
+                final int quantity = highWatermark - size();
+                if ((quantity > 0) && partition.equals(getPartition())) {
+                    final CreateKeysResponse response = fetch(quantity);
+                    if (partition.equals(getPartition())) {
+                        add(response.getKeys());
+                    }
+                }
+            } catch (IonicException e) {
+                logger.log(Level.WARNING, e.getMessage(), e);
+            } finally {
+                synchronized (this) {
+                    isRefilling = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Source of background threads used to refill pools, when no executor is specified.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, KeyServicesPool.class.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * The default pool size below which a background refill is triggered.
+     */
+    public static final int DEFAULT_LOW_WATERMARK = 16;
+
+    /**
+     * The default pool size targeted by a refill.
+     */
+    public static final int DEFAULT_HIGH_WATERMARK = 64;
+
+    /**
+     * The default amount of time (in milliseconds) after creation that a pooled key may be handed out (PT1H).
+     */
+    public static final long DEFAULT_MAX_AGE_MILLIS = 60 * 60 * 1000L;
+
+    /**
+     * The maximum number of keys to be requested in a single {@link CreateKeysRequest}.
+     */
+    public static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    /**
+     * The reference id used in requests for pooled keys.
+     */
+    private static final String REF_ID = "pool";
+}
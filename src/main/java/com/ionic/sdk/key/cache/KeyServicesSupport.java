@@ -0,0 +1,150 @@
+package com.ionic.sdk.key.cache;
+
+import com.ionic.sdk.agent.data.MetadataMap;
+import com.ionic.sdk.agent.key.AgentKey;
+import com.ionic.sdk.agent.key.KeyAttributesMap;
+import com.ionic.sdk.agent.key.KeyObligationsMap;
+import com.ionic.sdk.agent.request.base.AgentResponseBase;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Utility functions shared by the {@link com.ionic.sdk.key.KeyServices} decorators in this package.
+ */
+final class KeyServicesSupport {
+
+    /**
+     * Constructor.
+     * http://checkstyle.sourceforge.net/config_design.html#FinalClass
+     */
+    private KeyServicesSupport() {
+    }
+
+    /**
+     * Copy the status of a wrapped {@link com.ionic.sdk.key.KeyServices} response into the response to be returned
+     * to the caller.
+     *
+     * @param source the response received from the wrapped {@link com.ionic.sdk.key.KeyServices}
+     * @param target the response to be returned to the caller
+     */
+    static void copyStatus(final AgentResponseBase source, final AgentResponseBase target) {
+        target.setHttpResponseCode(source.getHttpResponseCode());
+        target.setServerErrorCode(source.getServerErrorCode());
+        target.setServerErrorMessage(source.getServerErrorMessage());
+        target.setServerErrorDataJson(source.getServerErrorDataJson());
+        target.setConversationId(source.getConversationId());
+        target.setJsonPayload(source.getJsonPayload());
+    }
+
+    /**
+     * Create an independent copy of the input key, so that callers may not alter a shared copy.
+     *
+     * @param key      the key to be copied
+     * @param deviceId the device id associated with the key
+     * @return a copy of the input key
+     */
+    static GetKeysResponse.Key toGetKey(final AgentKey key, final String deviceId) {
+        final GetKeysResponse.Key keyCopy = new GetKeysResponse.Key(key.getId(), key.getKey(), deviceId,
+                new KeyAttributesMap(key.getAttributesMap()), new KeyAttributesMap(key.getMutableAttributesMap()),
+                new KeyObligationsMap(key.getObligationsMap()), key.getOrigin(),
+                key.getAttributesSigBase64FromServer(), key.getMutableAttributesSigBase64FromServer());
+        keyCopy.setMutableAttributesMapFromServer(new KeyAttributesMap(key.getMutableAttributesMapFromServer()));
+        return keyCopy;
+    }
+
+    /**
+     * Create an independent copy of the input key, associated with the reference id of a caller's request.
+     *
+     * @param refId the reference id of the caller's {@link com.ionic.sdk.agent.request.createkey.CreateKeysRequest.Key}
+     * @param key   the key to be copied
+     * @return a copy of the input key, associated with the caller's reference id
+     */
+    static CreateKeysResponse.Key toCreateKey(final String refId, final AgentKey key) {
+        final String deviceId = (key instanceof CreateKeysResponse.Key)
+                ? ((CreateKeysResponse.Key) key).getDeviceId() : null;
+        return new CreateKeysResponse.Key(refId, key.getId(), key.getKey(), deviceId,
+                new KeyAttributesMap(key.getAttributesMap()), new KeyAttributesMap(key.getMutableAttributesMap()),
+                new KeyObligationsMap(key.getObligationsMap()), key.getOrigin(),
+                key.getAttributesSigBase64FromServer(), key.getMutableAttributesSigBase64FromServer());
+    }
+
+    /**
+     * The key attributes and request metadata of a create keys request, which determine whether keys created by one
+     * request may be handed out in response to another.
+     */
+    static final class RequestKey {
+
+        /**
+         * The immutable key attributes of the request.
+         */
+        private final KeyAttributesMap attributes;
+
+        /**
+         * The mutable key attributes of the request.
+         */
+        private final KeyAttributesMap mutableAttributes;
+
+        /**
+         * The request metadata.
+         */
+        private final Map<String, String> metadata;
+
+        /**
+         * Constructor.  The inputs are copied, so later changes by the caller do not affect this object.
+         *
+         * @param attributes        the immutable key attributes of the request
+         * @param mutableAttributes the mutable key attributes of the request
+         * @param metadata          the request metadata
+         */
+        RequestKey(final KeyAttributesMap attributes, final KeyAttributesMap mutableAttributes,
+                   final MetadataMap metadata) {
+            this.attributes = new KeyAttributesMap(attributes);
+            this.mutableAttributes = new KeyAttributesMap(mutableAttributes);
+            this.metadata = (metadata == null) ? new HashMap<String, String>() : new HashMap<String, String>(metadata);
+        }
+
+        /**
+         * @return a copy of the immutable key attributes of the request
+         */
+        KeyAttributesMap getAttributes() {
+            return new KeyAttributesMap(attributes);
+        }
+
+        /**
+         * @return a copy of the mutable key attributes of the request
+         */
+        KeyAttributesMap getMutableAttributes() {
+            return new KeyAttributesMap(mutableAttributes);
+        }
+
+        /**
+         * @return a copy of the request metadata
+         */
+        MetadataMap getMetadata() {
+            final MetadataMap metadataCopy = new MetadataMap();
+            metadataCopy.putAll(metadata);
+            return metadataCopy;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (this == object) {
+                return true;
+            } else if (!(object instanceof RequestKey)) {
+                return false;
+            }
+            final RequestKey requestKey = (RequestKey) object;
+            return attributes.equals(requestKey.attributes) && mutableAttributes.equals(requestKey.mutableAttributes)
+                    && metadata.equals(requestKey.metadata);
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            return prime * (prime * attributes.hashCode() + mutableAttributes.hashCode()) + metadata.hashCode();
+        }
+    }
+}
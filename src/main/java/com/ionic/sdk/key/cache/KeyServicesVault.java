@@ -0,0 +1,597 @@
+package com.ionic.sdk.key.cache;
+
+import com.ionic.sdk.agent.Agent;
+import com.ionic.sdk.agent.key.AgentKey;
+import com.ionic.sdk.agent.key.KeyAttributesMap;
+import com.ionic.sdk.agent.key.KeyObligationsMap;
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysRequest;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysResponse;
+import com.ionic.sdk.core.annotation.Experimental;
+import com.ionic.sdk.core.date.DateTime;
+import com.ionic.sdk.core.value.Value;
+import com.ionic.sdk.device.profile.DeviceProfile;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkData;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.key.KeyServicesMinimal;
+import com.ionic.sdk.keyvault.KeyVaultInterface;
+import com.ionic.sdk.keyvault.KeyVaultKey;
+import com.ionic.sdk.keyvault.KeyVaultTimeUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Implementation of {@link KeyServices} which wraps another {@link KeyServices} implementation, and retains
+ * protection keys returned by it in a {@link KeyVaultInterface}.  When the key vault is backed by permanent storage
+ * (for example, {@link com.ionic.sdk.keyvault.impl.KeyVaultPassword}), keys retained in one process lifetime are
+ * available in the next, so that a restarted application need not fetch them again from the wrapped implementation
+ * (for {@link Agent}, an HTTPS request to the Machina service).
+ * <p>
+ * This class is intended to be used as a second level cache, below the in-memory {@link KeyServicesCache}:
+ * <pre>
+ * final KeyVaultPassword keyVault = new KeyVaultPassword(filePath);
+ * keyVault.setPassword(password);
+ * final KeyServicesVault keyServicesVault = new KeyServicesVault(agent, keyVault);
+ * keyServicesVault.load(KeyServicesVault.DEFAULT_LOAD_MILLIS);
+ * final KeyServices keyServices = new KeyServicesCache(keyServicesVault);
+ * </pre>
+ * <p>
+ * Vault behavior:
+ * <ul>
+ * <li>Keys are written through to the key vault on each {@link #createKeys} and {@link #getKeys} request which
+ * receives keys from the wrapped implementation.  By default, the key vault is also synced on each such request,
+ * which (for a file backed key vault) costs a write of the vault file per request.  Use
+ * {@link #setSyncIntervalMillis(long)} to batch these writes, and {@link #flush()} to write any outstanding
+ * changes (for example, at application shutdown).</li>
+ * <li>Each key is retained with an expiration time, after which the key vault no longer returns it.</li>
+ * <li>Each key is retained under the device id of the active {@link DeviceProfile} of the wrapped
+ * {@link KeyServices} at the time it is received, and is only served to requests made in the context of that
+ * device profile.  A key vault may therefore be shared by several device profiles.</li>
+ * <li>Keys carrying {@link KeyObligationsMap} obligations are not retained by default.  The server attribute
+ * signatures and key origin are not retained by the key vault.</li>
+ * <li>Requests for keys by external id are always passed through to the wrapped implementation.</li>
+ * <li>Keys updated through {@link #updateKeys} are removed from the key vault.</li>
+ * </ul>
+ * <p>
+ * A large key vault may take some time to read from permanent storage.  {@link #load(long)} reads it on a
+ * background thread, waiting at most the specified time.  Until the load completes, keys found in the key vault
+ * are served, and keys to be written to it are held in memory.
+ */
+@Experimental
+public class KeyServicesVault extends KeyServicesMinimal {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * The wrapped {@link KeyServices} implementation, used to service requests for keys not in the key vault.
+     */
+    private final KeyServices keyServices;
+
+    /**
+     * The key vault in which keys are retained.
+     */
+    private final KeyVaultInterface keyVault;
+
+    /**
+     * The amount of time (in seconds) that a key is retained in the key vault after being received.
+     */
+    private final long ttlSeconds;
+
+    /**
+     * The keys received while the key vault is being loaded, to be written once the load completes.
+     */
+    private final List<KeyVaultKey> keysPending;
+
+    /**
+     * The background load of the key vault, if any.
+     */
+    private Future<?> loading;
+
+    /**
+     * Flag indicating whether the background load of the key vault is in progress.
+     */
+    private boolean isLoading;
+
+    /**
+     * Flag indicating whether keys carrying obligations may be retained in the key vault.
+     */
+    private boolean cacheObligations;
+
+    /**
+     * The minimum amount of time (in milliseconds) between syncs of the key vault caused by key requests.
+     */
+    private long syncIntervalMillis;
+
+    /**
+     * The time (in milliseconds since the epoch) of the last sync of the key vault caused by a key request.
+     */
+    private final AtomicLong syncTimestamp;
+
+    /**
+     * The number of key requests serviced from the key vault.
+     */
+    private final AtomicLong hitCount;
+
+    /**
+     * The number of key requests passed through to the wrapped {@link KeyServices}.
+     */
+    private final AtomicLong missCount;
+
+    /**
+     * The number of keys received from the wrapped {@link KeyServices} which were not eligible to be retained.
+     */
+    private final AtomicLong bypassCount;
+
+    /**
+     * Constructor.  The default time-to-live is used.
+     *
+     * @param keyServices the wrapped {@link KeyServices} implementation
+     * @param keyVault    the key vault in which keys are retained
+     */
+    public KeyServicesVault(final KeyServices keyServices, final KeyVaultInterface keyVault) {
+        this(keyServices, keyVault, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param keyServices the wrapped {@link KeyServices} implementation
+     * @param keyVault    the key vault in which keys are retained
+     * @param ttlMillis   the amount of time (in milliseconds) that a key is retained after being received
+     */
+    public KeyServicesVault(final KeyServices keyServices, final KeyVaultInterface keyVault, final long ttlMillis) {
+        SdkData.checkNotNullNPE(keyServices, KeyServices.class.getName());
+        SdkData.checkNotNullNPE(keyVault, KeyVaultInterface.class.getName());
+        this.keyServices = keyServices;
+        this.keyVault = keyVault;
+        this.ttlSeconds = ttlMillis / DateTime.ONE_SECOND_MILLIS;
+        this.keysPending = new ArrayList<KeyVaultKey>();
+        this.loading = null;
+        this.isLoading = false;
+        this.cacheObligations = false;
+        this.syncIntervalMillis = 0L;
+        this.syncTimestamp = new AtomicLong();
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.bypassCount = new AtomicLong();
+    }
+
+    /**
+     * @return the wrapped {@link KeyServices} implementation
+     */
+    public final KeyServices getKeyServices() {
+        return keyServices;
+    }
+
+    /**
+     * @return the key vault in which keys are retained
+     */
+    public final KeyVaultInterface getKeyVault() {
+        return keyVault;
+    }
+
+    /**
+     * @return true, if keys carrying obligations may be retained in the key vault
+     */
+    public final boolean isCacheObligations() {
+        return cacheObligations;
+    }
+
+    /**
+     * Specify whether keys carrying obligations may be retained in the key vault.  By default, such keys are
+     * always fetched from the wrapped {@link KeyServices}.
+     *
+     * @param cacheObligations true, if keys carrying obligations may be retained in the key vault
+     */
+    public final void setCacheObligations(final boolean cacheObligations) {
+        this.cacheObligations = cacheObligations;
+    }
+
+    /**
+     * @return the minimum amount of time (in milliseconds) between syncs of the key vault caused by key requests
+     */
+    public final long getSyncIntervalMillis() {
+        return syncIntervalMillis;
+    }
+
+    /**
+     * Specify the minimum amount of time between syncs of the key vault caused by key requests.  By default (zero),
+     * the key vault is synced by each request which adds keys to it.  Otherwise, keys added within the interval are
+     * held in the key vault memory, and are written by the first sync after the interval elapses, or by
+     * {@link #flush()}.  Keys not yet written are lost if the process exits; they are fetched again when next used.
+     *
+     * @param syncIntervalMillis the minimum amount of time (in milliseconds) between syncs of the key vault
+     */
+    public final void setSyncIntervalMillis(final long syncIntervalMillis) {
+        this.syncIntervalMillis = syncIntervalMillis;
+    }
+
+    /**
+     * Write any outstanding changes to the key vault to its permanent storage.
+     *
+     * @throws IonicException on failure to write the key vault
+     */
+    public final void flush() throws IonicException {
+        if (keyVault.hasChanges()) {
+            syncTimestamp.set(System.currentTimeMillis());
+            keyVault.sync();
+        }
+    }
+
+    /**
+     * @return the number of key requests serviced from the key vault
+     */
+    public final long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of key requests passed through to the wrapped {@link KeyServices}
+     */
+    public final long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return the number of keys received from the wrapped {@link KeyServices} which were not eligible to be
+     * retained
+     */
+    public final long getBypassCount() {
+        return bypassCount.get();
+    }
+
+    /**
+     * Read the key vault from its permanent storage, waiting at most the specified amount of time.  If the load does
+     * not complete in that time, it continues on a background thread; keys received in the meantime are written
+     * to the key vault once it completes.
+     *
+     * @param timeoutMillis the maximum amount of time (in milliseconds) to wait for the load to complete
+     * @return true, if the load completed in the specified time
+     * @throws IonicException on failure to read the key vault
+     */
+    public final boolean load(final long timeoutMillis) throws IonicException {
+        final Future<?> future;
+        synchronized (keysPending) {
+            if (loading == null) {
+                isLoading = true;
+                final ExecutorService executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory());
+                loading = executor.submit(new Load());
+                executor.shutdown();
+            }
+            future = loading;
+        }
+        try {
+            future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            logger.info(String.format("Key vault load did not complete in %d ms.", timeoutMillis));
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw (cause instanceof IonicException) ? (IonicException) cause : new IonicException(cause);
+        }
+    }
+
+    @Override
+    public final DeviceProfile getActiveProfile() {
+        return keyServices.getActiveProfile();
+    }
+
+    /**
+     * Creates one or more protection keys using the wrapped {@link KeyServices}.  Newly created keys are written to
+     * the key vault, so that subsequent requests for them (for example, to decrypt the data they protect) may be
+     * serviced without a round trip, even after a restart.
+     *
+     * @param request the protection key request input data object
+     * @return the protection key response output data object
+     * @throws IonicException on failure to create the requested protection key(s)
+     */
+    @Override
+    public final CreateKeysResponse createKeys(final CreateKeysRequest request) throws IonicException {
+        final String partition = getPartition();
+        final CreateKeysResponse response = keyServices.createKeys(request);
+        put(partition, response.getKeys());
+        return response;
+    }
+
+    /**
+     * Retrieves a set of protection keys.  Keys present in the key vault are served from it; any remaining keys
+     * are requested (in a single request) from the wrapped {@link KeyServices}, and written to the key vault.
+     * <p>
+     * The keys in the response are ordered as in the request.  Any errors returned by the wrapped
+     * {@link KeyServices} are included in the response.
+     *
+     * @param request the protection key request input data object
+     * @return the protection key response output data object
+     * @throws IonicException on failure to retrieve the requested protection key(s)
+     */
+    @Override
+    public final GetKeysResponse getKeys(final GetKeysRequest request) throws IonicException {
+        final String partition = getPartition();
+        if (!request.getExternalIdObjects().isEmpty()) {
+            final GetKeysResponse response = keyServices.getKeys(request);
+            put(partition, response.getKeys());
+            return response;
+        }
+        // service what is possible from the key vault
+        final Set<String> keyIds = new LinkedHashSet<String>(request.getKeyIds());
+        final Set<String> keyIdsVault = new LinkedHashSet<String>();
+        for (String keyId : keyIds) {
+            keyIdsVault.add(toKeyIdVault(partition, keyId));
+        }
+        final Map<String, GetKeysResponse.Key> keysVault = new LinkedHashMap<String, GetKeysResponse.Key>();
+        final GetKeysRequest requestMiss = new GetKeysRequest();
+        requestMiss.setMetadata(request.getMetadata());
+        for (KeyVaultKey keyVaultKey : keyVault.getKeys(keyIdsVault)) {
+            final GetKeysResponse.Key key = toGetKey(partition, keyVaultKey);
+            keysVault.put(key.getId(), key);
+        }
+        for (String keyId : keyIds) {
+            if (keysVault.containsKey(keyId)) {
+                hitCount.incrementAndGet();
+            } else {
+                missCount.incrementAndGet();
+                requestMiss.add(keyId);
+            }
+        }
+        // fetch remaining keys
+        final GetKeysResponse response = new GetKeysResponse();
+        final GetKeysResponse responseMiss = (requestMiss.getKeyIds().isEmpty())
+                ? null : keyServices.getKeys(requestMiss);
+        if (responseMiss != null) {
+            KeyServicesSupport.copyStatus(responseMiss, response);
+            put(partition, responseMiss.getKeys());
+            for (GetKeysResponse.IonicError error : responseMiss.getErrors()) {
+                response.add(error);
+            }
+        }
+        // assemble response, in request order
+        for (String keyId : keyIds) {
+            final GetKeysResponse.Key keyVaulted = keysVault.get(keyId);
+            final GetKeysResponse.Key key = (keyVaulted == null)
+                    ? ((responseMiss == null) ? null : responseMiss.getKey(keyId)) : keyVaulted;
+            if (key != null) {
+                response.add(key);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Updates a set of protection keys using the wrapped {@link KeyServices}.  Any copies of the updated keys (for
+     * any device profile) are removed from the key vault, so that subsequent requests observe the updated mutable
+     * attributes.
+     *
+     * @param request the protection key request input data object
+     * @return the protection key response output data object
+     * @throws IonicException on failure of the request
+     */
+    @Override
+    public final UpdateKeysResponse updateKeys(final UpdateKeysRequest request) throws IonicException {
+        try {
+            return keyServices.updateKeys(request);
+        } finally {
+            final Set<String> keyIds = new LinkedHashSet<String>();
+            for (UpdateKeysRequest.Key key : request.getKeys()) {
+                keyIds.add(key.getId());
+            }
+            synchronized (keysPending) {
+                for (KeyVaultKey key : new ArrayList<KeyVaultKey>(keysPending)) {
+                    if (keyIds.contains(key.getKeyId())) {
+                        keysPending.remove(key);
+                    }
+                }
+            }
+            final Set<String> keyIdsVault = new LinkedHashSet<String>();
+            for (String keyIdVault : keyVault.getAllKeyIds()) {
+                for (String keyId : keyIds) {
+                    if (keyIdVault.endsWith(toKeyIdVault("", keyId))) {
+                        keyIdsVault.add(keyIdVault);
+                    }
+                }
+            }
+            if (!keyVault.removeKeys(keyIdsVault).isEmpty()) {
+                sync(true);
+            }
+        }
+    }
+
+    /**
+     * @return the device id of the active device profile of the wrapped {@link KeyServices}
+     */
+    private String getPartition() {
+        final DeviceProfile deviceProfile = keyServices.getActiveProfile();
+        return (deviceProfile == null) ? "" : Value.defaultOnEmpty(deviceProfile.getDeviceId(), "");
+    }
+
+    /**
+     * The key vault holds the keys of each device profile under distinct ids, so that keys are only served in the
+     * context of the device profile which received them.
+     *
+     * @param partition the device id of the device profile which received the key
+     * @param keyId     the key id
+     * @return the id of the key in the key vault
+     */
+    private static String toKeyIdVault(final String partition, final String keyId) {
+        return partition + PARTITION_DELIMITER + keyId;
+    }
+
+    /**
+     * Write keys received from the wrapped {@link KeyServices} to the key vault, if they are eligible.  If the key
+     * vault is being loaded, the keys are written once the load completes.
+     *
+     * @param partition the device id of the device profile which received the keys
+     * @param keys      the keys received from the wrapped {@link KeyServices}
+     */
+    private void put(final String partition, final List<? extends AgentKey> keys) {
+        final long issued = KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds();
+        final List<KeyVaultKey> keysVault = new ArrayList<KeyVaultKey>();
+        for (AgentKey key : keys) {
+            if (isCacheable(key)) {
+                keysVault.add(new KeyVaultKey(toKeyIdVault(partition, key.getId()), key.getKey(),
+                        key.getAttributesMap(), key.getMutableAttributesMap(), key.getObligationsMap(),
+                        issued, issued + ttlSeconds));
+            } else {
+                bypassCount.incrementAndGet();
+            }
+        }
+        if (keysVault.isEmpty()) {
+            return;
+        }
+        synchronized (keysPending) {
+            if (isLoading) {
+                keysPending.addAll(keysVault);
+                return;
+            }
+        }
+        setKeys(keysVault);
+        sync(false);
+    }
+
+    /**
+     * Add keys to the key vault.
+     *
+     * @param keys the keys to be added
+     */
+    private void setKeys(final List<KeyVaultKey> keys) {
+        for (KeyVaultKey key : keys) {
+            try {
+                keyVault.setKey(key);
+            } catch (IonicException e) {
+                logger.warning(String.format("Failed to add key %s to key vault, rc = %d.",
+                        key.getKeyId(), e.getReturnCode()));
+            }
+        }
+    }
+
+    /**
+     * Write changes to the key vault to its permanent storage.  Unless forced, the write is skipped if the key vault
+     * was synced within the sync interval.  Failures are logged; the key request which caused the changes is not
+     * failed.
+     *
+     * @param force true, if the write should not be deferred
+     */
+    private void sync(final boolean force) {
+        final long now = System.currentTimeMillis();
+        final long previous = syncTimestamp.get();
+        if ((!force) && (syncIntervalMillis > 0L)) {
+            // within the interval, or another thread is syncing for this interval
+            if (((now - previous) < syncIntervalMillis) || !syncTimestamp.compareAndSet(previous, now)) {
+                return;
+            }
+        } else {
+            syncTimestamp.set(now);
+        }
+        try {
+            keyVault.sync();
+        } catch (IonicException e) {
+            logger.warning(String.format("Failed to sync key vault, rc = %d.", e.getReturnCode()));
+        }
+    }
+
+    /**
+     * Determine whether a key received from the wrapped {@link KeyServices} may be retained in the key vault.
+     *
+     * @param key the key received from the wrapped {@link KeyServices}
+     * @return true, if the key may be retained in the key vault
+     */
+    private boolean isCacheable(final AgentKey key) {
+        return (ttlSeconds > 0) && (cacheObligations || key.getObligationsMap().isEmpty());
+    }
+
+    /**
+     * Create a key response object from a key retained in the key vault.
+     *
+     * @param partition the device id of the device profile which received the key
+     * @param key       the key retained in the key vault
+     * @return the key, in the form returned by the wrapped {@link KeyServices}
+     */
+    private GetKeysResponse.Key toGetKey(final String partition, final KeyVaultKey key) {
+        final GetKeysResponse.Key keyOut = new GetKeysResponse.Key(
+                key.getKeyId().substring(toKeyIdVault(partition, "").length()), key.getKeyBytes(), partition,
+                new KeyAttributesMap(key.getKeyAttributes()), new KeyAttributesMap(key.getMutableKeyAttributes()),
+                new KeyObligationsMap(key.getKeyObligations()), Agent.KEYORIGIN_IONIC_KEYSERVER, "", "");
+        keyOut.setMutableAttributesMapFromServer(new KeyAttributesMap(key.getMutableKeyAttributes()));
+        return keyOut;
+    }
+
+    /**
+     * Background read of the key vault from its permanent storage.  Keys received while the read is in progress
+     * are written afterwards.
+     */
+    private final class Load implements Callable<Void> {
+
+        @Override
+        public Void call() throws IonicException {
+            try {
+                keyVault.sync();
+            } finally {
+                final List<KeyVaultKey> keys;
+                synchronized (keysPending) {
+                    keys = new ArrayList<KeyVaultKey>(keysPending);
+                    keysPending.clear();
+                    isLoading = false;
+                }
+                if (!keys.isEmpty()) {
+                    setKeys(keys);
+                    sync(false);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Source of the background thread used to load the key vault.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, KeyServicesVault.class.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * The default amount of time (in milliseconds) that a key is retained in the key vault after being received
+     * (PT24H).
+     */
+    public static final long DEFAULT_TTL_MILLIS = 24 * 60 * 60 * 1000L;
+
+    /**
+     * The separator between the device id and the key id, in the id of a key in the key vault.
+     */
+    private static final String PARTITION_DELIMITER = "/";
+
+    /**
+     * A suggested bound (in milliseconds) on the time an application waits for the key vault to load at startup.
+     */
+    public static final long DEFAULT_LOAD_MILLIS = 2000L;
+}
@@ -8,9 +8,9 @@ import java.util.Iterator;
 import java.util.logging.Logger;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Key vault abstract base class that implements all interfaces of KeyVaultInterface.
@@ -22,6 +22,11 @@ import java.util.Vector;
  * With rare exception, a key vault class should implement KeyVaultBase instead
  * of KeyVaultInterface in order to take advantage of a wealth of well-tested
  * boiler-plate code.
+ *
+ * Key records are held in a concurrent map, and are not modified once they have been added to the map; a change to
+ * the state of a record replaces the map entry with an updated copy.  Key retrieval methods (e.g. getKey(), getKeys())
+ * therefore do not lock the vault, and treat expired records as absent.  Methods which modify the vault (including
+ * sync()) are serialized with respect to each other, but do not block key retrieval.
  */
 public abstract class KeyVaultBase extends KeyVaultInterface {
 
@@ -36,32 +41,16 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
     protected static final int VAULT_SECURITY_LEVEL = 100;
 
     /**
-     * A map of keyIds to key records.
+     * A map of keyIds to key records.  Records in this map must not be modified; replace the map entry instead.
      */
     @SuppressWarnings({"checkstyle:visibilitymodifier"})
     protected Map<String, KeyVaultKeyRecord> mapKeyRecords;
 
-    /**
-     * Last time key expiration times were checked.
-     */
-    private long lastExpirationSweepServerTimeUtcSeconds;
-
-    /**
-     * this value controls how often key expiration is checked, in seconds.
-     * for example, key retrieval methods (e.g. getKey(), getKeys())
-     * may get called with very high frequency, but we do not want to perform
-     * key expiration sweep on every call for performance reasons.  the
-     * expiration sweep interval controls how often the sweep will be performed
-     * in situations like this.
-     */
-    private static final int EXPIRATION_SWEEP_INTERVAL_SECS = 10;
-
     /**
      * Default constructor.
      */
     public KeyVaultBase() {
-        this.lastExpirationSweepServerTimeUtcSeconds = 0;
-        this.mapKeyRecords = new TreeMap<String, KeyVaultKeyRecord>();
+        this.mapKeyRecords = new ConcurrentSkipListMap<String, KeyVaultKeyRecord>();
     }
 
     /**
@@ -79,6 +68,30 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
         }
     }
 
+    /**
+     * Internal - Check whether a key record should be visible to callers.  Expired records are treated as absent,
+     * whether or not an expiration sweep has marked them as removed.
+     * @param record the key record to check (may be null)
+     * @param currentServerTimeUtcSeconds the time against which the record expiration is checked
+     * @return True if the record exists, is not marked for removal, and has not expired.
+     */
+    private static boolean isLive(final KeyVaultKeyRecord record, final long currentServerTimeUtcSeconds) {
+        return (record != null) && record.isAlive() && !record.isExpired(currentServerTimeUtcSeconds);
+    }
+
+    /**
+     * Internal - Replace a key record in the map with a copy in the requested state.  Records which may be in use by
+     * concurrent readers are never modified in place.
+     * @param record the key record to be replaced (must be alive)
+     * @param eState the state of the replacement record
+     */
+    private void putState(final KeyVaultKeyRecord record, final KeyVaultKeyRecord.State eState) {
+        final KeyVaultKeyRecord recordUpdate = new KeyVaultKeyRecord(record);
+        // note that marking the key as removed will also clear the key data (key bytes, key attributes, etc)
+        recordUpdate.setState(eState);
+        mapKeyRecords.put(recordUpdate.getKeyId(), recordUpdate);
+    }
+
     /**
      * Internal - Merge the records from the disk with records held in RAM.
      * @param mapKeyRecordsFromDisk the key records from the disk
@@ -105,7 +118,9 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
                          == diskRecord.getIssuedServerTimeUtcSeconds()) {
                         // memory record is issued at the same time as disk record. just update our
                         // memory record state to ensure it is reflected as such.
-                        memRecord.setState(KeyVaultKeyRecord.State.KR_STORED);
+                        if (memRecord.getState() != KeyVaultKeyRecord.State.KR_STORED) {
+                            putState(memRecord, KeyVaultKeyRecord.State.KR_STORED);
+                        }
                     } else if (memRecord.getIssuedServerTimeUtcSeconds()
                                 < diskRecord.getIssuedServerTimeUtcSeconds()) {
                         // memory record is issued before disk record, so its stale and we want to
@@ -152,7 +167,7 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
     protected final int setKeyInternal(final KeyVaultKey key, final boolean bAddIfNotFound) throws IonicException {
         logger.finest(String.format("key.getKeyId() = %s", key.getKeyId()));
 
-        // make this entire function thread-safe
+        // serialize with other vault modifications
         synchronized (this) {
 
             // perform basic validation on the input key
@@ -161,7 +176,7 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
             // find the key and update it.  if the key is not found, then add the key only
             // if bAddIfNotFound is true.
             final KeyVaultKeyRecord record = mapKeyRecords.get(key.getKeyId());
-            if (record != null && record.isAlive()) {
+            if (isLive(record, KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds())) {
                 // only update the key if its issue time is newer than the key we already have
                 if (record.getIssuedServerTimeUtcSeconds() < key.getIssuedServerTimeUtcSeconds()) {
 
@@ -186,131 +201,93 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
     public final KeyVaultKey getKey(final String keyId) {
         logger.finest(String.format("keyId = %s", keyId));
 
-        // make this entire function thread-safe
-        synchronized (this) {
-
-            // remove expired keys before possibly returning one
-            expireKeysInternal(false);
-
-            // perform key lookup
-            final KeyVaultKeyRecord record = mapKeyRecords.get(keyId);
-            if (record == null || !record.isAlive()) {
-                return null;
-            }
-
-            // copy our key to the output object
-            return new KeyVaultKey(record);
+        // perform key lookup (expired keys are not returned)
+        final KeyVaultKeyRecord record = mapKeyRecords.get(keyId);
+        if (!isLive(record, KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds())) {
+            return null;
         }
+
+        // copy our key to the output object
+        return new KeyVaultKey(record);
     }
 
     @Override
     public final Vector<KeyVaultKey> getKeys(final Set<String> setKeyIds) {
         logger.finest(String.format("setKeyIds.size() = %d", setKeyIds.size()));
 
-        // make this entire function thread-safe
-        synchronized (this) {
-
-            // remove expired keys before possibly returning any
-            expireKeysInternal(false);
+        // get current server time UTC seconds to compare all key expiration times against
+        final long currentServerTimeUtcSeconds = KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds();
 
-            // build local vector of keys
-            final Vector<KeyVaultKey> vecKeysLocal = new Vector<KeyVaultKey>();
-            for (String keyId : setKeyIds) {
-                final KeyVaultKeyRecord record = mapKeyRecords.get(keyId);
-                if (record != null && record.isAlive()) {
-                    vecKeysLocal.add(new KeyVaultKey(record));
-                }
+        // build local vector of keys
+        final Vector<KeyVaultKey> vecKeysLocal = new Vector<KeyVaultKey>();
+        for (String keyId : setKeyIds) {
+            final KeyVaultKeyRecord record = mapKeyRecords.get(keyId);
+            if (isLive(record, currentServerTimeUtcSeconds)) {
+                vecKeysLocal.add(new KeyVaultKey(record));
             }
-
-            return vecKeysLocal;
         }
+
+        return vecKeysLocal;
     }
 
     @Override
     public final Set<String> getAllKeyIds() {
 
-        // make this entire function thread-safe
-        synchronized (this) {
-
-            // remove expired keys before possibly returning any
-            expireKeysInternal(false);
-
-            final TreeSet<String> setKeyIdsOut = new TreeSet<String>();
+        // get current server time UTC seconds to compare all key expiration times against
+        final long currentServerTimeUtcSeconds = KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds();
 
-            // build local set of key ids
-            setKeyIdsOut.clear();
-            for (KeyVaultKeyRecord record : mapKeyRecords.values()) {
-                if (record.isAlive()) {
-                    setKeyIdsOut.add(record.getKeyId());
-                }
+        // build local set of key ids
+        final TreeSet<String> setKeyIdsOut = new TreeSet<String>();
+        for (KeyVaultKeyRecord record : mapKeyRecords.values()) {
+            if (isLive(record, currentServerTimeUtcSeconds)) {
+                setKeyIdsOut.add(record.getKeyId());
             }
-
-            return setKeyIdsOut;
         }
+
+        return setKeyIdsOut;
     }
 
     @Override
     public final Vector<KeyVaultKey> getAllKeys() {
 
-        // make this entire function thread-safe
-        synchronized (this) {
-
-            // remove expired keys before possibly returning any
-            expireKeysInternal(false);
-
-            final Vector<KeyVaultKey> vecKeysLocal = new Vector<KeyVaultKey>();
-            for (KeyVaultKeyRecord record : mapKeyRecords.values()) {
-
-                if (record.isAlive()) {
+        // get current server time UTC seconds to compare all key expiration times against
+        final long currentServerTimeUtcSeconds = KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds();
 
-                    vecKeysLocal.add(new KeyVaultKey(record));
-                }
+        final Vector<KeyVaultKey> vecKeysLocal = new Vector<KeyVaultKey>();
+        for (KeyVaultKeyRecord record : mapKeyRecords.values()) {
+            if (isLive(record, currentServerTimeUtcSeconds)) {
+                vecKeysLocal.add(new KeyVaultKey(record));
             }
-
-            return vecKeysLocal;
         }
+
+        return vecKeysLocal;
     }
 
     @Override
     public final int getKeyCount() {
 
-        // make this entire function thread-safe
-        synchronized (this) {
-
-            // remove expired keys before possibly returning any
-            expireKeysInternal(false);
-
-            int nCount = 0;
-            for (KeyVaultKeyRecord record : mapKeyRecords.values()) {
-
-                if (record.isAlive()) {
+        // get current server time UTC seconds to compare all key expiration times against
+        final long currentServerTimeUtcSeconds = KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds();
 
-                    ++nCount;
-                }
+        int nCount = 0;
+        for (KeyVaultKeyRecord record : mapKeyRecords.values()) {
+            if (isLive(record, currentServerTimeUtcSeconds)) {
+                ++nCount;
             }
-
-            return nCount;
         }
+
+        return nCount;
     }
 
     @Override
     public final boolean hasKey(final String keyId) {
-
-        // make this entire function thread-safe
-        synchronized (this) {
-
-            // remove expired keys before possibly returning any
-            expireKeysInternal(false);
-
-            final KeyVaultKeyRecord record = mapKeyRecords.get(keyId);
-            return (record != null && record.isAlive());
-        }
+        return isLive(mapKeyRecords.get(keyId), KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds());
     }
 
     @Override
     public final boolean removeKey(final KeyVaultKey key) {
 
-        // make this entire function thread-safe
+        // serialize with other vault modifications
         synchronized (this) {
             return removeKeyImpl(key.getKeyId());
         }
@@ -319,7 +296,7 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
     @Override
     public final boolean removeKey(final String keyId) {
 
-        // make this entire function thread-safe
+        // serialize with other vault modifications
         synchronized (this) {
             return removeKeyImpl(keyId);
         }
@@ -328,7 +305,7 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
     @Override
     public final Set<String> removeKeys(final Set<String> keyIds) {
 
-        // make this entire function thread-safe
+        // serialize with other vault modifications
         synchronized (this) {
 
             // clear the output set, if applicable
@@ -349,19 +326,16 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
     @Override
     public final void clearAllKeys() {
 
-        // make this entire function thread-safe
+        // serialize with other vault modifications
         synchronized (this) {
 
             for (KeyVaultKeyRecord record : mapKeyRecords.values()) {
 
                 if (record.isAlive()) {
-                    // mark the key as removed. note that by doing this the key record
-                    // will also modify the key data (clear key bytes, key attributes, etc).
-                    record.setState(KeyVaultKeyRecord.State.KR_REMOVED);
+                    // replace the record with a copy marked as removed
+                    putState(record, KeyVaultKeyRecord.State.KR_REMOVED);
                 }
             }
-
-            return;
         }
     }
 
@@ -369,11 +343,9 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
     @Override
     protected final void expireKeysInternal(final Set<String> keyIdsExpiredOptOut) {
 
-        // make this entire function thread-safe
+        // serialize with other vault modifications
         synchronized (this) {
-
-            // pass true in first parameter to force the expiration sweep
-            expireKeysInternal(true, keyIdsExpiredOptOut);
+            expireKeysInternalImpl(keyIdsExpiredOptOut);
         }
     }
 
@@ -381,11 +353,11 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
     @Override
     public final void sync() throws IonicException {
 
-        // make this entire function thread-safe
+        // serialize with other vault modifications; key retrieval is not blocked while the sync is in progress
         synchronized (this) {
 
             // remove expired keys, if any, before any sync logic
-            expireKeysInternal(false);
+            expireKeysInternalImpl(null);
 
             // keep track of whether we need to write any data back to permanent storage
             boolean bNeedsWriteToDisk = false;
@@ -430,10 +402,10 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
                 final Iterator<KeyVaultKeyRecord> itr = mapKeyRecords.values().iterator();
                 while (itr.hasNext()) {
                     final KeyVaultKeyRecord record = itr.next();
-                    if (record.isAlive()) {
-                        record.setState(KeyVaultKeyRecord.State.KR_STORED);
-                    } else {
+                    if (!record.isAlive()) {
                         itr.remove();
+                    } else if (record.getState() != KeyVaultKeyRecord.State.KR_STORED) {
+                        putState(record, KeyVaultKeyRecord.State.KR_STORED);
                     }
                 }
             } else {
@@ -447,7 +419,7 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
     @Override
     public final boolean hasChanges() {
 
-        // make this entire function thread-safe
+        // serialize with other vault modifications
         synchronized (this) {
 
             return hasChangesInternal();
@@ -468,9 +440,8 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
             return false;
         }
 
-        // mark the key as removed. note that by doing this the key record
-        // will also modify the key data (clear key bytes, key attributes, etc).
-        record.setState(KeyVaultKeyRecord.State.KR_REMOVED);
+        // replace the record with a copy marked as removed
+        putState(record, KeyVaultKeyRecord.State.KR_REMOVED);
 
         return true;
     }
@@ -498,26 +469,15 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
     protected abstract int saveAllKeyRecords(Map<String, KeyVaultKeyRecord> mapKeyRecords) throws IonicException;
 
     /**
-     * Internal Checks for keys that have expired and marks them KR_REMOVED.
-     * Does nothing if EXPIRATION_SWEEP_INTERVAL_SECS have not passed and bForceSweep is false.
-     * @param bForceSweep Perform the expiration check regardless of how recently it was done.
+     * Internal Checks for keys that have expired and marks them KR_REMOVED.  Key retrieval methods check key
+     * expiration on each call, so this sweep is only needed to remove expired keys from the vault.
      * @param keyIdsExpiredOptOut Optional, if not null, the function will fill this Set with
      * the keyID's of the keys that expired.
      */
-    private void expireKeysInternal(final boolean bForceSweep, final Set<String> keyIdsExpiredOptOut) {
+    private void expireKeysInternalImpl(final Set<String> keyIdsExpiredOptOut) {
         // get current server time UTC seconds to compare all key expiration times against
         final long currentServerTimeUtcSeconds = KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds();
 
-        // if an expiration sweep has happened in the last EXPIRATION_SWEEP_INTERVAL_SECS
-        // seconds, then ignore this request
-        if (!bForceSweep && currentServerTimeUtcSeconds > lastExpirationSweepServerTimeUtcSeconds
-                                                             + EXPIRATION_SWEEP_INTERVAL_SECS) {
-            return;
-        }
-
-        // store current server time as our last expiration sweep time
-        lastExpirationSweepServerTimeUtcSeconds = currentServerTimeUtcSeconds;
-
         for (KeyVaultKeyRecord record : mapKeyRecords.values()) {
 
             if (record.isAlive() && record.isExpired(currentServerTimeUtcSeconds)) {
@@ -526,21 +486,12 @@ public abstract class KeyVaultBase extends KeyVaultInterface {
                     keyIdsExpiredOptOut.add(record.getKeyId());
                 }
 
-                // mark the key as removed. note that by doing this the key record
-                // will also modify the key data (clear key bytes, key attributes, etc).
-                record.setState(KeyVaultKeyRecord.State.KR_REMOVED);
+                // replace the record with a copy marked as removed
+                putState(record, KeyVaultKeyRecord.State.KR_REMOVED);
             }
         }
     }
 
-    /**
-     * Remove all keys which have expired.
-     * @param bForceSweep Run the check regardless of whether the EXPIRATION_SWEEP_INTERVAL_SECS has passed.
-     */
-    private void expireKeysInternal(final boolean bForceSweep) {
-        expireKeysInternal(bForceSweep, null);
-    }
-
     /**
      * Internal check to see if any records need serialization to disk.
      * @return true if any record is found not in the KR_STORED state, false otherwise.
@@ -41,39 +41,39 @@ public class KeyVaultEncryptedFile {
     /**
      * Delimiter between the JSON header and the encrypted payload.
      */
-    private static final byte[] HEADER_DELIM = {'\r', '\n', '\r', '\n'};
+    static final byte[] HEADER_DELIM = {'\r', '\n', '\r', '\n'};
     /**
      * Length of the delimiter.
      */
-    private static final int HEADER_DELIM_SIZE = HEADER_DELIM.length;
+    static final int HEADER_DELIM_SIZE = HEADER_DELIM.length;
     /**
      * Maximum number of bytes to search through to find the end of the JSON header.
      */
-    private static final int HEADER_MAX_SIZE = 200;
+    static final int HEADER_MAX_SIZE = 200;
     /**
-     * Latest version as String.  (There is only one version currently.)
+     * Latest version of this file format as String.  (There is only one version currently.)
      */
-    private static final String FILE_VERSION_LATEST = "1.0";
+    static final String FILE_VERSION_LATEST = "1.0";
 
     // header fields
     /**
      * Header key label.
      */
-    private static final String FIELD_KEYVAULT_ID = "keyVaultId";
+    static final String FIELD_KEYVAULT_ID = "keyVaultId";
     /**
      * Header key label.
      */
-    private static final String FIELD_CIPHER_ID = "cipherId";
+    static final String FIELD_CIPHER_ID = "cipherId";
     /**
      * Header key label.
      */
-    private static final String FIELD_FILE_VERSION = "fileVersion";
+    static final String FIELD_FILE_VERSION = "fileVersion";
 
     // body fields
     /**
      * Cryptokey record key label.
      */
-    private static final String FIELD_KEY_ID = "keyId";
+    static final String FIELD_KEY_ID = "keyId";
     /**
      * Cryptokey record key label.
      */
@@ -108,7 +108,7 @@ public class KeyVaultEncryptedFile {
     /**
      * Delimiter between key record JSON blocks.
      */
-    private static final String NEWLINE = "\n";
+    static final String NEWLINE = "\n";
 
     /**
      * Class scoped logger.
@@ -132,18 +132,46 @@ public class KeyVaultEncryptedFile {
         return true;
     }
 
+    /**
+     * Internal function for finding the end of the JSON header.
+     * @param dataBytes the file data, starting with the JSON header
+     * @return the index of the header/body delimiter
+     * @throws IonicException if no header is found
+     */
+    int findHeaderDelimiter(final byte[] dataBytes) throws IonicException {
+
+        // search first 200 bytes for the header/body delimiter
+        int headerDelimIndex = 0;
+        for (int i = 0; i < (dataBytes.length - HEADER_DELIM_SIZE) && i < HEADER_MAX_SIZE; ++i) {
+            if (areBytesInBuffer(HEADER_DELIM, dataBytes, i)) {
+                // we found the delimiter, break out of the loop
+                headerDelimIndex = i;
+                break;
+            }
+        }
+
+        // ensure the header delimiter was found and that there is data
+        // after it to parse
+        if (headerDelimIndex <= 0) {
+            logger.severe("Failed to load key vault data because no header was found.");
+            throw new IonicException(SdkError.ISKEYVAULT_NOHEADER);
+        }
+        return headerDelimIndex;
+    }
+
     /**
      * Internal function for reading the JSON header.
      * @param jsonString JSON header bytes as UTF8 String
      * @param keyVaultId the vault ID the header value should match
      * @param cipherId the cipher ID the header value should match
      * @param fileVersion the version the header version should match
+     * @return the parsed JSON header
      * @throws IonicException on any JSON parsing errors or non-matching values
      */
-    private void readJsonHeader(final String jsonString,
-                                final String keyVaultId,
-                                final String cipherId,
-                                final String fileVersion) throws IonicException {
+    JsonObject readJsonHeader(final String jsonString,
+                              final String keyVaultId,
+                              final String cipherId,
+                              final String fileVersion) throws IonicException {
         // parse the JSON into memory representation
         final JsonObject jsonHeader = JsonIO.readObject(jsonString, SdkError.ISFILECRYPTO_PARSEFAILED);
 
@@ -191,6 +219,7 @@ public class KeyVaultEncryptedFile {
                                         fileVersion));
             throw new IonicException(SdkError.ISKEYVAULT_FILE_VERSION);
         }
+        return jsonHeader;
     }
 
     /**
@@ -271,7 +300,7 @@ public class KeyVaultEncryptedFile {
      * @return KeyVaultKeyRecord
      * @throws IonicException on parsing errors or missing values.
      */
-    private KeyVaultKeyRecord readJsonKeyObject(final JsonObject keyObject) throws IonicException {
+    KeyVaultKeyRecord readJsonKeyObject(final JsonObject keyObject) throws IonicException {
 
         final KeyVaultKeyRecord keyRecord = new KeyVaultKeyRecord();
         keyRecord.setState(KeyVaultKeyRecord.State.KR_STORED);
@@ -388,6 +417,44 @@ public class KeyVaultEncryptedFile {
         return mapBuilder.build();
     }
 
+    /**
+     * Internal function for writing the fields of an individual key record to JSON.
+     * @param record the key record to write
+     * @return a JSON object builder containing all the key fields
+     */
+    JsonObjectBuilder writeJsonKeyObject(final KeyVaultKeyRecord record) {
+
+        final JsonObjectBuilder recordBuilder = Json.createObjectBuilder();
+        // write basic key information
+        JsonTarget.addNotNull(recordBuilder, FIELD_KEY_ID, record.getKeyId());
+        JsonTarget.add(recordBuilder,
+                        FIELD_KEY_ISSUED_TIME,
+                        record.getIssuedServerTimeUtcSeconds());
+        JsonTarget.add(recordBuilder,
+                        FIELD_KEY_EXPIRATION_TIME,
+                        record.getExpirationServerTimeUtcSeconds());
+        // write key data bytes
+        JsonTarget.addNotNull(recordBuilder,
+                                FIELD_KEY_DATA,
+                                CryptoUtils.binToBase64(record.getKeyBytes()));
+
+        // write key attributes
+        JsonTarget.add(recordBuilder,
+                        FIELD_KEY_ATTRIBUTES,
+                        writeJsonMapOfVectors(record.getKeyAttributes()));
+
+        // write mutable key attributes
+        JsonTarget.add(recordBuilder,
+                        FIELD_KEY_MUTABLE_ATTRIBUTES,
+                        writeJsonMapOfVectors(record.getMutableKeyAttributes()));
+
+        // write key obligations
+        JsonTarget.add(recordBuilder,
+                        FIELD_KEY_OBLIGATIONS,
+                        writeJsonMapOfVectors(record.getKeyObligations()));
+        return recordBuilder;
+    }
+
     /**
      * Creates an instance that implements encrypted file storage.
      *
@@ -464,23 +531,7 @@ public class KeyVaultEncryptedFile {
             throw new IonicException(SdkError.ISKEYVAULT_MISSINGVALUE);
         }
 
-        // search first 200 bytes for the header/body delimiter
-        int headerDelimIndex = 0;
-        for (int i = 0; i < (dataBytes.length - HEADER_DELIM_SIZE) && i < HEADER_MAX_SIZE; ++i) {
-            if (areBytesInBuffer(HEADER_DELIM, dataBytes, i)) {
-                // we found the delimiter, break out of the loop
-                headerDelimIndex = i;
-                break;
-            }
-        }
-
-        // ensure the header delimiter was found and that there is data
-        // after it to parse
-        if (headerDelimIndex <= 0) {
-            logger.severe("Failed to load key vault data because no header was found.");
-            throw new IonicException(SdkError.ISKEYVAULT_NOHEADER);
-        }
-
+        final int headerDelimIndex = findHeaderDelimiter(dataBytes);
         final byte[] header = new byte[headerDelimIndex];
         System.arraycopy(dataBytes, 0, header, 0, headerDelimIndex);
 
@@ -601,34 +652,7 @@ public class KeyVaultEncryptedFile {
                 continue;
             }
 
-            final JsonObjectBuilder recordBuilder = Json.createObjectBuilder();
-            // write basic key information
-            JsonTarget.addNotNull(recordBuilder, FIELD_KEY_ID, record.getKeyId());
-            JsonTarget.add(recordBuilder,
-                            FIELD_KEY_ISSUED_TIME,
-                            record.getIssuedServerTimeUtcSeconds());
-            JsonTarget.add(recordBuilder,
-                            FIELD_KEY_EXPIRATION_TIME,
-                            record.getExpirationServerTimeUtcSeconds());
-            // write key data bytes
-            JsonTarget.addNotNull(recordBuilder,
-                                    FIELD_KEY_DATA,
-                                    CryptoUtils.binToBase64(record.getKeyBytes()));
-
-            // write key attributes
-            JsonTarget.add(recordBuilder,
-                            FIELD_KEY_ATTRIBUTES,
-                            writeJsonMapOfVectors(record.getKeyAttributes()));
-
-            // write mutable key attributes
-            JsonTarget.add(recordBuilder,
-                            FIELD_KEY_MUTABLE_ATTRIBUTES,
-                            writeJsonMapOfVectors(record.getMutableKeyAttributes()));
-
-            // write key obligations
-            JsonTarget.add(recordBuilder,
-                            FIELD_KEY_OBLIGATIONS,
-                            writeJsonMapOfVectors(record.getKeyObligations()));
+            final JsonObjectBuilder recordBuilder = writeJsonKeyObject(record);
 
             // add key to the keys json string
             stringBuf.append(JsonIO.write(recordBuilder.build(), false));
@@ -26,6 +26,12 @@ public class KeyVaultFileModTracker {
          * File has changed since last tracking check.
          */
         FILE_CHANGED,
+
+        /**
+         * File has changed and grown since last tracking check.  If the file is only ever appended to (or
+         * rewritten in a detectable way), only the data following the previously tracked size needs to be read.
+         */
+        FILE_APPENDED,
     }
 
     /**
@@ -67,7 +73,7 @@ public class KeyVaultFileModTracker {
 
     /**
      * Get the changed/unchanged result.
-     * @return An enumerated result: changed, unchanged or not found
+     * @return An enumerated result: changed, appended, unchanged or not found
      */
     public Result recordFileInfo() {
 
@@ -87,10 +93,12 @@ public class KeyVaultFileModTracker {
         // time as well as file size
         if (haslastFileInfo && fileTime == lastFileModTime && fileSize == lastFileSize) {
             result = Result.FILE_UNCHANGED;
+        } else if (haslastFileInfo && fileSize > lastFileSize) {
+            result = Result.FILE_APPENDED;
         }
 
         // update our file info if changes were detected
-        if (result == Result.FILE_CHANGED) {
+        if (result != Result.FILE_UNCHANGED) {
 
             lastFileModTime = fileTime;
             lastFileSize = fileSize;
@@ -0,0 +1,580 @@
+package com.ionic.sdk.keyvault;
+
+import com.ionic.sdk.cipher.CipherAbstract;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.io.Stream;
+import com.ionic.sdk.core.rng.CryptoRng;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+import com.ionic.sdk.json.JsonIO;
+import com.ionic.sdk.json.JsonSource;
+import com.ionic.sdk.json.JsonTarget;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * A class that implements encrypted, append-only journal storage of key vault records.
+ * <p>
+ * The file starts with a JSON header, as in {@link KeyVaultEncryptedFile}, which also holds a random journal id.  The
+ * header is followed by a sequence of frames.  Each frame holds the records written by one save operation, encrypted
+ * together; a record either adds (or updates) a key, or removes it.  A frame is stored as its length, its ciphertext,
+ * and a CRC-32 checksum of the ciphertext, so that a frame truncated by an interrupted write can be detected.
+ * <p>
+ * Saving the changes to a vault appends a single frame to the file.  Once the journal holds many more records than
+ * the vault holds keys, the next save compacts the file, rewriting it with a new journal id and a single frame
+ * containing the live keys.  An instance remembers the file content it has read, so that when another process has
+ * only appended to the file, only the new frames need to be read.
+ * <p>
+ * Files in the {@link KeyVaultEncryptedFile} format may be loaded, and are rewritten in this format on the next save.
+ */
+public class KeyVaultJournalFile {
+
+    /**
+     * Class scoped logger.
+     */
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    /**
+     * Implementation of the file header, and of the JSON representation of key records.
+     */
+    private final KeyVaultEncryptedFile encryptedFile;
+
+    /**
+     * Specific ID of this vault.
+     */
+    private final String keyVaultId;
+
+    /**
+     * The file path of the journal.
+     */
+    private final String filePath;
+
+    /**
+     * The key records in the file, as of the last load or save operation.
+     */
+    private final Map<String, KeyVaultKeyRecord> mapKeyRecordsFile;
+
+    /**
+     * The journal id of the file, as of the last load or save operation (null if the file has not been read, or is
+     * not a journal).
+     */
+    private String journalId;
+
+    /**
+     * The file offset following the last frame read or written.
+     */
+    private long fileOffset;
+
+    /**
+     * The number of records in the file, as of the last load or save operation.
+     */
+    private int countRecords;
+
+    /**
+     * Creates an instance that implements encrypted journal storage.
+     *
+     * @param keyVaultId a vault ID used to verify a saved vault file matches the version being used
+     *                   to load and decrypt it
+     * @param filePath   the file path of the journal
+     */
+    public KeyVaultJournalFile(final String keyVaultId, final String filePath) {
+        this.encryptedFile = new KeyVaultEncryptedFile(keyVaultId);
+        this.keyVaultId = keyVaultId;
+        this.filePath = filePath;
+        this.mapKeyRecordsFile = new TreeMap<String, KeyVaultKeyRecord>();
+        reset();
+    }
+
+    /**
+     * Get the file path of the journal.
+     *
+     * @return file path
+     */
+    public final String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Discard the remembered file content, so that the next load operation reads the entire file, and the next
+     * save operation rewrites it.
+     */
+    public final void reset() {
+        synchronized (this) {
+            mapKeyRecordsFile.clear();
+            journalId = null;
+            fileOffset = 0L;
+            countRecords = 0;
+        }
+    }
+
+    /**
+     * Load the key records in the journal file.
+     *
+     * @param cipher    cipher the function will use to decrypt the data
+     * @param bAppended true if the file is known to have grown since the last load or save operation, in which case
+     *                  only the appended frames are read, if possible
+     * @return the key records in the file; the map may not be modified, and is only valid until the next load or save
+     * @throws IonicException if the file is missing, fails to open, or fails to parse
+     */
+    public Map<String, KeyVaultKeyRecord> loadAllKeyRecordsFromFile(
+            final CipherAbstract cipher, final boolean bAppended) throws IonicException {
+
+        // make this entire function thread-safe
+        synchronized (this) {
+            if (bAppended && (journalId != null)) {
+                loadAppendedFrames(cipher);
+            } else {
+                loadAllFrames(cipher);
+            }
+            return Collections.unmodifiableMap(mapKeyRecordsFile);
+        }
+    }
+
+    /**
+     * Save the changes in a map of key records to the journal file.  Records which are not in the
+     * {@link KeyVaultKeyRecord.State#KR_STORED} state are appended to the file, unless the file needs to be
+     * compacted, in which case all live records are written to a new file.
+     *
+     * @param cipher        cipher the function will use to encrypt the data
+     * @param mapKeyRecords the key map to save from
+     * @throws IonicException on any file errors
+     */
+    public void saveAllKeyRecordsToFile(final CipherAbstract cipher,
+                                        final Map<String, KeyVaultKeyRecord> mapKeyRecords) throws IonicException {
+
+        // make this entire function thread-safe
+        synchronized (this) {
+            final File file = new File(filePath);
+
+            // pick up frames appended by others, so that our frame is written after the last complete frame
+            if ((journalId != null) && file.exists() && (file.length() != fileOffset)) {
+                loadAppendedFrames(cipher);
+            }
+            if ((journalId == null) || !file.exists() || (file.length() != fileOffset)) {
+                logger.fine("Journal is not appendable; the file will be rewritten.");
+                saveAllFrames(cipher, mapKeyRecords);
+                return;
+            }
+
+            // collect the records which have changed since they were last stored
+            int countLive = 0;
+            final List<KeyVaultKeyRecord> recordsAdded = new ArrayList<KeyVaultKeyRecord>();
+            final List<String> keyIdsRemoved = new ArrayList<String>();
+            for (KeyVaultKeyRecord record : mapKeyRecords.values()) {
+                if (record.isAlive()) {
+                    ++countLive;
+                    if ((record.getState() != KeyVaultKeyRecord.State.KR_STORED)
+                            || !mapKeyRecordsFile.containsKey(record.getKeyId())) {
+                        recordsAdded.add(record);
+                    }
+                } else if (mapKeyRecordsFile.containsKey(record.getKeyId())) {
+                    keyIdsRemoved.add(record.getKeyId());
+                }
+            }
+
+            // compact the journal once it holds mostly superseded records
+            final int countRecordsNew = countRecords + recordsAdded.size() + keyIdsRemoved.size();
+            if ((countRecordsNew > COMPACT_MIN_RECORDS) && (countRecordsNew > (COMPACT_RATIO * countLive))) {
+                logger.fine(String.format("Compacting journal (%d records, %d keys).", countRecordsNew, countLive));
+                saveAllFrames(cipher, mapKeyRecords);
+            } else if (countRecordsNew > countRecords) {
+                appendFrame(cipher, recordsAdded, keyIdsRemoved);
+            }
+        }
+    }
+
+    /**
+     * Read the entire file.
+     *
+     * @param cipher cipher the function will use to decrypt the data
+     * @throws IonicException if the file is missing, fails to open, or fails to parse
+     */
+    private void loadAllFrames(final CipherAbstract cipher) throws IonicException {
+        reset();
+        final File file = new File(filePath);
+        if (!file.exists()) {
+            throw new IonicException(SdkError.ISKEYVAULT_RESOURCE_NOT_FOUND,
+                    String.format("No key vault storage file exists at '%s'.", file.getAbsolutePath()));
+        }
+        final byte[] dataBytes;
+        try {
+            dataBytes = Stream.read(file);
+        } catch (IOException e) {
+            logger.warning(String.format("loadAllFrames threw an IO Exception %s", e.toString()));
+            throw new IonicException(SdkError.ISKEYVAULT_OPENFILE, e);
+        }
+        final int headerDelimIndex = encryptedFile.findHeaderDelimiter(dataBytes);
+        final String header = Transcoder.utf8().encode(Arrays.copyOf(dataBytes, headerDelimIndex));
+        final String fileVersion = JsonSource.getString(
+                JsonIO.readObject(header, SdkError.ISFILECRYPTO_PARSEFAILED), KeyVaultEncryptedFile.FIELD_FILE_VERSION);
+        if (KeyVaultEncryptedFile.FILE_VERSION_LATEST.equals(fileVersion)) {
+            // whole file format; the journal id remains unset, so that the next save rewrites the file
+            mapKeyRecordsFile.putAll(encryptedFile.loadAllKeyRecordsFromMemory(dataBytes, cipher));
+            countRecords = mapKeyRecordsFile.size();
+            return;
+        }
+        final String journalIdFile = readJournalHeader(header, cipher);
+        readFrames(journalIdFile, dataBytes, headerDelimIndex + KeyVaultEncryptedFile.HEADER_DELIM_SIZE, 0L, cipher);
+        journalId = journalIdFile;
+    }
+
+    /**
+     * Read the frames appended to the file since the last load or save operation.  The entire file is read if it
+     * has been rewritten since then.
+     *
+     * @param cipher cipher the function will use to decrypt the data
+     * @throws IonicException if the file is missing, fails to open, or fails to parse
+     */
+    private void loadAppendedFrames(final CipherAbstract cipher) throws IonicException {
+        final byte[] dataBytes;
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            final long length = file.length();
+            final byte[] header = read(file, 0L, (int) Math.min(length,
+                    KeyVaultEncryptedFile.HEADER_MAX_SIZE + KeyVaultEncryptedFile.HEADER_DELIM_SIZE));
+            final int headerDelimIndex = encryptedFile.findHeaderDelimiter(header);
+            final String journalIdFile = readJournalHeader(
+                    Transcoder.utf8().encode(Arrays.copyOf(header, headerDelimIndex)), cipher);
+            dataBytes = ((length < fileOffset) || !journalIdFile.equals(journalId))
+                    ? null : read(file, fileOffset, (int) (length - fileOffset));
+        } catch (FileNotFoundException e) {
+            throw new IonicException(SdkError.ISKEYVAULT_RESOURCE_NOT_FOUND, e);
+        } catch (IOException e) {
+            logger.warning(String.format("loadAppendedFrames threw an IO Exception %s", e.toString()));
+            throw new IonicException(SdkError.ISKEYVAULT_OPENFILE, e);
+        } catch (IonicException e) {
+            // the file was rewritten in another format
+            logger.fine(String.format("Journal header not found, rc = %d.", e.getReturnCode()));
+            loadAllFrames(cipher);
+            return;
+        }
+        if (dataBytes == null) {
+            logger.fine("Journal was rewritten since the last load.");
+            loadAllFrames(cipher);
+        } else {
+            readFrames(journalId, dataBytes, 0, fileOffset, cipher);
+        }
+    }
+
+    /**
+     * Read the JSON header of a journal file.
+     *
+     * @param header JSON header as UTF8 String
+     * @param cipher cipher used to encrypt the data
+     * @return the journal id from the header
+     * @throws IonicException on any JSON parsing errors or non-matching values
+     */
+    private String readJournalHeader(final String header, final CipherAbstract cipher) throws IonicException {
+        final JsonObject jsonHeader = encryptedFile.readJsonHeader(header, keyVaultId, cipher.getId(), FILE_VERSION);
+        final String journalIdFile = JsonSource.getString(jsonHeader, FIELD_JOURNAL_ID);
+        if (journalIdFile == null) {
+            logger.severe(String.format("Failed to read JSON header field '%s', rc = %d.",
+                                        FIELD_JOURNAL_ID, SdkError.ISFILECRYPTO_PARSEFAILED));
+            throw new IonicException(SdkError.ISFILECRYPTO_PARSEFAILED);
+        }
+        return journalIdFile;
+    }
+
+    /**
+     * Read the complete frames in a section of the file.  An incomplete frame at the end of the section is ignored,
+     * as it may still be in the process of being written.
+     *
+     * @param journalIdFile  the journal id of the file
+     * @param dataBytes      the file data
+     * @param start          the position of the first frame in the file data
+     * @param dataFileOffset the file offset of the file data
+     * @param cipher         cipher the function will use to decrypt the data
+     * @throws IonicException on checksum, decryption, or parsing failures
+     */
+    private void readFrames(final String journalIdFile, final byte[] dataBytes, final int start,
+                            final long dataFileOffset, final CipherAbstract cipher) throws IonicException {
+        fileOffset = dataFileOffset + start;
+        final ByteBuffer buffer = ByteBuffer.wrap(dataBytes);
+        buffer.position(start);
+        while (buffer.remaining() >= FRAME_OVERHEAD) {
+            final int length = buffer.getInt();
+            if ((length <= 0) || (length > (buffer.remaining() - SIZE_CHECKSUM))) {
+                break;
+            }
+            final byte[] cipherText = new byte[length];
+            buffer.get(cipherText);
+            if (buffer.getInt() != getChecksum(cipherText)) {
+                if (buffer.hasRemaining()) {
+                    logger.severe(String.format("Journal frame checksum mismatch at offset %d.", fileOffset));
+                    throw new IonicException(SdkError.ISKEYVAULT_PARSEFAILED);
+                }
+                break;
+            }
+            readRecords(journalIdFile, cipher.decrypt(cipherText));
+            fileOffset = dataFileOffset + buffer.position();
+        }
+        if (fileOffset < (dataFileOffset + dataBytes.length)) {
+            logger.warning(String.format("Ignored incomplete journal frame at offset %d.", fileOffset));
+        }
+    }
+
+    /**
+     * Apply the records in a decrypted frame to the remembered file content.
+     *
+     * @param journalIdFile the journal id of the file
+     * @param plainText     the decrypted frame
+     * @throws IonicException on parsing failures, or if the frame belongs to a different journal
+     */
+    private void readRecords(final String journalIdFile, final byte[] plainText) throws IonicException {
+        final String[] lines = Transcoder.utf8().encode(plainText).split(KeyVaultEncryptedFile.NEWLINE, 0);
+        final JsonObject frameHeader = JsonIO.readObject(lines[0], SdkError.ISKEYVAULT_PARSEFAILED);
+        if (!journalIdFile.equals(JsonSource.getString(frameHeader, FIELD_JOURNAL_ID))) {
+            logger.severe("Journal frame does not belong to this journal.");
+            throw new IonicException(SdkError.ISKEYVAULT_HEADER_MISMATCH);
+        }
+        for (int i = 1; (i < lines.length); ++i) {
+            final JsonObject jsonRecord = JsonIO.readObject(lines[i], SdkError.ISKEYVAULT_PARSEFAILED);
+            final String operation = JsonSource.getString(jsonRecord, FIELD_OPERATION);
+            if (OPERATION_REMOVE.equals(operation)) {
+                mapKeyRecordsFile.remove(JsonSource.getString(jsonRecord, KeyVaultEncryptedFile.FIELD_KEY_ID));
+            } else if (OPERATION_PUT.equals(operation)) {
+                final KeyVaultKeyRecord record = encryptedFile.readJsonKeyObject(jsonRecord);
+                mapKeyRecordsFile.put(record.getKeyId(), record);
+            } else {
+                logger.severe(String.format("Unrecognized journal operation '%s'.", operation));
+                throw new IonicException(SdkError.ISKEYVAULT_PARSEFAILED);
+            }
+            ++countRecords;
+        }
+    }
+
+    /**
+     * Append a frame containing the changed records to the file.
+     *
+     * @param cipher         cipher the function will use to encrypt the data
+     * @param recordsAdded   the records added or updated since the last save
+     * @param keyIdsRemoved  the ids of the records removed since the last save
+     * @throws IonicException on any file errors
+     */
+    private void appendFrame(final CipherAbstract cipher, final List<KeyVaultKeyRecord> recordsAdded,
+                             final List<String> keyIdsRemoved) throws IonicException {
+        final StringBuilder records = createFrameHeader(journalId);
+        for (KeyVaultKeyRecord record : recordsAdded) {
+            writeRecord(records, record);
+        }
+        for (String keyId : keyIdsRemoved) {
+            final JsonObjectBuilder recordBuilder = Json.createObjectBuilder();
+            JsonTarget.addNotNull(recordBuilder, FIELD_OPERATION, OPERATION_REMOVE);
+            JsonTarget.addNotNull(recordBuilder, KeyVaultEncryptedFile.FIELD_KEY_ID, keyId);
+            records.append(JsonIO.write(recordBuilder.build(), false)).append(KeyVaultEncryptedFile.NEWLINE);
+        }
+        final byte[] frame = createFrame(cipher, records);
+        final long position;
+        try (FileOutputStream fos = new FileOutputStream(filePath, true)) {
+            position = fos.getChannel().position();
+            fos.write(frame);
+        } catch (IOException e) {
+            logger.warning(String.format("appendFrame threw an IO Exception %s", e.toString()));
+            throw new IonicException(SdkError.ISKEYVAULT_OPENFILE, e);
+        }
+
+        // if another process appended in the meantime, its frames (and ours) are read on the next load
+        if (position == fileOffset) {
+            fileOffset += frame.length;
+        }
+        for (KeyVaultKeyRecord record : recordsAdded) {
+            mapKeyRecordsFile.put(record.getKeyId(), createStoredRecord(record));
+        }
+        for (String keyId : keyIdsRemoved) {
+            mapKeyRecordsFile.remove(keyId);
+        }
+        countRecords += recordsAdded.size() + keyIdsRemoved.size();
+    }
+
+    /**
+     * Rewrite the file with a new journal id, containing a single frame with all live records.
+     *
+     * @param cipher        cipher the function will use to encrypt the data
+     * @param mapKeyRecords the key map to save from
+     * @throws IonicException on any file errors
+     */
+    private void saveAllFrames(final CipherAbstract cipher,
+                               final Map<String, KeyVaultKeyRecord> mapKeyRecords) throws IonicException {
+        reset();
+        final String journalIdFile = Transcoder.hex().encode(new CryptoRng().rand(new byte[SIZE_JOURNAL_ID]));
+
+        // build JSON header object
+        final JsonObjectBuilder objectBuilder = Json.createObjectBuilder();
+        JsonTarget.addNotNull(objectBuilder, KeyVaultEncryptedFile.FIELD_KEYVAULT_ID, keyVaultId);
+        JsonTarget.addNotNull(objectBuilder, KeyVaultEncryptedFile.FIELD_CIPHER_ID, cipher.getId());
+        JsonTarget.addNotNull(objectBuilder, KeyVaultEncryptedFile.FIELD_FILE_VERSION, FILE_VERSION);
+        JsonTarget.addNotNull(objectBuilder, FIELD_JOURNAL_ID, journalIdFile);
+        final byte[] header = Transcoder.utf8().decode(JsonIO.write(objectBuilder.build(), false));
+
+        // build the frame containing all live records
+        final StringBuilder records = createFrameHeader(journalIdFile);
+        for (KeyVaultKeyRecord record : mapKeyRecords.values()) {
+            if (record.isAlive()) {
+                writeRecord(records, record);
+                mapKeyRecordsFile.put(record.getKeyId(), createStoredRecord(record));
+            }
+        }
+        final byte[] frame = createFrame(cipher, records);
+        final byte[] fileDataBytes = ByteBuffer.allocate(header.length + KeyVaultEncryptedFile.HEADER_DELIM_SIZE
+                + frame.length).put(header).put(KeyVaultEncryptedFile.HEADER_DELIM).put(frame).array();
+
+        final File file = new File(filePath);
+        final File folder = file.getParentFile();
+        if ((folder != null) && !folder.exists() && !folder.mkdirs()) {
+            logger.warning(String.format("saveAllFrames failed to create folder: %s", folder.getAbsolutePath()));
+            mapKeyRecordsFile.clear();
+            throw new IonicException(SdkError.ISKEYVAULT_CREATE_PATH);
+        }
+        try {
+            Stream.write(file, fileDataBytes);
+        } catch (IOException e) {
+            logger.warning(String.format("saveAllFrames threw an IO Exception %s", e.toString()));
+            mapKeyRecordsFile.clear();
+            throw new IonicException(SdkError.ISKEYVAULT_OPENFILE, e);
+        }
+        journalId = journalIdFile;
+        fileOffset = fileDataBytes.length;
+        countRecords = mapKeyRecordsFile.size();
+    }
+
+    /**
+     * @param journalIdFile the journal id of the file
+     * @return a buffer for the plaintext of a frame, containing the frame header
+     */
+    private static StringBuilder createFrameHeader(final String journalIdFile) {
+        final JsonObjectBuilder objectBuilder = Json.createObjectBuilder();
+        JsonTarget.addNotNull(objectBuilder, FIELD_JOURNAL_ID, journalIdFile);
+        return new StringBuilder(JsonIO.write(objectBuilder.build(), false)).append(KeyVaultEncryptedFile.NEWLINE);
+    }
+
+    /**
+     * Append the JSON representation of a key record to the plaintext of a frame.
+     *
+     * @param records the plaintext of the frame
+     * @param record  the key record to be added or updated
+     */
+    private void writeRecord(final StringBuilder records, final KeyVaultKeyRecord record) {
+        final JsonObjectBuilder recordBuilder = encryptedFile.writeJsonKeyObject(record);
+        JsonTarget.addNotNull(recordBuilder, FIELD_OPERATION, OPERATION_PUT);
+        records.append(JsonIO.write(recordBuilder.build(), false)).append(KeyVaultEncryptedFile.NEWLINE);
+    }
+
+    /**
+     * Encrypt the plaintext of a frame, and wrap the ciphertext with its length and checksum.
+     *
+     * @param cipher  cipher the function will use to encrypt the data
+     * @param records the plaintext of the frame
+     * @return the frame, as written to the file
+     * @throws IonicException on cryptography failures
+     */
+    private static byte[] createFrame(final CipherAbstract cipher, final StringBuilder records) throws IonicException {
+        final byte[] cipherText = cipher.encrypt(records.toString());
+        return ByteBuffer.allocate(FRAME_OVERHEAD + cipherText.length)
+                .putInt(cipherText.length).put(cipherText).putInt(getChecksum(cipherText)).array();
+    }
+
+    /**
+     * @param record a key record from the vault
+     * @return a copy of the record, marked as stored
+     */
+    private static KeyVaultKeyRecord createStoredRecord(final KeyVaultKeyRecord record) {
+        return new KeyVaultKeyRecord(record, KeyVaultKeyRecord.State.KR_STORED);
+    }
+
+    /**
+     * @param cipherText the ciphertext of a frame
+     * @return the CRC-32 checksum of the ciphertext
+     */
+    private static int getChecksum(final byte[] cipherText) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(cipherText);
+        return (int) crc32.getValue();
+    }
+
+    /**
+     * Read a section of a file.
+     *
+     * @param file     the file to read
+     * @param position the file offset of the section
+     * @param length   the length of the section
+     * @return the file data
+     * @throws IOException on failure to read the file
+     */
+    private static byte[] read(final RandomAccessFile file, final long position, final int length)
+            throws IOException {
+        final byte[] bytes = new byte[length];
+        file.seek(position);
+        file.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Version of the journal file format.
+     */
+    private static final String FILE_VERSION = "2.0";
+
+    /**
+     * Header (and frame header) key label.
+     */
+    private static final String FIELD_JOURNAL_ID = "journalId";
+
+    /**
+     * Journal record key label.
+     */
+    private static final String FIELD_OPERATION = "op";
+
+    /**
+     * Journal record operation which adds or updates a key.
+     */
+    private static final String OPERATION_PUT = "put";
+
+    /**
+     * Journal record operation which removes a key.
+     */
+    private static final String OPERATION_REMOVE = "remove";
+
+    /**
+     * Size of the random journal id, in bytes.
+     */
+    private static final int SIZE_JOURNAL_ID = 16;
+
+    /**
+     * Size of the frame length field, in bytes.
+     */
+    private static final int SIZE_LENGTH = 4;
+
+    /**
+     * Size of the frame checksum field, in bytes.
+     */
+    private static final int SIZE_CHECKSUM = 4;
+
+    /**
+     * Size of the frame fields surrounding the ciphertext, in bytes.
+     */
+    private static final int FRAME_OVERHEAD = SIZE_LENGTH + SIZE_CHECKSUM;
+
+    /**
+     * The journal is not compacted until it holds at least this many records.
+     */
+    private static final int COMPACT_MIN_RECORDS = 1024;
+
+    /**
+     * The journal is compacted once it holds this many records for each live key.
+     */
+    private static final int COMPACT_RATIO = 2;
+}
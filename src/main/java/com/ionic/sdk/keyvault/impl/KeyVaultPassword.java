@@ -10,6 +10,7 @@ import com.ionic.sdk.error.SdkError;
 import com.ionic.sdk.keyvault.KeyVaultBase;
 import com.ionic.sdk.keyvault.KeyVaultEncryptedFile;
 import com.ionic.sdk.keyvault.KeyVaultFileModTracker;
+import com.ionic.sdk.keyvault.KeyVaultJournalFile;
 import com.ionic.sdk.keyvault.KeyVaultKeyRecord;
 
 import java.io.File;
@@ -18,6 +19,12 @@ import java.util.logging.Logger;
 
 /**
  * Password protected encrypted Key Vault, using Password-Based Key Derivation Function.
+ * <p>
+ * By default, the vault is stored in the whole-file format shared with the Ionic C++ SDK (see
+ * {@link KeyVaultEncryptedFile}).  A vault constructed with journaling enabled is instead stored as an encrypted
+ * journal (see {@link KeyVaultJournalFile}), so that a sync only writes the key records which have changed, and only
+ * reads the key records appended to the file by other vault instances.  A journal file may not be read by the Ionic
+ * C++ SDK, or by vault instances with journaling disabled.
  */
 public final class KeyVaultPassword extends KeyVaultBase {
 
@@ -56,6 +63,17 @@ public final class KeyVaultPassword extends KeyVaultBase {
      */
     private KeyVaultFileModTracker fileModTracker = null;
 
+    /**
+     * True if the key vault file is stored as an encrypted journal; false for the whole-file format.
+     */
+    private final boolean journal;
+
+    /**
+     * The encrypted storage of the key vault (journal format only), which remembers the file content from the last
+     * load or save operation.
+     */
+    private KeyVaultJournalFile journalFile = null;
+
     /**
      * Constructor with specific filename.
      *
@@ -63,9 +81,21 @@ public final class KeyVaultPassword extends KeyVaultBase {
      * @throws IonicException on failure of the underlying JRE cipher to initialize
      */
     public KeyVaultPassword(final String filePath) throws IonicException {
+        this(filePath, false);
+    }
+
+    /**
+     * Constructor with specific filename and storage format.
+     *
+     * @param filePath File path to store the encrypted key vault.
+     * @param journal  true to store the key vault as an encrypted journal; false for the whole-file format
+     * @throws IonicException on failure of the underlying JRE cipher to initialize
+     */
+    public KeyVaultPassword(final String filePath, final boolean journal) throws IonicException {
         super();
         this.cipher = new AesGcmCipher();
         this.filePath = filePath;
+        this.journal = journal;
     }
 
     /**
@@ -81,6 +111,8 @@ public final class KeyVaultPassword extends KeyVaultBase {
                 Transcoder.utf8().decode(password), new byte[0], iterations, AesCipher.KEY_BYTES));
         // set a hard-coded, known auth data
         cipher.setAuthData(Transcoder.utf8().decode(IONIC_AUTH_DATA));
+        // the next save rewrites the file, so that all journal frames are protected by the same key
+        journalFile = null;
     }
 
     /**
@@ -119,6 +151,13 @@ public final class KeyVaultPassword extends KeyVaultBase {
         return filePath;
     }
 
+    /**
+     * @return true if the key vault file is stored as an encrypted journal; false for the whole-file format
+     */
+    public boolean isJournal() {
+        return journal;
+    }
+
     /**
      * Set the file path used for key vault data storage.
      *
@@ -133,6 +172,7 @@ public final class KeyVaultPassword extends KeyVaultBase {
         logger.fine("cleanVaultStore()");
 
         mapKeyRecords.clear();
+        journalFile = null;
         try {
             SdkData.checkTrue(filePath != null, SdkError.ISFILECRYPTO_MISSINGVALUE);
             final File outputFile = new File(filePath);
@@ -160,14 +200,20 @@ public final class KeyVaultPassword extends KeyVaultBase {
 
         // record file information. if the file has not changed since our last
         // load or save operation, then we can skip this load operation
-        if (fileModificationPoint(filePath) == KeyVaultFileModTracker.Result.FILE_UNCHANGED) {
+        final KeyVaultFileModTracker.Result result = fileModificationPoint(filePath);
+        if (result == KeyVaultFileModTracker.Result.FILE_UNCHANGED) {
             throw new IonicException(SdkError.ISKEYVAULT_LOAD_NOT_NEEDED,
                     "File has not changed since last load.");
         }
 
-        // read encrypted file.
-        final KeyVaultEncryptedFile file = new KeyVaultEncryptedFile(VAULT_ID);
-        return file.loadAllKeyRecordsFromFile(inputCipherFile.getAbsolutePath(), cipher);
+        // read encrypted file (journal: only the appended records, if possible)
+        if (journal) {
+            return getJournalFile(filePath).loadAllKeyRecordsFromFile(
+                    cipher, (result == KeyVaultFileModTracker.Result.FILE_APPENDED));
+        } else {
+            final KeyVaultEncryptedFile file = new KeyVaultEncryptedFile(VAULT_ID);
+            return file.loadAllKeyRecordsFromFile(inputCipherFile.getAbsolutePath(), cipher);
+        }
     }
 
     @Override
@@ -176,8 +222,12 @@ public final class KeyVaultPassword extends KeyVaultBase {
 
         // write encrypted file
         SdkData.checkTrue(filePath != null, SdkError.ISFILECRYPTO_MISSINGVALUE);
-        final KeyVaultEncryptedFile file = new KeyVaultEncryptedFile(VAULT_ID);
-        file.saveAllKeyRecordsToFile(cipher, mapKeyRecords, filePath);
+        if (journal) {
+            getJournalFile(filePath).saveAllKeyRecordsToFile(cipher, mapKeyRecords);
+        } else {
+            final KeyVaultEncryptedFile file = new KeyVaultEncryptedFile(VAULT_ID);
+            file.saveAllKeyRecordsToFile(cipher, mapKeyRecords, filePath);
+        }
 
         // record file information
         fileModificationPoint(filePath);
@@ -185,6 +235,22 @@ public final class KeyVaultPassword extends KeyVaultBase {
         return SdkError.ISKEYVAULT_OK;
     }
 
+    /**
+     * Get the encrypted storage of the key vault.
+     *
+     * @param filePath the filesystem path associated with the KeyVault file
+     * @return the {@link KeyVaultJournalFile} for the file path
+     */
+    private KeyVaultJournalFile getJournalFile(final String filePath) {
+        // if we don't have a journal object, or we have changed the file we are using, then
+        // create a new one here
+        if ((journalFile == null) || !journalFile.getFilePath().equals(filePath)) {
+
+            journalFile = new KeyVaultJournalFile(VAULT_ID, filePath);
+        }
+        return journalFile;
+    }
+
     /**
      * Function that uses the KeyVaultFileModTracker to determine whether the key vault has changed
      * outside the context of this instance of the vault.
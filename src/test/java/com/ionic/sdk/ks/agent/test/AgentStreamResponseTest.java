@@ -0,0 +1,272 @@
+package com.ionic.sdk.ks.agent.test;
+
+import com.ionic.sdk.agent.Agent;
+import com.ionic.sdk.agent.config.AgentConfig;
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.service.IDC;
+import com.ionic.sdk.cipher.aes.AesCipher;
+import com.ionic.sdk.cipher.aes.AesGcmCipher;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.io.Stream;
+import com.ionic.sdk.core.rng.CryptoRng;
+import com.ionic.sdk.core.value.Value;
+import com.ionic.sdk.device.profile.DeviceProfile;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+import com.ionic.sdk.error.ServerError;
+import com.ionic.sdk.httpclient.Http;
+import com.ionic.sdk.json.JsonIO;
+import com.ionic.sdk.json.JsonSource;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+/**
+ * Test deserialization of key service responses as a stream, against a loopback HTTP server which emulates the
+ * Machina key service protocol.
+ */
+public class AgentStreamResponseTest {
+
+    /**
+     * The loopback HTTP server.
+     */
+    private HttpServer httpServer;
+
+    /**
+     * The device profile shared by the {@link Agent} and the loopback HTTP server.
+     */
+    private DeviceProfile deviceProfile;
+
+    /**
+     * The clear key material served by the loopback HTTP server.
+     */
+    private byte[] keyBytes;
+
+    /**
+     * When set, the loopback HTTP server responds with this server error.
+     */
+    private JsonObject serverError;
+
+    /**
+     * Start a loopback HTTP server, which serves key requests.
+     *
+     * @throws IOException    on failure to start the server
+     * @throws IonicException on failure to generate the test keys
+     */
+    @Before
+    public final void setUp() throws IOException, IonicException {
+        final CryptoRng cryptoRng = new CryptoRng();
+        keyBytes = cryptoRng.rand(new byte[AesCipher.KEY_BYTES]);
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        deviceProfile = new DeviceProfile("test", 0L, "ABcd.1.device",
+                String.format("http://%s:%d", InetAddress.getLoopbackAddress().getHostAddress(),
+                        httpServer.getAddress().getPort()),
+                cryptoRng.rand(new byte[AesCipher.KEY_BYTES]), cryptoRng.rand(new byte[AesCipher.KEY_BYTES]));
+        httpServer.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange httpExchange) throws IOException {
+                try {
+                    final byte[] entity = serve(httpExchange.getRequestURI().getPath(),
+                            Stream.read(httpExchange.getRequestBody()));
+                    httpExchange.getResponseHeaders().add(Http.Header.CONTENT_TYPE, Http.Header.CONTENT_TYPE_SERVER);
+                    httpExchange.sendResponseHeaders(Http.Status.OK, entity.length);
+                    final OutputStream os = httpExchange.getResponseBody();
+                    os.write(entity);
+                    os.close();
+                } catch (IonicException e) {
+                    throw new IOException(e);
+                }
+            }
+        });
+        httpServer.start();
+    }
+
+    /**
+     * Stop the loopback HTTP server.
+     */
+    @After
+    public final void tearDown() {
+        httpServer.stop(0);
+    }
+
+    /**
+     * Keys and key errors are deserialized from the response, which is not retained by default.
+     *
+     * @throws IonicException on key request failure
+     */
+    @Test
+    public final void testAgent_GetKeys_StreamResponse() throws IonicException {
+        final Agent agent = createAgent(new AgentConfig());
+        final GetKeysResponse response = agent.getKeys(new GetKeysRequest(KEY_ID_1, KEY_ID_2));
+        Assert.assertEquals(1, response.getKeys().size());
+        Assert.assertEquals(KEY_ID_1, response.getFirstKey().getId());
+        Assert.assertArrayEquals(keyBytes, response.getFirstKey().getKey());
+        Assert.assertEquals(1, response.getErrors().size());
+        Assert.assertEquals(KEY_ID_2, response.getErrors().get(0).getKeyId());
+        Assert.assertEquals(SERVER_ERROR_DENIED, response.getErrors().get(0).getServerError());
+        Assert.assertNull(response.getJsonPayload());
+    }
+
+    /**
+     * The json representation of the response is retained, when requested by configuration.
+     *
+     * @throws IonicException on key request failure
+     */
+    @Test
+    public final void testAgent_GetKeys_RetainJsonPayload() throws IonicException {
+        final AgentConfig agentConfig = new AgentConfig();
+        agentConfig.setProperty(AgentConfig.Key.RETAIN_JSON_PAYLOAD, Boolean.TRUE.toString());
+        final Agent agent = createAgent(agentConfig);
+        final GetKeysResponse response = agent.getKeys(new GetKeysRequest(KEY_ID_1));
+        Assert.assertEquals(KEY_ID_1, response.getFirstKey().getId());
+        Assert.assertNotNull(response.getJsonPayload());
+        Assert.assertNotNull(JsonSource.getJsonObject(response.getJsonPayload(), IDC.Payload.DATA));
+    }
+
+    /**
+     * Created keys are deserialized from the response, and associated with their request references.
+     *
+     * @throws IonicException on key request failure
+     */
+    @Test
+    public final void testAgent_CreateKeys_StreamResponse() throws IonicException {
+        final Agent agent = createAgent(new AgentConfig());
+        final CreateKeysRequest request = new CreateKeysRequest();
+        request.add(new CreateKeysRequest.Key("ref1", 2));
+        request.add(new CreateKeysRequest.Key("ref2"));
+        final CreateKeysResponse response = agent.createKeys(request);
+        Assert.assertEquals(2 + 1, response.getKeys().size());
+        for (final CreateKeysResponse.Key key : response.getKeys()) {
+            Assert.assertTrue(key.getId().startsWith(key.getRefId()));
+            Assert.assertArrayEquals(keyBytes, key.getKey());
+        }
+    }
+
+    /**
+     * A server error in the response is reported, regardless of its position in the response.
+     *
+     * @throws IonicException on setup failure
+     */
+    @Test
+    public final void testAgent_GetKeys_ServerError() throws IonicException {
+        final Agent agent = createAgent(new AgentConfig());
+        serverError = Json.createObjectBuilder()
+                .add(IDC.Payload.CODE, ServerError.PROCESSING_ERROR).add(IDC.Payload.MESSAGE, "error").build();
+        try {
+            agent.getKeys(new GetKeysRequest(KEY_ID_1));
+            Assert.fail("expected server error");
+        } catch (IonicException e) {
+            Assert.assertEquals(SdkError.ISAGENT_REQUESTFAILED, e.getReturnCode());
+        }
+    }
+
+    /**
+     * @param agentConfig the configuration of the agent
+     * @return an agent using the device profile of the loopback HTTP server
+     * @throws IonicException on initialization failure
+     */
+    private Agent createAgent(final AgentConfig agentConfig) throws IonicException {
+        final Agent agent = new Agent();
+        agent.initializeWithoutProfiles(agentConfig);
+        agent.addProfile(deviceProfile, true);
+        return agent;
+    }
+
+    /**
+     * Emulate the key service response to a client request.
+     *
+     * @param path      the resource requested by the client
+     * @param entityIn  the secured request entity
+     * @return the secured response entity
+     * @throws IonicException on failure to unwrap the request, or wrap the response
+     */
+    private byte[] serve(final String path, final byte[] entityIn) throws IonicException {
+        final JsonObject jsonSecure = JsonIO.readObject(entityIn);
+        final String cid = JsonSource.getString(jsonSecure, IDC.Payload.CID);
+        final AesGcmCipher cipherIdc = new AesGcmCipher(deviceProfile.getAesCdIdcProfileKey());
+        cipherIdc.setAuthData(Transcoder.utf8().decode(cid));
+        final JsonObject jsonRequest = JsonIO.readObject(
+                cipherIdc.decryptBase64(JsonSource.getString(jsonSecure, IDC.Payload.ENVELOPE)));
+        final JsonObjectBuilder data = Json.createObjectBuilder();
+        if (path.endsWith(IDC.Resource.KEYS_GET_BASE)) {
+            data.add(IDC.Payload.PROTECTION_KEYS, Json.createArrayBuilder().add(Json.createObjectBuilder()
+                    .add(IDC.Payload.ID, KEY_ID_1)
+                    .add(IDC.Payload.KEY, wrapKey(Value.join(IDC.Signature.DELIMITER, cid, KEY_ID_1)))));
+            data.add(IDC.Payload.ERROR_MAP, Json.createObjectBuilder().add(KEY_ID_2, Json.createObjectBuilder()
+                    .add(IDC.Payload.CODE, SERVER_ERROR_DENIED).add(IDC.Payload.MESSAGE, "denied")));
+        } else {
+            final JsonArrayBuilder protectionKeys = Json.createArrayBuilder();
+            final JsonObject jsonData = JsonSource.getJsonObject(jsonRequest, IDC.Payload.DATA);
+            for (final JsonValue value : JsonSource.getJsonArray(jsonData, IDC.Payload.PROTECTION_KEYS)) {
+                final JsonObject keyRequest = JsonSource.toJsonObject(value, IDC.Payload.PROTECTION_KEYS);
+                final String ref = JsonSource.getString(keyRequest, IDC.Payload.REF);
+                for (int i = 0; (i < JsonSource.getInt(keyRequest, IDC.Payload.QTY)); ++i) {
+                    final String id = ref + i;
+                    protectionKeys.add(Json.createObjectBuilder()
+                            .add(IDC.Payload.REF, ref)
+                            .add(IDC.Payload.ID, id)
+                            .add(IDC.Payload.KEY, wrapKey(Value.join(IDC.Signature.DELIMITER, cid, ref, id,
+                                    JsonSource.getString(keyRequest, IDC.Payload.CSIG),
+                                    JsonSource.getString(keyRequest, IDC.Payload.MSIG)))));
+                }
+            }
+            data.add(IDC.Payload.PROTECTION_KEYS, protectionKeys);
+        }
+        // members are ordered so that the "data" object precedes the others, and unknown members are included
+        final JsonObjectBuilder jsonResponse = Json.createObjectBuilder()
+                .add(IDC.Payload.DATA, data)
+                .add("extra", Json.createArrayBuilder().add(1).add(Json.createObjectBuilder().add("a", "b")))
+                .add(IDC.Payload.CID, cid);
+        if (serverError != null) {
+            jsonResponse.add(IDC.Payload.ERROR, serverError);
+        }
+        final byte[] entityClear = Transcoder.utf8().decode(JsonIO.write(jsonResponse.build(), false));
+        return Transcoder.utf8().decode(JsonIO.write(Json.createObjectBuilder()
+                .add(IDC.Payload.CID, cid)
+                .add(IDC.Payload.ENVELOPE, cipherIdc.encryptToBase64(entityClear))
+                .build(), false));
+    }
+
+    /**
+     * @param authData the authentication data binding the key to the response
+     * @return the hex representation of the protected key material
+     * @throws IonicException on cryptography failure
+     */
+    private String wrapKey(final String authData) throws IonicException {
+        final AesGcmCipher cipherEi = new AesGcmCipher(deviceProfile.getAesCdEiProfileKey());
+        cipherEi.setAuthData(Transcoder.utf8().decode(authData));
+        return Transcoder.hex().encode(cipherEi.encrypt(keyBytes));
+    }
+
+    /**
+     * A key id served by the loopback HTTP server.
+     */
+    private static final String KEY_ID_1 = "ABcd1234";
+
+    /**
+     * A key id denied by the loopback HTTP server.
+     */
+    private static final String KEY_ID_2 = "ABcd5678";
+
+    /**
+     * The server error code used to deny a key.
+     */
+    private static final int SERVER_ERROR_DENIED = ServerError.KEY_INVALID_RESOURCE_NAME;
+}
@@ -0,0 +1,126 @@
+package com.ionic.sdk.ks.cipher.chunk.test;
+
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherAbstract;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherAuto;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV1;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV2;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV3;
+import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoDecryptResults;
+import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoEncryptAttributes;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.ks.service.CountingKeyServices;
+import com.ionic.sdk.ks.service.TestKeyServices;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test ability to encrypt and decrypt many chunks in a single operation.
+ */
+public class ChunkCipherBulkTest {
+
+    /**
+     * Inputs encrypted with a mix of chunk formats and a small set of keys should be decrypted using a single key
+     * request, and returned in input order.
+     *
+     * @throws IonicException on cryptography failures
+     */
+    @Test
+    public final void testChunkCipherBulk_DecryptMixedFormats() throws IonicException {
+        final CountingKeyServices keyServices = new CountingKeyServices(new TestKeyServices("Java"));
+        final ChunkCipherAbstract chunkCipher = new ChunkCipherAuto(keyServices);
+        final String[] cipherTexts = {
+                chunkCipher.encrypt("a"),
+                new ChunkCipherV1(keyServices).encrypt("b"),
+                new ChunkCipherV3(keyServices).encrypt("c"),
+        };
+        final List<String> cipherTextList = new ArrayList<String>();
+        final int count = 200;
+        for (int i = 0; (i < count); ++i) {
+            cipherTextList.add(cipherTexts[i % cipherTexts.length]);
+        }
+        final ChunkCryptoDecryptResults<String> results = chunkCipher.decrypt(cipherTextList);
+        Assert.assertEquals(1, keyServices.getGetKeysCount());
+        Assert.assertFalse(results.hasErrors());
+        Assert.assertEquals(count, results.size());
+        for (int i = 0; (i < count); ++i) {
+            Assert.assertEquals(Character.toString((char) ('a' + (i % cipherTexts.length))),
+                    results.getPlainText(i));
+        }
+    }
+
+    /**
+     * Inputs which cannot be decrypted should be reported individually, without failing the other inputs.
+     *
+     * @throws IonicException on cryptography failures
+     */
+    @Test
+    public final void testChunkCipherBulk_DecryptPartialFailure() throws IonicException {
+        final KeyServices keyServices = new TestKeyServices("Java");
+        final ChunkCipherAbstract chunkCipher = new ChunkCipherAuto(keyServices);
+        final String cipherTextDenied = new ChunkCipherAuto(new TestKeyServices("Test")).encrypt("denied");
+        final List<String> cipherTexts = Arrays.asList(
+                chunkCipher.encrypt("Hello"), "not a ciphertext", cipherTextDenied, chunkCipher.encrypt("Machina"));
+        final ChunkCryptoDecryptResults<byte[]> results = chunkCipher.decryptToBytes(cipherTexts);
+        Assert.assertEquals("Hello", Transcoder.utf8().encode(results.getPlainText(0)));
+        Assert.assertNull(results.getPlainText(1));
+        Assert.assertNull(results.getPlainText(2));
+        Assert.assertEquals("Machina", Transcoder.utf8().encode(results.getPlainText(3)));
+        final List<ChunkCryptoDecryptResults.IonicError> errors = results.getErrors();
+        Assert.assertEquals(2, errors.size());
+        Assert.assertEquals(1, errors.get(0).getIndex());
+        Assert.assertEquals(SdkError.ISAGENT_INVALIDVALUE, errors.get(0).getClientError());
+        Assert.assertEquals(2, errors.get(1).getIndex());
+        Assert.assertEquals(SdkError.ISAGENT_KEY_DENIED, errors.get(1).getClientError());
+    }
+
+    /**
+     * Bulk encrypted inputs should each use a distinct key created in a single key request, and should be readable
+     * by the single input decrypt APIs of each chunk format.
+     *
+     * @throws IonicException on cryptography failures
+     */
+    @Test
+    public final void testChunkCipherBulk_EncryptFormatCompatibility() throws IonicException {
+        final CountingKeyServices keyServices = new CountingKeyServices(new TestKeyServices("Java"));
+        final ChunkCipherAbstract[] chunkCiphers = {
+                new ChunkCipherV1(keyServices), new ChunkCipherV2(keyServices),
+                new ChunkCipherV3(keyServices), new ChunkCipherAuto(keyServices),
+        };
+        final List<byte[]> plainTexts = new ArrayList<byte[]>();
+        final int count = 150;
+        for (int i = 0; (i < count); ++i) {
+            plainTexts.add(Transcoder.utf8().decode("plainText" + i));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (final ChunkCipherAbstract chunkCipher : chunkCiphers) {
+                final int createKeysCount = keyServices.getCreateKeysCount();
+                final ChunkCryptoEncryptAttributes encryptAttributes = new ChunkCryptoEncryptAttributes();
+                final List<String> cipherTexts = chunkCipher.encrypt(plainTexts, encryptAttributes, executor);
+                Assert.assertEquals(createKeysCount + 1, keyServices.getCreateKeysCount());
+                Assert.assertEquals(chunkCipher.getId(), encryptAttributes.getCipherId());
+                Assert.assertEquals(count, cipherTexts.size());
+                final Set<String> keyIds = new HashSet<String>();
+                for (int i = 0; (i < count); ++i) {
+                    final String cipherText = cipherTexts.get(i);
+                    keyIds.add(chunkCipher.getChunkInfo(cipherText).getKeyId());
+                    Assert.assertEquals("plainText" + i, chunkCipher.decrypt(cipherText));
+                }
+                Assert.assertEquals(count, keyIds.size());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
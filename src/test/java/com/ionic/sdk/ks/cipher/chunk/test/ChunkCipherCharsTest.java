@@ -0,0 +1,121 @@
+package com.ionic.sdk.ks.cipher.chunk.test;
+
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherAbstract;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherAuto;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV1;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV2;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV3;
+import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoDecryptAttributes;
+import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoEncryptAttributes;
+import com.ionic.sdk.core.codec.Base64Chars;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.rng.CryptoRng;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.ks.service.TestKeyServices;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.CharBuffer;
+
+/**
+ * Test ability to encrypt chunks into caller supplied character buffers, and to decrypt chunks embedded in larger
+ * character sequences.
+ */
+public class ChunkCipherCharsTest {
+
+    /**
+     * Chunks appended to a {@link StringBuilder} should be interchangeable with those from the String APIs, and
+     * should be decrypted in place.
+     *
+     * @throws IonicException on cryptography failures
+     */
+    @Test
+    public final void testChunkCipher_AppendableDecryptRange() throws IonicException {
+        final KeyServices keyServices = new TestKeyServices("Java");
+        final ChunkCipherAbstract[] chunkCiphers = {
+                new ChunkCipherV1(keyServices), new ChunkCipherV2(keyServices),
+                new ChunkCipherV3(keyServices), new ChunkCipherAuto(keyServices),
+        };
+        final ChunkCipherAbstract chunkCipherAuto = new ChunkCipherAuto(keyServices);
+        final byte[] plainText = Transcoder.utf8().decode("Hello, Machina!");
+        for (final ChunkCipherAbstract chunkCipher : chunkCiphers) {
+            final StringBuilder buffer = new StringBuilder("prefix ");
+            final int start = buffer.length();
+            chunkCipher.encrypt(plainText, new ChunkCryptoEncryptAttributes(), buffer);
+            final int end = buffer.length();
+            buffer.append(" suffix");
+            final String cipherText = buffer.substring(start, end);
+            Assert.assertArrayEquals(plainText, chunkCipher.decryptToBytes(cipherText));
+            Assert.assertArrayEquals(plainText, chunkCipher.decryptToBytes(
+                    buffer, start, end, new ChunkCryptoDecryptAttributes()));
+            Assert.assertArrayEquals(plainText, chunkCipherAuto.decryptToBytes(
+                    buffer, start, end, new ChunkCryptoDecryptAttributes()));
+        }
+    }
+
+    /**
+     * Chunks written to a {@link CharBuffer} should fail cleanly when the buffer is too small.
+     *
+     * @throws IonicException on cryptography failures
+     */
+    @Test
+    public final void testChunkCipher_CharBufferOverflow() throws IonicException {
+        final ChunkCipherAbstract chunkCipher = new ChunkCipherV3(new TestKeyServices("Java"));
+        final byte[] plainText = new CryptoRng().rand(new byte[SIZE_PLAINTEXT]);
+        final CharBuffer charBuffer = CharBuffer.allocate(SIZE_BUFFER);
+        chunkCipher.encrypt(plainText, new ChunkCryptoEncryptAttributes(), charBuffer);
+        charBuffer.flip();
+        Assert.assertArrayEquals(plainText, chunkCipher.decryptToBytes(
+                charBuffer, 0, charBuffer.length(), new ChunkCryptoDecryptAttributes()));
+        try {
+            chunkCipher.encrypt(plainText, new ChunkCryptoEncryptAttributes(),
+                    CharBuffer.allocate(Base64Chars.getEncodedLength(SIZE_PLAINTEXT)));
+            Assert.fail("expected overflow");
+        } catch (IonicException e) {
+            Assert.assertEquals(SdkError.ISCHUNKCRYPTO_STREAM_WRITE, e.getReturnCode());
+        }
+    }
+
+    /**
+     * Malformed chunks should be rejected.
+     *
+     * @throws IonicException on cryptography failures
+     */
+    @Test
+    public final void testChunkCipher_DecryptRangeInvalid() throws IonicException {
+        final ChunkCipherAbstract chunkCipher = new ChunkCipherV2(new TestKeyServices("Java"));
+        final String cipherText = chunkCipher.encrypt("Hello, Machina!");
+        final ChunkCryptoDecryptAttributes decryptAttributes = new ChunkCryptoDecryptAttributes();
+        try {
+            chunkCipher.decryptToBytes(cipherText, 0, cipherText.length() + 1, decryptAttributes);
+            Assert.fail("expected bad range");
+        } catch (IonicException e) {
+            Assert.assertEquals(SdkError.ISCHUNKCRYPTO_BAD_INPUT, e.getReturnCode());
+        }
+        try {
+            chunkCipher.decryptToBytes(cipherText, 0, cipherText.length() - 1, decryptAttributes);
+            Assert.fail("expected truncated input");
+        } catch (IonicException e) {
+            Assert.assertEquals(SdkError.ISAGENT_INVALIDVALUE, e.getReturnCode());
+        }
+        final String cipherTextCorrupt = cipherText.substring(0, cipherText.length() - 2) + "?!";
+        try {
+            chunkCipher.decryptToBytes(cipherTextCorrupt, 0, cipherTextCorrupt.length(), decryptAttributes);
+            Assert.fail("expected invalid base64");
+        } catch (IonicException e) {
+            Assert.assertEquals(SdkError.ISCRYPTO_BAD_INPUT, e.getReturnCode());
+        }
+    }
+
+    /**
+     * The size of the plaintext in the {@link CharBuffer} test.
+     */
+    private static final int SIZE_PLAINTEXT = 100;
+
+    /**
+     * The size of the {@link CharBuffer} large enough to hold the encrypted chunk.
+     */
+    private static final int SIZE_BUFFER = 1024;
+}
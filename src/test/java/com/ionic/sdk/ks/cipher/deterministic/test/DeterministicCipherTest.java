@@ -4,6 +4,7 @@ import com.ionic.sdk.agent.cipher.chunk.ChunkCipherAbstract;
 import com.ionic.sdk.agent.cipher.chunk.ChunkCipherAuto;
 import com.ionic.sdk.agent.cipher.chunk.data.ChunkCryptoEncryptAttributes;
 import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.core.codec.Transcoder;
 import com.ionic.sdk.error.IonicException;
 import com.ionic.sdk.key.KeyServices;
 import com.ionic.sdk.key.cache.KeyServicesSingleKey;
@@ -11,6 +12,9 @@ import com.ionic.sdk.ks.test.IonicTestEnvironment;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Test cases enumerating deterministic encryption usage scenarios.
  * <p>
@@ -41,4 +45,30 @@ public class DeterministicCipherTest {
         final String cipherText2 = chunkCipher2.encrypt(plainText, new ChunkCryptoEncryptAttributes(attributes));
         Assert.assertEquals(cipherText1, cipherText2);
     }
+
+    /**
+     * Demonstrate batch deterministic encryption using {@link ChunkCipherAuto}.  Equal inputs produce equal outputs,
+     * which match the output of single value deterministic encryption with the same key.
+     *
+     * @throws IonicException on initialization failure, operation failure
+     */
+    @Test
+    public void testChunkCipherAuto_DeterministicBatch() throws IonicException {
+        final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+        final CreateKeysRequest createKeysRequest = new CreateKeysRequest(new CreateKeysRequest.Key());
+        final KeyServicesSingleKey keyServicesWrapper = new KeyServicesSingleKey(keyServices, createKeysRequest);
+        final ChunkCipherAbstract chunkCipher = new ChunkCipherAuto(keyServicesWrapper);
+        final List<byte[]> plainTexts = Arrays.asList(Transcoder.utf8().decode("Hello Machina!"),
+                Transcoder.utf8().decode("Goodbye Machina!"), Transcoder.utf8().decode("Hello Machina!"));
+        final List<String> cipherTexts = chunkCipher.encryptDeterministic(
+                plainTexts, new ChunkCryptoEncryptAttributes());
+        Assert.assertEquals(plainTexts.size(), cipherTexts.size());
+        Assert.assertEquals(cipherTexts.get(0), cipherTexts.get(2));
+        Assert.assertNotEquals(cipherTexts.get(0), cipherTexts.get(1));
+        Assert.assertEquals("Goodbye Machina!", chunkCipher.decrypt(cipherTexts.get(1)));
+        // single value encryption with the same key and IV algorithm
+        final ChunkCryptoEncryptAttributes attributes = new ChunkCryptoEncryptAttributes();
+        attributes.setMetadata("ionic-iv-algorithm", "HmacSHA256");
+        Assert.assertEquals(cipherTexts.get(0), chunkCipher.encrypt("Hello Machina!", attributes));
+    }
 }
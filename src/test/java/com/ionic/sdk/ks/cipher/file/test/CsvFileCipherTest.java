@@ -23,7 +23,9 @@ import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Logger;
 
 /**
@@ -200,6 +202,36 @@ public class CsvFileCipherTest {
         Assert.assertTrue(cipherText.length > plainText.length);
     }
 
+    /**
+     * Test {@link CsvFileCipher} parallel processing of the wrapped payload blocks.  Content encrypted in parallel
+     * should be the same size as content encrypted on the calling thread, and either should be recoverable by either
+     * mode.  The content spans several payload blocks.
+     *
+     * @throws IonicException on failure to initialize Ionic library, on cryptography operation failures
+     * @throws IOException    on data generation failure
+     */
+    @Test
+    public final void testFileCipherBytes_Parallel_CodecSymmetry() throws IonicException, IOException {
+        final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+        final int count = (FileCipher.Generic.V12.BLOCK_SIZE_PLAIN * 2) + 100;
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(count);
+        while (bos.size() < count) {
+            bos.write(testBytes);
+        }
+        final byte[] plainTextIn = Arrays.copyOf(bos.toByteArray(), count);
+        final CsvFileCipher fileCipher = new CsvFileCipher(keyServices);
+        final CsvFileCipher fileCipherParallel = new CsvFileCipher(keyServices);
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        fileCipherParallel.setExecutor(forkJoinPool);
+        final byte[] cipherText = fileCipher.encrypt(plainTextIn);
+        final byte[] cipherTextParallel = fileCipherParallel.encrypt(plainTextIn);
+        Assert.assertEquals(cipherText.length, cipherTextParallel.length);
+        Assert.assertArrayEquals(plainTextIn, fileCipher.decrypt(cipherTextParallel));
+        Assert.assertArrayEquals(plainTextIn, fileCipherParallel.decrypt(cipherText));
+        Assert.assertArrayEquals(plainTextIn, fileCipherParallel.decrypt(cipherTextParallel));
+        forkJoinPool.shutdown();
+    }
+
     /**
      * When the test cases in this class are run on a device with an "arm" processor (Raspberry Pi), the time elapsed
      * exceeds the time budget for the test suite.  So the size of the maximum file encryption is limited for this
@@ -9,12 +9,16 @@ import com.ionic.sdk.agent.cipher.file.data.FileCipher;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoDecryptAttributes;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoEncryptAttributes;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoFileInfo;
+import com.ionic.sdk.core.io.SeekableByteBufferChannel;
 import com.ionic.sdk.core.rng.CryptoRng;
 import com.ionic.sdk.core.vm.VM;
 import com.ionic.sdk.crypto.CryptoUtils;
 import com.ionic.sdk.device.DeviceUtils;
 import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
 import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.ks.service.CountingKeyServices;
+import com.ionic.sdk.ks.service.TestKeyServices;
 import com.ionic.sdk.ks.test.IonicTestEnvironment;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -23,7 +27,11 @@ import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Logger;
 
 /**
@@ -185,6 +193,165 @@ public class GenericFileCipherTest {
         }
     }
 
+    /**
+     * Test {@link GenericFileCipher} parallel processing of version 1.3 blocks.  Content encrypted in parallel should
+     * be the same size as content encrypted on the calling thread, and either should be recoverable by either mode.
+     * Small blocks and meta blocks are used, so that the content spans several key rotations.
+     *
+     * @throws IonicException on failure to initialize Ionic library, on cryptography operation failures
+     * @throws IOException    on data generation failure
+     */
+    @Test
+    public final void testGenericCipherBytes_V13Parallel_CodecSymmetry() throws IonicException, IOException {
+        final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+        final int count = 1024 * 24 + 100;
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(count);
+        while (bos.size() < count) {
+            bos.write(testBytes);
+        }
+        final byte[] plainTextIn = Arrays.copyOf(bos.toByteArray(), count);
+        final GenericFileCipher fileCipher = new GenericFileCipher(keyServices);
+        final GenericFileCipher fileCipherParallel = new GenericFileCipher(keyServices);
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        fileCipherParallel.setExecutor(forkJoinPool);
+        final byte[] cipherText = fileCipher.encrypt(plainTextIn, getEncryptAttributesV13());
+        final byte[] cipherTextParallel = fileCipherParallel.encrypt(plainTextIn, getEncryptAttributesV13());
+        Assert.assertEquals(cipherText.length, cipherTextParallel.length);
+        Assert.assertArrayEquals(plainTextIn, fileCipher.decrypt(cipherTextParallel));
+        Assert.assertArrayEquals(plainTextIn, fileCipherParallel.decrypt(cipherText));
+        Assert.assertArrayEquals(plainTextIn, fileCipherParallel.decrypt(cipherTextParallel));
+        forkJoinPool.shutdown();
+    }
+
+    /**
+     * Random access reads of version 1.3 plaintext should match the corresponding ranges of the original plaintext,
+     * including reads which span key rotation boundaries and the final partial block.
+     *
+     * @throws IonicException on failure to initialize Ionic library, on cryptography operation failures
+     * @throws IOException    on channel read failures
+     */
+    @Test
+    public final void testGenericCipherBytes_V13Seekable_RangeReads() throws IonicException, IOException {
+        final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+        final int count = 1024 * 24 + 100;
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(count);
+        while (bos.size() < count) {
+            bos.write(testBytes);
+        }
+        final byte[] plainTextIn = Arrays.copyOf(bos.toByteArray(), count);
+        final GenericFileCipher fileCipher = new GenericFileCipher(keyServices);
+        final byte[] cipherText = fileCipher.encrypt(plainTextIn, getEncryptAttributesV13());
+        final int[][] ranges = { {0, 10}, {1020, 10}, {3 * 1024 - 5, 10}, {6 * 1024, 2048}, {count - 150, 150},
+                {500, 9000}, {count - 1, 1}, };
+        try (SeekableByteChannel channel = fileCipher.openSeekable(new SeekableByteBufferChannel(cipherText))) {
+            Assert.assertEquals(count, channel.size());
+            for (int[] range : ranges) {
+                final ByteBuffer buffer = ByteBuffer.allocate(range[1]);
+                channel.position(range[0]);
+                while (buffer.hasRemaining()) {
+                    Assert.assertTrue(channel.read(buffer) > 0);
+                }
+                Assert.assertArrayEquals(Arrays.copyOfRange(plainTextIn, range[0], range[0] + range[1]),
+                        buffer.array());
+                Assert.assertEquals(range[0] + range[1], channel.position());
+            }
+            channel.position(count);
+            Assert.assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        }
+    }
+
+    /**
+     * Version 1.3 rotation keys should be created in a single request, and a read spanning rotation boundaries
+     * should fetch the keys it needs in a single request.
+     *
+     * @throws IonicException on failure to initialize Ionic library, on cryptography operation failures
+     * @throws IOException    on channel read failures
+     */
+    @Test
+    public final void testGenericCipherBytes_V13RotationKeys_Batched() throws IonicException, IOException {
+        final CountingKeyServices keyServices = new CountingKeyServices(new TestKeyServices("Java"));
+        final int count = 1024 * 24 + 100;
+        final byte[] plainTextIn = new CryptoRng().rand(new byte[count]);
+        final GenericFileCipher fileCipher = new GenericFileCipher(keyServices);
+        // 25 blocks in 9 meta blocks; the file key, and then the 8 rotation keys
+        final byte[] cipherText = fileCipher.encrypt(plainTextIn, getEncryptAttributesV13());
+        Assert.assertEquals(2, keyServices.getCreateKeysCount());
+        Assert.assertArrayEquals(plainTextIn, fileCipher.decrypt(cipherText));
+        final int getKeysCount = keyServices.getGetKeysCount();
+        try (SeekableByteChannel channel = fileCipher.openSeekable(new SeekableByteBufferChannel(cipherText))) {
+            final ByteBuffer buffer = ByteBuffer.allocate(count);
+            while (buffer.hasRemaining()) {
+                Assert.assertTrue(channel.read(buffer) > 0);
+            }
+            Assert.assertArrayEquals(plainTextIn, buffer.array());
+        }
+        Assert.assertEquals(getKeysCount + 1, keyServices.getGetKeysCount());
+    }
+
+    /**
+     * Random access reads are only supported for version 1.3 content.
+     *
+     * @throws IonicException on failure to initialize Ionic library, on cryptography operation failures
+     */
+    @Test
+    public final void testGenericCipherBytes_V12Seekable_Unsupported() throws IonicException {
+        final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+        final GenericFileCipher fileCipher = new GenericFileCipher(keyServices);
+        final byte[] cipherText = fileCipher.encrypt(testBytes,
+                new FileCryptoEncryptAttributes(FileCipher.Generic.V12.LABEL));
+        try {
+            fileCipher.openSeekable(new SeekableByteBufferChannel(cipherText));
+            Assert.fail("expected exception");
+        } catch (IonicException e) {
+            Assert.assertEquals(SdkError.ISFILECRYPTO_VERSION_UNSUPPORTED, e.getReturnCode());
+        }
+    }
+
+    /**
+     * Version 1.2 content encrypted in parallel should be decryptable serially, and vice versa.  The content spans
+     * several (fixed size) version 1.2 blocks.
+     *
+     * @throws IonicException on failure to initialize Ionic library, on cryptography operation failures
+     */
+    @Test
+    public final void testGenericCipherBytes_V12Parallel_CodecSymmetry() throws IonicException {
+        final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+        final int count = FileCipher.Generic.V12.BLOCK_SIZE_PLAIN * 2 + 100;
+        final byte[] plainTextIn = new CryptoRng().rand(new byte[count]);
+        final GenericFileCipher fileCipher = new GenericFileCipher(keyServices);
+        final GenericFileCipher fileCipherParallel = new GenericFileCipher(keyServices);
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        fileCipherParallel.setExecutor(forkJoinPool);
+        final byte[] cipherText = fileCipher.encrypt(
+                plainTextIn, new FileCryptoEncryptAttributes(FileCipher.Generic.V12.LABEL));
+        final byte[] cipherTextParallel = fileCipherParallel.encrypt(
+                plainTextIn, new FileCryptoEncryptAttributes(FileCipher.Generic.V12.LABEL));
+        Assert.assertEquals(cipherText.length, cipherTextParallel.length);
+        Assert.assertArrayEquals(plainTextIn, fileCipher.decrypt(cipherTextParallel));
+        Assert.assertArrayEquals(plainTextIn, fileCipherParallel.decrypt(cipherText));
+        Assert.assertArrayEquals(plainTextIn, fileCipherParallel.decrypt(cipherTextParallel));
+        // a corrupted block should fail verification of the file signature
+        cipherTextParallel[cipherTextParallel.length - 1] ^= 1;
+        try {
+            fileCipherParallel.decrypt(cipherTextParallel);
+            Assert.fail("expected exception");
+        } catch (IonicException e) {
+            Assert.assertEquals(SdkError.ISFILECRYPTO_HASH_VERIFICATION, e.getReturnCode());
+        }
+        forkJoinPool.shutdown();
+    }
+
+    /**
+     * @return encrypt attributes specifying version 1.3 output, with small blocks and meta blocks
+     */
+    private static FileCryptoEncryptAttributes getEncryptAttributesV13() {
+        final FileCryptoEncryptAttributes encryptAttributes =
+                new FileCryptoEncryptAttributes(FileCipher.Generic.V13.LABEL);
+        encryptAttributes.setProperty(FileCipher.Generic.BLOCK_SIZE, Integer.toString(1024));
+        encryptAttributes.setProperty(FileCipher.Generic.META_SIZE, Integer.toString(3));
+        return encryptAttributes;
+    }
+
     /**
      * Test {@link GenericFileCipher} constructor that accepts a {@link FileCryptoCoverPageServicesInterface}.
      *
@@ -9,6 +9,10 @@ import com.ionic.sdk.agent.cipher.file.data.FileCipher;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoDecryptAttributes;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoEncryptAttributes;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoFileInfo;
+import com.ionic.sdk.agent.cipher.file.family.openxml.input.OpenXmlPortionMarkInput;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.cipher.aes.AesCtrCipher;
+import com.ionic.sdk.core.codec.Transcoder;
 import com.ionic.sdk.core.res.Resource;
 import com.ionic.sdk.crypto.CryptoUtils;
 import com.ionic.sdk.device.DeviceUtils;
@@ -19,10 +23,18 @@ import com.ionic.sdk.ks.test.IonicTestEnvironment;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Test ability to perform file crypto operations using {@link OpenXmlFileCipher}.
@@ -172,6 +184,142 @@ public class OpenXmlFileCipherTest {
         }
     }
 
+    /**
+     * The Ionic payload of {@link OpenXmlFileCipher} output is incompressible, and should be stored in the output zip
+     * file without compression.  Verify this for in-memory output (payload staged before being copied into the zip
+     * file) and for file output (payload encrypted directly into the zip file).
+     *
+     * @throws IonicException on failure to initialize Ionic library, on cryptography operation failures
+     * @throws IOException    on failure reading the output zip file
+     */
+    /**
+     * Decrypt the portion marked sections of a Word document.  The sections are located (and their keys fetched)
+     * before the document XML is rewritten.
+     *
+     * @throws IonicException on cryptography errors
+     * @throws IOException on failure reading or writing the zip content
+     */
+    @Test
+    public final void testPortionMark_DecryptSections_Streamed() throws IonicException, IOException {
+        final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+        final CreateKeysResponse.Key key = keyServices.createKey().getFirstKey();
+        final AesCtrCipher cipher = new AesCtrCipher(key.getKey());
+        final String plainText1 = "Top Secret & <Private>";
+        final String plainText2 = "Confidential";
+        final String run = "<w:r w:rsidRPr=\"00C3\"><w:rPr><w:highlight w:val=\"%s\"/></w:rPr><w:t>%s</w:t></w:r>";
+        final String documentXml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"><w:body>"
+                + "<w:p w:rsidR=\"00C3\">"
+                + String.format(run, "red", key.getId() + "|" + cipher.encryptToBase64(plainText1))
+                + "<w:r><w:t>Unmarked</w:t></w:r></w:p><w:p w:rsidR=\"00C4\">"
+                + String.format(run, "blue", key.getId() + "|" + cipher.encryptToBase64(plainText2))
+                + "</w:p></w:body></w:document>";
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final ZipOutputStream zos = new ZipOutputStream(bos);
+        zos.putNextEntry(new ZipEntry(FileCipher.OpenXml.DOCUMENT_XML_PATH));
+        zos.write(Transcoder.utf8().decode(documentXml));
+        zos.closeEntry();
+        zos.close();
+        final byte[] docx = bos.toByteArray();
+
+        final OpenXmlPortionMarkInput portionMark =
+                new OpenXmlPortionMarkInput(keyServices, new FileCryptoDecryptAttributes());
+        Assert.assertTrue(portionMark.findPortionMarkedSections(new ByteArrayInputStream(docx)));
+        final ByteArrayOutputStream osDecrypt = new ByteArrayOutputStream();
+        Assert.assertTrue(portionMark.decryptPortionMarkedSections(new ByteArrayInputStream(docx), osDecrypt));
+        final ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(osDecrypt.toByteArray()));
+        final ZipEntry zipEntry = zis.getNextEntry();
+        Assert.assertNotNull(zipEntry);
+        Assert.assertEquals(FileCipher.OpenXml.DOCUMENT_XML_PATH, zipEntry.getName());
+        final String documentXmlOut = Transcoder.utf8().encode(DeviceUtils.read(zis));
+        Assert.assertTrue(documentXmlOut.contains("Top Secret &amp; &lt;Private&gt;"));
+        Assert.assertTrue(documentXmlOut.contains(">" + plainText2 + "<"));
+        Assert.assertTrue(documentXmlOut.contains(">Unmarked<"));
+        Assert.assertFalse(documentXmlOut.contains(key.getId()));
+    }
+
+    /**
+     * Successive encryptions using the same cover page share the prepared cover page entries.  Check that each
+     * ciphertext is independently decryptable.
+     *
+     * @throws IonicException on cryptography errors
+     */
+    @Test
+    public final void testFileCipher_CoverPageTemplate_Reused() throws IonicException {
+        final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+        final FileCipherAbstract fileCipher = new OpenXmlFileCipher(keyServices);
+        final URL url = Resource.resolve(OPENXML_RESOURCE);
+        Assert.assertNotNull(url);
+        final byte[] plainTextIn = DeviceUtils.read(url);
+        final byte[] cipherText1 = fileCipher.encrypt(plainTextIn);
+        final byte[] cipherText2 = fileCipher.encrypt(plainTextIn);
+        Assert.assertFalse(Arrays.equals(cipherText1, cipherText2));
+        Assert.assertArrayEquals(plainTextIn, fileCipher.decrypt(cipherText2));
+        Assert.assertArrayEquals(plainTextIn, fileCipher.decrypt(cipherText1));
+    }
+
+    /**
+     * The Ionic payload of {@link OpenXmlFileCipher} output is incompressible, and should be stored in the output zip
+     * file without compression.  Verify this for in-memory output (payload staged before being copied into the zip
+     * file) and for file output (payload encrypted directly into the zip file).
+     *
+     * @throws IonicException on failure to initialize Ionic library, on cryptography operation failures
+     * @throws IOException    on failure reading the output zip file
+     */
+    @Test
+    public final void testFileCipher_PayloadEntry_Stored() throws IonicException, IOException {
+        final KeyServices keyServices = IonicTestEnvironment.getInstance().getKeyServices();
+        final FileCipherAbstract fileCipher = new OpenXmlFileCipher(keyServices);
+        final File folder = IonicTestEnvironment.getInstance().getFolderTestOutputsMkdir();
+        final URL url = Resource.resolve(OPENXML_RESOURCE);
+        Assert.assertNotNull(url);
+        final byte[] plainTextIn = DeviceUtils.read(url);
+        final byte[] cipherTextBytes = fileCipher.encrypt(plainTextIn);
+        assertPayloadStored(new ByteArrayInputStream(cipherTextBytes));
+
+        final String format = String.format("%s.%s", getClass().getSimpleName(), "stored");
+        final File filePlainTextIn = new File(folder, format + ".plaintext-in.bin");
+        final File fileCipherTextOut = new File(folder, format + ".ciphertext-out.bin");
+        final File filePlainTextOut = new File(folder, format + ".plaintext-out.bin");
+        logger.info(String.format("CLEAN UP OUTPUT, PLAINTEXT IN=%s, CIPHERTEXT OUT=%s, PLAINTEXT OUT=%s",
+                filePlainTextIn.delete(), fileCipherTextOut.delete(), filePlainTextOut.delete()));
+        DeviceUtils.write(filePlainTextIn, plainTextIn);
+        fileCipher.encrypt(filePlainTextIn.getPath(), fileCipherTextOut.getPath());
+        assertPayloadStored(new ByteArrayInputStream(DeviceUtils.read(fileCipherTextOut)));
+        fileCipher.decrypt(fileCipherTextOut.getPath(), filePlainTextOut.getPath());
+        Assert.assertArrayEquals(plainTextIn, DeviceUtils.read(filePlainTextOut));
+    }
+
+    /**
+     * Read each entry of an {@link OpenXmlFileCipher} output zip file (the CRC of each entry is checked as it is
+     * read), and check the storage of the Ionic payload entry.
+     *
+     * @param inputStream the output zip file content
+     * @throws IOException on failure reading the zip file
+     */
+    private void assertPayloadStored(final InputStream inputStream) throws IOException {
+        final ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+        boolean isPayload = false;
+        ZipEntry entry = zipInputStream.getNextEntry();
+        while (entry != null) {
+            final byte[] bytes = new byte[FileCipher.OpenXml.ZIPFILE_BLOCK_SIZE];
+            long size = 0;
+            int count = zipInputStream.read(bytes);
+            while (count >= 0) {
+                size += count;
+                count = zipInputStream.read(bytes);
+            }
+            Assert.assertEquals(entry.getSize(), size);
+            if (FileCipher.OpenXml.IONIC_EMBED_PATH.equals(entry.getName())) {
+                Assert.assertEquals(ZipEntry.STORED, entry.getMethod());
+                isPayload = true;
+            }
+            entry = zipInputStream.getNextEntry();
+        }
+        zipInputStream.close();
+        Assert.assertTrue(isPayload);
+    }
+
     /**
      * Test {@link OpenXmlFileCipher} constructor that accepts a {@link FileCryptoCoverPageServicesInterface}.
      *
@@ -10,6 +10,8 @@ import com.ionic.sdk.agent.cipher.file.data.FileCryptoDecryptAttributes;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoEncryptAttributes;
 import com.ionic.sdk.agent.cipher.file.data.FileCryptoFileInfo;
 import com.ionic.sdk.agent.cipher.file.family.pdf.data.IonicPdfDocument;
+import com.ionic.sdk.core.io.ByteChannelWindow;
+import com.ionic.sdk.core.io.ByteChannelWindowInputStream;
 import com.ionic.sdk.core.io.SeekableByteBufferChannel;
 import com.ionic.sdk.core.res.Resource;
 import com.ionic.sdk.core.rng.CryptoRng;
@@ -26,6 +28,7 @@ import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.nio.channels.SeekableByteChannel;
 import java.util.List;
@@ -222,6 +225,28 @@ public class PdfFileCipherTest {
         logger.info(pdfDocument.getXrefTable().getTrailerDictionary().toString());
     }
 
+    /**
+     * The embedded Ionic payload is streamed from a window of the PDF document channel; verify that reads are
+     * bounded by the window.
+     *
+     * @throws IOException on channel seek / read failure
+     */
+    @Test
+    public final void testPdfCipherFile_ChannelWindowStream_BoundedReads() throws IOException {
+        final int start = 100;
+        final int end = 900;
+        final SeekableByteChannel channel = new SeekableByteBufferChannel(new byte[testBytes.length]);
+        final InputStream is = new ByteChannelWindowInputStream(new ByteChannelWindow(channel, start, end));
+        Assert.assertEquals(end - start, is.available());
+        Assert.assertEquals(0, is.read());
+        final byte[] buffer = new byte[testBytes.length];
+        Assert.assertEquals(end - start - 1, is.read(buffer, 0, buffer.length));
+        Assert.assertEquals(0, is.available());
+        Assert.assertEquals(-1, is.read(buffer, 0, buffer.length));
+        Assert.assertEquals(-1, is.read());
+        Assert.assertEquals(end, channel.position());
+    }
+
     /**
      * When the test cases in this class are run on a device with an "arm" processor (Raspberry Pi), the time elapsed
      * exceeds the time budget for the test suite.  So the size of the maximum file encryption is limited for this
@@ -0,0 +1,131 @@
+package com.ionic.sdk.ks.cipher.test;
+
+import com.ionic.sdk.agent.AgentSdk;
+import com.ionic.sdk.cipher.aes.AesCipher;
+import com.ionic.sdk.cipher.aes.AesGcmCipher;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.rng.CryptoRng;
+import com.ionic.sdk.crypto.jce.CryptoAbstract;
+import com.ionic.sdk.error.IonicException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.crypto.Cipher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test cases exercising the reuse of JCE objects by the calling thread, via the
+ * {@link CryptoAbstract} <code>getThread*()</code> APIs.
+ */
+public class AesCipherThreadTest {
+
+    /**
+     * Verify that a thread is given the same JCE cipher instance on each request, and that other threads are given
+     * their own instances.
+     *
+     * @throws Exception on failure to instantiate the cipher, or on failure of the worker thread
+     */
+    @Test
+    public final void testCryptoAbstract_ThreadInstances_Distinct() throws Exception {
+        final CryptoAbstract crypto = AgentSdk.getCrypto();
+        final Cipher cipher = crypto.getThreadCipherAesGcm();
+        Assert.assertSame(cipher, crypto.getThreadCipherAesGcm());
+        Assert.assertNotSame(cipher, crypto.getThreadCipherAesCtr());
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Cipher cipherOther = executor.submit(new Callable<Cipher>() {
+                @Override
+                public Cipher call() throws IonicException {
+                    return crypto.getThreadCipherAesGcm();
+                }
+            }).get();
+            Assert.assertNotSame(cipher, cipherOther);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Deterministic IV generation repeats the key and IV of the previous AES-GCM encryption, which a JCE provider
+     * may refuse on a reused cipher instance.  Verify that such encryptions succeed.
+     *
+     * @throws IonicException on cryptography failures
+     */
+    @Test
+    public final void testAesGcmCipher_DeterministicIV_RepeatEncrypt() throws IonicException {
+        final byte[] key = new CryptoRng().rand(new byte[AesCipher.KEY_BYTES]);
+        final byte[] plainText = Transcoder.utf8().decode("Hello, Machina!");
+        final AesGcmCipher cipher = new AesGcmCipher(key);
+        cipher.setAuthData(Transcoder.utf8().decode("Ionic"));
+        cipher.setMetadata(AesCipher.IV_ALGORITHM, CryptoAbstract.HMAC_ALGORITHM);
+        final byte[] cipherText1 = cipher.encrypt(plainText);
+        final byte[] cipherText2 = cipher.encrypt(plainText);
+        Assert.assertArrayEquals(cipherText1, cipherText2);
+        Assert.assertArrayEquals(plainText, cipher.decrypt(cipherText1));
+    }
+
+    /**
+     * Verify that a single {@link AesGcmCipher} may be used concurrently by multiple threads, as each operation uses
+     * the cipher instance of the calling thread.
+     *
+     * @throws Exception on cryptography failures, or on failure of a worker thread
+     */
+    @Test
+    public final void testAesGcmCipher_SharedAcrossThreads_Symmetry() throws Exception {
+        final AesGcmCipher cipher = new AesGcmCipher(new CryptoRng().rand(new byte[AesCipher.KEY_BYTES]));
+        cipher.setAuthData(Transcoder.utf8().decode("Ionic"));
+        final ExecutorService executor = Executors.newFixedThreadPool(COUNT_THREADS);
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+            for (int i = 0; (i < COUNT_THREADS); ++i) {
+                futures.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws IonicException {
+                        final CryptoRng cryptoRng = new CryptoRng();
+                        boolean match = true;
+                        for (int j = 0; (j < COUNT_OPERATIONS); ++j) {
+                            final byte[] plainText = cryptoRng.rand(new byte[j + 1]);
+                            match &= Arrays.equals(plainText, cipher.decrypt(cipher.encrypt(plainText)));
+                        }
+                        return match;
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assert.assertTrue(getResult(future));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @param future the result of a worker thread
+     * @return the result
+     * @throws Exception on failure of the worker thread (the cause of the failure is rethrown, when available)
+     */
+    private static boolean getResult(final Future<Boolean> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * The number of threads sharing the cipher.
+     */
+    private static final int COUNT_THREADS = 4;
+
+    /**
+     * The number of cryptography operations made by each thread.
+     */
+    private static final int COUNT_OPERATIONS = 1000;
+}
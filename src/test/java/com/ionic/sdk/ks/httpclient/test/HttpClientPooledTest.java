@@ -0,0 +1,231 @@
+package com.ionic.sdk.ks.httpclient.test;
+
+import com.ionic.sdk.agent.config.AgentConfig;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.io.Stream;
+import com.ionic.sdk.core.value.Value;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.httpclient.Http;
+import com.ionic.sdk.httpclient.HttpClient;
+import com.ionic.sdk.httpclient.HttpClientFactory;
+import com.ionic.sdk.httpclient.HttpClientPooled;
+import com.ionic.sdk.httpclient.HttpHeader;
+import com.ionic.sdk.httpclient.HttpHeaders;
+import com.ionic.sdk.httpclient.HttpRequest;
+import com.ionic.sdk.httpclient.HttpResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Test {@link HttpClientPooled} against a loopback HTTP server.
+ */
+public class HttpClientPooledTest {
+
+    /**
+     * The loopback HTTP server.
+     */
+    private HttpServer httpServer;
+
+    /**
+     * The client ports of the connections accepted by the loopback HTTP server.
+     */
+    private final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+
+    /**
+     * Start a loopback HTTP server, which echoes request entities.
+     *
+     * @throws IOException on failure to start the server
+     */
+    @Before
+    public final void setUp() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpServer.createContext("/echo", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange httpExchange) throws IOException {
+                clientPorts.add(httpExchange.getRemoteAddress().getPort());
+                final byte[] entity = Stream.read(httpExchange.getRequestBody());
+                // a response length of zero causes the server to use chunked transfer encoding
+                final boolean isChunked = httpExchange.getRequestURI().getPath().endsWith("chunked");
+                httpExchange.sendResponseHeaders(Http.Status.OK, isChunked ? 0 : entity.length);
+                final OutputStream os = httpExchange.getResponseBody();
+                os.write(entity);
+                os.close();
+            }
+        });
+        httpServer.createContext("/redirect", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange httpExchange) throws IOException {
+                Stream.read(httpExchange.getRequestBody());
+                httpExchange.getResponseHeaders().set(Http.Header.LOCATION, "/echo");
+                httpExchange.sendResponseHeaders(STATUS_TEMPORARY_REDIRECT, -1);
+                httpExchange.close();
+            }
+        });
+        httpServer.start();
+    }
+
+    /**
+     * Stop the loopback HTTP server.
+     */
+    @After
+    public final void tearDown() {
+        httpServer.stop(0);
+    }
+
+    /**
+     * Consecutive requests should reuse a single connection, for both fixed length and chunked responses.
+     *
+     * @throws IOException on failure to communicate with the server
+     */
+    @Test
+    public final void testHttpClientPooled_ConnectionReuse() throws IOException {
+        final HttpClientPooled httpClient = new HttpClientPooled(new AgentConfig(), "http");
+        final URL url = new URL("http", "127.0.0.1", httpServer.getAddress().getPort(), "/");
+        for (int i = 0; (i < 10); ++i) {
+            final String resource = ((i % 2) == 0) ? "/echo" : "/echo/chunked";
+            final String message = "Hello, Machina! " + i;
+            final HttpRequest httpRequest = new HttpRequest(url, Http.Method.POST, resource,
+                    new HttpHeaders(new HttpHeader(Http.Header.CONTENT_TYPE, Http.Header.CONTENT_TYPE_CLIENT)),
+                    new ByteArrayInputStream(Transcoder.utf8().decode(message)));
+            final HttpResponse httpResponse = httpClient.execute(httpRequest);
+            Assert.assertEquals(Http.Status.OK, httpResponse.getStatusCode());
+            Assert.assertEquals(message, Transcoder.utf8().encode(Stream.read(httpResponse.getEntity())));
+        }
+        Assert.assertEquals(1, clientPorts.size());
+        httpClient.close();
+    }
+
+    /**
+     * {@link HttpClientFactory} should share a pooled client across requests using the same configuration.
+     *
+     * @throws IonicException on failure to create the client
+     */
+    @Test
+    public final void testHttpClientPooled_FactoryCache() throws IonicException {
+        final AgentConfig agentConfig = new AgentConfig();
+        agentConfig.setHttpImpl(HttpClientPooled.class.getName());
+        final HttpClient httpClient = HttpClientFactory.create(agentConfig, "https");
+        Assert.assertTrue(httpClient instanceof HttpClientPooled);
+        Assert.assertSame(httpClient, HttpClientFactory.create(agentConfig, "https"));
+        Assert.assertNotSame(httpClient, HttpClientFactory.create(agentConfig, "http"));
+        Assert.assertNotSame(httpClient, HttpClientFactory.create(new AgentConfig(agentConfig), "https"));
+    }
+
+    /**
+     * A redirect which preserves the request method should also resend the entire request entity.
+     *
+     * @throws IOException on failure to communicate with the server
+     */
+    @Test
+    public final void testHttpClientPooled_RedirectResendsEntity() throws IOException {
+        final HttpClientPooled httpClient = new HttpClientPooled(new AgentConfig(), "http");
+        final URL url = new URL("http", "127.0.0.1", httpServer.getAddress().getPort(), "/");
+        final String message = "Hello, Machina!";
+        final HttpRequest httpRequest = new HttpRequest(url, Http.Method.POST, "/redirect",
+                new HttpHeaders(new HttpHeader(Http.Header.CONTENT_TYPE, Http.Header.CONTENT_TYPE_CLIENT)),
+                new ByteArrayInputStream(Transcoder.utf8().decode(message)));
+        final HttpResponse httpResponse = httpClient.execute(httpRequest);
+        Assert.assertEquals(Http.Status.OK, httpResponse.getStatusCode());
+        Assert.assertEquals(message, Transcoder.utf8().encode(Stream.read(httpResponse.getEntity())));
+        httpClient.close();
+    }
+
+    /**
+     * A malformed "Content-Length" header should fail the request with an IOException, and close the connection.
+     *
+     * @throws IOException on failure to communicate with the server
+     * @throws InterruptedException on interruption of the server thread
+     */
+    @Test
+    public final void testHttpClientPooled_MalformedContentLength() throws IOException, InterruptedException {
+        assertMalformedResponse("HTTP/1.1 200 OK\r\nContent-Length: 12x\r\n\r\n");
+    }
+
+    /**
+     * A malformed chunk size should fail the request with an IOException, and close the connection.
+     *
+     * @throws IOException on failure to communicate with the server
+     * @throws InterruptedException on interruption of the server thread
+     */
+    @Test
+    public final void testHttpClientPooled_MalformedChunkSize() throws IOException, InterruptedException {
+        assertMalformedResponse("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\nzz\r\n");
+    }
+
+    /**
+     * Send a request to a server which sends a malformed response, and check that the client closes the connection.
+     *
+     * @param response the response to be sent by the server
+     * @throws IOException on failure to communicate with the server
+     * @throws InterruptedException on interruption of the server thread
+     */
+    private void assertMalformedResponse(final String response) throws IOException, InterruptedException {
+        final ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        final AtomicBoolean isClosedByClient = new AtomicBoolean(false);
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    socket.setSoTimeout(TIMEOUT_MILLIS);
+                    final BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), "ISO-8859-1"));
+                    // consume the request headers (ending with an empty line)
+                    String line = reader.readLine();
+                    while (!Value.isEmpty(line)) {
+                        line = reader.readLine();
+                    }
+                    socket.getOutputStream().write(Transcoder.utf8().decode(response));
+                    socket.getOutputStream().flush();
+                    isClosedByClient.set(reader.read() < 0);
+                    socket.close();
+                } catch (IOException e) {
+                    isClosedByClient.set(false);
+                }
+            }
+        });
+        thread.start();
+        final HttpClientPooled httpClient = new HttpClientPooled(new AgentConfig(), "http");
+        final URL url = new URL("http", "127.0.0.1", serverSocket.getLocalPort(), "/");
+        try {
+            httpClient.execute(new HttpRequest(url, Http.Method.GET, "/malformed"));
+            Assert.fail("malformed response was accepted");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().startsWith("unexpected entity length"));
+        } finally {
+            thread.join(TIMEOUT_MILLIS);
+            serverSocket.close();
+        }
+        Assert.assertTrue(isClosedByClient.get());
+    }
+
+    /**
+     * The HTTP status code of a redirect for which the request method and entity should be preserved.
+     */
+    private static final int STATUS_TEMPORARY_REDIRECT = 307;
+
+    /**
+     * The maximum wait for the loopback server thread.
+     */
+    private static final int TIMEOUT_MILLIS = 5000;
+}
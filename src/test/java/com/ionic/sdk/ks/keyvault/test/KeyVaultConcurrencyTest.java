@@ -0,0 +1,155 @@
+package com.ionic.sdk.ks.keyvault.test;
+
+import com.ionic.sdk.cipher.aes.AesCipher;
+import com.ionic.sdk.core.date.DateTime;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.keyvault.KeyVaultKey;
+import com.ionic.sdk.keyvault.KeyVaultTimeUtil;
+import com.ionic.sdk.keyvault.impl.KeyVaultPassword;
+import com.ionic.sdk.keyvault.utils.KeyVaultTestUtils;
+import com.ionic.sdk.ks.test.IonicTestEnvironment;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test key retrieval from {@link com.ionic.sdk.keyvault.KeyVaultBase} while the vault is being modified, and lazy
+ * expiration of keys on retrieval.
+ */
+public class KeyVaultConcurrencyTest {
+
+    /**
+     * The key vault under test.
+     */
+    private KeyVaultPassword vault;
+
+    /**
+     * Create an empty key vault, backed by a file in the test output folder.
+     *
+     * @throws IonicException on test environment issues
+     */
+    @Before
+    public final void setUp() throws IonicException {
+        final long creationTimestamp = (System.currentTimeMillis() / DateTime.ONE_SECOND_MILLIS);
+        final File folder = IonicTestEnvironment.getInstance().getFolderTestOutputsMkdir();
+        final String filename = String.format("%s.%d.vault", getClass().getSimpleName(), creationTimestamp);
+        vault = new KeyVaultPassword(new File(folder, filename).getPath());
+        vault.setPassword(UUID.randomUUID().toString());
+        vault.cleanVaultStore();
+    }
+
+    /**
+     * Remove the key vault file.
+     */
+    @After
+    public final void tearDown() {
+        vault.cleanVaultStore();
+    }
+
+    /**
+     * Expired keys should not be returned, even before an expiration sweep has removed them from the vault.
+     *
+     * @throws IonicException on key vault failure
+     */
+    @Test
+    public final void testKeyVault_ExpiredKey_NotReturned() throws IonicException {
+        final long now = KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds();
+        vault.setKey(new KeyVaultKey("ABcdExpired", KeyVaultTestUtils.generateRandomKeyBytes(),
+                now - LIFETIME_SECS, now - 1));
+        vault.setKey(new KeyVaultKey("ABcdCurrent", KeyVaultTestUtils.generateRandomKeyBytes(),
+                now - LIFETIME_SECS, now + LIFETIME_SECS));
+        Assert.assertNull(vault.getKey("ABcdExpired"));
+        Assert.assertFalse(vault.hasKey("ABcdExpired"));
+        Assert.assertTrue(vault.hasKey("ABcdCurrent"));
+        Assert.assertEquals(1, vault.getKeyCount());
+        Assert.assertEquals(Collections.singleton("ABcdCurrent"), vault.getAllKeyIds());
+        Assert.assertEquals(1, vault.getKeys(new TreeSet<String>(vault.getAllKeyIds())).size());
+        final TreeSet<String> keyIdsExpired = new TreeSet<String>();
+        vault.expireKeys(keyIdsExpired);
+        Assert.assertEquals(Collections.singleton("ABcdExpired"), keyIdsExpired);
+    }
+
+    /**
+     * Readers should always observe complete keys while other threads remove, add, and sync keys.
+     *
+     * @throws Exception on key vault failure, or on failure of a reader thread
+     */
+    @Test
+    public final void testKeyVault_ConcurrentReadWrite_Consistent() throws Exception {
+        final long now = KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds();
+        final String keyId = "ABcdShared";
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final Thread[] readers = new Thread[NUM_READERS];
+        for (int i = 0; (i < readers.length); ++i) {
+            readers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while (!done.get()) {
+                            final KeyVaultKey key = vault.getKey(keyId);
+                            if (key != null) {
+                                Assert.assertEquals(AesCipher.KEY_BYTES, key.getKeyBytes().length);
+                            }
+                            for (final KeyVaultKey keyIt : vault.getAllKeys()) {
+                                Assert.assertEquals(AesCipher.KEY_BYTES, keyIt.getKeyBytes().length);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+            readers[i].start();
+        }
+        try {
+            for (int i = 0; (i < NUM_ITERATIONS); ++i) {
+                vault.setKey(new KeyVaultKey(keyId, KeyVaultTestUtils.generateRandomKeyBytes(),
+                        now + i, now + LIFETIME_SECS));
+                if ((i % SYNC_INTERVAL) == 0) {
+                    vault.sync();
+                }
+                vault.removeKey(keyId);
+            }
+        } finally {
+            done.set(true);
+            for (final Thread reader : readers) {
+                reader.join();
+            }
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        vault.sync();
+        Assert.assertEquals(0, vault.getKeyCount());
+        Assert.assertFalse(vault.hasChanges());
+    }
+
+    /**
+     * The lifetime of the test keys, in seconds.
+     */
+    private static final long LIFETIME_SECS = 60L;
+
+    /**
+     * The number of threads reading from the vault.
+     */
+    private static final int NUM_READERS = 4;
+
+    /**
+     * The number of times the shared key is added and removed.
+     */
+    private static final int NUM_ITERATIONS = 1000;
+
+    /**
+     * The interval (in iterations) at which the vault is synced to its file.
+     */
+    private static final int SYNC_INTERVAL = 100;
+}
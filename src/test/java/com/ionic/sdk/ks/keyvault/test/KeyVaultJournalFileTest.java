@@ -0,0 +1,262 @@
+package com.ionic.sdk.ks.keyvault.test;
+
+import com.ionic.sdk.cipher.aes.AesCipher;
+import com.ionic.sdk.cipher.aes.AesGcmCipher;
+import com.ionic.sdk.core.codec.Transcoder;
+import com.ionic.sdk.core.date.DateTime;
+import com.ionic.sdk.core.io.Stream;
+import com.ionic.sdk.core.rng.CryptoRng;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+import com.ionic.sdk.keyvault.KeyVaultEncryptedFile;
+import com.ionic.sdk.keyvault.KeyVaultJournalFile;
+import com.ionic.sdk.keyvault.KeyVaultKey;
+import com.ionic.sdk.keyvault.KeyVaultKeyRecord;
+import com.ionic.sdk.keyvault.KeyVaultTimeUtil;
+import com.ionic.sdk.keyvault.impl.KeyVaultPassword;
+import com.ionic.sdk.keyvault.utils.KeyVaultTestUtils;
+import com.ionic.sdk.ks.test.IonicTestEnvironment;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Test the journal storage format of {@link KeyVaultPassword}, as implemented by {@link KeyVaultJournalFile}.
+ */
+public class KeyVaultJournalFileTest {
+
+    /**
+     * The file backing the key vaults under test.
+     */
+    private File file;
+
+    /**
+     * Choose an unused file in the test output folder.
+     *
+     * @throws IonicException on test environment issues
+     */
+    @Before
+    public final void setUp() throws IonicException {
+        final long creationTimestamp = (System.currentTimeMillis() / DateTime.ONE_SECOND_MILLIS);
+        final File folder = IonicTestEnvironment.getInstance().getFolderTestOutputsMkdir();
+        file = new File(folder, String.format("%s.%d.%s.vault",
+                getClass().getSimpleName(), creationTimestamp, UUID.randomUUID().toString()));
+    }
+
+    /**
+     * Remove the file.
+     */
+    @After
+    public final void tearDown() {
+        Assert.assertTrue(!file.exists() || file.delete());
+    }
+
+    /**
+     * Changes synced by one vault instance are appended to the file, and picked up by another instance.
+     *
+     * @throws IonicException on key vault failure
+     * @throws IOException    on failure reading the file
+     */
+    @Test
+    public final void testKeyVaultJournal_TwoVaults_AppendAndRead() throws IonicException, IOException {
+        final KeyVaultPassword vault = new KeyVaultPassword(file.getPath(), true);
+        final KeyVaultPassword vaultCopy = new KeyVaultPassword(file.getPath(), true);
+        vault.setPassword(PASSWORD);
+        vaultCopy.setPassword(PASSWORD);
+        vault.setKey(createKey("ABcd0001"));
+        vault.sync();
+        vaultCopy.sync();
+        Assert.assertTrue(vaultCopy.hasKey("ABcd0001"));
+
+        // a sync writes only the changed key records, after the existing file content
+        final byte[] fileBytes = Stream.read(file);
+        vault.setKey(createKey("ABcd0002"));
+        vault.sync();
+        final byte[] fileBytesAppended = Stream.read(file);
+        Assert.assertTrue(fileBytesAppended.length > fileBytes.length);
+        Assert.assertArrayEquals(fileBytes, Arrays.copyOf(fileBytesAppended, fileBytes.length));
+
+        vaultCopy.sync();
+        Assert.assertEquals(2, vaultCopy.getKeyCount());
+        Assert.assertArrayEquals(vault.getKey("ABcd0002").getKeyBytes(), vaultCopy.getKey("ABcd0002").getKeyBytes());
+
+        // removals are journaled in both directions
+        vaultCopy.removeKey("ABcd0001");
+        vaultCopy.sync();
+        vault.sync();
+        Assert.assertFalse(vault.hasKey("ABcd0001"));
+        Assert.assertTrue(vault.hasKey("ABcd0002"));
+        Assert.assertFalse(vault.hasChanges());
+
+        // a new instance reads the entire journal
+        final KeyVaultPassword vaultNew = new KeyVaultPassword(file.getPath(), true);
+        vaultNew.setPassword(PASSWORD);
+        vaultNew.sync();
+        Assert.assertEquals(vault.getAllKeyIds(), vaultNew.getAllKeyIds());
+    }
+
+    /**
+     * The journal is compacted once it holds many superseded records.
+     *
+     * @throws IonicException on key vault failure
+     */
+    @Test
+    public final void testKeyVaultJournal_ManyUpdates_Compacted() throws IonicException {
+        final KeyVaultPassword vault = new KeyVaultPassword(file.getPath(), true);
+        vault.setPassword(PASSWORD);
+        vault.setKey(createKey("ABcd0001"));
+        vault.sync();
+        final long lengthInitial = file.length();
+        final long issued = KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds();
+        long lengthMax = 0L;
+        for (int i = 1; (i <= NUM_UPDATES); ++i) {
+            final KeyVaultKey key = createKey("ABcd0001");
+            key.setIssuedServerTimeUtcSeconds(issued + i);
+            vault.setKey(key);
+            vault.sync();
+            lengthMax = Math.max(lengthMax, file.length());
+        }
+        Assert.assertTrue(lengthMax > (lengthInitial * 2));
+        Assert.assertTrue(file.length() < lengthMax);
+
+        final KeyVaultPassword vaultCopy = new KeyVaultPassword(file.getPath(), true);
+        vaultCopy.setPassword(PASSWORD);
+        vaultCopy.sync();
+        Assert.assertEquals(issued + NUM_UPDATES, vaultCopy.getKey("ABcd0001").getIssuedServerTimeUtcSeconds());
+    }
+
+    /**
+     * An incomplete frame at the end of the file is ignored, and is removed by the next save.  A corrupt frame
+     * which is followed by other data is reported.
+     *
+     * @throws IonicException on key vault failure
+     * @throws IOException    on failure writing the file
+     */
+    @Test
+    public final void testKeyVaultJournal_TruncatedFrame_Ignored() throws IonicException, IOException {
+        final KeyVaultPassword vault = new KeyVaultPassword(file.getPath(), true);
+        vault.setPassword(PASSWORD);
+        vault.setKey(createKey("ABcd0001"));
+        vault.sync();
+        try (FileOutputStream fos = new FileOutputStream(file, true)) {
+            fos.write(new byte[] {0, 0, 1, 0, 1, 2, 3});
+        }
+
+        final KeyVaultPassword vaultCopy = new KeyVaultPassword(file.getPath(), true);
+        vaultCopy.setPassword(PASSWORD);
+        vaultCopy.sync();
+        Assert.assertTrue(vaultCopy.hasKey("ABcd0001"));
+        vaultCopy.setKey(createKey("ABcd0002"));
+        vaultCopy.sync();
+        vault.sync();
+        Assert.assertEquals(2, vault.getKeyCount());
+
+        // corrupt the checksum of the first of two frames
+        final long length = file.length();
+        vault.setKey(createKey("ABcd0003"));
+        vault.sync();
+        final byte[] fileBytes = Stream.read(file);
+        fileBytes[(int) length - 1] ^= 1;
+        Stream.write(file, fileBytes);
+        final KeyVaultPassword vaultCorrupt = new KeyVaultPassword(file.getPath(), true);
+        vaultCorrupt.setPassword(PASSWORD);
+        try {
+            vaultCorrupt.sync();
+            Assert.fail("expected checksum mismatch");
+        } catch (IonicException e) {
+            Assert.assertEquals(SdkError.ISKEYVAULT_PARSEFAILED, e.getReturnCode());
+        }
+    }
+
+    /**
+     * A file in the whole-file format is loaded, and is rewritten as a journal on the next save.
+     *
+     * @throws IonicException on key vault failure
+     */
+    @Test
+    public final void testKeyVaultJournal_WholeFileFormat_Migrated() throws IonicException {
+        final AesGcmCipher cipher = new AesGcmCipher(new CryptoRng().rand(new byte[AesCipher.KEY_BYTES]));
+        cipher.setAuthData(Transcoder.utf8().decode(VAULT_ID));
+        final Map<String, KeyVaultKeyRecord> mapKeyRecords = new TreeMap<String, KeyVaultKeyRecord>();
+        final KeyVaultKeyRecord record = new KeyVaultKeyRecord(createKey("ABcd0001"), KeyVaultKeyRecord.State.KR_ADDED);
+        mapKeyRecords.put(record.getKeyId(), record);
+        new KeyVaultEncryptedFile(VAULT_ID).saveAllKeyRecordsToFile(cipher, mapKeyRecords, file.getPath());
+
+        final KeyVaultJournalFile journalFile = new KeyVaultJournalFile(VAULT_ID, file.getPath());
+        Assert.assertEquals(mapKeyRecords.keySet(), journalFile.loadAllKeyRecordsFromFile(cipher, false).keySet());
+        journalFile.saveAllKeyRecordsToFile(cipher, mapKeyRecords);
+        try {
+            new KeyVaultEncryptedFile(VAULT_ID).loadAllKeyRecordsFromFile(file.getPath(), cipher);
+            Assert.fail("expected journal format");
+        } catch (IonicException e) {
+            Assert.assertEquals(SdkError.ISKEYVAULT_FILE_VERSION, e.getReturnCode());
+        }
+        final Map<String, KeyVaultKeyRecord> mapKeyRecordsJournal =
+                new KeyVaultJournalFile(VAULT_ID, file.getPath()).loadAllKeyRecordsFromFile(cipher, false);
+        Assert.assertArrayEquals(record.getKeyBytes(), mapKeyRecordsJournal.get("ABcd0001").getKeyBytes());
+    }
+
+    /**
+     * Journaling is opt-in; by default, {@link KeyVaultPassword} uses the whole-file format.  A journaling vault
+     * loads a file written in the whole-file format.
+     *
+     * @throws IonicException on key vault failure
+     * @throws IOException    on failure reading the file
+     */
+    @Test
+    public final void testKeyVaultJournal_DefaultVault_WholeFileFormat() throws IonicException, IOException {
+        final KeyVaultPassword vault = new KeyVaultPassword(file.getPath());
+        Assert.assertFalse(vault.isJournal());
+        vault.setPassword(PASSWORD);
+        vault.setKey(createKey("ABcd0001"));
+        vault.sync();
+        final String fileText = Transcoder.utf8().encode(Stream.read(file));
+        Assert.assertTrue(fileText.contains("\"fileVersion\":\"1.0\""));
+
+        final KeyVaultPassword vaultJournal = new KeyVaultPassword(file.getPath(), true);
+        Assert.assertTrue(vaultJournal.isJournal());
+        vaultJournal.setPassword(PASSWORD);
+        vaultJournal.sync();
+        Assert.assertArrayEquals(vault.getKey("ABcd0001").getKeyBytes(),
+                vaultJournal.getKey("ABcd0001").getKeyBytes());
+    }
+
+    /**
+     * @param keyId the id of the key
+     * @return a new key with random key bytes, valid for an hour
+     * @throws IonicException on random number generation failure
+     */
+    private static KeyVaultKey createKey(final String keyId) throws IonicException {
+        final long now = KeyVaultTimeUtil.getCurrentServerTimeUtcSeconds();
+        return new KeyVaultKey(keyId, KeyVaultTestUtils.generateRandomKeyBytes(), now, now + LIFETIME_SECS);
+    }
+
+    /**
+     * The password protecting the test vaults.
+     */
+    private static final String PASSWORD = "password";
+
+    /**
+     * The vault id of the test files.
+     */
+    private static final String VAULT_ID = "keyvault-test";
+
+    /**
+     * The lifetime of the test keys, in seconds.
+     */
+    private static final long LIFETIME_SECS = 3600L;
+
+    /**
+     * The number of times the key is updated in the compaction test.
+     */
+    private static final int NUM_UPDATES = 1100;
+}
@@ -0,0 +1,79 @@
+package com.ionic.sdk.ks.service;
+
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysRequest;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysResponse;
+import com.ionic.sdk.device.profile.DeviceProfile;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.key.KeyServicesMinimal;
+
+/**
+ * {@link KeyServices} implementation which counts the key requests made to a wrapped implementation, for use with
+ * test suite.  Requests are serialized, as the wrapped test implementations are not thread safe.
+ */
+public final class CountingKeyServices extends KeyServicesMinimal {
+
+    /**
+     * The wrapped {@link KeyServices} implementation.
+     */
+    private final KeyServices keyServices;
+
+    /**
+     * The number of create keys requests.
+     */
+    private int createKeysCount;
+
+    /**
+     * The number of get keys requests.
+     */
+    private int getKeysCount;
+
+    /**
+     * Constructor.
+     *
+     * @param keyServices the wrapped {@link KeyServices} implementation
+     */
+    public CountingKeyServices(final KeyServices keyServices) {
+        this.keyServices = keyServices;
+    }
+
+    /**
+     * @return the number of create keys requests made to the wrapped implementation
+     */
+    public synchronized int getCreateKeysCount() {
+        return createKeysCount;
+    }
+
+    /**
+     * @return the number of get keys requests made to the wrapped implementation
+     */
+    public synchronized int getGetKeysCount() {
+        return getKeysCount;
+    }
+
+    @Override
+    public DeviceProfile getActiveProfile() {
+        return keyServices.getActiveProfile();
+    }
+
+    @Override
+    public synchronized CreateKeysResponse createKeys(final CreateKeysRequest request) throws IonicException {
+        ++createKeysCount;
+        return keyServices.createKeys(request);
+    }
+
+    @Override
+    public synchronized GetKeysResponse getKeys(final GetKeysRequest request) throws IonicException {
+        ++getKeysCount;
+        return keyServices.getKeys(request);
+    }
+
+    @Override
+    public synchronized UpdateKeysResponse updateKeys(final UpdateKeysRequest request) throws IonicException {
+        return keyServices.updateKeys(request);
+    }
+}
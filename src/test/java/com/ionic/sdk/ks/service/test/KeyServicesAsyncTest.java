@@ -0,0 +1,78 @@
+package com.ionic.sdk.ks.service.test;
+
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysRequest;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysResponse;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.error.SdkError;
+import com.ionic.sdk.key.AsyncKeyServices;
+import com.ionic.sdk.key.KeyServicesAsync;
+import com.ionic.sdk.ks.service.TestKeyServices;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test cases for {@link KeyServicesAsync} implementation.
+ */
+public class KeyServicesAsyncTest {
+
+    /**
+     * Responses of the wrapped implementation should be available through the returned futures.
+     *
+     * @throws Exception on key request failures, or interruption of the test thread
+     */
+    @Test
+    public void testKeyServicesAsync_Future() throws Exception {
+        final KeyServicesAsync keyServicesAsync = new KeyServicesAsync(new TestKeyServices("Java"));
+        final Future<CreateKeysResponse> futureCreate = keyServicesAsync.createKeysAsync(
+                new CreateKeysRequest(new CreateKeysRequest.Key("ref", 2)));
+        Assert.assertEquals(2, futureCreate.get().getKeys().size());
+        final String keyId = futureCreate.get().getFirstKey().getId();
+        final Future<GetKeysResponse> futureGet = keyServicesAsync.getKeysAsync(new GetKeysRequest(keyId));
+        Assert.assertEquals(keyId, futureGet.get().getFirstKey().getId());
+        keyServicesAsync.shutdown();
+    }
+
+    /**
+     * Failures of the wrapped implementation should be reported through the future and the callback.
+     *
+     * @throws InterruptedException on interruption of the test thread
+     */
+    @Test
+    public void testKeyServicesAsync_Failure() throws InterruptedException {
+        final KeyServicesAsync keyServicesAsync = new KeyServicesAsync(new TestKeyServices("Java"));
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<IonicException> failure = new AtomicReference<IonicException>();
+        final Future<UpdateKeysResponse> future = keyServicesAsync.updateKeysAsync(new UpdateKeysRequest(),
+                new AsyncKeyServices.Callback<UpdateKeysResponse>() {
+                    @Override
+                    public void onSuccess(final UpdateKeysResponse response) {
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onFailure(final IonicException e) {
+                        failure.set(e);
+                        latch.countDown();
+                    }
+                });
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(SdkError.ISAGENT_NOTIMPLEMENTED, failure.get().getReturnCode());
+        try {
+            future.get();
+            Assert.fail("expected failure");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IonicException);
+        }
+        keyServicesAsync.shutdown();
+    }
+}
@@ -0,0 +1,150 @@
+package com.ionic.sdk.ks.service.test;
+
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherAbstract;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherAuto;
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysRequest;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysResponse;
+import com.ionic.sdk.device.profile.DeviceProfile;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.key.KeyServicesMinimal;
+import com.ionic.sdk.key.cache.KeyServicesCache;
+import com.ionic.sdk.ks.service.TestKeyServices;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link KeyServicesCache} implementation.
+ */
+public class KeyServicesCacheTest {
+
+    /**
+     * Keys created through the cache should be available to subsequent decrypt operations without a round trip.
+     *
+     * @throws IonicException on cryptography failures
+     */
+    @Test
+    public void testKeyServicesCache_ChunkCipherDecrypt() throws IonicException {
+        final KeyServicesCache keyServicesCache = new KeyServicesCache(new TestKeyServices("Java"));
+        final ChunkCipherAbstract chunkCipher = new ChunkCipherAuto(keyServicesCache);
+        final String plainText = "Hello, Machina!";
+        final String cipherText = chunkCipher.encrypt(plainText);
+        Assert.assertEquals(plainText, chunkCipher.decrypt(cipherText));
+        Assert.assertEquals(plainText, chunkCipher.decrypt(cipherText));
+        Assert.assertEquals(2, keyServicesCache.getHitCount());
+        Assert.assertEquals(0, keyServicesCache.getMissCount());
+    }
+
+    /**
+     * A request containing both cached and uncached keys should fetch only the uncached keys, and should return
+     * the keys in request order.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesCache_GetKeys_PartialHit() throws IonicException {
+        final KeyServicesCache keyServicesCache = new KeyServicesCache(new TestKeyServices("Java"));
+        keyServicesCache.getKey("Java0000002");
+        final GetKeysResponse getKeysResponse = keyServicesCache.getKeys(
+                new GetKeysRequest("Java0000001", "Java0000002", "Java0000003", "Java0000001"));
+        Assert.assertEquals(3, getKeysResponse.getKeys().size());
+        Assert.assertEquals("Java0000001", getKeysResponse.getKeys().get(0).getId());
+        Assert.assertEquals("Java0000002", getKeysResponse.getKeys().get(1).getId());
+        Assert.assertEquals("Java0000003", getKeysResponse.getKeys().get(2).getId());
+        Assert.assertEquals(1, keyServicesCache.getHitCount());
+        Assert.assertEquals(1 + 2, keyServicesCache.getMissCount());
+        Assert.assertEquals(3, keyServicesCache.size());
+    }
+
+    /**
+     * The least recently used key should be evicted when the size bound is reached.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesCache_Eviction() throws IonicException {
+        final KeyServicesCache keyServicesCache = new KeyServicesCache(
+                new TestKeyServices("Java"), KeyServicesCache.DEFAULT_TTL_MILLIS, 2);
+        keyServicesCache.getKey("Java0000001");
+        keyServicesCache.getKey("Java0000002");
+        keyServicesCache.getKey("Java0000001");
+        keyServicesCache.getKey("Java0000003");
+        Assert.assertEquals(2, keyServicesCache.size());
+        Assert.assertEquals(1, keyServicesCache.getEvictionCount());
+        keyServicesCache.getKey("Java0000001");
+        Assert.assertEquals(2, keyServicesCache.getHitCount());
+        keyServicesCache.getKey("Java0000002");
+        Assert.assertEquals(2, keyServicesCache.getHitCount());
+    }
+
+    /**
+     * Cached keys should not be served after the time-to-live has elapsed.
+     *
+     * @throws IonicException       on key request failures
+     * @throws InterruptedException on interruption of the test thread
+     */
+    @Test
+    public void testKeyServicesCache_Expiration() throws IonicException, InterruptedException {
+        final long ttlMillis = 50L;
+        final KeyServicesCache keyServicesCache = new KeyServicesCache(
+                new TestKeyServices("Java"), ttlMillis, KeyServicesCache.DEFAULT_MAX_SIZE);
+        final CreateKeysResponse createKeysResponse = keyServicesCache.createKey();
+        final String keyId = createKeysResponse.getFirstKey().getId();
+        keyServicesCache.getKey(keyId);
+        Assert.assertEquals(1, keyServicesCache.getHitCount());
+        Thread.sleep(ttlMillis * 2);
+        keyServicesCache.getKey(keyId);
+        Assert.assertEquals(1, keyServicesCache.getHitCount());
+        Assert.assertEquals(1, keyServicesCache.getExpiredCount());
+        Assert.assertEquals(1, keyServicesCache.getMissCount());
+    }
+
+    /**
+     * Keys carrying server attribute signatures should bypass the cache, unless caching of these keys is enabled.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesCache_SignedAttributes_BypassByDefault() throws IonicException {
+        final TestKeyServices testKeyServices = new TestKeyServices("Java");
+        final KeyServices keyServicesSigned = new KeyServicesMinimal() {
+            @Override
+            public DeviceProfile getActiveProfile() {
+                return testKeyServices.getActiveProfile();
+            }
+
+            @Override
+            public CreateKeysResponse createKeys(final CreateKeysRequest request) {
+                return testKeyServices.createKeys(request);
+            }
+
+            @Override
+            public GetKeysResponse getKeys(final GetKeysRequest request) {
+                final GetKeysResponse response = testKeyServices.getKeys(request);
+                for (GetKeysResponse.Key key : response.getKeys()) {
+                    key.setAttributesSigBase64FromServer("c2lnbmF0dXJl");
+                }
+                return response;
+            }
+
+            @Override
+            public UpdateKeysResponse updateKeys(final UpdateKeysRequest request) throws IonicException {
+                return testKeyServices.updateKeys(request);
+            }
+        };
+        final KeyServicesCache keyServicesCache = new KeyServicesCache(keyServicesSigned);
+        Assert.assertFalse(keyServicesCache.isCacheSignedAttributes());
+        keyServicesCache.getKey("Java0000001");
+        keyServicesCache.getKey("Java0000001");
+        Assert.assertEquals(0, keyServicesCache.getHitCount());
+        Assert.assertEquals(2, keyServicesCache.getBypassCount());
+        keyServicesCache.setCacheSignedAttributes(true);
+        keyServicesCache.getKey("Java0000001");
+        keyServicesCache.getKey("Java0000001");
+        Assert.assertEquals(1, keyServicesCache.getHitCount());
+    }
+}
@@ -0,0 +1,158 @@
+package com.ionic.sdk.ks.service.test;
+
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.key.cache.KeyServicesCoalescing;
+import com.ionic.sdk.ks.service.CountingKeyServices;
+import com.ionic.sdk.ks.service.TestKeyServices;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test cases for {@link KeyServicesCoalescing} implementation.
+ */
+public class KeyServicesCoalescingTest {
+
+    /**
+     * Concurrent requests for the same few keys should be serviced by a smaller number of wrapped requests.
+     *
+     * @throws Exception on key request failures, or interruption of the test thread
+     */
+    @Test
+    public void testKeyServicesCoalescing_GetKey_Concurrent() throws Exception {
+        final CountingKeyServices keyServices = new CountingKeyServices(new TestKeyServices("Java"));
+        final List<String> keyIds = new ArrayList<String>();
+        for (CreateKeysResponse.Key key : keyServices.createKeys(new CreateKeysRequest(
+                new CreateKeysRequest.Key("ref", 3))).getKeys()) {
+            keyIds.add(key.getId());
+        }
+        final KeyServicesCoalescing keyServicesCoalescing = new KeyServicesCoalescing(keyServices, 500L, 1000);
+        final List<GetKeysResponse> responses = invokeAll(THREADS, new Task<GetKeysResponse>() {
+            @Override
+            public GetKeysResponse call(final int i) throws IonicException {
+                return keyServicesCoalescing.getKey(keyIds.get(i % keyIds.size()));
+            }
+        });
+        for (int i = 0; (i < THREADS); ++i) {
+            Assert.assertEquals(keyIds.get(i % keyIds.size()), responses.get(i).getFirstKey().getId());
+        }
+        Assert.assertEquals(THREADS, keyServicesCoalescing.getRequestCount());
+        Assert.assertEquals(keyServicesCoalescing.getBatchCount(), keyServices.getGetKeysCount());
+        Assert.assertTrue(keyServices.getGetKeysCount() < THREADS);
+    }
+
+    /**
+     * Keys and errors should be returned to each caller in request order, for the keys in its own request.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesCoalescing_GetKeys_RequestOrder() throws IonicException {
+        final KeyServices keyServices = new TestKeyServices("Java");
+        final String keyId1 = keyServices.createKey().getFirstKey().getId();
+        final String keyId2 = keyServices.createKey().getFirstKey().getId();
+        final KeyServicesCoalescing keyServicesCoalescing = new KeyServicesCoalescing(keyServices);
+        final GetKeysResponse response = keyServicesCoalescing.getKeys(
+                new GetKeysRequest(keyId2, keyId1, "Javanotakey", keyId2));
+        Assert.assertEquals(2, response.getKeys().size());
+        Assert.assertEquals(keyId2, response.getKeys().get(0).getId());
+        Assert.assertEquals(keyId1, response.getKeys().get(1).getId());
+        Assert.assertNull(response.getKey("Javanotakey"));
+        Assert.assertEquals(1, keyServicesCoalescing.getBatchCount());
+    }
+
+    /**
+     * Concurrent requests to create keys with the same attributes should be serviced by a smaller number of wrapped
+     * requests, and each caller should receive distinct keys.
+     *
+     * @throws Exception on key request failures, or interruption of the test thread
+     */
+    @Test
+    public void testKeyServicesCoalescing_CreateKeys_Concurrent() throws Exception {
+        final CountingKeyServices keyServices = new CountingKeyServices(new TestKeyServices("Java"));
+        final KeyServicesCoalescing keyServicesCoalescing = new KeyServicesCoalescing(keyServices, 500L, 1000);
+        final List<CreateKeysResponse> responses = invokeAll(THREADS, new Task<CreateKeysResponse>() {
+            @Override
+            public CreateKeysResponse call(final int i) throws IonicException {
+                return keyServicesCoalescing.createKeys(new CreateKeysRequest(new CreateKeysRequest.Key("ref" + i, 2)));
+            }
+        });
+        final Set<String> keyIds = new TreeSet<String>();
+        for (int i = 0; (i < THREADS); ++i) {
+            final List<CreateKeysResponse.Key> keys = responses.get(i).getKeys();
+            Assert.assertEquals(2, keys.size());
+            for (CreateKeysResponse.Key key : keys) {
+                Assert.assertEquals("ref" + i, key.getRefId());
+                keyIds.add(key.getId());
+            }
+        }
+        Assert.assertEquals(THREADS * 2, keyIds.size());
+        Assert.assertTrue(keyServices.getCreateKeysCount() < THREADS);
+    }
+
+    /**
+     * Run a task concurrently on the specified number of threads, released at the same time.
+     *
+     * @param threads the number of threads on which to run the task
+     * @param task    the task to run
+     * @param <T>     the type of the task result
+     * @return the task results, in thread order
+     * @throws Exception on failure of the task, or interruption of the test thread
+     */
+    private static <T> List<T> invokeAll(final int threads, final Task<T> task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<Future<T>> futures = new ArrayList<Future<T>>();
+        for (int i = 0; (i < threads); ++i) {
+            final int ordinal = i;
+            futures.add(executor.submit(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    latch.await();
+                    return task.call(ordinal);
+                }
+            }));
+        }
+        latch.countDown();
+        final List<T> results = new ArrayList<T>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    /**
+     * A unit of work to be run concurrently.
+     *
+     * @param <T> the type of the task result
+     */
+    private interface Task<T> {
+
+        /**
+         * @param i the ordinal of the thread running the task
+         * @return the task result
+         * @throws IonicException on key request failures
+         */
+        T call(int i) throws IonicException;
+    }
+
+    /**
+     * The number of concurrent callers in the multithreaded test cases.
+     */
+    private static final int THREADS = 20;
+}
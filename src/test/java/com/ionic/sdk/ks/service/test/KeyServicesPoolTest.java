@@ -0,0 +1,161 @@
+package com.ionic.sdk.ks.service.test;
+
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherAbstract;
+import com.ionic.sdk.agent.cipher.chunk.ChunkCipherV2;
+import com.ionic.sdk.agent.key.KeyAttribute;
+import com.ionic.sdk.agent.key.KeyAttributesMap;
+import com.ionic.sdk.agent.request.createkey.CreateKeysRequest;
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysRequest;
+import com.ionic.sdk.agent.request.updatekey.UpdateKeysResponse;
+import com.ionic.sdk.device.profile.DeviceProfile;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.key.KeyServices;
+import com.ionic.sdk.key.KeyServicesMinimal;
+import com.ionic.sdk.key.cache.KeyServicesPool;
+import com.ionic.sdk.ks.service.CountingKeyServices;
+import com.ionic.sdk.ks.service.TestKeyServices;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test cases for {@link KeyServicesPool} implementation.
+ */
+public class KeyServicesPoolTest {
+
+    /**
+     * Keys should be handed out from the pool until it is exhausted, and each key should be handed out once.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesPool_CreateKey_ServedFromPool() throws IonicException {
+        final int highWatermark = 8;
+        final KeyServicesPool keyServicesPool = new KeyServicesPool(new TestKeyServices("Java"),
+                0, highWatermark, KeyServicesPool.DEFAULT_MAX_AGE_MILLIS, null);
+        final Set<String> keyIds = new TreeSet<String>();
+        for (int i = 0; (i < (highWatermark + 2)); ++i) {
+            keyIds.add(keyServicesPool.createKey().getFirstKey().getId());
+        }
+        Assert.assertEquals(highWatermark + 2, keyIds.size());
+        Assert.assertEquals(2, keyServicesPool.getFetchedCount());
+        Assert.assertEquals(highWatermark, keyServicesPool.getServedCount());
+        keyServicesPool.shutdown();
+    }
+
+    /**
+     * Keys with distinct attributes should be drawn from distinct pools, and should retain the caller's
+     * reference id.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesPool_CreateKeys_PoolPerAttributes() throws IonicException {
+        final KeyServicesPool keyServicesPool = new KeyServicesPool(new TestKeyServices("Java"),
+                0, 4, KeyServicesPool.DEFAULT_MAX_AGE_MILLIS, null);
+        final KeyAttributesMap attributes = new KeyAttributesMap(new KeyAttribute("classification", "restricted"));
+        keyServicesPool.createKey();
+        keyServicesPool.createKey(attributes);
+        Assert.assertEquals(2, keyServicesPool.getFetchedCount());
+        final CreateKeysResponse createKeysResponse = keyServicesPool.createKeys(new CreateKeysRequest(
+                new CreateKeysRequest.Key("a", 2), new CreateKeysRequest.Key("b", 1, attributes)));
+        Assert.assertEquals(2, keyServicesPool.getFetchedCount());
+        Assert.assertEquals(2, createKeysResponse.findKeysByRef("a").size());
+        Assert.assertEquals(1, createKeysResponse.findKeysByRef("b").size());
+        keyServicesPool.shutdown();
+    }
+
+    /**
+     * A pool falling below its low watermark should be refilled in the background.
+     *
+     * @throws IonicException       on key request failures
+     * @throws InterruptedException on interruption of the test thread
+     */
+    @Test
+    public void testKeyServicesPool_Refill() throws IonicException, InterruptedException {
+        final int highWatermark = 8;
+        final KeyServicesPool keyServicesPool = new KeyServicesPool(new TestKeyServices("Java"),
+                4, highWatermark, KeyServicesPool.DEFAULT_MAX_AGE_MILLIS, null);
+        final ChunkCipherAbstract chunkCipher = new ChunkCipherV2(keyServicesPool);
+        final String plainText = "Hello, Machina!";
+        for (int i = 0; (i < 6); ++i) {
+            Assert.assertEquals(plainText, chunkCipher.decrypt(chunkCipher.encrypt(plainText)));
+        }
+        final long timeout = System.currentTimeMillis() + 5000L;
+        while ((keyServicesPool.getPooledCount() < highWatermark) && (System.currentTimeMillis() < timeout)) {
+            Thread.sleep(10L);
+        }
+        Assert.assertEquals(highWatermark, keyServicesPool.getPooledCount());
+        Assert.assertEquals(1, keyServicesPool.getFetchedCount());
+        keyServicesPool.shutdown();
+    }
+
+    /**
+     * A request for more keys than may be created in a single request should be filled by several requests.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesPool_CreateKeys_ManyRequests() throws IonicException {
+        final int highWatermark = 8;
+        final int quantity = (KeyServicesPool.MAX_KEYS_PER_REQUEST * 2) + 1;
+        final CountingKeyServices keyServices = new CountingKeyServices(new TestKeyServices("Java"));
+        final KeyServicesPool keyServicesPool = new KeyServicesPool(keyServices,
+                0, highWatermark, KeyServicesPool.DEFAULT_MAX_AGE_MILLIS, null);
+        final CreateKeysResponse createKeysResponse = keyServicesPool.createKeys(
+                new CreateKeysRequest(new CreateKeysRequest.Key("a", quantity)));
+        Assert.assertEquals(quantity, createKeysResponse.findKeysByRef("a").size());
+        Assert.assertEquals(3, keyServices.getCreateKeysCount());
+        Assert.assertEquals(quantity, keyServicesPool.getFetchedCount());
+        Assert.assertEquals(highWatermark, keyServicesPool.getPooledCount());
+        keyServicesPool.shutdown();
+    }
+
+    /**
+     * Keys pooled for one device profile should not be handed out after the active device profile changes.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesPool_CreateKey_PoolPerDevice() throws IonicException {
+        final TestKeyServices keyServicesA = new TestKeyServices("Java");
+        final TestKeyServices keyServicesB = new TestKeyServices("Test");
+        final AtomicReference<KeyServices> keyServicesActive = new AtomicReference<KeyServices>(keyServicesA);
+        final KeyServices keyServices = new KeyServicesMinimal() {
+            @Override
+            public DeviceProfile getActiveProfile() {
+                return keyServicesActive.get().getActiveProfile();
+            }
+
+            @Override
+            public CreateKeysResponse createKeys(final CreateKeysRequest request) throws IonicException {
+                return keyServicesActive.get().createKeys(request);
+            }
+
+            @Override
+            public GetKeysResponse getKeys(final GetKeysRequest request) throws IonicException {
+                return keyServicesActive.get().getKeys(request);
+            }
+
+            @Override
+            public UpdateKeysResponse updateKeys(final UpdateKeysRequest request) throws IonicException {
+                return keyServicesActive.get().updateKeys(request);
+            }
+        };
+        final KeyServicesPool keyServicesPool = new KeyServicesPool(keyServices,
+                0, 4, KeyServicesPool.DEFAULT_MAX_AGE_MILLIS, null);
+        Assert.assertTrue(keyServicesPool.createKey().getFirstKey().getId().startsWith("Java"));
+        Assert.assertTrue(keyServicesPool.createKey().getFirstKey().getId().startsWith("Java"));
+        Assert.assertEquals(1, keyServicesPool.getFetchedCount());
+        keyServicesActive.set(keyServicesB);
+        Assert.assertTrue(keyServicesPool.createKey().getFirstKey().getId().startsWith("Test"));
+        Assert.assertEquals(2, keyServicesPool.getFetchedCount());
+        keyServicesPool.shutdown();
+    }
+}
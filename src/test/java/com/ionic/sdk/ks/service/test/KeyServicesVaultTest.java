@@ -0,0 +1,176 @@
+package com.ionic.sdk.ks.service.test;
+
+import com.ionic.sdk.agent.request.createkey.CreateKeysResponse;
+import com.ionic.sdk.agent.request.getkey.GetKeysRequest;
+import com.ionic.sdk.agent.request.getkey.GetKeysResponse;
+import com.ionic.sdk.core.date.DateTime;
+import com.ionic.sdk.error.IonicException;
+import com.ionic.sdk.key.cache.KeyServicesCache;
+import com.ionic.sdk.key.cache.KeyServicesVault;
+import com.ionic.sdk.keyvault.impl.KeyVaultPassword;
+import com.ionic.sdk.ks.service.CountingKeyServices;
+import com.ionic.sdk.ks.service.TestKeyServices;
+import com.ionic.sdk.ks.test.IonicTestEnvironment;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.UUID;
+
+/**
+ * Test cases for {@link KeyServicesVault} implementation.
+ */
+public class KeyServicesVaultTest {
+
+    /**
+     * The file backing the key vaults under test.
+     */
+    private File file;
+
+    /**
+     * Choose an unused file in the test output folder.
+     *
+     * @throws IonicException on test environment issues
+     */
+    @Before
+    public final void setUp() throws IonicException {
+        final long creationTimestamp = (System.currentTimeMillis() / DateTime.ONE_SECOND_MILLIS);
+        final File folder = IonicTestEnvironment.getInstance().getFolderTestOutputsMkdir();
+        file = new File(folder, String.format("%s.%d.%s.vault",
+                getClass().getSimpleName(), creationTimestamp, UUID.randomUUID().toString()));
+    }
+
+    /**
+     * Remove the file.
+     */
+    @After
+    public final void tearDown() {
+        Assert.assertTrue(!file.exists() || file.delete());
+    }
+
+    /**
+     * Keys fetched in one (simulated) process lifetime should be served from the key vault in the next.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesVault_Restart_ServedFromVault() throws IonicException {
+        final TestKeyServices testKeyServices = new TestKeyServices("Java");
+        final CountingKeyServices keyServices = new CountingKeyServices(testKeyServices);
+        final KeyServicesVault keyServicesVault = new KeyServicesVault(keyServices, createKeyVault());
+        Assert.assertTrue(keyServicesVault.load(KeyServicesVault.DEFAULT_LOAD_MILLIS));
+        final CreateKeysResponse createKeysResponse = keyServicesVault.createKey();
+        final String keyIdCreated = createKeysResponse.getFirstKey().getId();
+        Assert.assertEquals("Java0000001", keyIdCreated);
+        keyServicesVault.getKey("Java0000002");
+        Assert.assertEquals(1, keyServices.getGetKeysCount());
+        Assert.assertEquals(0, keyServicesVault.getHitCount());
+        Assert.assertEquals(1, keyServicesVault.getMissCount());
+
+        // restart (same device profile), with an in-memory cache above the key vault
+        final CountingKeyServices keyServicesRestart = new CountingKeyServices(testKeyServices);
+        final KeyServicesVault keyServicesVaultRestart = new KeyServicesVault(keyServicesRestart, createKeyVault());
+        Assert.assertTrue(keyServicesVaultRestart.load(KeyServicesVault.DEFAULT_LOAD_MILLIS));
+        final KeyServicesCache keyServicesCache = new KeyServicesCache(keyServicesVaultRestart);
+        final GetKeysResponse getKeysResponse = keyServicesCache.getKeys(
+                new GetKeysRequest(keyIdCreated, "Java0000002", "Java0000003"));
+        Assert.assertEquals(3, getKeysResponse.getKeys().size());
+        Assert.assertEquals(keyIdCreated, getKeysResponse.getKeys().get(0).getId());
+        Assert.assertArrayEquals(createKeysResponse.getFirstKey().getKey(), getKeysResponse.getKeys().get(0).getKey());
+        Assert.assertEquals(2, keyServicesVaultRestart.getHitCount());
+        Assert.assertEquals(1, keyServicesVaultRestart.getMissCount());
+        Assert.assertEquals(1, keyServicesRestart.getGetKeysCount());
+
+        // subsequent requests are served by the in-memory cache
+        keyServicesCache.getKey("Java0000003");
+        Assert.assertEquals(2, keyServicesVaultRestart.getHitCount());
+        Assert.assertEquals(1, keyServicesCache.getHitCount());
+    }
+
+    /**
+     * Keys retained in the key vault for one device profile should not be served to requests made in the context
+     * of another device profile.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesVault_OtherDevice_NotServed() throws IonicException {
+        final KeyServicesVault keyServicesVault = new KeyServicesVault(
+                new TestKeyServices("Java"), createKeyVault());
+        Assert.assertTrue(keyServicesVault.load(KeyServicesVault.DEFAULT_LOAD_MILLIS));
+        keyServicesVault.getKey("Java0000001");
+        Assert.assertEquals(1, keyServicesVault.getKeyVault().getKeyCount());
+
+        // the key vault file is shared by a second device profile
+        final CountingKeyServices keyServicesOther = new CountingKeyServices(new TestKeyServices("Java"));
+        final KeyServicesVault keyServicesVaultOther = new KeyServicesVault(keyServicesOther, createKeyVault());
+        Assert.assertTrue(keyServicesVaultOther.load(KeyServicesVault.DEFAULT_LOAD_MILLIS));
+        Assert.assertEquals(1, keyServicesVaultOther.getKeyVault().getKeyCount());
+        keyServicesVaultOther.getKey("Java0000001");
+        Assert.assertEquals(0, keyServicesVaultOther.getHitCount());
+        Assert.assertEquals(1, keyServicesVaultOther.getMissCount());
+        Assert.assertEquals(1, keyServicesOther.getGetKeysCount());
+        Assert.assertEquals(2, keyServicesVaultOther.getKeyVault().getKeyCount());
+    }
+
+    /**
+     * With a sync interval, keys received within the interval are written by the next sync after it, or by an
+     * explicit flush.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesVault_SyncInterval_Batched() throws IonicException {
+        final TestKeyServices testKeyServices = new TestKeyServices("Java");
+        final KeyServicesVault keyServicesVault = new KeyServicesVault(testKeyServices, createKeyVault());
+        keyServicesVault.setSyncIntervalMillis(SYNC_INTERVAL_MILLIS);
+        Assert.assertTrue(keyServicesVault.load(KeyServicesVault.DEFAULT_LOAD_MILLIS));
+        keyServicesVault.getKey("Java0000001");
+        keyServicesVault.getKey("Java0000002");
+        Assert.assertTrue(keyServicesVault.getKeyVault().hasChanges());
+
+        // only the first key has been written
+        final KeyVaultPassword keyVaultRead = createKeyVault();
+        keyVaultRead.sync();
+        Assert.assertEquals(1, keyVaultRead.getKeyCount());
+
+        keyServicesVault.flush();
+        Assert.assertFalse(keyServicesVault.getKeyVault().hasChanges());
+        keyVaultRead.sync();
+        Assert.assertEquals(2, keyVaultRead.getKeyCount());
+    }
+
+    /**
+     * Keys should not be retained when the time-to-live is less than the key vault time granularity.
+     *
+     * @throws IonicException on key request failures
+     */
+    @Test
+    public void testKeyServicesVault_NoTtl_Bypass() throws IonicException {
+        final CountingKeyServices keyServices = new CountingKeyServices(new TestKeyServices("Java"));
+        final KeyServicesVault keyServicesVault = new KeyServicesVault(keyServices, createKeyVault(), 0L);
+        Assert.assertTrue(keyServicesVault.load(KeyServicesVault.DEFAULT_LOAD_MILLIS));
+        keyServicesVault.getKey("Java0000001");
+        keyServicesVault.getKey("Java0000001");
+        Assert.assertEquals(2, keyServices.getGetKeysCount());
+        Assert.assertEquals(2, keyServicesVault.getBypassCount());
+        Assert.assertEquals(0, keyServicesVault.getKeyVault().getKeyCount());
+    }
+
+    /**
+     * @return a key vault backed by the test file
+     * @throws IonicException on cryptography initialization failures
+     */
+    private KeyVaultPassword createKeyVault() throws IonicException {
+        final KeyVaultPassword keyVault = new KeyVaultPassword(file.getPath());
+        keyVault.setPassword("password");
+        return keyVault;
+    }
+
+    /**
+     * A sync interval longer than the duration of the test.
+     */
+    private static final long SYNC_INTERVAL_MILLIS = 60000L;
+}